@@ -1,5 +1,7 @@
 package io.nuls.base.protocol;
 
+import io.nuls.base.RPCUtil;
+
 public interface MessageProcessor {
 
     /**
@@ -17,4 +19,14 @@ public interface MessageProcessor {
      */
     void process(int chainId, String nodeId, String message);
 
+    /**
+     * 消息处理方法,消息体为原始字节,批量转发的消息使用此方法,需要避免十六进制转换的处理器可以覆盖
+     *
+     * @param chainId
+     * @param message
+     */
+    default void process(int chainId, String nodeId, byte[] message) {
+        process(chainId, nodeId, RPCUtil.encode(message));
+    }
+
 }
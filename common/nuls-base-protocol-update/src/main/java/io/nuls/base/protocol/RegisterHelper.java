@@ -2,6 +2,7 @@ package io.nuls.base.protocol;
 
 import io.nuls.core.log.Log;
 import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.model.CmdPriority;
 import io.nuls.core.rpc.model.ModuleE;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
@@ -95,6 +96,38 @@ public class RegisterHelper {
         return registerMsg(protocol, ConnectManager.LOCAL.getAbbreviation());
     }
 
+    /**
+     * 向网络模块注册消息并声明发送优先级,未声明的消息为DEFAULT
+     * Register messages with the network module together with their send priority, undeclared messages are DEFAULT
+     *
+     * @param protocol   协议 / Protocol
+     * @param priorities 消息指令的优先级 / Priority of message cmds
+     * @return
+     */
+    public static boolean registerMsg(Protocol protocol, Map<String, CmdPriority> priorities) {
+        try {
+            Map<String, Object> map = new HashMap<>(2);
+            List<Map<String, Object>> cmds = new ArrayList<>();
+            map.put("role", ConnectManager.LOCAL.getAbbreviation());
+            protocol.getAllowMsg().forEach(e -> {
+                for (String cmd : e.getProtocolCmd().split(",")) {
+                    Map<String, Object> cmdMap = new HashMap<>(2);
+                    cmdMap.put("cmd", cmd);
+                    cmdMap.put("priority", priorities.getOrDefault(cmd, CmdPriority.DEFAULT).name());
+                    cmds.add(cmdMap);
+                }
+            });
+            if (cmds.isEmpty()) {
+                return true;
+            }
+            map.put("protocolCmds", cmds);
+            return ResponseMessageProcessor.requestAndResponse(ModuleE.NW.abbr, "protocolRegisterWithPriority", map).isSuccess();
+        } catch (Exception e) {
+            Log.error("registerMsg fail", e);
+            return false;
+        }
+    }
+
     /**
      * 向协议升级模块注册多版本协议配置
      * Register transactions with the transaction module
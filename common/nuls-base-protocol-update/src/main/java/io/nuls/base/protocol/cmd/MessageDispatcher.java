@@ -12,6 +12,7 @@ import io.nuls.core.rpc.model.CmdAnnotation;
 import io.nuls.core.rpc.model.Parameter;
 import io.nuls.core.rpc.model.message.Response;
 
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
@@ -64,4 +65,43 @@ public final class MessageDispatcher extends BaseCmd {
         }
         return success();
     }
+
+    /**
+     * 批量处理网络模块转发的消息,消息体为原始字节,单条消息处理失败不影响其他消息
+     *
+     * @param params
+     * @return
+     */
+    @CmdAnnotation(cmd = BaseConstant.MSG_PROCESS_BATCH, version = 1.0, description = "")
+    @Parameter(parameterName = "messages", parameterType = "List")
+    public Response msgProcessBatch(Map params) {
+        ObjectUtils.canNotEmpty(params.get("messages"), CommonCodeConstanst.PARAMETER_ERROR.getMsg());
+        List<Map> messages = (List<Map>) params.get("messages");
+        for (Map message : messages) {
+            int chainId = Integer.parseInt(message.get(Constants.CHAIN_ID).toString());
+            String nodeId = (String) message.get("nodeId");
+            String cmd = (String) message.get("cmd");
+            byte[] body = toBytes(message.get("messageBody"));
+            for (MessageProcessor processor : processors) {
+                if (cmd.equals(processor.getCmd())) {
+                    try {
+                        processor.process(chainId, nodeId, body);
+                    } catch (Exception e) {
+                        Log.error("msgProcessBatch fail, cmd-" + cmd + ", node-" + nodeId, e);
+                    }
+                }
+            }
+        }
+        return success();
+    }
+
+    /**
+     * 二进制格式与同进程调用时消息体为byte[],只有JSON格式传输时为Base64字符串
+     */
+    private static byte[] toBytes(Object body) {
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        return Base64.getDecoder().decode((String) body);
+    }
 }
\ No newline at end of file
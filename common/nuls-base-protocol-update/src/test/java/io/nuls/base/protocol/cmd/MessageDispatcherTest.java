@@ -0,0 +1,58 @@
+package io.nuls.base.protocol.cmd;
+
+import io.nuls.base.RPCUtil;
+import io.nuls.base.protocol.MessageProcessor;
+import io.nuls.core.parse.JSONUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class MessageDispatcherTest {
+
+    private static Map<String, Object> message(String cmd, Object body) {
+        Map<String, Object> map = new HashMap<>(4);
+        map.put("chainId", 1);
+        map.put("nodeId", "127.0.0.1:8001");
+        map.put("cmd", cmd);
+        map.put("messageBody", body);
+        return map;
+    }
+
+    /**
+     * 批量消息按指令分发,消息体可以是byte[]或JSON传输后的Base64字符串,单条失败不影响其他消息
+     */
+    @Test
+    public void msgProcessBatch() throws Exception {
+        List<byte[]> received = new ArrayList<>();
+        MessageProcessor processor = new MessageProcessor() {
+            @Override
+            public String getCmd() {
+                return "newHash";
+            }
+
+            @Override
+            public void process(int chainId, String nodeId, String message) {
+                if (message.isEmpty()) {
+                    throw new IllegalStateException("empty message");
+                }
+                received.add(RPCUtil.decode(message));
+            }
+        };
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        dispatcher.setProcessors(List.of(processor));
+
+        byte[] first = {1, 2, 3};
+        byte[] second = {4, 5, 6, 7};
+        Map<String, Object> params = new HashMap<>(2);
+        params.put("messages", List.of(message("newHash", first), message("newHash", new byte[0]), message("other", first)));
+        //JSON格式传输时byte[]变为Base64字符串
+        Map jsonParams = JSONUtils.json2pojo(JSONUtils.obj2json(Map.of("messages", List.of(message("newHash", second)))), Map.class);
+
+        Assert.assertTrue(dispatcher.msgProcessBatch(params).isSuccess());
+        Assert.assertTrue(dispatcher.msgProcessBatch(jsonParams).isSuccess());
+        Assert.assertEquals(2, received.size());
+        Assert.assertArrayEquals(first, received.get(0));
+        Assert.assertArrayEquals(second, received.get(1));
+    }
+}
@@ -186,6 +186,19 @@ public class NulsByteBuffer {
         return readBytes((int) length);
     }
 
+    /**
+     * 跳过一个带长度的字节数组而不复制，返回其长度
+     * Skip a length prefixed byte array without copying it, returns its length
+     */
+    public int skipByLengthByte() throws NulsException {
+        long length = this.readVarInt();
+        if (length < 0 || length > payload.length - cursor) {
+            throw new NulsException(new ArrayIndexOutOfBoundsException());
+        }
+        cursor += (int) length;
+        return (int) length;
+    }
+
     public boolean readBoolean() throws NulsException {
         byte b = readByte();
         return 1 == b;
@@ -44,8 +44,59 @@ public class NulsOutputStreamBuffer {
 
     private final OutputStream out;
 
+    /**
+     * 直接写入的目标数组，与out二选一
+     * Target array written directly, used instead of out
+     */
+    private final byte[] buf;
+
+    private int cursor;
+
     public NulsOutputStreamBuffer(OutputStream out) {
         this.out = out;
+        this.buf = null;
+    }
+
+    /**
+     * 按已知长度预分配数组后直接按游标写入，不经过输出流，也不产生中间对象
+     * Write straight into an array pre-sized to the known length through a cursor, without an output stream or intermediate objects
+     *
+     * @param buf 目标数组
+     */
+    public NulsOutputStreamBuffer(byte[] buf) {
+        this.out = null;
+        this.buf = buf;
+    }
+
+    /**
+     * 直接写入模式下已写入的字节数
+     * Number of bytes written in direct mode
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    private void put(int b) throws IOException {
+        if (buf != null) {
+            buf[cursor++] = (byte) b;
+        } else {
+            out.write(b);
+        }
+    }
+
+    private void put(byte[] bytes, int offset, int length) throws IOException {
+        if (buf != null) {
+            System.arraycopy(bytes, offset, buf, cursor, length);
+            cursor += length;
+        } else {
+            out.write(bytes, offset, length);
+        }
+    }
+
+    private void putLE(long val, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            put((int) (0xFF & (val >> (i * 8))));
+        }
     }
 
     /**
@@ -55,45 +106,64 @@ public class NulsOutputStreamBuffer {
      * @throws IOException
      */
     public void writeByte(byte b) throws IOException {
-        out.write(b);
+        put(b);
     }
 
     public void write(byte[] bytes) throws IOException {
-        out.write(bytes);
+        put(bytes, 0, bytes.length);
     }
 
     public void write(int val) throws IOException {
-        out.write(val);
+        put(val);
     }
 
     public void writeVarInt(int val) throws IOException {
-        out.write(new VarInt(val).encode());
+        writeVarInt((long) val);
     }
 
+    /**
+     * 与VarInt.encode()编码一致，不创建VarInt对象
+     * Same encoding as VarInt.encode() without creating a VarInt
+     */
     public void writeVarInt(long val) throws IOException {
-        out.write(new VarInt(val).encode());
+        switch (VarInt.sizeOf(val)) {
+            case 1:
+                put((int) val);
+                break;
+            case 3:
+                put(253);
+                putLE(val, 2);
+                break;
+            case 5:
+                put(254);
+                putLE(val, 4);
+                break;
+            default:
+                put(255);
+                putLE(val, 8);
+        }
     }
 
 
     public void writeBytesWithLength(byte[] bytes) throws IOException {
         if (null == bytes || bytes.length == 0) {
-            out.write(new VarInt(0).encode());
+            put(0);
         } else {
-            out.write(new VarInt(bytes.length).encode());
-            out.write(bytes);
+            writeVarInt(bytes.length);
+            put(bytes, 0, bytes.length);
         }
     }
 
     public void writeBoolean(boolean val) throws IOException {
-        out.write(val ? 1 : 0);
+        put(val ? 1 : 0);
     }
 
     public void writeShort(short val) throws IOException {
-        SerializeUtils.int16ToByteStreamLE(val, out);
+        putLE(val, 2);
     }
 
     public void writeUint8(short val) throws IOException {
-        SerializeUtils.uint8ToByteStreamLE(val, out);
+        put(0xFF & val);
     }
     /**
      * 0~65,535
@@ -101,7 +171,7 @@ public class NulsOutputStreamBuffer {
      * @throws IOException
      */
     public void writeUint16(int val) throws IOException {
-        SerializeUtils.uint16ToByteStreamLE(val, out);
+        putLE(val, 2);
     }
 
     /**
@@ -110,32 +180,40 @@ public class NulsOutputStreamBuffer {
      * @throws IOException
      */
     public void writeUint32(long val) throws IOException {
-        SerializeUtils.uint32ToByteStreamLE(val, out);
+        putLE(val, 4);
     }
 
     public void writeUint48(long time) throws IOException {
-        this.write(SerializeUtils.uint48ToBytes(time));
+        putLE(time, SerializeUtils.sizeOfUint48());
     }
 
     public void writeBigInteger(BigInteger val) throws IOException{
         if(val.compareTo(BigInteger.ZERO) < 0){
             throw new UnsupportedOperationException();
         }
+        //常见金额不超过long，直接按小端写入并补零
+        if (val.bitLength() < Long.SIZE) {
+            putLE(val.longValue(), 8);
+            for (int i = 8; i < 32; i++) {
+                put(0);
+            }
+            return;
+        }
         this.write(SerializeUtils.bigInteger2Bytes(val));
     }
 
     public void writeInt64(long val) throws IOException {
-        SerializeUtils.int64ToByteStreamLE(val, out);
+        putLE(val, 8);
     }
 
     public void writeDouble(double val) throws IOException {
-        out.write(ByteUtils.doubleToBytes(val));
+        this.write(ByteUtils.doubleToBytes(val));
     }
 
     public void writeString(String val) {
         if (StringUtils.isBlank(val)) {
             try {
-                out.write(new VarInt(0).encode());
+                put(0);
             } catch (IOException e) {
                 Log.error(e);
                 throw new NulsRuntimeException(e);
@@ -154,7 +232,7 @@ public class NulsOutputStreamBuffer {
         if (null == data) {
             write(ToolsConstant.PLACE_HOLDER);
         } else {
-            this.write(data.serialize());
+            data.serializeTo(this);
         }
     }
 }
@@ -43,20 +43,63 @@ public abstract class BaseNulsData implements NulsData, Serializable, Cloneable
 
     @Override
     public final byte[] serialize() throws IOException {
+        byte[] cached = cachedSerialize();
+        if (cached != null) {
+            return Arrays.copyOf(cached, cached.length);
+        }
         int size = size();
-        try (ByteArrayOutputStream bos = new UnsafeByteArrayOutputStream(size)){
-            NulsOutputStreamBuffer buffer = new NulsOutputStreamBuffer(bos);
-            if (size == 0) {
+        if (size == 0) {
+            try (ByteArrayOutputStream bos = new UnsafeByteArrayOutputStream(size)) {
                 bos.write(ToolsConstant.PLACE_HOLDER);
-            } else {
-                serializeToStream(buffer);
-            }
-            byte[] bytes = bos.toByteArray();
-            if (bytes.length != size) {
-                throw new RuntimeException();
+                byte[] bytes = bos.toByteArray();
+                if (bytes.length != size) {
+                    throw new RuntimeException();
+                }
+                return bytes;
             }
-            return bytes;
         }
+        byte[] bytes = new byte[size];
+        NulsOutputStreamBuffer buffer = new NulsOutputStreamBuffer(bytes);
+        try {
+            serializeToStream(buffer);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new RuntimeException(e);
+        }
+        if (buffer.getCursor() != size) {
+            throw new RuntimeException();
+        }
+        cacheSerialize(bytes);
+        return bytes;
+    }
+
+    /**
+     * 作为嵌套数据直接写入外层的序列化流，不再单独分配字节数组
+     * Write as nested data straight into the enclosing stream, without allocating a separate array
+     */
+    public final void serializeTo(NulsOutputStreamBuffer stream) throws IOException {
+        byte[] cached = cachedSerialize();
+        if (cached != null) {
+            stream.write(cached);
+        } else if (size() == 0) {
+            stream.write(serialize());
+        } else {
+            serializeToStream(stream);
+        }
+    }
+
+    /**
+     * 不可变的数据（如交易、区块头）可缓存序列化结果，返回null表示没有缓存
+     * Immutable data such as transactions and block headers may cache the serialized form, null means nothing is cached
+     */
+    protected byte[] cachedSerialize() {
+        return null;
+    }
+
+    /**
+     * 序列化完成后回调，子类需要缓存时保存副本，并在修改字段时清除
+     * Called after serializing, a subclass that caches keeps a copy and clears it when a field changes
+     */
+    protected void cacheSerialize(byte[] bytes) {
     }
 
     protected abstract void serializeToStream(NulsOutputStreamBuffer stream) throws IOException;
@@ -64,6 +64,11 @@ public class BlockHeader extends BaseNulsData {
 
     private transient byte[] packingAddress;
 
+    /**
+     * 序列化结果缓存，修改字段时清除
+     */
+    private transient volatile byte[] serialized;
+
     private synchronized void calcHash() {
         if (null != this.hash) {
             return;
@@ -88,6 +93,23 @@ public class BlockHeader extends BaseNulsData {
         return size;
     }
 
+    @Override
+    protected byte[] cachedSerialize() {
+        return serialized;
+    }
+
+    @Override
+    protected void cacheSerialize(byte[] bytes) {
+        serialized = Arrays.copyOf(bytes, bytes.length);
+    }
+
+    private void fieldChanged(boolean hashChanged) {
+        serialized = null;
+        if (hashChanged) {
+            hash = null;
+        }
+    }
+
     @Override
     protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
         stream.write(preHash.getBytes());
@@ -108,6 +130,7 @@ public class BlockHeader extends BaseNulsData {
         this.txCount = byteBuffer.readInt32();
         this.extend = byteBuffer.readByLengthByte();
         this.blockSignature = byteBuffer.readNulsData(new BlockSignature());
+        fieldChanged(false);
     }
 
     public byte[] serializeWithoutSign() {
@@ -154,6 +177,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setPreHash(NulsHash preHash) {
         this.preHash = preHash;
+        fieldChanged(true);
     }
 
     public NulsHash getMerkleHash() {
@@ -162,6 +186,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setMerkleHash(NulsHash merkleHash) {
         this.merkleHash = merkleHash;
+        fieldChanged(true);
     }
 
     public long getTime() {
@@ -170,6 +195,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setTime(long time) {
         this.time = time;
+        fieldChanged(true);
     }
 
     public long getHeight() {
@@ -178,6 +204,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setHeight(long height) {
         this.height = height;
+        fieldChanged(true);
     }
 
     public int getTxCount() {
@@ -186,6 +213,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setTxCount(int txCount) {
         this.txCount = txCount;
+        fieldChanged(true);
     }
 
     public BlockSignature getBlockSignature() {
@@ -194,6 +222,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setBlockSignature(BlockSignature scriptSign) {
         this.blockSignature = scriptSign;
+        fieldChanged(false);
     }
 
     public byte[] getPackingAddress(int chainId) {
@@ -210,6 +239,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setExtend(byte[] extend) {
         this.extend = extend;
+        fieldChanged(true);
     }
 
     public void setPackingAddress(byte[] packingAddress) {
@@ -27,14 +27,17 @@ package io.nuls.base.data;
 import io.nuls.base.basic.AddressTool;
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.base.basic.NulsOutputStreamBuffer;
+import io.nuls.core.basic.VarInt;
 import io.nuls.core.constant.ToolsConstant;
 import io.nuls.core.constant.TxStatusEnum;
 import io.nuls.core.crypto.UnsafeByteArrayOutputStream;
 import io.nuls.core.exception.NulsException;
+import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.parse.SerializeUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
@@ -58,6 +61,18 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     private transient NulsHash hash;
 
+    /**
+     * 序列化结果缓存，修改字段时清除
+     */
+    private transient volatile byte[] serialized;
+
+    /**
+     * 解析时只记录交易在原始字节中的位置，remark、txData、coinData、签名在首次访问时才复制出来
+     * Parsing only records where the transaction lies in the original bytes,
+     * remark, txData, coinData and the signature are copied out on first access
+     */
+    private transient volatile ParsedView view;
+
     private transient long blockHeight = -1L;
 
     private transient TxStatusEnum status = TxStatusEnum.UNCONFIRM;
@@ -81,6 +96,10 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     @Override
     public int size() {
+        ParsedView parsed = view;
+        if (parsed != null) {
+            return parsed.end - parsed.start;
+        }
         int size = 0;
         //type
         size += SerializeUtils.sizeOfUint16();
@@ -95,6 +114,10 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     @Override
     public void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
+        if (view != null) {
+            stream.write(cachedSerialize());
+            return;
+        }
         stream.writeUint16(type);
         stream.writeUint32(time);
         stream.writeBytesWithLength(remark);
@@ -103,7 +126,37 @@ public class Transaction extends BaseNulsData implements Cloneable {
         stream.writeBytesWithLength(transactionSignature);
     }
 
+    @Override
+    protected byte[] cachedSerialize() {
+        ParsedView parsed = view;
+        if (serialized == null && parsed != null) {
+            serialized = Arrays.copyOfRange(parsed.payload, parsed.start, parsed.end);
+        }
+        return serialized;
+    }
+
+    @Override
+    protected void cacheSerialize(byte[] bytes) {
+        serialized = Arrays.copyOf(bytes, bytes.length);
+    }
+
+    private void fieldChanged(boolean hashChanged) {
+        serialized = null;
+        if (hashChanged) {
+            hash = null;
+        }
+    }
+
     public byte[] serializeForHash() throws IOException {
+        ParsedView parsed = view;
+        if (parsed != null) {
+            return Arrays.copyOfRange(parsed.payload, parsed.start, parsed.hashEnd);
+        }
+        //签名在最后，已有序列化结果时直接截取
+        byte[] cached = serialized;
+        if (cached != null) {
+            return Arrays.copyOf(cached, cached.length - SerializeUtils.sizeOfBytes(transactionSignature));
+        }
         ByteArrayOutputStream bos = null;
         try {
             int size = size() - SerializeUtils.sizeOfBytes(transactionSignature);
@@ -128,15 +181,71 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     @Override
     public void parse(NulsByteBuffer byteBuffer) throws NulsException {
+        int start = byteBuffer.getCursor();
         type = byteBuffer.readUint16();
         time = byteBuffer.readUint32();
-        remark = byteBuffer.readByLengthByte();
-        txData = byteBuffer.readByLengthByte();
-        this.coinData = byteBuffer.readByLengthByte();
-        transactionSignature = byteBuffer.readByLengthByte();
+        int canonicalSize = SerializeUtils.sizeOfUint16() + SerializeUtils.sizeOfUint32();
+        canonicalSize += sizeOfLengthByte(byteBuffer.skipByLengthByte());
+        canonicalSize += sizeOfLengthByte(byteBuffer.skipByLengthByte());
+        canonicalSize += sizeOfLengthByte(byteBuffer.skipByLengthByte());
+        int hashEnd = byteBuffer.getCursor();
+        canonicalSize += sizeOfLengthByte(byteBuffer.skipByLengthByte());
+        remark = null;
+        txData = null;
+        coinData = null;
+        transactionSignature = null;
+        coinDataInstance = null;
+        serialized = null;
+        view = new ParsedView(byteBuffer.getPayload(), start, hashEnd, byteBuffer.getCursor());
+        //长度前缀不是最短编码时，重新序列化的结果与原始字节不同，直接解码以保持hash计算方式不变
+        if (canonicalSize != byteBuffer.getCursor() - start) {
+            materialize();
+        }
+    }
+
+    private static int sizeOfLengthByte(int length) {
+        return length == 0 ? 1 : VarInt.sizeOf(length) + length;
+    }
+
+    /**
+     * 从原始字节中解码全部字段并释放对原始字节的引用，修改字段前会自动调用
+     * Decode all fields from the original bytes and release the reference to them, called automatically before a field is modified
+     */
+    public void materialize() {
+        if (view == null) {
+            return;
+        }
+        synchronized (this) {
+            materializeView();
+        }
+    }
+
+    private void materializeView() {
+        ParsedView parsed = view;
+        if (parsed == null) {
+            return;
+        }
+        NulsByteBuffer byteBuffer = new NulsByteBuffer(parsed.payload, parsed.start);
+        try {
+            byteBuffer.readUint16();
+            byteBuffer.readUint32();
+            remark = byteBuffer.readByLengthByte();
+            txData = byteBuffer.readByLengthByte();
+            coinData = byteBuffer.readByLengthByte();
+            transactionSignature = byteBuffer.readByLengthByte();
+        } catch (NulsException e) {
+            throw new NulsRuntimeException(e);
+        }
+        view = null;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        materialize();
+        out.defaultWriteObject();
     }
 
     public byte[] getTxData() {
+        materialize();
         return txData;
     }
 
@@ -145,11 +254,15 @@ public class Transaction extends BaseNulsData implements Cloneable {
     }
 
     public void setTime(long time) {
+        materialize();
         this.time = time;
+        fieldChanged(true);
     }
 
     public void setType(int type) {
+        materialize();
         this.type = type;
+        fieldChanged(true);
     }
 
     public int getType() {
@@ -157,15 +270,23 @@ public class Transaction extends BaseNulsData implements Cloneable {
     }
 
     public byte[] getRemark() {
+        materialize();
         return remark;
     }
 
     public void setRemark(byte[] remark) {
+        materialize();
         this.remark = remark;
+        fieldChanged(true);
     }
 
     public NulsHash getHash() {
         if (hash == null) {
+            ParsedView parsed = view;
+            if (parsed != null) {
+                hash = NulsHash.calcHash(parsed.payload, parsed.start, parsed.hashEnd - parsed.start);
+                return hash;
+            }
             try {
                 hash = NulsHash.calcHash(serializeForHash());
             } catch (IOException e) {
@@ -180,15 +301,20 @@ public class Transaction extends BaseNulsData implements Cloneable {
     }
 
     public byte[] getTransactionSignature() {
+        materialize();
         return transactionSignature;
     }
 
     public void setTransactionSignature(byte[] transactionSignature) {
+        materialize();
         this.transactionSignature = transactionSignature;
+        fieldChanged(false);
     }
 
     public void setTxData(byte[] txData) {
+        materialize();
         this.txData = txData;
+        fieldChanged(true);
     }
 
     public long getBlockHeight() {
@@ -208,6 +334,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
     }
 
     public byte[] getCoinData() {
+        materialize();
         return coinData;
     }
 
@@ -222,13 +349,15 @@ public class Transaction extends BaseNulsData implements Cloneable {
     public CoinData getCoinDataInstance() throws NulsException {
         if (coinDataInstance == null) {
             coinDataInstance = new CoinData();
-            coinDataInstance.parse(new NulsByteBuffer(this.coinData));
+            coinDataInstance.parse(new NulsByteBuffer(this.getCoinData()));
         }
         return coinDataInstance;
     }
 
     public void setCoinData(byte[] coinData) {
+        materialize();
         this.coinData = coinData;
+        fieldChanged(true);
     }
 
     public int getSize() {
@@ -256,7 +385,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
      */
     public BigInteger getFee() throws NulsException {
         BigInteger fee = BigInteger.ZERO;
-        if (null != coinData && type > 1) {
+        if (null != getCoinData() && type > 1) {
             CoinData cData = getCoinDataInstance();
             if(cData.getFrom().size() > 0) {
                 BigInteger toAmount = BigInteger.ZERO;
@@ -278,7 +407,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
      * Judging whether a transaction is a multi-signature transaction
      */
     public boolean isMultiSignTx() throws NulsException {
-        if (null == coinData) {
+        if (null == getCoinData()) {
             return false;
         }
         CoinData cData = getCoinDataInstance();
@@ -303,6 +432,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     @Override
     public int hashCode() {
+        materialize();
         int result = type;
         result = 31 * result + Arrays.hashCode(coinData);
         result = 31 * result + Arrays.hashCode(txData);
@@ -311,4 +441,25 @@ public class Transaction extends BaseNulsData implements Cloneable {
         result = 31 * result + Arrays.hashCode(remark);
         return result;
     }
+
+    private static final class ParsedView {
+
+        private final byte[] payload;
+
+        private final int start;
+
+        /**
+         * 签名之前的位置，[start, hashEnd)即计算hash的数据
+         */
+        private final int hashEnd;
+
+        private final int end;
+
+        private ParsedView(byte[] payload, int start, int hashEnd, int end) {
+            this.payload = payload;
+            this.start = start;
+            this.hashEnd = hashEnd;
+            this.end = end;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package io.nuls.base.basic;
+
+import io.nuls.core.crypto.UnsafeByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+public class NulsOutputStreamBufferTest {
+
+    private void write(NulsOutputStreamBuffer buffer) throws IOException {
+        long[] varInts = {0, 252, 253, 0xFFFF, 0x10000, 0xFFFFFFFFL, 0x100000000L, -1};
+        for (long val : varInts) {
+            buffer.writeVarInt(val);
+        }
+        buffer.writeVarInt(-2);
+        buffer.writeShort((short) -3);
+        buffer.writeUint8((short) 200);
+        buffer.writeUint16(65535);
+        buffer.writeUint32(4294967295L);
+        buffer.writeUint48(1234567890123L);
+        buffer.writeInt64(Long.MIN_VALUE);
+        buffer.writeBigInteger(BigInteger.ZERO);
+        buffer.writeBigInteger(BigInteger.valueOf(Long.MAX_VALUE));
+        buffer.writeBigInteger(BigInteger.ONE.shiftLeft(200).add(BigInteger.TEN));
+        buffer.writeBytesWithLength(null);
+        buffer.writeBytesWithLength(new byte[300]);
+        buffer.writeString("nuls");
+        buffer.writeString(null);
+        buffer.writeBoolean(true);
+        buffer.writeDouble(1.5);
+    }
+
+    @Test
+    public void directWriteMatchesStream() throws IOException {
+        UnsafeByteArrayOutputStream bos = new UnsafeByteArrayOutputStream();
+        write(new NulsOutputStreamBuffer(bos));
+        byte[] expected = bos.toByteArray();
+
+        byte[] bytes = new byte[expected.length];
+        NulsOutputStreamBuffer buffer = new NulsOutputStreamBuffer(bytes);
+        write(buffer);
+        Assert.assertEquals(expected.length, buffer.getCursor());
+        Assert.assertArrayEquals(expected, bytes);
+    }
+}
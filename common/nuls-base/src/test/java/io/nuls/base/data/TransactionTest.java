@@ -2,6 +2,7 @@ package io.nuls.base.data;
 
 import io.nuls.base.basic.AddressTool;
 import io.nuls.base.basic.NulsByteBuffer;
+import io.nuls.core.constant.BaseConstant;
 import io.nuls.core.crypto.HexUtil;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.StringUtils;
@@ -104,4 +105,75 @@ public class TransactionTest {
 
 
     }
+
+    @Test
+    public void serializeCache() throws Exception {
+        String txHex = "0b000823c25d00b204746573740131035858587027000001030000000300055ba2bb3832055ba2bb3832055ba2bb38324200c80064000100035858580358585800205fa01200000000000000000000000000000000000000000000000000000000c817a80400000000000000000000000000000000000000000000000000000000a0724e180900000000000000000000000000000000000000000000000000000800170200019a7c5f842094a73eb489d5678e446e3be57d689afd150101170200019a7c5f842094a73eb489d5678e446e3be57d689a02000100a03e66d94500000000000000000000000000000000000000000000000000000008b03a827828b74ace00031702000199092280b81a34b28901654601bbaa764ea0b385020001000040be40250000000000000000000000000000000000000000000000000000000000000000000000170200019a7c5f842094a73eb489d5678e446e3be57d689a0200010000205fa012000000000000000000000000000000000000000000000000000000ffffffffffffffffff1702000129cfc6376255a78451eeb4b129ed8eacffa2feef02000100005847f80d00000000000000000000000000000000000000000000000000000000000000000000006a2102ff3511b8aabd6f598bda6b344a231a2bda8ffd236c13ef746342b0554a9839b747304502202fe4aa5cb760a873bc3ea6e80d778de97db35cfff4fe607454d057f45fd8c5f1022100f922dc3bf369a4f0820e122a79b15047289fa4100fefa8fe76522392810e28d1";
+        Transaction tx = new Transaction();
+        tx.parse(HexUtil.decode(txHex), 0);
+        NulsHash hash = NulsHash.calcHash(tx.serializeForHash());
+        byte[] bytes = tx.serialize();
+        Assert.assertEquals(txHex, HexUtil.encode(bytes));
+        bytes[0] = 0;
+        Assert.assertEquals(txHex, HexUtil.encode(tx.serialize()));
+        Assert.assertEquals(hash, NulsHash.calcHash(tx.serializeForHash()));
+        Assert.assertEquals(hash, tx.getHash());
+
+        tx.setRemark(new byte[]{1});
+        Assert.assertNotEquals(txHex, HexUtil.encode(tx.serialize()));
+        Assert.assertNotEquals(hash, tx.getHash());
+        Assert.assertEquals(NulsHash.calcHash(tx.serializeForHash()), tx.getHash());
+    }
+
+    @Test
+    public void lazyParse() throws Exception {
+        Transaction tx = new Transaction(2);
+        tx.setTime(1577836800L);
+        tx.setRemark(new byte[]{1, 2, 3});
+        tx.setCoinData(new byte[300]);
+        tx.setTransactionSignature(new byte[]{4, 5});
+        byte[] txBytes = tx.serialize();
+        byte[] payload = new byte[txBytes.length * 2];
+        System.arraycopy(txBytes, 0, payload, 0, txBytes.length);
+        System.arraycopy(txBytes, 0, payload, txBytes.length, txBytes.length);
+
+        NulsByteBuffer byteBuffer = new NulsByteBuffer(payload);
+        Transaction first = byteBuffer.readTransaction();
+        Transaction second = byteBuffer.readTransaction();
+        Assert.assertTrue(byteBuffer.isFinished());
+        Assert.assertEquals(tx.getHash(), first.getHash());
+        Assert.assertEquals(tx.getHash(), second.getHash());
+        Assert.assertEquals(txBytes.length, second.size());
+        Assert.assertArrayEquals(txBytes, second.serialize());
+        Assert.assertArrayEquals(tx.serializeForHash(), second.serializeForHash());
+        Assert.assertArrayEquals(tx.getRemark(), second.getRemark());
+        Assert.assertNull(second.getTxData());
+        Assert.assertArrayEquals(tx.getCoinData(), second.getCoinData());
+
+        second.setTransactionSignature(new byte[]{6});
+        Assert.assertEquals(tx.getHash(), second.getHash());
+        Assert.assertNotEquals(HexUtil.encode(txBytes), HexUtil.encode(second.serialize()));
+
+        //非最短编码的长度前缀按字段重新序列化
+        byte[] nonCanonical = HexUtil.decode("0200" + "00000000" + "fd0100" + "07" + "00" + "00" + "00");
+        Transaction parsed = new Transaction();
+        parsed.parse(new NulsByteBuffer(nonCanonical));
+        Assert.assertEquals(nonCanonical.length - 2, parsed.size());
+        Assert.assertEquals(NulsHash.calcHash(parsed.serializeForHash()), parsed.getHash());
+
+        //手续费和多签判断不依赖之前是否已访问过coinData
+        CoinData coinData = new CoinData();
+        coinData.addFrom(new CoinFrom(new byte[23], 1, 1, BigInteger.TEN, new byte[8], (byte) 0));
+        coinData.addTo(new CoinTo(new byte[23], 1, 1, BigInteger.ONE));
+        tx.setCoinData(coinData.serialize());
+        Transaction fresh = Transaction.getInstance(tx.serialize());
+        Assert.assertEquals(BigInteger.valueOf(9), fresh.getFee());
+        fresh = Transaction.getInstance(tx.serialize());
+        Assert.assertFalse(fresh.isMultiSignTx());
+        byte[] multiSignAddress = new byte[23];
+        multiSignAddress[2] = BaseConstant.P2SH_ADDRESS_TYPE;
+        coinData.getFrom().get(0).setAddress(multiSignAddress);
+        tx.setCoinData(coinData.serialize());
+        Assert.assertTrue(Transaction.getInstance(tx.serialize()).isMultiSignTx());
+    }
 }
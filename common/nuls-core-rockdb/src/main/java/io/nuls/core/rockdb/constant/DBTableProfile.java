@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.rockdb.constant;
+
+/**
+ * 数据表调优配置.
+ * Per-table tuning profiles, selected when a table is created and persisted next to the table data
+ */
+public enum DBTableProfile {
+
+    /**
+     * 原有的通用配置: 无块缓存, 不压缩, mmap读取
+     * legacy options: no block cache, no compression, mmap reads
+     */
+    DEFAULT,
+
+    /**
+     * 热点随机读: 共享LRU块缓存, 索引与过滤器常驻缓存
+     * hot random reads (account state, block headers, confirmed tx): shared LRU block cache, pinned index/filter blocks
+     */
+    POINT_LOOKUP,
+
+    /**
+     * 高频写入: 更大的memtable, 延迟L0压缩
+     * write heavy tables (unconfirmed tx, snapshots): larger memtables, relaxed L0 compaction triggers
+     */
+    WRITE_HEAVY,
+
+    /**
+     * 追加归档: 大数据块, 高压缩比, 不占用块缓存
+     * append-only / archive tables (logs, history): large blocks, strong compression, bypasses the block cache
+     */
+    ARCHIVE;
+
+    /**
+     * 根据名称解析, 无法识别时返回DEFAULT
+     * parse by name, unknown names fall back to DEFAULT
+     */
+    public static DBTableProfile parse(String name) {
+        if (name == null) {
+            return DEFAULT;
+        }
+        for (DBTableProfile profile : values()) {
+            if (profile.name().equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        return DEFAULT;
+    }
+}
@@ -22,12 +22,19 @@ package io.nuls.core.rockdb.manager;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.constant.DBTableProfile;
 import io.nuls.core.rockdb.model.Entry;
 import io.nuls.core.rockdb.util.DBUtils;
 import org.rocksdb.*;
 import org.rocksdb.util.SizeUnit;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
@@ -47,11 +54,63 @@ public class RocksDBManager {
      */
     private static final ConcurrentHashMap<String, RocksDB> TABLES = new ConcurrentHashMap<>();
 
+    /**
+     * 数据表对应的列族, 独立数据库模式下为各数据库的默认列族.
+     */
+    private static final ConcurrentHashMap<String, ColumnFamilyHandle> HANDLES = new ConcurrentHashMap<>();
+
+    /**
+     * 列族模式下被closeTable关闭的数据表, 列族句柄只能在打开数据库时获得, 因此保留句柄以便重新打开
+     * Tables closed by closeTable in column family mode. A column family handle can only be obtained when the database
+     * is opened, so the handle is kept to reopen the table later.
+     */
+    private static final ConcurrentHashMap<String, ColumnFamilyHandle> CLOSED_HANDLES = new ConcurrentHashMap<>();
+
     /**
      * 数据表基础文件夹名.
      */
     private static final String BASE_DB_NAME = "rocksdb";
 
+    /**
+     * 列族模式下共享数据库的文件夹名.
+     */
+    private static final String COLUMN_FAMILY_DB_NAME = "column_family";
+
+    /**
+     * 列族模式下各数据表调优配置的保存文件.
+     */
+    private static final String COLUMN_FAMILY_PROFILE_FILE_NAME = "column_family.profile";
+
+    /**
+     * 数据表调优配置文件名, 与数据表文件夹同级保存.
+     */
+    private static final String PROFILE_FILE_NAME = "profile";
+
+    /**
+     * 默认共享块缓存大小.
+     */
+    public static final long DEFAULT_BLOCK_CACHE_SIZE = 256 * SizeUnit.MB;
+
+    /**
+     * 已打开数据表的调优配置.
+     */
+    private static final ConcurrentHashMap<String, DBTableProfile> PROFILES = new ConcurrentHashMap<>();
+
+    /**
+     * 共享块缓存大小, 需在第一次使用块缓存之前设置.
+     */
+    private static volatile long blockCacheSize = DEFAULT_BLOCK_CACHE_SIZE;
+
+    /**
+     * 所有使用块缓存的数据表共享的LRU缓存.
+     */
+    private static Cache blockCache;
+
+    /**
+     * 共享块缓存的统计信息.
+     */
+    private static Statistics statistics;
+
     /**
      * 数据操作同步锁.
      */
@@ -62,6 +121,11 @@ public class RocksDBManager {
      */
     private static String dataPath;
 
+    /**
+     * 列族模式下所有数据表共享的数据库连接, 为null时每个数据表独立一个数据库.
+     */
+    private static volatile RocksDB columnFamilyDB;
+
     /**
      * 根据传入的数据库路径将已存在的数据库连接打开，并缓存DB连接.
      * 如果有数据表连接被关闭需要重新打开连接也可以，执行初始化连接
@@ -84,9 +148,12 @@ public class RocksDBManager {
                 }
                 try {
                     dbPath = tableFile.getPath() + File.separator + BASE_DB_NAME;
-                    db = initOpenDB(dbPath);
+                    DBTableProfile profile = readProfile(tableFile);
+                    db = initOpenDB(dbPath, profile);
                     if (db != null) {
                         TABLES.put(tableFile.getName(), db);
+                        HANDLES.put(tableFile.getName(), db.getDefaultColumnFamily());
+                        PROFILES.put(tableFile.getName(), profile);
                     }
                 } catch (Exception e) {
                     Log.warn("load table failed, tableName: " + tableFile.getName() + ", dbPath: " + dbPath, e);
@@ -98,17 +165,96 @@ public class RocksDBManager {
     }
 
     /**
-     * @param dbPath 数据库地址
+     * 以列族模式打开数据库: 所有数据表作为列族保存在同一个数据库中, 共享WAL、后台线程和文件句柄,
+     * 并且可以通过MultiTableBatchOperation跨表原子提交.
+     * Open the storage in column family mode: every table is a column family of one shared database,
+     * so writes to several tables can be committed atomically in a single WriteBatch.
+     *
+     * @param path 数据库地址
+     * @throws Exception 数据库打开连接异常
+     */
+    public static void initColumnFamilyMode(final String path) throws Exception {
+        synchronized (RocksDBManager.class) {
+            if (columnFamilyDB != null) {
+                //重新打开已关闭的数据表
+                for (String tableName : new ArrayList<>(CLOSED_HANDLES.keySet())) {
+                    reopenColumnFamily(tableName);
+                }
+                Log.info("RocksDBManager column family db already opened, dataPath is " + dataPath);
+                return;
+            }
+            File dir = DBUtils.loadDataPath(path);
+            dataPath = dir.getPath();
+            String dbPath = dataPath + File.separator + COLUMN_FAMILY_DB_NAME;
+            Log.info("RocksDBManager column family dbPath is " + dbPath);
+            Properties profiles = readColumnFamilyProfiles();
+            List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+            if (new File(dbPath + File.separator + "CURRENT").exists()) {
+                try (Options options = new Options()) {
+                    for (byte[] name : RocksDB.listColumnFamilies(options, dbPath)) {
+                        DBTableProfile profile = DBTableProfile.parse(profiles.getProperty(new String(name, StandardCharsets.UTF_8)));
+                        descriptors.add(new ColumnFamilyDescriptor(name, getColumnFamilyOptions(profile)));
+                    }
+                }
+            } else {
+                descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, getColumnFamilyOptions(DBTableProfile.DEFAULT)));
+            }
+            List<ColumnFamilyHandle> handles = new ArrayList<>();
+            RocksDB db = RocksDB.open(getColumnFamilyDBOptions(), dbPath, descriptors, handles);
+            for (ColumnFamilyHandle handle : handles) {
+                String tableName = new String(handle.getName(), StandardCharsets.UTF_8);
+                if (Arrays.equals(RocksDB.DEFAULT_COLUMN_FAMILY, handle.getName())) {
+                    continue;
+                }
+                TABLES.put(tableName, db);
+                HANDLES.put(tableName, handle);
+                PROFILES.put(tableName, DBTableProfile.parse(profiles.getProperty(tableName)));
+            }
+            columnFamilyDB = db;
+        }
+    }
+
+    /**
+     * 重新打开列族模式下已关闭的数据表.
+     * reopen a table closed in column family mode
+     *
+     * @param tableName 数据库表名称
+     * @return 是否重新打开
+     */
+    private static boolean reopenColumnFamily(final String tableName) {
+        ColumnFamilyHandle handle = CLOSED_HANDLES.remove(tableName);
+        if (handle == null) {
+            return false;
+        }
+        TABLES.put(tableName, columnFamilyDB);
+        HANDLES.put(tableName, handle);
+        PROFILES.put(tableName, DBTableProfile.parse(readColumnFamilyProfiles().getProperty(tableName)));
+        return true;
+    }
+
+    /**
+     * 是否为列族模式.
+     * whether all tables live as column families of one shared database
+     *
+     * @return boolean
+     */
+    public static boolean isColumnFamilyMode() {
+        return columnFamilyDB != null;
+    }
+
+    /**
+     * @param dbPath  数据库地址
+     * @param profile 数据表调优配置
      * @return RocksDB 数据库连接对象
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB initOpenDB(final String dbPath) throws RocksDBException {
+    private static RocksDB initOpenDB(final String dbPath, final DBTableProfile profile) throws RocksDBException {
         File checkFile = new File(dbPath + File.separator + "CURRENT");
         if (!checkFile.exists()) {
             return null;
         }
 
-        Options options = getCommonOptions(false);
+        Options options = getOptions(false, profile);
         return RocksDB.open(options, dbPath);
     }
 
@@ -118,11 +264,12 @@ public class RocksDBManager {
      *
      * @param dbPath          数据库地址
      * @param createIfMissing 数据库不存在时是否默认创建
+     * @param profile         数据表调优配置
      * @return RocksDB
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB openDB(final String dbPath, final boolean createIfMissing) throws RocksDBException {
-        Options options = getCommonOptions(createIfMissing);
+    private static RocksDB openDB(final String dbPath, final boolean createIfMissing, final DBTableProfile profile) throws RocksDBException {
+        Options options = getOptions(createIfMissing, profile);
         return RocksDB.open(options, dbPath);
     }
 
@@ -134,6 +281,21 @@ public class RocksDBManager {
      * @return Result 创建结果
      */
     public static boolean createTable(final String tableName) throws Exception {
+        return createTable(tableName, DBTableProfile.DEFAULT);
+    }
+
+    /**
+     * 根据名称及调优配置创建对应的数据库.
+     * Create database based by name with the given tuning profile
+     *
+     * @param tableName 数据库表名称
+     * @param profile   数据表调优配置
+     * @return Result 创建结果
+     */
+    public static boolean createTable(final String tableName, final DBTableProfile profile) throws Exception {
+        if (profile == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
         lock.lock();
         try {
             if (StringUtils.isBlank(tableName)) {
@@ -146,13 +308,29 @@ public class RocksDBManager {
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_PATH_ERROR);
             }
             try {
+                //已关闭的列族仍在数据库中, 重新打开即可, 与独立数据库模式下打开已存在的目录一致
+                if (columnFamilyDB != null && reopenColumnFamily(tableName)) {
+                    return true;
+                }
+                if (columnFamilyDB != null) {
+                    ColumnFamilyHandle handle = columnFamilyDB.createColumnFamily(
+                            new ColumnFamilyDescriptor(tableName.getBytes(StandardCharsets.UTF_8), getColumnFamilyOptions(profile)));
+                    TABLES.put(tableName, columnFamilyDB);
+                    HANDLES.put(tableName, handle);
+                    PROFILES.put(tableName, profile);
+                    writeColumnFamilyProfiles();
+                    return true;
+                }
                 File dir = new File(dataPath + File.separator + tableName);
                 if (!dir.exists()) {
                     dir.mkdir();
                 }
+                writeProfile(dir, profile);
                 String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
-                RocksDB db = openDB(filePath, true);
+                RocksDB db = openDB(filePath, true, profile);
                 TABLES.put(tableName, db);
+                HANDLES.put(tableName, db.getDefaultColumnFamily());
+                PROFILES.put(tableName, profile);
             } catch (Exception e) {
                 Log.error("error create table: " + tableName, e);
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_ERROR);
@@ -174,6 +352,28 @@ public class RocksDBManager {
         return TABLES.get(tableName);
     }
 
+    /**
+     * 根据名称获得对应的列族.
+     * Get the column family that holds the table, the default column family when each table has its own database
+     *
+     * @param tableName 数据库表名称
+     * @return ColumnFamilyHandle
+     */
+    public static ColumnFamilyHandle getHandle(final String tableName) {
+        return HANDLES.get(tableName);
+    }
+
+    /**
+     * 获得数据表的调优配置.
+     * Get the tuning profile of a table
+     *
+     * @param tableName 数据库表名称
+     * @return 调优配置, 数据表不存在时返回null
+     */
+    public static DBTableProfile getTableProfile(final String tableName) {
+        return PROFILES.get(tableName);
+    }
+
     /**
      * 根据名称删除对应的数据库.
      * Delete database by name
@@ -190,11 +390,20 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.remove(tableName);
+            ColumnFamilyHandle handle = HANDLES.remove(tableName);
+            PROFILES.remove(tableName);
+            if (db == columnFamilyDB) {
+                db.dropColumnFamily(handle);
+                handle.close();
+                writeColumnFamilyProfiles();
+                return true;
+            }
             db.close();
             File dir = new File(dataPath + File.separator + tableName);
             if (!dir.exists()) {
                 throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
             }
+            new File(dir, PROFILE_FILE_NAME).delete();
             String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
             destroyDB(filePath);
         } catch (Exception e) {
@@ -224,11 +433,26 @@ public class RocksDBManager {
         for (Map.Entry<String, RocksDB> entry : entries) {
             try {
                 TABLES.remove(entry.getKey());
-                entry.getValue().close();
+                ColumnFamilyHandle handle = HANDLES.remove(entry.getKey());
+                PROFILES.remove(entry.getKey());
+                if (entry.getValue() == columnFamilyDB) {
+                    handle.close();
+                } else {
+                    entry.getValue().close();
+                }
             } catch (Exception e) {
                 Log.warn("close rocksdb error", e);
             }
         }
+        synchronized (RocksDBManager.class) {
+            for (String tableName : new ArrayList<>(CLOSED_HANDLES.keySet())) {
+                CLOSED_HANDLES.remove(tableName).close();
+            }
+            if (columnFamilyDB != null) {
+                columnFamilyDB.close();
+                columnFamilyDB = null;
+            }
+        }
     }
 
     /**
@@ -240,7 +464,14 @@ public class RocksDBManager {
     public static void closeTable(final String tableName) {
         try {
             RocksDB db = TABLES.remove(tableName);
-            db.close();
+            ColumnFamilyHandle handle = HANDLES.remove(tableName);
+            PROFILES.remove(tableName);
+            //列族模式下保留该表的列族句柄以便重新打开, 共享数据库在close()时关闭
+            if (db == columnFamilyDB) {
+                CLOSED_HANDLES.put(tableName, handle);
+            } else {
+                db.close();
+            }
         } catch (Exception e) {
             Log.warn("close rocksdb tableName error:" + tableName, e);
         }
@@ -299,7 +530,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.put(key, value);
+            db.put(HANDLES.get(table), key, value);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -324,7 +555,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.delete(key);
+            db.delete(HANDLES.get(table), key);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -349,8 +580,9 @@ public class RocksDBManager {
         }
         try (WriteBatch writeBatch = new WriteBatch()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = HANDLES.get(table);
             for (Map.Entry<byte[], byte[]> entry : kvs.entrySet()) {
-                writeBatch.put(entry.getKey(), entry.getValue());
+                writeBatch.put(handle, entry.getKey(), entry.getValue());
             }
             db.write(new WriteOptions(), writeBatch);
             return true;
@@ -377,8 +609,9 @@ public class RocksDBManager {
         }
         try (WriteBatch writeBatch = new WriteBatch()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = HANDLES.get(table);
             for (byte[] key : keys) {
-                writeBatch.delete(key);
+                writeBatch.delete(handle, key);
             }
             db.write(new WriteOptions(), writeBatch);
             return true;
@@ -406,7 +639,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.get(key);
+            return db.get(HANDLES.get(table), key);
         } catch (Exception e) {
             Log.error("get table={}: error",table);
             Log.error(e);
@@ -431,8 +664,9 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            boolean rs = db.keyMayExist(key, new StringBuilder());
-            return rs && (db.get(key) != null);
+            ColumnFamilyHandle handle = HANDLES.get(table);
+            boolean rs = db.keyMayExist(handle, key, new StringBuilder());
+            return rs && (db.get(handle, key) != null);
         } catch (Exception e) {
             Log.error("keyMayExist table={}: error",table);
             Log.error(e);
@@ -458,7 +692,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.multiGet(keys);
+            return db.multiGet(handles(table, keys.size()), keys);
         } catch (Exception ex) {
             Log.error("multiGet table={}: error",table);
             Log.error(ex);
@@ -466,6 +700,17 @@ public class RocksDBManager {
         }
     }
 
+    /**
+     * 批量查询时每个key对应的列族.
+     *
+     * @param table 数据库表名称
+     * @param size  key的数量
+     * @return 列族集合
+     */
+    private static List<ColumnFamilyHandle> handles(final String table, final int size) {
+        return Collections.nCopies(size, HANDLES.get(table));
+    }
+
     /**
      * 批量查询交易
      * @param table
@@ -482,7 +727,7 @@ public class RocksDBManager {
         try {
             RocksDB db = TABLES.get(table);
             //该方法获取的结果包含查不到的key, 将以null 值放入返回的list中,因此需要把空值去除.
-            List<byte[]> list = db.multiGetAsList(keys);
+            List<byte[]> list = db.multiGetAsList(handles(table, keys.size()), keys);
             List<byte[]> rs = new ArrayList<>();
             for(byte[] tx : list){
                 if(null != tx){
@@ -514,7 +759,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            Map<byte[], byte[]> map = db.multiGet(keys);
+            Map<byte[], byte[]> map = db.multiGet(handles(table, keys.size()), keys);
             if (map != null && map.size() > 0) {
                 list.addAll(map.values());
             }
@@ -545,7 +790,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            Map<byte[], byte[]> map = db.multiGet(keys);
+            Map<byte[], byte[]> map = db.multiGet(handles(table, keys.size()), keys);
             if (map != null && map.size() > 0) {
                 list.addAll(map.keySet());
             }
@@ -572,7 +817,7 @@ public class RocksDBManager {
         List<byte[]> list = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            try (RocksIterator iterator = db.newIterator(HANDLES.get(table))) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     list.add(iterator.key());
                 }
@@ -600,7 +845,7 @@ public class RocksDBManager {
         List<byte[]> list = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            try (RocksIterator iterator = db.newIterator(HANDLES.get(table))) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     list.add(iterator.value());
                 }
@@ -628,7 +873,7 @@ public class RocksDBManager {
         List<Entry<byte[], byte[]>> entryList = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            try (RocksIterator iterator = db.newIterator(HANDLES.get(table))) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     entryList.add(new Entry(iterator.key(), iterator.value()));
                 }
@@ -642,34 +887,266 @@ public class RocksDBManager {
     }
 
     /**
-     * 获得公共的数据库连接属性.
+     * 设置共享块缓存大小, 仅在块缓存创建之前生效.
+     * Set the capacity of the shared block cache, only effective before the cache is created
+     *
+     * @param size 缓存字节数
+     */
+    public static void setBlockCacheSize(final long size) {
+        synchronized (RocksDBManager.class) {
+            if (blockCache != null) {
+                Log.warn("block cache already created, ignore new size: " + size);
+                return;
+            }
+            blockCacheSize = size;
+        }
+    }
+
+    /**
+     * 获得共享块缓存, 第一次使用时创建.
+     *
+     * @return 共享LRU块缓存
+     */
+    private static Cache getBlockCache() {
+        synchronized (RocksDBManager.class) {
+            if (blockCache == null) {
+                blockCache = new LRUCache(blockCacheSize);
+                statistics = new Statistics();
+                statistics.setStatsLevel(StatsLevel.EXCEPT_DETAILED_TIMERS);
+                Log.info("RocksDBManager block cache size is " + blockCacheSize);
+            }
+            return blockCache;
+        }
+    }
+
+    /**
+     * 共享块缓存的统计信息, 与块缓存一起创建.
+     *
+     * @return 统计信息
+     */
+    private static Statistics getStatistics() {
+        synchronized (RocksDBManager.class) {
+            getBlockCache();
+            return statistics;
+        }
+    }
+
+    /**
+     * 共享块缓存命中次数.
+     * Hit count of the shared block cache
+     *
+     * @return 命中次数
+     */
+    public static long getBlockCacheHitCount() {
+        Statistics stats = statistics;
+        return stats == null ? 0 : stats.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+    }
+
+    /**
+     * 共享块缓存未命中次数.
+     * Miss count of the shared block cache
+     *
+     * @return 未命中次数
+     */
+    public static long getBlockCacheMissCount() {
+        Statistics stats = statistics;
+        return stats == null ? 0 : stats.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+    }
+
+    /**
+     * 共享块缓存命中率, 未产生读取时返回0.
+     * Hit rate of the shared block cache, 0 when nothing has been read through the cache yet
+     *
+     * @return 命中率 [0, 1]
+     */
+    public static double getBlockCacheHitRate() {
+        long hit = getBlockCacheHitCount();
+        long total = hit + getBlockCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * 读取数据表的调优配置, 未保存时为DEFAULT.
+     *
+     * @param tableDir 数据表文件夹
+     * @return 调优配置
+     */
+    private static DBTableProfile readProfile(final File tableDir) {
+        File file = new File(tableDir, PROFILE_FILE_NAME);
+        if (!file.exists()) {
+            return DBTableProfile.DEFAULT;
+        }
+        try {
+            return DBTableProfile.parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            Log.warn("read table profile failed: " + file.getPath(), e);
+            return DBTableProfile.DEFAULT;
+        }
+    }
+
+    /**
+     * 保存数据表的调优配置, DEFAULT不写文件以保持原有目录结构.
+     *
+     * @param tableDir 数据表文件夹
+     * @param profile  调优配置
+     * @throws Exception 写文件异常
+     */
+    private static void writeProfile(final File tableDir, final DBTableProfile profile) throws Exception {
+        if (profile == DBTableProfile.DEFAULT) {
+            return;
+        }
+        Files.write(new File(tableDir, PROFILE_FILE_NAME).toPath(), profile.name().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 读取列族模式下各数据表的调优配置.
+     *
+     * @return 表名与调优配置名
+     */
+    private static Properties readColumnFamilyProfiles() {
+        Properties profiles = new Properties();
+        File file = new File(dataPath, COLUMN_FAMILY_PROFILE_FILE_NAME);
+        if (!file.exists()) {
+            return profiles;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            profiles.load(in);
+        } catch (Exception e) {
+            Log.warn("read column family profiles failed: " + file.getPath(), e);
+        }
+        return profiles;
+    }
+
+    /**
+     * 保存列族模式下各数据表的调优配置.
+     *
+     * @throws Exception 写文件异常
+     */
+    private static void writeColumnFamilyProfiles() throws Exception {
+        Properties profiles = new Properties();
+        //已关闭的数据表保留原有配置
+        Properties saved = readColumnFamilyProfiles();
+        for (String tableName : CLOSED_HANDLES.keySet()) {
+            if (saved.getProperty(tableName) != null) {
+                profiles.setProperty(tableName, saved.getProperty(tableName));
+            }
+        }
+        for (Map.Entry<String, DBTableProfile> entry : PROFILES.entrySet()) {
+            if (TABLES.get(entry.getKey()) == columnFamilyDB && entry.getValue() != DBTableProfile.DEFAULT) {
+                profiles.setProperty(entry.getKey(), entry.getValue().name());
+            }
+        }
+        try (OutputStream out = new FileOutputStream(new File(dataPath, COLUMN_FAMILY_PROFILE_FILE_NAME))) {
+            profiles.store(out, null);
+        }
+    }
+
+    /**
+     * 根据调优配置获得独立数据库的连接属性.
      *
      * @param createIfMissing 是否默认表
+     * @param profile         数据表调优配置
      * @return 数据库连接属性
      */
-    private static synchronized Options getCommonOptions(final boolean createIfMissing) {
+    private static Options getOptions(final boolean createIfMissing, final DBTableProfile profile) {
         Options options = new Options();
-
         options.setCreateIfMissing(createIfMissing);
-        /**
-         * 优化读取性能方案
-         */
-        options.setAllowMmapReads(true);
-        options.setCompressionType(CompressionType.NO_COMPRESSION);
-        options.setMaxOpenFiles(-1);
-        BlockBasedTableConfig tableOption = new BlockBasedTableConfig();
-        tableOption.setNoBlockCache(true);
-        tableOption.setBlockRestartInterval(4);
-        tableOption.setFilterPolicy(new BloomFilter(10, true));
-        options.setTableFormatConfig(tableOption);
+        setDBOptions(options);
+        if (profile == DBTableProfile.DEFAULT) {
+            /**
+             * 优化读取性能方案
+             */
+            options.setAllowMmapReads(true);
+        } else if (profile != DBTableProfile.ARCHIVE) {
+            options.setStatistics(getStatistics());
+        }
+        setColumnFamilyOptions(options, profile);
+        return options;
+    }
+
+    /**
+     * 列族模式下共享数据库的连接属性, 不使用mmap读取以便块缓存生效.
+     *
+     * @return 数据库连接属性
+     */
+    private static DBOptions getColumnFamilyDBOptions() {
+        DBOptions options = new DBOptions();
+        options.setCreateIfMissing(true);
+        options.setCreateMissingColumnFamilies(true);
+        setDBOptions(options);
+        options.setStatistics(getStatistics());
+        return options;
+    }
 
+    /**
+     * 列族模式下数据表(列族)的属性.
+     *
+     * @param profile 数据表调优配置
+     * @return 列族属性
+     */
+    private static ColumnFamilyOptions getColumnFamilyOptions(final DBTableProfile profile) {
+        ColumnFamilyOptions options = new ColumnFamilyOptions();
+        setColumnFamilyOptions(options, profile);
+        return options;
+    }
+
+    /**
+     * 数据库级别的公共属性.
+     */
+    private static <T extends DBOptionsInterface<T> & MutableDBOptionsInterface<T>> void setDBOptions(final T options) {
+        options.setMaxOpenFiles(-1);
         options.setMaxBackgroundCompactions(16);
         options.setNewTableReaderForCompactionInputs(true);
         //为压缩的输入，打开RocksDB层的预读取
         options.setCompactionReadaheadSize(128 * SizeUnit.KB);
-        options.setNewTableReaderForCompactionInputs(true);
+    }
 
-        return options;
+    /**
+     * 根据调优配置设置数据表(列族)级别的属性.
+     *
+     * @param options 数据库或列族属性
+     * @param profile 数据表调优配置
+     */
+    private static <T extends ColumnFamilyOptionsInterface<T> & MutableColumnFamilyOptionsInterface<T>> void setColumnFamilyOptions(final T options, final DBTableProfile profile) {
+        BlockBasedTableConfig tableOption = new BlockBasedTableConfig();
+        switch (profile) {
+            case POINT_LOOKUP:
+                options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+                tableOption.setBlockCache(getBlockCache());
+                tableOption.setBlockSize(4 * SizeUnit.KB);
+                tableOption.setBlockRestartInterval(4);
+                tableOption.setCacheIndexAndFilterBlocks(true);
+                tableOption.setCacheIndexAndFilterBlocksWithHighPriority(true);
+                tableOption.setPinL0FilterAndIndexBlocksInCache(true);
+                tableOption.setFilterPolicy(new BloomFilter(10, false));
+                break;
+            case WRITE_HEAVY:
+                options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+                options.setWriteBufferSize(64 * SizeUnit.MB);
+                options.setMaxWriteBufferNumber(4);
+                options.setMinWriteBufferNumberToMerge(2);
+                options.setLevel0FileNumCompactionTrigger(8);
+                options.setLevel0SlowdownWritesTrigger(24);
+                options.setLevel0StopWritesTrigger(40);
+                options.setMaxBytesForLevelBase(512 * SizeUnit.MB);
+                tableOption.setBlockCache(getBlockCache());
+                tableOption.setFilterPolicy(new BloomFilter(10, false));
+                break;
+            case ARCHIVE:
+                options.setCompressionType(CompressionType.ZSTD_COMPRESSION);
+                options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+                tableOption.setNoBlockCache(true);
+                tableOption.setBlockSize(64 * SizeUnit.KB);
+                tableOption.setFilterPolicy(new BloomFilter(10, false));
+                break;
+            default:
+                options.setCompressionType(CompressionType.NO_COMPRESSION);
+                tableOption.setNoBlockCache(true);
+                tableOption.setBlockRestartInterval(4);
+                tableOption.setFilterPolicy(new BloomFilter(10, true));
+                break;
+        }
+        options.setTableFormatConfig(tableOption);
     }
 
 
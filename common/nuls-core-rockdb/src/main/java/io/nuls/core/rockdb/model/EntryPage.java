@@ -0,0 +1,49 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.model;
+
+import java.util.List;
+
+/**
+ * 分页查询结果, nextKey为下一页的起始key, 没有更多数据时为null
+ * A bounded page of entries, nextKey is the continuation key for the next page or null when the scan is complete
+ */
+public class EntryPage {
+
+    private final List<Entry<byte[], byte[]>> entries;
+    private final byte[] nextKey;
+
+    public EntryPage(List<Entry<byte[], byte[]>> entries, byte[] nextKey) {
+        this.entries = entries;
+        this.nextKey = nextKey;
+    }
+
+    public List<Entry<byte[], byte[]>> getEntries() {
+        return entries;
+    }
+
+    public byte[] getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasMore() {
+        return nextKey != null;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+import io.nuls.core.rockdb.model.Entry;
+
+import java.util.Iterator;
+
+/**
+ * 数据表游标, 逐条读取数据而不把整张表加载到内存中, 使用完毕必须关闭
+ * Table cursor that streams entries instead of copying the whole table into heap, must be closed after use
+ */
+public interface DBIterator extends Iterator<Entry<byte[], byte[]>>, AutoCloseable {
+
+    /**
+     * 当前位置的key, 不移动游标
+     * Key at the current position without moving the cursor
+     *
+     * @return 没有更多数据时返回null
+     */
+    byte[] peekKey();
+
+    /**
+     * 释放底层迭代器资源
+     * Release the underlying rocksdb iterator
+     */
+    @Override
+    void close();
+}
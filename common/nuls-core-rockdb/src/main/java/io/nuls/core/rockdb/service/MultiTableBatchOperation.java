@@ -0,0 +1,56 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+/**
+ * 跨表批量操作, 所有操作在executeBatch时原子提交
+ * Batch operation spanning several tables, committed atomically by executeBatch
+ */
+public interface MultiTableBatchOperation {
+
+    /**
+     * 增加或者更新操作
+     * Add or update operations.
+     *
+     * @param table
+     * @param key
+     * @param value
+     * @return
+     */
+    boolean put(String table, byte[] key, byte[] value) throws Exception;
+
+    /**
+     * 删除操作
+     * Delete operation
+     *
+     * @param table
+     * @param key
+     * @return
+     */
+    boolean delete(String table, byte[] key) throws Exception;
+
+    /**
+     * 执行批量操作
+     * Perform batch operation
+     *
+     * @return
+     */
+    boolean executeBatch() throws Exception;
+}
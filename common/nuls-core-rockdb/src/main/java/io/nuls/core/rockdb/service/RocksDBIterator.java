@@ -0,0 +1,164 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.util.DBUtils;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 基于RocksIterator的范围游标, 范围为[lowerKey, upperKey), reverse为true时从大到小遍历
+ * Range cursor over [lowerKey, upperKey), walking backwards when reverse is set
+ */
+public class RocksDBIterator implements DBIterator {
+
+    private final RocksDB db;
+    private final ColumnFamilyHandle handle;
+    private final byte[] lowerKey;
+    private final byte[] upperKey;
+    private final byte[] prefix;
+    private final boolean reverse;
+    private ReadOptions readOptions;
+    private RocksIterator iterator;
+    private volatile boolean isClose = false;
+
+    RocksDBIterator(String table, byte[] lowerKey, byte[] upperKey, byte[] prefix, boolean reverse) {
+        this.db = RocksDBManager.getTable(table);
+        this.handle = RocksDBManager.getHandle(table);
+        this.lowerKey = lowerKey;
+        this.upperKey = upperKey;
+        this.prefix = prefix;
+        this.reverse = reverse;
+    }
+
+    public boolean checkIterator() throws Exception {
+        if (db == null) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        return true;
+    }
+
+    /**
+     * 定位到起始位置, startKey为null时从范围边界开始
+     * Position the cursor, startKey is inclusive in the walking direction, null starts from the range bound
+     *
+     * @param startKey 起始key
+     */
+    void seek(byte[] startKey) {
+        // 全表扫描不填充共享块缓存, 避免把热点数据挤出缓存
+        readOptions = new ReadOptions().setFillCache(false);
+        iterator = db.newIterator(handle, readOptions);
+        if (!reverse) {
+            byte[] from = max(startKey, lowerKey);
+            if (from == null) {
+                iterator.seekToFirst();
+            } else {
+                iterator.seek(from);
+            }
+        } else {
+            if (startKey != null && (upperKey == null || DBUtils.compareKey(startKey, upperKey) < 0)) {
+                iterator.seekForPrev(startKey);
+            } else if (upperKey != null) {
+                iterator.seekForPrev(upperKey);
+                if (iterator.isValid() && DBUtils.compareKey(iterator.key(), upperKey) == 0) {
+                    iterator.prev();
+                }
+            } else {
+                iterator.seekToLast();
+            }
+        }
+    }
+
+    private static byte[] max(byte[] a, byte[] b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return DBUtils.compareKey(a, b) >= 0 ? a : b;
+    }
+
+    private boolean inRange(byte[] key) {
+        if (prefix != null && !DBUtils.startsWith(key, prefix)) {
+            return false;
+        }
+        if (lowerKey != null && DBUtils.compareKey(key, lowerKey) < 0) {
+            return false;
+        }
+        return upperKey == null || DBUtils.compareKey(key, upperKey) < 0;
+    }
+
+    @Override
+    public byte[] peekKey() {
+        if (!hasNext()) {
+            return null;
+        }
+        return iterator.key();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (isClose) {
+            return false;
+        }
+        if (iterator.isValid() && inRange(iterator.key())) {
+            return true;
+        }
+        // 遍历结束后立即释放资源
+        close();
+        return false;
+    }
+
+    @Override
+    public Entry<byte[], byte[]> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry<byte[], byte[]> entry = new Entry<>(iterator.key(), iterator.value());
+        if (reverse) {
+            iterator.prev();
+        } else {
+            iterator.next();
+        }
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        if (isClose) {
+            return;
+        }
+        isClose = true;
+        if (iterator != null) {
+            iterator.close();
+        }
+        if (readOptions != null) {
+            readOptions.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+import io.nuls.core.log.Log;
+import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * 基于列族的跨表批量操作, 只有列族模式下多张表共享同一个数据库时才能原子提交
+ * Cross-table batch on column families, only possible when the tables share one database (column family mode)
+ */
+public class RocksDBMultiTableBatchOperation implements MultiTableBatchOperation {
+
+    private RocksDB db;
+    private WriteBatch batch;
+    private volatile boolean isClose = false;
+
+    RocksDBMultiTableBatchOperation() {
+        batch = new WriteBatch();
+    }
+
+    private ColumnFamilyHandle checkTable(String table) throws Exception {
+        RocksDB tableDB = RocksDBManager.getTable(table);
+        ColumnFamilyHandle handle = RocksDBManager.getHandle(table);
+        if (tableDB == null || handle == null) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        if (db == null) {
+            db = tableDB;
+        } else if (db != tableDB) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_SAME_DB);
+        }
+        return handle;
+    }
+
+    @Override
+    public boolean put(String table, byte[] key, byte[] value) throws Exception {
+        if (key == null || value == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
+        batch.put(checkTable(table), key, value);
+        return true;
+    }
+
+    @Override
+    public boolean delete(String table, byte[] key) throws Exception {
+        if (key == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
+        batch.delete(checkTable(table), key);
+        return true;
+    }
+
+    @Override
+    public boolean executeBatch() throws Exception {
+        // 检查逻辑关闭
+        if (isClose) {
+            throw new Exception(DBErrorCode.DB_TABLE_FAILED_BATCH_CLOSE);
+        }
+        try (WriteOptions writeOptions = new WriteOptions()) {
+            if (db != null) {
+                db.write(writeOptions, batch);
+            }
+        } catch (Exception e) {
+            Log.error(e);
+            throw new Exception(DBErrorCode.DB_UNKOWN_EXCEPTION);
+        } finally {
+            // 关闭批量操作对象释放资源
+            isClose = true;
+            batch.close();
+        }
+        return true;
+    }
+}
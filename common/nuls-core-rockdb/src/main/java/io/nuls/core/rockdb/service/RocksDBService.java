@@ -21,9 +21,12 @@ package io.nuls.core.rockdb.service;
 
 import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
+import io.nuls.core.rockdb.constant.DBTableProfile;
 import io.nuls.core.rockdb.manager.RocksDBManager;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.EntryPage;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +41,28 @@ public class RocksDBService {
         }
     }
 
+    /**
+     * 以列族模式初始化, 所有表作为列族保存在同一个数据库中, 可以使用createMultiTableWriteBatch跨表原子提交
+     * init in column family mode, all tables share one database so that createMultiTableWriteBatch can commit atomically across tables
+     * @param path
+     */
+    public static void initColumnFamilyMode(String path) {
+        try {
+            RocksDBManager.initColumnFamilyMode(path);
+        } catch (Exception e) {
+            Log.error(e.getMessage(),e);
+        }
+    }
+
+    /**
+     * 是否为列族模式
+     * whether all tables share one database as column families
+     * @return
+     */
+    public static boolean isColumnFamilyMode() {
+        return RocksDBManager.isColumnFamilyMode();
+    }
+
     public static boolean createTable(String tableName) throws Exception {
         if (!RocksDBService.existTable(tableName)) {
             return RocksDBManager.createTable(tableName);
@@ -45,6 +70,21 @@ public class RocksDBService {
         return false;
     }
 
+    /**
+     * 按调优配置创建表
+     * create table with the given tuning profile
+     * @param tableName
+     * @param profile
+     * @return
+     * @throws Exception
+     */
+    public static boolean createTable(String tableName, DBTableProfile profile) throws Exception {
+        if (!RocksDBService.existTable(tableName)) {
+            return RocksDBManager.createTable(tableName, profile);
+        }
+        return false;
+    }
+
     public static boolean destroyTable(String table) throws Exception {
         return RocksDBManager.destroyTable(table);
     }
@@ -68,6 +108,47 @@ public class RocksDBService {
         return exist;
     }
 
+    /**
+     * 如果表不存在就按调优配置创建表
+     * if table not exist then create this with the given tuning profile;
+     * @param table
+     * @param profile
+     * @return
+     * @throws Exception
+     */
+    public static boolean createTableIfNotExist(String table, DBTableProfile profile) throws Exception {
+        boolean exist = existTable(table);
+        if(!exist){
+            createTable(table, profile);
+        }
+        return exist;
+    }
+
+    public static DBTableProfile getTableProfile(String table) {
+        return RocksDBManager.getTableProfile(table);
+    }
+
+    /**
+     * 设置共享块缓存大小, 需在创建使用块缓存的表之前调用
+     * set the shared block cache capacity, must be called before any cached table is opened
+     * @param size
+     */
+    public static void setBlockCacheSize(long size) {
+        RocksDBManager.setBlockCacheSize(size);
+    }
+
+    public static double getBlockCacheHitRate() {
+        return RocksDBManager.getBlockCacheHitRate();
+    }
+
+    public static long getBlockCacheHitCount() {
+        return RocksDBManager.getBlockCacheHitCount();
+    }
+
+    public static long getBlockCacheMissCount() {
+        return RocksDBManager.getBlockCacheMissCount();
+    }
+
     /**
      * 判断表是否存在
      *
@@ -131,6 +212,116 @@ public class RocksDBService {
         return RocksDBManager.entryList(table);
     }
 
+    /**
+     * 全表游标, 按key升序逐条读取
+     * cursor over the whole table in ascending key order
+     * @param table
+     * @return 表不存在时返回null
+     */
+    public static DBIterator iterator(String table) {
+        return createIterator(table, null, null, null, false, null);
+    }
+
+    /**
+     * 前缀游标, 只返回以prefix开头的数据
+     * cursor over the entries whose key starts with prefix
+     * @param table
+     * @param prefix
+     * @return 表不存在时返回null
+     */
+    public static DBIterator prefixIterator(String table, byte[] prefix) {
+        return createIterator(table, prefix, null, prefix, false, null);
+    }
+
+    /**
+     * 范围游标, 范围为[fromKey, toKey), 为null表示不限制
+     * cursor over [fromKey, toKey) in ascending order, null means unbounded
+     * @param table
+     * @param fromKey
+     * @param toKey
+     * @return 表不存在时返回null
+     */
+    public static DBIterator rangeIterator(String table, byte[] fromKey, byte[] toKey) {
+        return createIterator(table, fromKey, toKey, null, false, null);
+    }
+
+    /**
+     * 反向范围游标, 范围为[fromKey, toKey), 从大到小遍历
+     * cursor over [fromKey, toKey) in descending order, null means unbounded
+     * @param table
+     * @param fromKey
+     * @param toKey
+     * @return 表不存在时返回null
+     */
+    public static DBIterator reverseIterator(String table, byte[] fromKey, byte[] toKey) {
+        return createIterator(table, fromKey, toKey, null, true, null);
+    }
+
+    /**
+     * 分页读取, startKey为本页起始key(包含), 为null时从第一条开始
+     * read one bounded page in ascending order, startKey is inclusive and null starts from the first entry
+     * @param table
+     * @param startKey 上一页返回的nextKey
+     * @param limit    本页最大条数
+     * @return 表不存在时返回null
+     */
+    public static EntryPage page(String table, byte[] startKey, int limit) {
+        return page(createIterator(table, null, null, null, false, startKey), limit);
+    }
+
+    /**
+     * 按前缀分页读取
+     * read one bounded page of the entries whose key starts with prefix
+     * @param table
+     * @param prefix
+     * @param startKey 上一页返回的nextKey
+     * @param limit    本页最大条数
+     * @return 表不存在时返回null
+     */
+    public static EntryPage prefixPage(String table, byte[] prefix, byte[] startKey, int limit) {
+        return page(createIterator(table, prefix, null, prefix, false, startKey), limit);
+    }
+
+    /**
+     * 反向分页读取, startKey为本页起始key(包含), 为null时从最后一条开始
+     * read one bounded page in descending order, startKey is inclusive and null starts from the last entry
+     * @param table
+     * @param startKey 上一页返回的nextKey
+     * @param limit    本页最大条数
+     * @return 表不存在时返回null
+     */
+    public static EntryPage reversePage(String table, byte[] startKey, int limit) {
+        return page(createIterator(table, null, null, null, true, startKey), limit);
+    }
+
+    private static EntryPage page(DBIterator iterator, int limit) {
+        if (iterator == null) {
+            return null;
+        }
+        try (DBIterator it = iterator) {
+            List<Entry<byte[], byte[]>> entries = new ArrayList<>(Math.min(Math.max(limit, 0), 1024));
+            while (entries.size() < limit && it.hasNext()) {
+                entries.add(it.next());
+            }
+            return new EntryPage(entries, it.peekKey());
+        }
+    }
+
+    private static DBIterator createIterator(String table, byte[] lowerKey, byte[] upperKey, byte[] prefix, boolean reverse, byte[] startKey) {
+        if (StringUtils.isBlank(table)) {
+            return null;
+        }
+        RocksDBIterator iterator = new RocksDBIterator(table, lowerKey, upperKey, prefix, reverse);
+        try {
+            iterator.checkIterator();
+            iterator.seek(startKey);
+        } catch (Exception e) {
+            Log.error("DB iterator create error: " + e.getMessage());
+            return null;
+        }
+        return iterator;
+    }
+
     public static BatchOperation createWriteBatch(String table) {
         if (StringUtils.isBlank(table)) {
             return null;
@@ -147,4 +338,13 @@ public class RocksDBService {
         }
         return batchOperation;
     }
+
+    /**
+     * 创建跨表批量操作, 仅在列族模式下可用于多张表
+     * create a batch that commits writes to several tables atomically, the tables must share one database (column family mode)
+     * @return
+     */
+    public static MultiTableBatchOperation createMultiTableWriteBatch() {
+        return new RocksDBMultiTableBatchOperation();
+    }
 }
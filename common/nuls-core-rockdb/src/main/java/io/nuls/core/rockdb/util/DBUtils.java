@@ -135,6 +135,33 @@ public class DBUtils {
         String regex = "^[a-zA-Z0-9_\\-]+$";
         return areaName.matches(regex);
     }
+
+    /**
+     * 按rocksdb默认的字节序比较两个key(无符号字典序)
+     * compare keys the way the default rocksdb bytewise comparator does (unsigned lexicographic)
+     */
+    public static int compareKey(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (a[i] & 0xff) - (b[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    public static boolean startsWith(byte[] key, byte[] prefix) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
     /*public static void main(String []args){
         System.out.println(  DBUtils.class.getProtectionDomain().getCodeSource().getLocation().getPath());
     }*/
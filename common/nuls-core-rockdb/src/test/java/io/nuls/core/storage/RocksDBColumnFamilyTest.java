@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.constant.DBTableProfile;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.DBIterator;
+import io.nuls.core.rockdb.service.MultiTableBatchOperation;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 列族模式测试
+ */
+public class RocksDBColumnFamilyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+    }
+
+    @Test
+    public void tableOperationTest() throws Exception {
+        RocksDBService.initColumnFamilyMode(folder.newFolder("cf").getAbsolutePath());
+        Assert.assertTrue(RocksDBManager.isColumnFamilyMode());
+        RocksDBService.createTable("header");
+        RocksDBService.createTable("height", DBTableProfile.POINT_LOOKUP);
+        Assert.assertSame(RocksDBManager.getTable("header"), RocksDBManager.getTable("height"));
+
+        RocksDBService.put("header", "k".getBytes(UTF_8), "header".getBytes(UTF_8));
+        RocksDBService.put("height", "k".getBytes(UTF_8), "height".getBytes(UTF_8));
+        Assert.assertArrayEquals("header".getBytes(UTF_8), RocksDBService.get("header", "k".getBytes(UTF_8)));
+        Assert.assertArrayEquals("height".getBytes(UTF_8), RocksDBService.get("height", "k".getBytes(UTF_8)));
+        Assert.assertTrue(RocksDBService.keyMayExist("height", "k".getBytes(UTF_8)));
+
+        Map<byte[], byte[]> kvs = new HashMap<>();
+        kvs.put("k1".getBytes(UTF_8), "v1".getBytes(UTF_8));
+        kvs.put("k2".getBytes(UTF_8), "v2".getBytes(UTF_8));
+        RocksDBService.batchPut("header", kvs);
+        Assert.assertEquals(3, RocksDBService.keyList("header").size());
+        Assert.assertEquals(1, RocksDBService.keyList("height").size());
+        Assert.assertEquals(2, RocksDBService.multiGetAsList("header", Arrays.asList("k1".getBytes(UTF_8), "k2".getBytes(UTF_8))).size());
+        try (DBIterator iterator = RocksDBService.prefixIterator("header", "k".getBytes(UTF_8))) {
+            int count = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+            Assert.assertEquals(3, count);
+        }
+
+        RocksDBService.destroyTable("header");
+        Assert.assertFalse(RocksDBService.existTable("header"));
+        Assert.assertArrayEquals("height".getBytes(UTF_8), RocksDBService.get("height", "k".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void multiTableBatchTest() throws Exception {
+        RocksDBService.initColumnFamilyMode(folder.newFolder("cf-batch").getAbsolutePath());
+        RocksDBService.createTable("block-header");
+        RocksDBService.createTable("block-height");
+        MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+        batch.put("block-header", "hash".getBytes(UTF_8), "header".getBytes(UTF_8));
+        batch.put("block-height", "1".getBytes(UTF_8), "hash".getBytes(UTF_8));
+        Assert.assertNull(RocksDBService.get("block-header", "hash".getBytes(UTF_8)));
+        Assert.assertTrue(batch.executeBatch());
+        Assert.assertArrayEquals("header".getBytes(UTF_8), RocksDBService.get("block-header", "hash".getBytes(UTF_8)));
+        Assert.assertArrayEquals("hash".getBytes(UTF_8), RocksDBService.get("block-height", "1".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void reopenTest() throws Exception {
+        String path = folder.newFolder("cf-reopen").getAbsolutePath();
+        RocksDBService.initColumnFamilyMode(path);
+        RocksDBService.createTable("account", DBTableProfile.POINT_LOOKUP);
+        RocksDBService.createTable("snapshot", DBTableProfile.ARCHIVE);
+        RocksDBService.put("account", "a".getBytes(UTF_8), "1".getBytes(UTF_8));
+        RocksDBManager.close();
+        Assert.assertFalse(RocksDBManager.isColumnFamilyMode());
+
+        RocksDBService.initColumnFamilyMode(path);
+        Assert.assertTrue(RocksDBService.existTable("account"));
+        Assert.assertTrue(RocksDBService.existTable("snapshot"));
+        Assert.assertEquals(DBTableProfile.POINT_LOOKUP, RocksDBService.getTableProfile("account"));
+        Assert.assertEquals(DBTableProfile.ARCHIVE, RocksDBService.getTableProfile("snapshot"));
+        Assert.assertArrayEquals("1".getBytes(UTF_8), RocksDBService.get("account", "a".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void reopenClosedTableTest() throws Exception {
+        String path = folder.newFolder("cf-close-table").getAbsolutePath();
+        RocksDBService.initColumnFamilyMode(path);
+        RocksDBService.createTable("account", DBTableProfile.POINT_LOOKUP);
+        RocksDBService.createTable("nonce");
+        RocksDBService.put("account", "a".getBytes(UTF_8), "1".getBytes(UTF_8));
+        RocksDBService.put("nonce", "n".getBytes(UTF_8), "2".getBytes(UTF_8));
+        RocksDBManager.closeTable("account");
+        RocksDBManager.closeTable("nonce");
+        Assert.assertFalse(RocksDBService.existTable("account"));
+
+        //重新初始化打开已关闭的表
+        RocksDBService.initColumnFamilyMode(path);
+        Assert.assertTrue(RocksDBService.existTable("account"));
+        Assert.assertEquals(DBTableProfile.POINT_LOOKUP, RocksDBService.getTableProfile("account"));
+        Assert.assertArrayEquals("1".getBytes(UTF_8), RocksDBService.get("account", "a".getBytes(UTF_8)));
+
+        //重新创建已关闭的表时保留原有数据
+        RocksDBManager.closeTable("nonce");
+        Assert.assertTrue(RocksDBService.createTable("nonce"));
+        Assert.assertArrayEquals("2".getBytes(UTF_8), RocksDBService.get("nonce", "n".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void multiTableBatchIsAtomicTest() throws Exception {
+        RocksDBService.initColumnFamilyMode(folder.newFolder("cf-atomic").getAbsolutePath());
+        RocksDBService.createTable("block-header");
+        RocksDBService.createTable("block-height");
+        MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+        batch.put("block-header", "hash".getBytes(UTF_8), "header".getBytes(UTF_8));
+        batch.put("block-height", "1".getBytes(UTF_8), "hash".getBytes(UTF_8));
+        //批次中途失败时已加入的写入不会落盘
+        try {
+            batch.put("missing-table", "k".getBytes(UTF_8), "v".getBytes(UTF_8));
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+        Assert.assertNull(RocksDBService.get("block-header", "hash".getBytes(UTF_8)));
+        Assert.assertNull(RocksDBService.get("block-height", "1".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void multiTableBatchNeedsSharedDBTest() throws Exception {
+        RocksDBService.init(folder.newFolder("table-per-db").getAbsolutePath());
+        RocksDBService.createTable("table-a");
+        RocksDBService.createTable("table-b");
+        MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+        batch.put("table-a", "k".getBytes(UTF_8), "v".getBytes(UTF_8));
+        try {
+            batch.put("table-b", "k".getBytes(UTF_8), "v".getBytes(UTF_8));
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.EntryPage;
+import io.nuls.core.rockdb.service.DBIterator;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 游标与分页查询测试
+ */
+public class RocksDBIteratorTest {
+
+    private static final String TABLE = "iterator-table";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void before() throws Exception {
+        RocksDBService.init(folder.newFolder("iterator").getAbsolutePath());
+        RocksDBService.createTable(TABLE);
+        for (String prefix : new String[]{"a", "b", "c"}) {
+            for (int i = 0; i < 10; i++) {
+                RocksDBService.put(TABLE, (prefix + i).getBytes(UTF_8), (prefix + "-value-" + i).getBytes(UTF_8));
+            }
+        }
+    }
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+    }
+
+    private static List<String> keys(DBIterator iterator) {
+        List<String> keys = new ArrayList<>();
+        try (DBIterator it = iterator) {
+            while (it.hasNext()) {
+                keys.add(new String(it.next().getKey(), UTF_8));
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    public void iteratorTest() {
+        List<String> keys = keys(RocksDBService.iterator(TABLE));
+        Assert.assertEquals(30, keys.size());
+        Assert.assertEquals("a0", keys.get(0));
+        Assert.assertEquals("c9", keys.get(29));
+        Assert.assertNull(RocksDBService.iterator("not-exist-table"));
+    }
+
+    @Test
+    public void prefixIteratorTest() {
+        List<String> keys = keys(RocksDBService.prefixIterator(TABLE, "b".getBytes(UTF_8)));
+        Assert.assertEquals(10, keys.size());
+        Assert.assertEquals("b0", keys.get(0));
+        Assert.assertEquals("b9", keys.get(9));
+    }
+
+    @Test
+    public void rangeIteratorTest() {
+        List<String> keys = keys(RocksDBService.rangeIterator(TABLE, "a5".getBytes(UTF_8), "b2".getBytes(UTF_8)));
+        Assert.assertEquals(7, keys.size());
+        Assert.assertEquals("a5", keys.get(0));
+        Assert.assertEquals("b1", keys.get(6));
+    }
+
+    @Test
+    public void reverseIteratorTest() {
+        List<String> keys = keys(RocksDBService.reverseIterator(TABLE, "a5".getBytes(UTF_8), "b2".getBytes(UTF_8)));
+        Assert.assertEquals(7, keys.size());
+        Assert.assertEquals("b1", keys.get(0));
+        Assert.assertEquals("a5", keys.get(6));
+
+        keys = keys(RocksDBService.reverseIterator(TABLE, null, null));
+        Assert.assertEquals(30, keys.size());
+        Assert.assertEquals("c9", keys.get(0));
+    }
+
+    @Test
+    public void pageTest() {
+        List<String> keys = new ArrayList<>();
+        byte[] startKey = null;
+        int pages = 0;
+        do {
+            EntryPage page = RocksDBService.page(TABLE, startKey, 7);
+            Assert.assertTrue(page.getEntries().size() <= 7);
+            for (Entry<byte[], byte[]> entry : page.getEntries()) {
+                keys.add(new String(entry.getKey(), UTF_8));
+            }
+            startKey = page.getNextKey();
+            pages++;
+        } while (startKey != null);
+        Assert.assertEquals(5, pages);
+        Assert.assertEquals(30, keys.size());
+        Assert.assertEquals("c9", keys.get(29));
+    }
+
+    @Test
+    public void reversePageTest() {
+        EntryPage page = RocksDBService.reversePage(TABLE, null, 4);
+        Assert.assertEquals(4, page.getEntries().size());
+        Assert.assertEquals("c9", new String(page.getEntries().get(0).getKey(), UTF_8));
+        Assert.assertEquals("c5", new String(page.getNextKey(), UTF_8));
+
+        page = RocksDBService.reversePage(TABLE, page.getNextKey(), 4);
+        Assert.assertEquals("c5", new String(page.getEntries().get(0).getKey(), UTF_8));
+        Assert.assertEquals("c2", new String(page.getEntries().get(3).getKey(), UTF_8));
+    }
+
+    @Test
+    public void prefixPageTest() {
+        EntryPage page = RocksDBService.prefixPage(TABLE, "c".getBytes(UTF_8), null, 10);
+        Assert.assertEquals(10, page.getEntries().size());
+        Assert.assertFalse(page.hasMore());
+    }
+}
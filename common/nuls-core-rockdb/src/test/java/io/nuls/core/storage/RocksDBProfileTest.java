@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.constant.DBTableProfile;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 数据表调优配置与共享块缓存测试
+ */
+public class RocksDBProfileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String dataPath;
+
+    @Before
+    public void before() throws Exception {
+        dataPath = folder.newFolder("profile").getAbsolutePath();
+        RocksDBService.init(dataPath);
+    }
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+    }
+
+    @Test
+    public void createWithProfileTest() throws Exception {
+        for (DBTableProfile profile : DBTableProfile.values()) {
+            String table = "profile-" + profile.name().toLowerCase().replace('_', '-');
+            Assert.assertTrue(RocksDBService.createTable(table, profile));
+            Assert.assertEquals(profile, RocksDBService.getTableProfile(table));
+            RocksDBService.put(table, "key".getBytes(UTF_8), profile.name().getBytes(UTF_8));
+            Assert.assertArrayEquals(profile.name().getBytes(UTF_8), RocksDBService.get(table, "key".getBytes(UTF_8)));
+        }
+    }
+
+    @Test
+    public void profilePersistedAfterReopenTest() throws Exception {
+        RocksDBService.createTable("hot-table", DBTableProfile.POINT_LOOKUP);
+        RocksDBService.put("hot-table", "key".getBytes(UTF_8), "value".getBytes(UTF_8));
+        RocksDBManager.close();
+
+        RocksDBService.init(dataPath);
+        Assert.assertEquals(DBTableProfile.POINT_LOOKUP, RocksDBService.getTableProfile("hot-table"));
+        Assert.assertArrayEquals("value".getBytes(UTF_8), RocksDBService.get("hot-table", "key".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void blockCacheHitRateTest() throws Exception {
+        String table = "cached-table";
+        RocksDBService.createTable(table, DBTableProfile.POINT_LOOKUP);
+        for (int i = 0; i < 1000; i++) {
+            RocksDBService.put(table, ("key" + i).getBytes(UTF_8), ("value" + i).getBytes(UTF_8));
+        }
+        RocksDBManager.getTable(table).flush(new org.rocksdb.FlushOptions().setWaitForFlush(true));
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertNotNull(RocksDBService.get(table, ("key" + i).getBytes(UTF_8)));
+            }
+        }
+        Assert.assertTrue(RocksDBService.getBlockCacheHitCount() > 0);
+        double hitRate = RocksDBService.getBlockCacheHitRate();
+        Assert.assertTrue(hitRate > 0 && hitRate <= 1);
+    }
+
+    @Test
+    public void parseProfileTest() {
+        Assert.assertEquals(DBTableProfile.ARCHIVE, DBTableProfile.parse(" archive\n"));
+        Assert.assertEquals(DBTableProfile.DEFAULT, DBTableProfile.parse("unknown"));
+        Assert.assertEquals(DBTableProfile.DEFAULT, DBTableProfile.parse(null));
+    }
+}
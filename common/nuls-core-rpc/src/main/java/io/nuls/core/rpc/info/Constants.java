@@ -187,6 +187,18 @@ public class Constants {
 
     public static final String ZERO = "0";
 
+    /**
+     * 消息格式：JSON文本，外部客户端及调试使用
+     * Message format: JSON text, used by external and debug clients
+     */
+    public static final String MESSAGE_FORMAT_JSON = "json";
+
+    /**
+     * 消息格式：长度前缀二进制，模块间握手协商后使用
+     * Message format: length-prefixed binary, used between modules once negotiated
+     */
+    public static final String MESSAGE_FORMAT_BINARY = "binary";
+
     /**
      * 处理待处理消息的线程池
      * Thread pool for processing messages to be processed
@@ -29,6 +29,7 @@ import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.core.constant.ErrorCode;
 import io.nuls.core.model.DateUtils;
+import io.nuls.core.parse.JSONUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -72,6 +73,7 @@ public class MessageUtil {
         negotiateConnection.setProtocolVersion("0.1");
         negotiateConnection.setCompressionAlgorithm("zlib");
         negotiateConnection.setCompressionRate("0");
+        negotiateConnection.setMessageFormat(ConnectManager.isBinaryFormatEnabled() ? Constants.MESSAGE_FORMAT_BINARY : Constants.MESSAGE_FORMAT_JSON);
         return negotiateConnection;
     }
 
@@ -180,6 +182,18 @@ public class MessageUtil {
         return response;
     }
 
-
-
+    /**
+     * 获取消息中的Request，已解析过的直接返回，避免重复转换
+     * Get the Request carried by a message, an already parsed Request is returned as is to avoid converting it again
+     *
+     * @param message Request message
+     * @return Request
+     */
+    public static Request getRequest(Message message) {
+        Object data = message.getMessageData();
+        if (data instanceof Request) {
+            return (Request) data;
+        }
+        return JSONUtils.map2pojo((Map) data, Request.class);
+    }
 }
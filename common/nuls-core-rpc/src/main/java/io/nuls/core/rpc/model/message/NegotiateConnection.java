@@ -63,6 +63,13 @@ public class NegotiateConnection {
     @JsonProperty
     private String CompressionRate;
 
+    /**
+     * 期望的消息格式，json（默认）或binary
+     * The message format the sender would like to use, json (default) or binary
+     */
+    @JsonProperty
+    private String MessageFormat;
+
     @JsonIgnore
     public String getAbbreviation() {
         return Abbreviation;
@@ -102,4 +109,14 @@ public class NegotiateConnection {
     public void setCompressionRate(String CompressionRate) {
         this.CompressionRate = CompressionRate;
     }
+
+    @JsonIgnore
+    public String getMessageFormat() {
+        return MessageFormat;
+    }
+
+    @JsonIgnore
+    public void setMessageFormat(String MessageFormat) {
+        this.MessageFormat = MessageFormat;
+    }
 }
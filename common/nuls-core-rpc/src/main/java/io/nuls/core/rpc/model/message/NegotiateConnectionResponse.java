@@ -51,6 +51,13 @@ public class NegotiateConnectionResponse {
     @JsonProperty
     private String NegotiationComment;
 
+    /**
+     * 双方确认使用的消息格式，json或binary
+     * The message format both sides agreed on, json or binary
+     */
+    @JsonProperty
+    private String MessageFormat;
+
     @JsonIgnore
     public String getRequestID() {
         return RequestID;
@@ -80,4 +87,14 @@ public class NegotiateConnectionResponse {
     public void setNegotiationComment(String NegotiationComment) {
         this.NegotiationComment = NegotiationComment;
     }
+
+    @JsonIgnore
+    public String getMessageFormat() {
+        return MessageFormat;
+    }
+
+    @JsonIgnore
+    public void setMessageFormat(String MessageFormat) {
+        this.MessageFormat = MessageFormat;
+    }
 }
@@ -3,6 +3,7 @@ package io.nuls.core.rpc.modulebootstrap;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.log.Log;
+import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
 import io.nuls.core.thread.ThreadUtils;
 
 import java.io.BufferedReader;
@@ -21,6 +22,12 @@ public class NulsRpcModuleBootstrap {
 
     private static boolean printLogoed = false;
 
+    /**
+     * 同进程模式开关，-Drpc.colocation=true 开启
+     * Co-location switch, enabled by -Drpc.colocation=true
+     */
+    private static final String COLOCATION_PROPERTY = "rpc.colocation";
+
     public static void main(String[] args) {
         NulsRpcModuleBootstrap.run(args);
     }
@@ -33,6 +40,7 @@ public class NulsRpcModuleBootstrap {
         printLogo("/logo");
         Log.info("RUN MODULE:{}",System.getProperty("app.name"));
         SpringLiteContext.init(scanPackage, "io.nuls.core.rpc.modulebootstrap", "io.nuls.core.rpc.cmd", "io.nuls.base.protocol");
+        initColocation();
         RpcModule module;
         try {
             module = SpringLiteContext.getBean(RpcModule.class);
@@ -81,6 +89,21 @@ public class NulsRpcModuleBootstrap {
         module.run(scanPackage, args[0],args);
     }
 
+    /**
+     * 开启同进程模式后，目标角色自己在本进程注册的接口直接在内存中处理。
+     * 同一进程中的其他模块通过ConnectManager.registerColocatedCmds按各自的角色注册接口，调用这些角色(如交易模块调用账本模块)时同样走内存。
+     * With co-location enabled, cmds the target role registered in this JVM are handled in memory.
+     * Other modules hosted in the same JVM register their cmds under their own role with ConnectManager.registerColocatedCmds,
+     * so calls to those roles (e.g. transaction to ledger) are handled in memory as well.
+     */
+    private static void initColocation() {
+        if (!Boolean.parseBoolean(System.getProperty(COLOCATION_PROPERTY))) {
+            return;
+        }
+        ConnectManager.setColocationEnabled(true);
+        Log.info("rpc co-location enabled");
+    }
+
     public static void printLogo(String logoFile) {
         if(printLogoed) {
             return ;
@@ -1,29 +1,36 @@
 package io.nuls.core.rpc.netty.channel.manager;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.nuls.core.core.ioc.ScanUtil;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.parse.JSONUtils;
 import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.cmd.BaseCmd;
 import io.nuls.core.rpc.invoke.BaseInvoke;
 import io.nuls.core.rpc.model.*;
 import io.nuls.core.rpc.model.message.Message;
+import io.nuls.core.rpc.model.message.MessageUtil;
 import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.bootstrap.NettyClient;
 import io.nuls.core.rpc.netty.channel.ConnectData;
+import io.nuls.core.rpc.netty.processor.CmdInvoker;
 import io.nuls.core.rpc.netty.processor.RequestMessageProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByCountProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByPeriodProcessor;
 import io.nuls.core.rpc.netty.thread.RequestOnlyProcessor;
 import io.nuls.core.rpc.netty.thread.ResponseAutoProcessor;
+import io.nuls.core.rpc.util.BinaryMessageCodec;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.core.rpc.util.SerializeUtil;
 
@@ -52,6 +59,32 @@ public class ConnectManager {
      */
     public static boolean startService = false;
 
+    /**
+     * 二进制消息格式开关，默认开启，-Drpc.binaryFormat=false 关闭后只使用JSON格式
+     * Binary message format switch, on by default, -Drpc.binaryFormat=false keeps every connection on JSON
+     */
+    public static final String BINARY_FORMAT_PROPERTY = "rpc.binaryFormat";
+
+    /**
+     * 握手时是否请求使用二进制消息格式
+     * Whether to ask for the binary message format during handshake
+     */
+    private static volatile boolean binaryFormatEnabled = Boolean.parseBoolean(System.getProperty(BINARY_FORMAT_PROPERTY, "true"));
+
+    /**
+     * 同进程模式：目标角色自己在本进程注册的接口直接在内存中调用，不经过Websocket
+     * Co-location mode: a cmd the target role registered in this JVM is called in memory instead of through Websocket
+     */
+    private static volatile boolean colocationEnabled = false;
+
+    /**
+     * 各角色在本进程注册的接口调用器，同进程调用只使用目标角色自己注册的接口
+     * Invokers each role registered in this JVM, an in-process call only uses cmds registered by the target role itself
+     * Key: 角色(ModuleE.abbr) / Role (ModuleE.abbr)
+     * Value: cmd -> 该cmd所有版本的调用器 / cmd -> invokers of all versions of the cmd
+     */
+    private static final Map<String, Map<String, List<CmdInvoker>>> ROLE_CMD_MAP = new ConcurrentHashMap<>();
+
     /**
      * 本模块所有对外提供的接口的详细信息
      * local module(io.nuls.rpc.RegisterApi) information
@@ -64,6 +97,14 @@ public class ConnectManager {
      * */
     public static final Map<String, Integer> CMD_PRIORITY_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * 本模块接口按cmd索引，避免每次请求遍历全部接口
+     * Local commands indexed by cmd, so a request does not scan every registered method
+     * Key: cmd
+     * Value: 该cmd的所有版本 / All versions of the cmd
+     */
+    private static final Map<String, List<CmdDetail>> LOCAL_CMD_MAP = new ConcurrentHashMap<>();
+
     /**
      * 本模块配置信息
      * Configuration information of this module
@@ -109,6 +150,12 @@ public class ConnectManager {
      */
     public static final ConcurrentMap<String, Channel> MSG_ID_KEY_CHANNEL_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * 握手协商使用二进制消息格式的链接，其余链接使用JSON
+     * Channels that negotiated the binary message format, all other channels use JSON
+     */
+    public static final Set<Channel> BINARY_CHANNEL_SET = ConcurrentHashMap.newKeySet();
+
     /**
      * 接口被那些Message订阅
      * Interfaces have been subscribed to by those Messages
@@ -158,7 +205,7 @@ public class ConnectManager {
     public static CmdDetail getLocalInvokeCmd(String cmd, double minVersion) {
 
         CmdDetail find = null;
-        for (CmdDetail cmdDetail : LOCAL.getMethods()) {
+        for (CmdDetail cmdDetail : LOCAL_CMD_MAP.getOrDefault(cmd, Collections.emptyList())) {
             /*
             cmd不一致，跳过
             CMD inconsistency, skip
@@ -205,7 +252,7 @@ public class ConnectManager {
      */
     public static CmdDetail getLocalInvokeCmd(String cmd) {
         CmdDetail find = null;
-        for (CmdDetail cmdDetail : LOCAL.getMethods()) {
+        for (CmdDetail cmdDetail : LOCAL_CMD_MAP.getOrDefault(cmd, Collections.emptyList())) {
             if (!cmdDetail.getMethodName().equals(cmd)) {
                 continue;
             }
@@ -255,8 +302,7 @@ public class ConnectManager {
                 Repeated interfaces are registered only once
                  */
                 if (!isRegister(cmdDetail)) {
-                    LOCAL.getMethods().add(cmdDetail);
-                    RequestMessageProcessor.handlerMap.put(cmdDetail.getInvokeClass(), SpringLiteContext.getBeanByClass(cmdDetail.getInvokeClass()));
+                    registerCmd(cmdDetail, method);
                     Log.debug("valid cmdDetail-" + cmdDetail);
                 } else {
                     throw new Exception(Constants.CMD_DUPLICATE + ":" + cmdDetail.getMethodName() + "-" + cmdDetail.getVersion());
@@ -278,8 +324,7 @@ public class ConnectManager {
                 Repeated interfaces are registered only once
                  */
             if (!isRegister(cmdDetail)) {
-                LOCAL.getMethods().add(cmdDetail);
-                RequestMessageProcessor.handlerMap.put(cmdDetail.getInvokeClass(), SpringLiteContext.getBeanByClass(cmdDetail.getInvokeClass()));
+                registerCmd(cmdDetail, method);
             }
             ;
 //            else {
@@ -288,6 +333,79 @@ public class ConnectManager {
         }
     }
 
+    /**
+     * 注册本地接口：加入接口列表与cmd索引，并编译调用器
+     * Register a local command: add it to the method list and cmd index, and compile its invoker
+     *
+     * @param cmdDetail CmdDetail
+     * @param method    Method
+     */
+    private static void registerCmd(CmdDetail cmdDetail, Method method) {
+        LOCAL.getMethods().add(cmdDetail);
+        LOCAL_CMD_MAP.computeIfAbsent(cmdDetail.getMethodName(), key -> new CopyOnWriteArrayList<>()).add(cmdDetail);
+        Object handler = SpringLiteContext.getBeanByClass(cmdDetail.getInvokeClass());
+        RequestMessageProcessor.handlerMap.put(cmdDetail.getInvokeClass(), handler);
+        CmdInvoker invoker = RequestMessageProcessor.registerInvoker(cmdDetail, method, handler);
+        if (invoker != null && LOCAL.getAbbreviation() != null) {
+            addRoleInvoker(LOCAL.getAbbreviation(), invoker);
+        }
+    }
+
+    /**
+     * 注册与本模块运行在同一进程中的其他模块的接口，按该模块自己的角色索引
+     * Register the cmds of another module running in this JVM, indexed by that module's own role
+     * <p>
+     * 这些接口不会加入本模块对外提供的接口列表，只用于同进程调用
+     * They are not added to this module's exported cmd list, they only serve in-process calls
+     *
+     * @param role     模块角色(ModuleE.abbr) / Module role (ModuleE.abbr)
+     * @param handlers 该模块的接口Bean / Cmd beans of the module
+     * @throws Exception 接口无法编译 / A cmd cannot be compiled
+     */
+    public static void registerColocatedCmds(String role, Collection<? extends BaseCmd> handlers) throws Exception {
+        for (BaseCmd handler : handlers) {
+            for (Method method : handler.getClass().getDeclaredMethods()) {
+                CmdDetail cmdDetail = annotation2CmdDetail(method);
+                if (cmdDetail != null) {
+                    addRoleInvoker(role, new CmdInvoker(cmdDetail, method, handler));
+                }
+            }
+        }
+    }
+
+    private static void addRoleInvoker(String role, CmdInvoker invoker) {
+        ROLE_CMD_MAP.computeIfAbsent(role, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(invoker.getCmdDetail().getMethodName(), key -> new CopyOnWriteArrayList<>()).add(invoker);
+    }
+
+    /**
+     * 获取目标角色在本进程注册的接口调用器，规则与getLocalInvokeCmd一致：不指定版本时取最高版本，指定时取大版本相同的最高版本
+     * Get the invoker the target role registered in this JVM, with the same rules as getLocalInvokeCmd:
+     * the highest version without a version, otherwise the highest version with the same major version
+     *
+     * @param role       角色 / Role
+     * @param cmd        接口 / Cmd
+     * @param minVersion 版本，可为null / Version, may be null
+     * @return CmdInvoker, null if not registered
+     */
+    public static CmdInvoker getColocatedInvoker(String role, String cmd, Double minVersion) {
+        Map<String, List<CmdInvoker>> cmdMap = role == null ? null : ROLE_CMD_MAP.get(role);
+        if (cmdMap == null) {
+            return null;
+        }
+        CmdInvoker find = null;
+        for (CmdInvoker invoker : cmdMap.getOrDefault(cmd, Collections.emptyList())) {
+            double version = invoker.getCmdDetail().getVersion();
+            if (minVersion != null && (int) version != minVersion.intValue()) {
+                continue;
+            }
+            if (find == null || version > find.getCmdDetail().getVersion()) {
+                find = invoker;
+            }
+        }
+        return find;
+    }
+
     /**
      * 保存所有拥有CmdAnnotation注解的方法
      * Save all methods that have CmdAnnotation annotations
@@ -363,7 +481,7 @@ public class ConnectManager {
      */
     private static boolean isRegister(CmdDetail sourceCmdDetail) {
         boolean exist = false;
-        for (CmdDetail cmdDetail : LOCAL.getMethods()) {
+        for (CmdDetail cmdDetail : LOCAL_CMD_MAP.getOrDefault(sourceCmdDetail.getMethodName(), Collections.emptyList())) {
             if (cmdDetail.getMethodName().equals(sourceCmdDetail.getMethodName()) && cmdDetail.getVersion() == sourceCmdDetail.getVersion()) {
                 exist = true;
                 break;
@@ -426,7 +544,7 @@ public class ConnectManager {
      * @param message
      */
     public static void subscribeCountMinus(Message message) {
-        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+        Request request = MessageUtil.getRequest(message);
         for (Object method : request.getRequestMethods().keySet()) {
             String cmd = (String) method;
             subscribeCountMinus(cmd);
@@ -455,7 +573,7 @@ public class ConnectManager {
      * @param message
      */
     public static void subscribeCountAdd(Message message) {
-        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+        Request request = MessageUtil.getRequest(message);
         for (Object method : request.getRequestMethods().keySet()) {
             String cmd = (String) method;
             subscribeCountAdd(cmd);
@@ -491,7 +609,7 @@ public class ConnectManager {
      */
     public static void unsubscribeByEvent(Message message) {
         MESSAGE_TO_CHANNEL_MAP.remove(message);
-        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+        Request request = MessageUtil.getRequest(message);
         for (String method : request.getRequestMethods().keySet()) {
             if (CMD_SUBSCRIBE_MESSAGE_MAP.containsKey(method)) {
                 CMD_SUBSCRIBE_MESSAGE_MAP.get(method).remove(message);
@@ -521,7 +639,7 @@ public class ConnectManager {
                 String key = getSubscribeKey(message.getMessageID(), cmd);
                 if (connectData.getSubscribeInitCount().containsKey(key)) {
                     int initCount = connectData.getSubscribeInitCount().get(key);
-                    Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+                    Request request = MessageUtil.getRequest(message);
                     long eventCount = Long.parseLong(request.getSubscriptionEventCounter());
                     if ((changeCount - initCount) % eventCount == 0) {
                         try {
@@ -711,6 +829,7 @@ public class ConnectManager {
                 msgEntries.remove();
             }
         }
+        BINARY_CHANNEL_SET.remove(channel);
         ConnectData connectData = CHANNEL_DATA_MAP.remove(channel);
         connectData.setConnected(false);
         connectData.getThreadPool().shutdown();
@@ -732,11 +851,74 @@ public class ConnectManager {
         }
     }
 
+    /**
+     * 判断接口是否由目标角色注册在本进程中，可以直接在内存中调用
+     * Whether the cmd is registered in this JVM by the target role, so it can be called in memory
+     *
+     * @param role 角色 / Role
+     * @param cmd  接口 / Cmd
+     * @return boolean
+     */
+    public static boolean isColocatedCmd(String role, String cmd) {
+        return colocationEnabled && getColocatedInvoker(role, cmd, null) != null;
+    }
+
+    public static boolean isColocationEnabled() {
+        return colocationEnabled;
+    }
+
+    public static void setColocationEnabled(boolean colocationEnabled) {
+        ConnectManager.colocationEnabled = colocationEnabled;
+    }
+
+    public static boolean isBinaryFormatEnabled() {
+        return binaryFormatEnabled;
+    }
+
+    public static void setBinaryFormatEnabled(boolean binaryFormatEnabled) {
+        ConnectManager.binaryFormatEnabled = binaryFormatEnabled;
+    }
+
+    /**
+     * 记录链接协商的消息格式
+     * Record the message format negotiated for a channel
+     *
+     * @param channel       链接通道 / Channel
+     * @param messageFormat 消息格式 / Message format
+     */
+    public static void setMessageFormat(Channel channel, String messageFormat) {
+        if (binaryFormatEnabled && Constants.MESSAGE_FORMAT_BINARY.equals(messageFormat)) {
+            BINARY_CHANNEL_SET.add(channel);
+        } else {
+            BINARY_CHANNEL_SET.remove(channel);
+        }
+    }
+
+    /**
+     * 按链接协商的格式发送消息
+     * Send a message using the format negotiated for the channel
+     *
+     * @param channel 链接通道 / Channel
+     * @param message 消息 / Message
+     * @throws JsonProcessingException JSON格式转换错误 / JSON format conversion error
+     */
+    public static void sendMessage(Channel channel, Message message) throws JsonProcessingException {
+        if (BINARY_CHANNEL_SET.contains(channel)) {
+            sendFrame(channel, new BinaryWebSocketFrame(BinaryMessageCodec.encode(channel.alloc(), message)));
+        } else {
+            sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        }
+    }
+
     public static void sendMessage(Channel channel, ByteBuf message) {
+        sendFrame(channel, new TextWebSocketFrame(message));
+    }
+
+    private static void sendFrame(Channel channel, WebSocketFrame frame) {
 //        Log.debug("发送消息:{}",message);
         try {
             channel.eventLoop().execute(() -> {
-                ChannelFuture cf = channel.writeAndFlush(new TextWebSocketFrame(message));
+                ChannelFuture cf = channel.writeAndFlush(frame);
                 cf.addListener((ChannelFutureListener) future -> {
                     if (!future.isSuccess()) {
                         Log.error(future.cause());
@@ -768,7 +950,7 @@ public class ConnectManager {
 //    }
 
     public static void sendMessage(String moduleAbbr, Message message) throws Exception {
-        sendMessage(getConnectByRole(moduleAbbr), SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        sendMessage(getConnectByRole(moduleAbbr), message);
     }
 
     public static String getRoleByChannel(Channel channel){
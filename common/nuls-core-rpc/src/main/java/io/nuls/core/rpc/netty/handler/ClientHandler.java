@@ -17,6 +17,7 @@ import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.netty.channel.ConnectData;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
 import io.nuls.core.rpc.netty.handler.message.TextMessageHandler;
+import io.nuls.core.rpc.util.BinaryMessageCodec;
 import io.nuls.core.thread.commom.NulsThreadFactory;
 
 import java.util.Map;
@@ -106,41 +107,54 @@ public class ClientHandler extends SimpleChannelInboundHandler<Object> {
                 byte[] bytes = new byte[content.readableBytes()];
                 content.readBytes(bytes);
                 Message message = JSONUtils.byteArray2pojo(bytes, Message.class);
-                MessageType messageType = MessageType.valueOf(message.getMessageType());
-                int priority = CmdPriority.DEFAULT.getPriority();
-                TextMessageHandler messageHandler = new TextMessageHandler((SocketChannel) ctx.channel(), message, priority);
-                if(messageType.equals(MessageType.Response)
-                        || messageType.equals(MessageType.NegotiateConnectionResponse)
-                        || messageType.equals(MessageType.Ack) ){
-                    responseExecutorService.execute(messageHandler);
-                }else{
-                    if(messageType.equals(MessageType.Request)){
-                        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
-                        if(request.getRequestMethods().size() == 1){
-                            for (String cmd:request.getRequestMethods().keySet()) {
-                                if(ConnectManager.CMD_PRIORITY_MAP.containsKey(cmd)){
-                                    messageHandler.setPriority(ConnectManager.CMD_PRIORITY_MAP.get(cmd));
-                                }
-                            }
-                        }
-                        messageHandler.setRequest(request);
-                        requestExecutorService.execute(messageHandler);
-                    }else if(messageType.equals(MessageType.RequestOnly)){
-                        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
-                        ConnectData connectData = ConnectManager.CHANNEL_DATA_MAP.get(ctx.channel());
-                        int messageSize = bytes.length;
-                        if(!connectData.requestOnlyQueueReachLimit()){
-                            connectData.getRequestOnlyQueue().offer(new RequestOnly(request, messageSize));
-                            connectData.addRequestOnlyQueueMemSize(messageSize);
-                        }else{
-                            Log.debug("RequestOnly队列缓存已满，丢弃新接收到的消息，messageId:{},队列所占内存：{}", message.getMessageID(),connectData.getRequestOnlyQueueMemSize());
+                dispatch(ctx, message, bytes.length);
+            } else if (msg instanceof BinaryWebSocketFrame) {
+                ByteBuf content = ((BinaryWebSocketFrame) msg).content();
+                int messageSize = content.readableBytes();
+                dispatch(ctx, BinaryMessageCodec.decode(content), messageSize);
+            } else {
+                Log.warn("Unsupported message format");
+            }
+        }
+    }
+
+    /**
+     * 将解码后的消息分发到对应的处理线程
+     * Dispatch a decoded message to the corresponding processing thread
+     */
+    private void dispatch(ChannelHandlerContext ctx, Message message, int messageSize) {
+        MessageType messageType = MessageType.valueOf(message.getMessageType());
+        int priority = CmdPriority.DEFAULT.getPriority();
+        TextMessageHandler messageHandler = new TextMessageHandler((SocketChannel) ctx.channel(), message, priority);
+        if(messageType.equals(MessageType.Response)
+                || messageType.equals(MessageType.NegotiateConnectionResponse)
+                || messageType.equals(MessageType.Ack) ){
+            responseExecutorService.execute(messageHandler);
+        }else{
+            if(messageType.equals(MessageType.Request)){
+                Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+                //只解析一次，后续订阅处理直接使用解析后的Request / Parse once, subscription handling reuses the parsed Request
+                message.setMessageData(request);
+                if(request.getRequestMethods().size() == 1){
+                    for (String cmd:request.getRequestMethods().keySet()) {
+                        if(ConnectManager.CMD_PRIORITY_MAP.containsKey(cmd)){
+                            messageHandler.setPriority(ConnectManager.CMD_PRIORITY_MAP.get(cmd));
                         }
-                    }else{
-                        requestExecutorService.execute(messageHandler);
                     }
                 }
-            } else {
-                Log.warn("Unsupported message format");
+                messageHandler.setRequest(request);
+                requestExecutorService.execute(messageHandler);
+            }else if(messageType.equals(MessageType.RequestOnly)){
+                Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+                ConnectData connectData = ConnectManager.CHANNEL_DATA_MAP.get(ctx.channel());
+                if(!connectData.requestOnlyQueueReachLimit()){
+                    connectData.getRequestOnlyQueue().offer(new RequestOnly(request, messageSize));
+                    connectData.addRequestOnlyQueueMemSize(messageSize);
+                }else{
+                    Log.debug("RequestOnly队列缓存已满，丢弃新接收到的消息，messageId:{},队列所占内存：{}", message.getMessageID(),connectData.getRequestOnlyQueueMemSize());
+                }
+            }else{
+                requestExecutorService.execute(messageHandler);
             }
         }
     }
@@ -149,6 +149,11 @@ public class TextMessageHandler implements Runnable, Comparable<TextMessageHandl
                     }
                     break;
                 case NegotiateConnectionResponse:
+                    /*
+                    记录服务端确认的消息格式，须在唤醒握手线程之前完成
+                    Record the format confirmed by the server, must happen before the handshake thread is woken up
+                     */
+                    ConnectManager.setMessageFormat(channel, ((Map<String, String>) message.getMessageData()).get("MessageFormat"));
                 case Ack:
                     ResponseContainer resContainer = RequestContainer.getResponseContainer(((Map<String, String>) message.getMessageData()).get("RequestID"));
                     if (resContainer != null && resContainer.getFuture() != null) {
@@ -0,0 +1,153 @@
+package io.nuls.core.rpc.netty.processor;
+
+import io.nuls.core.log.Log;
+import io.nuls.core.rpc.cmd.BaseCmd;
+import io.nuls.core.rpc.model.CmdDetail;
+import io.nuls.core.rpc.model.message.Response;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 预先绑定的接口调用器，注册时解析一次，调用时不再反射查找方法
+ * Pre-bound command invoker, resolved once at registration so that no reflective lookup happens per call
+ * <p>
+ * 同时记录该接口的调用次数、失败次数与耗时
+ * Also records call count, failure count and latency of the command
+ */
+public class CmdInvoker {
+
+    /**
+     * 编译后的调用函数
+     * Compiled call site
+     */
+    @FunctionalInterface
+    public interface Invoker {
+        Response invoke(BaseCmd cmd, Map params) throws Throwable;
+    }
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Response.class, BaseCmd.class, Map.class);
+
+    private final CmdDetail cmdDetail;
+
+    private final Invoker invoker;
+
+    private volatile BaseCmd target;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder failCount = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public CmdInvoker(CmdDetail cmdDetail, Method method, BaseCmd target) throws IllegalAccessException {
+        this.cmdDetail = cmdDetail;
+        this.target = target;
+        this.invoker = compile(method);
+    }
+
+    /**
+     * 优先用LambdaMetafactory生成直接调用，类加载器不可见等情况退回到MethodHandle
+     * Prefer a LambdaMetafactory generated direct call, fall back to a MethodHandle when that is not possible (e.g. class loader visibility)
+     */
+    private static Invoker compile(Method method) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "invoke",
+                    MethodType.methodType(Invoker.class), INVOKER_TYPE, handle,
+                    MethodType.methodType(method.getReturnType(), method.getDeclaringClass(), Map.class));
+            return (Invoker) site.getTarget().invoke();
+        } catch (Throwable e) {
+            Log.debug("Lambda invoker unavailable for {}.{}, using MethodHandle", method.getDeclaringClass().getName(), method.getName());
+            MethodHandle adapted = handle.asType(INVOKER_TYPE);
+            return (cmd, params) -> (Response) adapted.invokeExact(cmd, params);
+        }
+    }
+
+    /**
+     * 调用本地接口并记录耗时
+     * Invoke the local command and record its latency
+     *
+     * @param params 参数 / Parameters
+     * @return Response, null if the handler bean is not available
+     * @throws Exception 接口抛出的异常 / Any exception thrown by the command
+     */
+    public Response invoke(Map params) throws Exception {
+        BaseCmd cmd = getTarget();
+        if (cmd == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Response response = invoker.invoke(cmd, params);
+            success = true;
+            return response;
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new Exception(e);
+        } finally {
+            record(System.nanoTime() - start, success);
+        }
+    }
+
+    private void record(long nanos, boolean success) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (!success) {
+            failCount.increment();
+        }
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+        if (nanos > 1000_000_000L) {
+            Log.warn(cmdDetail.getInvokeMethod() + " , use:{}ms", nanos / 1000_000L);
+        }
+    }
+
+    private BaseCmd getTarget() {
+        BaseCmd cmd = target;
+        if (cmd == null) {
+            /*
+            注册时Bean可能尚未创建
+            The bean may not exist yet at registration time
+             */
+            cmd = (BaseCmd) RequestMessageProcessor.handlerMap.get(cmdDetail.getInvokeClass());
+            target = cmd;
+        }
+        return cmd;
+    }
+
+    public CmdDetail getCmdDetail() {
+        return cmdDetail;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getFailCount() {
+        return failCount.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getAverageNanos() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : totalNanos.sum() / calls;
+    }
+}
@@ -0,0 +1,173 @@
+package io.nuls.core.rpc.netty.processor;
+
+import io.nuls.core.constant.CommonCodeConstanst;
+import io.nuls.core.log.Log;
+import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.model.CmdPriority;
+import io.nuls.core.rpc.model.message.MessageUtil;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.model.message.Response;
+import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import io.nuls.core.rpc.util.MessageValueUtil;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * 同进程模块请求处理器
+ * Processor for requests between modules co-located in the same JVM
+ * <p>
+ * 目标角色自己在本进程注册了请求的接口时，请求不经过Websocket与JSON，直接在内存中调用接口。
+ * 与远程调用保持相同的语义：按接口优先级排队执行、超时返回REQUEST_TIME_OUT、已超时的请求不再执行，
+ * 参数与返回数据按JSON的规则转换为Map/List等结构，调用方与被调用方不共享可变对象。
+ * <p>
+ * When the target role itself registered the requested cmd in this JVM, the request skips Websocket and JSON and the cmd is called in memory.
+ * Semantics match the remote call: requests are queued by cmd priority, the caller gets REQUEST_TIME_OUT after the timeout,
+ * expired requests are not executed, and parameters and response data are normalised to the Map/List shape JSON would produce,
+ * so the caller and the callee never share mutable objects.
+ */
+public class LocalRequestProcessor {
+
+    /**
+     * 与Websocket请求处理线程池大小一致
+     * Same size as the pool that handles Websocket requests
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(Constants.THREAD_POOL_SIZE, Constants.THREAD_POOL_SIZE, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), new NulsThreadFactory("local-request"));
+
+    private LocalRequestProcessor() {
+    }
+
+    /**
+     * 判断请求是否可以在本进程内处理
+     * Whether the request can be handled inside this JVM
+     *
+     * @param role    目标角色 / Target role
+     * @param request 请求 / Request
+     * @return boolean
+     */
+    public static boolean isLocal(String role, Request request) {
+        if (request.getRequestMethods() == null || request.getRequestMethods().isEmpty()) {
+            return false;
+        }
+        for (String cmd : request.getRequestMethods().keySet()) {
+            if (!ConnectManager.isColocatedCmd(role, cmd)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在本进程内执行请求并等待结果
+     * Execute the request inside this JVM and wait for the result
+     *
+     * @param role    目标角色 / Target role
+     * @param request 请求 / Request
+     * @param timeOut 超时时间, timeout millis
+     * @return Response
+     */
+    public static Response requestAndResponse(String role, Request request, long timeOut) {
+        String messageId = Constants.nextSequence();
+        LocalTask task = submit(role, messageId, request, timeOut);
+        try {
+            return task.future.get(timeOut, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return MessageUtil.newFailResponse(messageId, CommonCodeConstanst.REQUEST_TIME_OUT);
+        } catch (Exception e) {
+            if (timeOut > 0) {
+                return MessageUtil.newFailResponse(messageId, CommonCodeConstanst.REQUEST_TIME_OUT);
+            } else {
+                return MessageUtil.newSuccessResponse(messageId);
+            }
+        }
+    }
+
+    /**
+     * 在本进程内执行请求，不等待结果
+     * Execute the request inside this JVM without waiting for the result
+     *
+     * @param role    目标角色 / Target role
+     * @param request 请求 / Request
+     * @return messageId
+     */
+    public static String requestOnly(String role, Request request) {
+        String messageId = Constants.nextSequence();
+        submit(role, messageId, request, 0);
+        return messageId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LocalTask submit(String role, String messageId, Request request, long timeOut) {
+        /*
+        与远程调用一样，参数按JSON规则复制，被调用方修改参数不会影响调用方
+        Like a remote call, parameters are copied with JSON rules so the callee cannot modify the caller's objects
+         */
+        Map<String, Object> methods = (Map<String, Object>) MessageValueUtil.normalize(request.getRequestMethods());
+        int priority = CmdPriority.DEFAULT.getPriority();
+        if (methods.size() == 1) {
+            CmdInvoker invoker = ConnectManager.getColocatedInvoker(role, methods.keySet().iterator().next(), null);
+            if (invoker != null) {
+                priority = invoker.getCmdDetail().getPriority().getPriority();
+            }
+        }
+        LocalTask task = new LocalTask(role, messageId, methods, priority, timeOut);
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * 同进程请求任务，按优先级排序
+     * Local request task, ordered by priority
+     */
+    private static class LocalTask implements Runnable, Comparable<LocalTask> {
+
+        private final String role;
+        private final String messageId;
+        private final Map<String, Object> methods;
+        private final int priority;
+        private final long deadline;
+        private final CompletableFuture<Response> future = new CompletableFuture<>();
+
+        LocalTask(String role, String messageId, Map<String, Object> methods, int priority, long timeOut) {
+            this.role = role;
+            this.messageId = messageId;
+            this.methods = methods;
+            this.priority = priority;
+            this.deadline = timeOut > 0 ? System.currentTimeMillis() + timeOut : 0;
+        }
+
+        @Override
+        public int compareTo(LocalTask o) {
+            return Integer.compare(o.priority, this.priority);
+        }
+
+        @Override
+        public void run() {
+            /*
+            与远程调用一样，已超时的请求直接丢弃
+            Same as a remote call, expired requests are discarded
+             */
+            if (deadline > 0 && System.currentTimeMillis() >= deadline) {
+                Log.debug("请求超时丢弃请求，请求方法：{}", methods.keySet());
+                future.complete(MessageUtil.newFailResponse(messageId, CommonCodeConstanst.REQUEST_TIME_OUT));
+                return;
+            }
+            try {
+                /*
+                与远程调用一样，每个方法各自产生一个Response，调用方得到最先返回的一个
+                Same as a remote call, every method produces its own Response and the caller gets the first one
+                 */
+                for (Map.Entry<String, Object> entry : methods.entrySet()) {
+                    Response response = RequestMessageProcessor.callColocatedCommand(role, entry.getKey(), (Map) entry.getValue(), messageId);
+                    response.setResponseData(MessageValueUtil.normalize(response.getResponseData()));
+                    future.complete(response);
+                }
+            } catch (Exception e) {
+                Log.error(e);
+                future.complete(MessageUtil.newFailResponse(messageId, CommonCodeConstanst.SYS_UNKOWN_EXCEPTION));
+            }
+        }
+    }
+}
@@ -14,13 +14,10 @@ import io.nuls.core.rpc.model.message.*;
 import io.nuls.core.rpc.netty.channel.ConnectData;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
 import io.nuls.core.rpc.util.NulsDateUtils;
-import io.nuls.core.rpc.util.SerializeUtil;
 
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static io.nuls.core.rpc.info.Constants.CMD_NOT_FOUND;
@@ -36,6 +33,52 @@ public class RequestMessageProcessor {
     public static final Map<String, Object> handlerMap = new HashMap<>();
     public static final Map<String, Class<?>> classMap = new ConcurrentHashMap<>();
 
+    /**
+     * 注册时编译好的接口调用器
+     * Command invokers compiled at registration
+     * Key: cmd_version
+     * Value: CmdInvoker
+     */
+    private static final Map<String, CmdInvoker> INVOKER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 注册接口调用器，无法编译时调用退回到反射方式
+     * Register the invoker of a command, calls fall back to reflection if it cannot be compiled
+     *
+     * @param cmdDetail 接口信息 / Command detail
+     * @param method    接口方法 / Command method
+     * @param handler   接口所属的Bean / Bean the command belongs to
+     * @return CmdInvoker, 无法编译时为null / null if it cannot be compiled
+     */
+    public static CmdInvoker registerInvoker(CmdDetail cmdDetail, Method method, Object handler) {
+        try {
+            CmdInvoker invoker = new CmdInvoker(cmdDetail, method, (BaseCmd) handler);
+            INVOKER_MAP.put(getInvokerKey(cmdDetail.getMethodName(), cmdDetail.getVersion()), invoker);
+            return invoker;
+        } catch (Exception e) {
+            Log.warn("Compile cmd invoker failed, use reflection instead: {}", cmdDetail.getMethodName());
+            return null;
+        }
+    }
+
+    /**
+     * 所有接口调用器，用于查看各接口的调用次数与耗时
+     * All command invokers, used to inspect per-command call count and latency
+     *
+     * @return Collection<CmdInvoker>
+     */
+    public static Collection<CmdInvoker> getInvokers() {
+        return Collections.unmodifiableCollection(INVOKER_MAP.values());
+    }
+
+    public static CmdInvoker getInvoker(String cmd, double version) {
+        return INVOKER_MAP.get(getInvokerKey(cmd, version));
+    }
+
+    private static String getInvokerKey(String cmd, double version) {
+        return cmd + "_" + version;
+    }
+
     /**
      * 确认握手成功
      * Confirm successful handshake
@@ -44,17 +87,27 @@ public class RequestMessageProcessor {
      * @throws JsonProcessingException JSON解析错误 / JSON parsing error
      */
     public static void negotiateConnectionResponse(Channel channel, Message message) throws JsonProcessingException {
+        NegotiateConnection negotiateConnection = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnection.class);
+        /*
+        只有双方都支持时才使用二进制格式，外部客户端不传该字段，继续使用JSON
+        Binary format is used only when both sides support it, external clients do not send the field and keep using JSON
+         */
+        String messageFormat = ConnectManager.isBinaryFormatEnabled() && Constants.MESSAGE_FORMAT_BINARY.equals(negotiateConnection.getMessageFormat())
+                ? Constants.MESSAGE_FORMAT_BINARY : Constants.MESSAGE_FORMAT_JSON;
+
         NegotiateConnectionResponse negotiateConnectionResponse = new NegotiateConnectionResponse();
         negotiateConnectionResponse.setRequestID(message.getMessageID());
         negotiateConnectionResponse.setNegotiationStatus("1");
         negotiateConnectionResponse.setNegotiationComment("Connection true!");
+        negotiateConnectionResponse.setMessageFormat(messageFormat);
 
         Message rspMsg = MessageUtil.basicMessage(MessageType.NegotiateConnectionResponse);
         rspMsg.setMessageData(negotiateConnectionResponse);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
+        //握手响应本身使用JSON，之后的消息使用协商的格式
+        ConnectManager.setMessageFormat(channel, messageFormat);
 
         //握手成功之后保存channel与角色的对应信息
-        NegotiateConnection negotiateConnection = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnection.class);
         ConnectManager.cacheConnect(negotiateConnection.getAbbreviation(), channel, false);
     }
 
@@ -72,7 +125,7 @@ public class RequestMessageProcessor {
         ack.setRequestId(messageId);
         Message rspMsg = MessageUtil.basicMessage(MessageType.Ack);
         rspMsg.setMessageData(ack);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -86,7 +139,7 @@ public class RequestMessageProcessor {
         Response response = MessageUtil.newFailResponse(messageId, "Service not started!");
         Message rspMsg = MessageUtil.basicMessage(MessageType.Response);
         rspMsg.setMessageData(response);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -187,7 +240,7 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.CMD_NOTFOUND.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
@@ -201,12 +254,12 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.PARAMETER_ERROR.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
                 Message rspMessage = execute(cmdDetail, params, messageId);
-                ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                ConnectManager.sendMessage(channel, rspMessage);
 
                 /*
                 执行成功之后判断该接口是否被订阅过，如果被订阅则改变该接口触发次数
@@ -221,7 +274,7 @@ public class RequestMessageProcessor {
                 response.setResponseErrorCode(CommonCodeConstanst.SYS_UNKOWN_EXCEPTION.getCode());
                 Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                 rspMessage.setMessageData(response);
-                ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                ConnectManager.sendMessage(channel, rspMessage);
             }
         }
     }
@@ -266,13 +319,55 @@ public class RequestMessageProcessor {
                     Log.info("Parameter validation error!");
                     return;
                 }
-                invoke(cmdDetail.getInvokeClass(), cmdDetail.getInvokeMethod(), params);
+                invoke(cmdDetail, params);
             } catch (Exception e) {
                 Log.error(e);
             }
         }
     }
 
+    /**
+     * 处理同一进程内的请求，使用目标角色自己注册的接口，直接返回Response对象，结果与通过Websocket返回的Response一致
+     * Process a request from the same JVM with the cmd the target role registered and return the Response object,
+     * same content as the Response sent through Websocket
+     *
+     * @param role      目标角色 / Target role
+     * @param method    请求的方法 / Requested cmd
+     * @param params    参数 / Parameters
+     * @param messageId 请求ID / Request ID
+     * @return Response
+     */
+    public static Response callColocatedCommand(String role, String method, Map params, String messageId) {
+        Response response = MessageUtil.newResponse(messageId, Response.FAIL, "");
+        try {
+            CmdInvoker invoker = ConnectManager.getColocatedInvoker(role, method, params == null || params.get(Constants.VERSION_KEY_STR) == null
+                    ? null : Double.parseDouble(params.get(Constants.VERSION_KEY_STR).toString()));
+            if (invoker == null) {
+                response.setResponseComment(Constants.CMD_NOT_FOUND + ":" + method + "," + (params != null ? params.get(Constants.VERSION_KEY_STR) : ""));
+                response.setResponseErrorCode(CommonCodeConstanst.CMD_NOTFOUND.getCode());
+                return response;
+            }
+            CmdDetail cmdDetail = invoker.getCmdDetail();
+            String validationString = paramsValidation(cmdDetail, params);
+            if (validationString != null) {
+                response.setResponseComment(validationString);
+                response.setResponseErrorCode(CommonCodeConstanst.PARAMETER_ERROR.getCode());
+                return response;
+            }
+            long startTimemillis = NulsDateUtils.getCurrentTimeMillis();
+            Response result = invoker.invoke(params);
+            if (result == null) {
+                result = MessageUtil.newFailResponse("", CMD_NOT_FOUND);
+            }
+            return wrapResponse(cmdDetail, result, messageId, startTimemillis);
+        } catch (Exception e) {
+            Log.error(e);
+            response.setResponseComment("Server-side processing failed!");
+            response.setResponseErrorCode(CommonCodeConstanst.SYS_UNKOWN_EXCEPTION.getCode());
+            return response;
+        }
+    }
+
     /**
      * 调用本地方法，把结果封装为Message对象，通过Websocket返回
      * Call the local method, encapsulate the result as a Message object, and return it through Websocket
@@ -285,15 +380,19 @@ public class RequestMessageProcessor {
      */
     private static Message execute(CmdDetail cmdDetail, Map params, String messageId) throws Exception {
         long startTimemillis = NulsDateUtils.getCurrentTimeMillis();
-        Response response = invoke(cmdDetail.getInvokeClass(), cmdDetail.getInvokeMethod(), params);
+        Response response = wrapResponse(cmdDetail, invoke(cmdDetail, params), messageId, startTimemillis);
+        Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
+        rspMessage.setMessageData(response);
+        return rspMessage;
+    }
+
+    private static Response wrapResponse(CmdDetail cmdDetail, Response response, String messageId, long startTimemillis) {
         response.setRequestID(messageId);
         Map<String, Object> responseData = new HashMap<>(1);
         responseData.put(cmdDetail.getMethodName(), response.getResponseData());
         response.setResponseData(responseData);
         response.setResponseProcessingTime((NulsDateUtils.getCurrentTimeMillis() - startTimemillis) + "");
-        Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
-        rspMessage.setMessageData(response);
-        return rspMessage;
+        return response;
     }
 
 
@@ -309,7 +408,7 @@ public class RequestMessageProcessor {
         rspMessage.setMessageData(realResponse);
         try {
             Log.debug("responseWithEventCount: " + JSONUtils.obj2json(rspMessage));
-            ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+            ConnectManager.sendMessage(channel, rspMessage);
         } catch (JsonProcessingException e) {
             Log.error(e);
         }
@@ -493,6 +592,28 @@ public class RequestMessageProcessor {
     }
 
 
+    /**
+     * Call local cmd.
+     * 使用注册时编译好的调用器，没有调用器时退回反射调用
+     * Uses the invoker compiled at registration, falls back to reflection when there is none
+     *
+     * @param cmdDetail CmdDetail
+     * @param params    Parameters of remote method
+     * @return Response
+     * @throws Exception Any exceptions
+     */
+    private static Response invoke(CmdDetail cmdDetail, Map params) throws Exception {
+        CmdInvoker invoker = getInvoker(cmdDetail.getMethodName(), cmdDetail.getVersion());
+        if (invoker == null) {
+            return invoke(cmdDetail.getInvokeClass(), cmdDetail.getInvokeMethod(), params);
+        }
+        Response response = invoker.invoke(params);
+        if (response == null) {
+            return MessageUtil.newFailResponse("", CMD_NOT_FOUND);
+        }
+        return response;
+    }
+
     /**
      * Call local cmd.
      * 1. If the interface is injected via @Autowired, the injected object is used
@@ -0,0 +1,405 @@
+package io.nuls.core.rpc.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.model.message.Message;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.model.message.Response;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 模块间二进制消息编解码
+ * Binary codec for module-to-module messages
+ * <p>
+ * 消息以长度前缀的类型化字段写入，解码结果与JSON解析得到的Map/List结构一致，消息处理器无需区分消息格式。
+ * 长十六进制字符串（RPCUtil.encode的结果）按原始字节传输，解码时还原为相同的字符串；byte[]按原始字节传输，解码后仍为byte[]（JSON格式下为Base64字符串）。
+ * BigDecimal按字符串形式传输，解码为BigDecimal，不会像JSON格式那样变为double。
+ * <p>
+ * Messages are written as length-prefixed typed fields. The decoded tree has the same Map/List shape Jackson produces for the JSON format,
+ * so message processors do not need to know which format was used on the wire.
+ * Long lowercase hex strings (as produced by RPCUtil.encode) travel as raw bytes and are restored to the identical string;
+ * byte[] values travel raw and decode as byte[] again, only the JSON format turns them into Base64 text, see {@link MessageValueUtil}.
+ * BigDecimal values travel in their string form and decode as BigDecimal, where the JSON format would round them to a double.
+ * <p>
+ * 注意：大部分模块的数据仍是RPCUtil.encode生成的十六进制字符串，二进制格式只减少了传输的字节数，编码与解码十六进制的CPU开销仍然存在。
+ * Note: most module payloads are still hex strings produced by RPCUtil.encode, so the binary format only saves bytes on the wire,
+ * the CPU spent encoding and decoding the hex text remains.
+ */
+public class BinaryMessageCodec {
+
+    /**
+     * 格式版本号
+     * Format version, first byte of every binary frame
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * 十六进制字符串按字节传输的最小长度
+     * Minimum length of a hex string that is packed into raw bytes
+     */
+    public static final int HEX_PACK_MIN_LENGTH = 32;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_TRUE = 1;
+    private static final byte TYPE_FALSE = 2;
+    private static final byte TYPE_INT = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_STRING = 6;
+    private static final byte TYPE_BYTES = 7;
+    private static final byte TYPE_HEX = 8;
+    private static final byte TYPE_LIST = 9;
+    private static final byte TYPE_MAP = 10;
+    private static final byte TYPE_BIG_INTEGER = 11;
+    private static final byte TYPE_BIG_DECIMAL = 12;
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private BinaryMessageCodec() {
+    }
+
+    /**
+     * 编码消息
+     * Encode a message into a new buffer
+     *
+     * @param allocator 缓冲区分配器 / Buffer allocator
+     * @param message   消息 / Message
+     * @return ByteBuf
+     */
+    public static ByteBuf encode(ByteBufAllocator allocator, Message message) {
+        ByteBuf buf = allocator.buffer();
+        try {
+            buf.writeByte(VERSION);
+            writeString(buf, message.getMessageID());
+            writeString(buf, message.getTimestamp());
+            writeString(buf, message.getTimeZone());
+            writeString(buf, message.getMessageType());
+            writeValue(buf, message.getMessageData());
+            return buf;
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 解码消息
+     * Decode a message, MessageData is a Map just like the JSON format
+     *
+     * @param buf 消息内容 / Message content
+     * @return Message
+     * @throws IOException 格式错误 / Malformed frame
+     */
+    public static Message decode(ByteBuf buf) throws IOException {
+        try {
+            byte version = buf.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary message version: " + version);
+            }
+            Message message = new Message();
+            message.setMessageID(readString(buf));
+            message.setTimestamp(readString(buf));
+            message.setTimeZone(readString(buf));
+            message.setMessageType(readString(buf));
+            message.setMessageData(readValue(buf));
+            return message;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated binary message", e);
+        }
+    }
+
+    private static void writeValue(ByteBuf buf, Object value) {
+        if (value == null) {
+            buf.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            writeStringValue(buf, (String) value);
+        } else if (value instanceof Boolean) {
+            buf.writeByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buf.writeByte(TYPE_INT);
+            buf.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            writeLong(buf, (Long) value);
+        } else if (value instanceof BigInteger) {
+            BigInteger bigInteger = (BigInteger) value;
+            if (bigInteger.bitLength() < Long.SIZE) {
+                writeLong(buf, bigInteger.longValue());
+            } else {
+                buf.writeByte(TYPE_BIG_INTEGER);
+                writeString(buf, bigInteger.toString());
+            }
+        } else if (value instanceof BigDecimal) {
+            writeBigDecimal(buf, (BigDecimal) value);
+        } else if (value instanceof Double) {
+            buf.writeByte(TYPE_DOUBLE);
+            buf.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            buf.writeByte(TYPE_DOUBLE);
+            buf.writeDouble(Double.parseDouble(value.toString()));
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            buf.writeByte(TYPE_BYTES);
+            buf.writeInt(bytes.length);
+            buf.writeBytes(bytes);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            buf.writeByte(TYPE_MAP);
+            buf.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(buf, String.valueOf(entry.getKey()));
+                writeValue(buf, entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            buf.writeByte(TYPE_LIST);
+            buf.writeInt(collection.size());
+            for (Object item : collection) {
+                writeValue(buf, item);
+            }
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            buf.writeByte(TYPE_LIST);
+            buf.writeInt(length);
+            for (int i = 0; i < length; i++) {
+                writeValue(buf, Array.get(value, i));
+            }
+        } else if (value instanceof Character || value instanceof Enum) {
+            writeStringValue(buf, value instanceof Enum ? ((Enum) value).name() : value.toString());
+        } else if (value instanceof Request) {
+            writeRequest(buf, (Request) value);
+        } else if (value instanceof Response) {
+            writeResponse(buf, (Response) value);
+        } else if (value instanceof JsonNode) {
+            writeNode(buf, (JsonNode) value);
+        } else {
+            /*
+            其他对象按Jackson的规则转换，保证与JSON格式的结果一致
+            Other objects follow Jackson's rules so the result matches the JSON format
+             */
+            writeNode(buf, JSONUtils.getInstance().valueToTree(value));
+        }
+    }
+
+    private static void writeRequest(ByteBuf buf, Request request) {
+        buf.writeByte(TYPE_MAP);
+        buf.writeInt(7);
+        writeEntry(buf, "RequestAck", request.getRequestAck());
+        writeEntry(buf, "SubscriptionEventCounter", request.getSubscriptionEventCounter());
+        writeEntry(buf, "SubscriptionPeriod", request.getSubscriptionPeriod());
+        writeEntry(buf, "SubscriptionRange", request.getSubscriptionRange());
+        writeEntry(buf, "ResponseMaxSize", request.getResponseMaxSize());
+        writeEntry(buf, "RequestMethods", request.getRequestMethods());
+        writeEntry(buf, "TimeOut", request.getTimeOut());
+    }
+
+    private static void writeResponse(ByteBuf buf, Response response) {
+        buf.writeByte(TYPE_MAP);
+        buf.writeInt(7);
+        writeEntry(buf, "RequestID", response.getRequestID());
+        writeEntry(buf, "ResponseProcessingTime", response.getResponseProcessingTime());
+        writeEntry(buf, "ResponseStatus", response.getResponseStatus());
+        writeEntry(buf, "ResponseComment", response.getResponseComment());
+        writeEntry(buf, "ResponseMaxSize", response.getResponseMaxSize());
+        writeEntry(buf, "ResponseData", response.getResponseData());
+        writeEntry(buf, "ResponseErrorCode", response.getResponseErrorCode());
+    }
+
+    private static void writeEntry(ByteBuf buf, String key, Object value) {
+        writeString(buf, key);
+        writeValue(buf, value);
+    }
+
+    private static void writeNode(ByteBuf buf, JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            buf.writeByte(TYPE_NULL);
+        } else if (node.isObject()) {
+            buf.writeByte(TYPE_MAP);
+            buf.writeInt(node.size());
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                writeString(buf, field.getKey());
+                writeNode(buf, field.getValue());
+            }
+        } else if (node.isArray()) {
+            buf.writeByte(TYPE_LIST);
+            buf.writeInt(node.size());
+            for (JsonNode item : node) {
+                writeNode(buf, item);
+            }
+        } else if (node.isBoolean()) {
+            buf.writeByte(node.booleanValue() ? TYPE_TRUE : TYPE_FALSE);
+        } else if (node.isIntegralNumber()) {
+            writeValue(buf, node.bigIntegerValue());
+        } else if (node.isBigDecimal()) {
+            writeBigDecimal(buf, node.decimalValue());
+        } else if (node.isNumber()) {
+            buf.writeByte(TYPE_DOUBLE);
+            buf.writeDouble(node.doubleValue());
+        } else {
+            /*
+            文本与二进制节点（Jackson中为Base64字符串）
+            Text and binary nodes (Base64 text in Jackson)
+             */
+            writeStringValue(buf, node.asText());
+        }
+    }
+
+    /**
+     * BigDecimal按字符串形式传输，不经过double，精度不丢失
+     * BigDecimal travels in its string form rather than as a double, so no precision is lost
+     */
+    private static void writeBigDecimal(ByteBuf buf, BigDecimal value) {
+        buf.writeByte(TYPE_BIG_DECIMAL);
+        writeString(buf, value.toString());
+    }
+
+    private static void writeLong(ByteBuf buf, long value) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            buf.writeByte(TYPE_INT);
+            buf.writeInt((int) value);
+        } else {
+            buf.writeByte(TYPE_LONG);
+            buf.writeLong(value);
+        }
+    }
+
+    private static void writeStringValue(ByteBuf buf, String value) {
+        if (isPackableHex(value)) {
+            int length = value.length() / 2;
+            buf.writeByte(TYPE_HEX);
+            buf.writeInt(length);
+            buf.ensureWritable(length);
+            for (int i = 0; i < value.length(); i += 2) {
+                buf.writeByte((hexValue(value.charAt(i)) << 4) | hexValue(value.charAt(i + 1)));
+            }
+        } else {
+            buf.writeByte(TYPE_STRING);
+            writeString(buf, value);
+        }
+    }
+
+    private static void writeString(ByteBuf buf, String value) {
+        if (value == null) {
+            buf.writeInt(-1);
+            return;
+        }
+        int lengthIndex = buf.writerIndex();
+        buf.writeInt(0);
+        int length = buf.writeCharSequence(value, StandardCharsets.UTF_8);
+        buf.setInt(lengthIndex, length);
+    }
+
+    private static Object readValue(ByteBuf buf) throws IOException {
+        byte type = buf.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_TRUE:
+                return Boolean.TRUE;
+            case TYPE_FALSE:
+                return Boolean.FALSE;
+            case TYPE_INT:
+                return buf.readInt();
+            case TYPE_LONG:
+                return buf.readLong();
+            case TYPE_DOUBLE:
+                return buf.readDouble();
+            case TYPE_STRING:
+                return readString(buf);
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readString(buf));
+            case TYPE_BIG_DECIMAL:
+                try {
+                    return new BigDecimal(readString(buf));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Illegal binary message decimal", e);
+                }
+            case TYPE_BYTES: {
+                byte[] bytes = new byte[readLength(buf)];
+                buf.readBytes(bytes);
+                return bytes;
+            }
+            case TYPE_HEX: {
+                int length = readLength(buf);
+                char[] chars = new char[length * 2];
+                for (int i = 0; i < length; i++) {
+                    int b = buf.readUnsignedByte();
+                    chars[i * 2] = HEX_CHARS[b >>> 4];
+                    chars[i * 2 + 1] = HEX_CHARS[b & 0x0F];
+                }
+                return new String(chars);
+            }
+            case TYPE_LIST: {
+                int size = readLength(buf);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(buf));
+                }
+                return list;
+            }
+            case TYPE_MAP: {
+                int size = readLength(buf);
+                Map<String, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    String key = readString(buf);
+                    map.put(key, readValue(buf));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("Unknown binary message field type: " + type);
+        }
+    }
+
+    private static String readString(ByteBuf buf) throws IOException {
+        int length = buf.readInt();
+        if (length < 0) {
+            return null;
+        }
+        checkLength(buf, length);
+        return buf.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    private static int readLength(ByteBuf buf) throws IOException {
+        int length = buf.readInt();
+        checkLength(buf, length);
+        return length;
+    }
+
+    /**
+     * 长度不能超过剩余字节数（每个元素至少占一个字节），防止恶意长度导致的大内存分配
+     * A length can never exceed the remaining bytes (every element takes at least one byte), this guards against huge allocations
+     */
+    private static void checkLength(ByteBuf buf, int length) throws IOException {
+        if (length < 0 || length > buf.readableBytes()) {
+            throw new IOException("Illegal binary message field length: " + length);
+        }
+    }
+
+    private static boolean isPackableHex(String value) {
+        int length = value.length();
+        if (length < HEX_PACK_MIN_LENGTH || (length & 1) != 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hexValue(char c) {
+        return c <= '9' ? c - '0' : c - 'a' + 10;
+    }
+}
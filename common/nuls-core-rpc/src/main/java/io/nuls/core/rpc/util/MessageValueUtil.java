@@ -0,0 +1,84 @@
+package io.nuls.core.rpc.util;
+
+import io.nuls.core.parse.JSONUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * 模块间消息参数与返回数据的类型规范化
+ * Type normalisation of module-to-module parameters and response data
+ * <p>
+ * JSON、二进制与同进程三种调用方式都按JSON解析的结果交给接口，接口看到的参数类型与消息格式无关。
+ * 例外是byte[]与BigDecimal：二进制与同进程调用直接传递byte[]与BigDecimal，JSON格式下分别为Base64字符串与double，接收它们的接口需要同时支持两种形式。
+ * <p>
+ * JSON, binary and in-process calls all hand cmds the shape a JSON parse would produce,
+ * so the parameter types a cmd sees do not depend on the message format.
+ * The exceptions are byte[] and BigDecimal: binary and in-process calls carry them as is, while the JSON format turns them
+ * into a Base64 string and a double, so a cmd that takes them has to accept both forms.
+ */
+public class MessageValueUtil {
+
+    private MessageValueUtil() {
+    }
+
+    /**
+     * 按JSON序列化再解析的规则转换对象：Map/List复制，整数按大小转为Integer/Long/BigInteger，Float转为Double，BigDecimal保持不变，byte[]复制，其他对象转为Map
+     * Convert a value the way a JSON round trip would: Map/List are copied, integers become Integer/Long/BigInteger by size,
+     * Float becomes Double, BigDecimal is kept, byte[] is copied, other objects become Maps
+     *
+     * @param value 原始对象 / Original value
+     * @return 转换后的对象 / Normalised value
+     */
+    public static Object normalize(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Double
+                || value instanceof BigDecimal) {
+            return value;
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            Map<String, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(String.valueOf(entry.getKey()), normalize(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            List<Object> copy = new ArrayList<>(collection.size());
+            for (Object item : collection) {
+                copy.add(normalize(item));
+            }
+            return copy;
+        }
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Long || value instanceof BigInteger) {
+            BigInteger bigInteger = value instanceof Long ? BigInteger.valueOf((Long) value) : (BigInteger) value;
+            if (bigInteger.bitLength() < Integer.SIZE) {
+                return bigInteger.intValue();
+            }
+            return bigInteger.bitLength() < Long.SIZE ? (Object) bigInteger.longValue() : bigInteger;
+        }
+        if (value instanceof Float) {
+            return Double.parseDouble(value.toString());
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        if (value instanceof Character || value instanceof Enum) {
+            return value instanceof Enum ? ((Enum) value).name() : value.toString();
+        }
+        /*
+        数组与普通对象交给Jackson处理，与JSON格式的结果一致
+        Arrays and plain objects are handled by Jackson so the result matches the JSON format
+         */
+        try {
+            return normalize(JSONUtils.getInstance().treeToValue(JSONUtils.getInstance().valueToTree(value), Object.class));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Unsupported message value: " + value.getClass().getName(), e);
+        }
+    }
+}
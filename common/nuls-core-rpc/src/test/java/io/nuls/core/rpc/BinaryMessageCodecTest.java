@@ -0,0 +1,120 @@
+package io.nuls.core.rpc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.model.message.*;
+import io.nuls.core.rpc.util.BinaryMessageCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+public class BinaryMessageCodecTest {
+
+    private static Message roundTrip(Message message) throws IOException {
+        ByteBuf buf = BinaryMessageCodec.encode(UnpooledByteBufAllocator.DEFAULT, message);
+        try {
+            return BinaryMessageCodec.decode(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Map jsonTree(Object data) throws IOException {
+        return JSONUtils.json2pojo(JSONUtils.obj2json(data), Map.class);
+    }
+
+    @Test
+    public void requestMatchesJson() throws IOException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("chainId", 1);
+        params.put("height", 1L << 40);
+        params.put("tx", HexUtil.encode(new byte[200]));
+        params.put("short", "ab");
+        params.put("list", Arrays.asList("a", 2, null, true));
+        params.put("amount", new BigInteger("123456789012345678901234567890"));
+        Request request = MessageUtil.newRequest("tx_newTx", params, "0", "0", "0");
+        request.setTimeOut("1000");
+        Message message = MessageUtil.basicMessage(MessageType.Request);
+        message.setMessageData(request);
+
+        Message decoded = roundTrip(message);
+        Assert.assertEquals(message.getMessageID(), decoded.getMessageID());
+        Assert.assertEquals(message.getMessageType(), decoded.getMessageType());
+        Assert.assertEquals(jsonTree(request), decoded.getMessageData());
+
+        Request parsed = JSONUtils.map2pojo((Map) decoded.getMessageData(), Request.class);
+        Assert.assertEquals(params.get("tx"), ((Map) parsed.getRequestMethods().get("tx_newTx")).get("tx"));
+    }
+
+    @Test
+    public void responseWithPojoMatchesJson() throws IOException {
+        NegotiateConnection pojo = new NegotiateConnection();
+        pojo.setAbbreviation("tx");
+        pojo.setMessageFormat("binary");
+        Map<String, Object> data = new HashMap<>();
+        data.put("value", pojo);
+        data.put("rate", 0.5D);
+        Response response = MessageUtil.newSuccessResponse("1");
+        response.setResponseData(data);
+        Message message = MessageUtil.basicMessage(MessageType.Response);
+        message.setMessageData(response);
+
+        Message decoded = roundTrip(message);
+        Assert.assertEquals(jsonTree(response), decoded.getMessageData());
+        Response parsed = JSONUtils.map2pojo((Map) decoded.getMessageData(), Response.class);
+        Assert.assertTrue(parsed.isSuccess());
+    }
+
+    @Test
+    public void hexAndBytesArePacked() throws IOException {
+        byte[] raw = new byte[1024];
+        new Random(1).nextBytes(raw);
+        Map<String, Object> hexData = new HashMap<>();
+        hexData.put("v", HexUtil.encode(raw));
+        Message hexMessage = MessageUtil.basicMessage(MessageType.Request);
+        hexMessage.setMessageData(hexData);
+        ByteBuf buf = BinaryMessageCodec.encode(UnpooledByteBufAllocator.DEFAULT, hexMessage);
+        Assert.assertTrue(buf.readableBytes() < raw.length + 128);
+        buf.release();
+
+        Map<String, Object> bytesData = new HashMap<>();
+        bytesData.put("v", raw);
+        Message bytesMessage = MessageUtil.basicMessage(MessageType.Request);
+        bytesMessage.setMessageData(bytesData);
+        ByteBuf bytesBuf = BinaryMessageCodec.encode(UnpooledByteBufAllocator.DEFAULT, bytesMessage);
+        Assert.assertTrue(bytesBuf.readableBytes() < raw.length + 128);
+        bytesBuf.release();
+        Assert.assertArrayEquals(raw, (byte[]) ((Map) roundTrip(bytesMessage).getMessageData()).get("v"));
+
+        Assert.assertEquals(hexData, roundTrip(hexMessage).getMessageData());
+    }
+
+    @Test
+    public void bigDecimalKeepsPrecision() throws IOException {
+        BigDecimal amount = new BigDecimal("12345678901234567890.123456789012345678");
+        Map<String, Object> data = new HashMap<>();
+        data.put("amount", amount);
+        Message message = MessageUtil.basicMessage(MessageType.Request);
+        message.setMessageData(data);
+        Assert.assertEquals(amount, ((Map) roundTrip(message).getMessageData()).get("amount"));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedFrameIsRejected() throws IOException {
+        Message message = MessageUtil.basicMessage(MessageType.Request);
+        message.setMessageData(Collections.singletonMap("k", "v"));
+        ByteBuf buf = BinaryMessageCodec.encode(UnpooledByteBufAllocator.DEFAULT, message);
+        buf.writerIndex(buf.writerIndex() - 3);
+        try {
+            BinaryMessageCodec.decode(buf);
+        } finally {
+            buf.release();
+        }
+    }
+}
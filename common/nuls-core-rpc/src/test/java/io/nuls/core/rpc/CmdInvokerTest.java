@@ -0,0 +1,61 @@
+package io.nuls.core.rpc;
+
+import io.nuls.core.rpc.cmd.BaseCmd;
+import io.nuls.core.rpc.model.CmdDetail;
+import io.nuls.core.rpc.model.message.Response;
+import io.nuls.core.rpc.netty.processor.CmdInvoker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class CmdInvokerTest {
+
+    public static class EchoCmd extends BaseCmd {
+        public Response echo(Map params) {
+            return success(params.get("value"));
+        }
+
+        public Response fail(Map params) throws Exception {
+            throw new IllegalStateException("fail");
+        }
+    }
+
+    private static CmdDetail cmdDetail(String method) {
+        CmdDetail cmdDetail = new CmdDetail();
+        cmdDetail.setMethodName(method);
+        cmdDetail.setVersion(1.0);
+        cmdDetail.setInvokeClass(EchoCmd.class.getName());
+        cmdDetail.setInvokeMethod(method);
+        return cmdDetail;
+    }
+
+    @Test
+    public void invokeAndRecord() throws Exception {
+        CmdInvoker invoker = new CmdInvoker(cmdDetail("echo"), EchoCmd.class.getMethod("echo", Map.class), new EchoCmd());
+        Map<String, Object> params = new HashMap<>();
+        params.put("value", "hello");
+        for (int i = 0; i < 10; i++) {
+            Response response = invoker.invoke(params);
+            Assert.assertTrue(response.isSuccess());
+            Assert.assertEquals("hello", response.getResponseData());
+        }
+        Assert.assertEquals(10, invoker.getCount());
+        Assert.assertEquals(0, invoker.getFailCount());
+        Assert.assertTrue(invoker.getMaxNanos() >= invoker.getAverageNanos());
+    }
+
+    @Test
+    public void exceptionIsPropagatedAndCounted() throws Exception {
+        CmdInvoker invoker = new CmdInvoker(cmdDetail("fail"), EchoCmd.class.getMethod("fail", Map.class), new EchoCmd());
+        try {
+            invoker.invoke(new HashMap());
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("fail", e.getMessage());
+        }
+        Assert.assertEquals(1, invoker.getCount());
+        Assert.assertEquals(1, invoker.getFailCount());
+    }
+}
@@ -0,0 +1,154 @@
+package io.nuls.core.rpc;
+
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.cmd.BaseCmd;
+import io.nuls.core.rpc.model.CmdAnnotation;
+import io.nuls.core.rpc.model.message.NegotiateConnection;
+import io.nuls.core.rpc.model.message.Response;
+import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import io.nuls.core.rpc.netty.processor.LocalRequestProcessor;
+import io.nuls.core.rpc.netty.processor.RequestMessageProcessor;
+import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
+import io.nuls.core.rpc.util.MessageValueUtil;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+public class LocalRequestProcessorTest {
+
+    public static class LocalEchoCmd extends BaseCmd {
+        @CmdAnnotation(cmd = "local_echo", version = 1.0, description = "echo")
+        public Response echo(Map<String, Object> params) {
+            params.put("touched", true);
+            Map<String, Object> data = new HashMap<>();
+            data.put("height", 100L);
+            data.put("amount", new BigDecimal("1.5"));
+            data.put("value", params.get("value"));
+            NegotiateConnection pojo = new NegotiateConnection();
+            pojo.setAbbreviation("tx");
+            data.put("pojo", pojo);
+            return success(data);
+        }
+    }
+
+    /**
+     * 模拟同进程中另一个模块的接口，与本模块有同名接口
+     * Cmds of another module in the same JVM, sharing a cmd name with the local module
+     */
+    public static class LedgerCmd extends BaseCmd {
+        @CmdAnnotation(cmd = "ls_balance", version = 1.0, description = "balance")
+        public Response balance(Map<String, Object> params) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("address", params.get("address"));
+            data.put("available", new byte[]{1, 2, 3});
+            return success(data);
+        }
+
+        @CmdAnnotation(cmd = "local_echo", version = 1.0, description = "echo of the ledger module")
+        public Response echo(Map<String, Object> params) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("role", "ls-test");
+            return success(data);
+        }
+    }
+
+    @BeforeClass
+    public static void before() throws Exception {
+        ConnectManager.LOCAL.setAbbreviation("local-test");
+        if (ConnectManager.LOCAL.getMethods() == null) {
+            ConnectManager.LOCAL.setMethods(new ArrayList<>());
+        }
+        ConnectManager.addCmdDetail(LocalEchoCmd.class);
+        RequestMessageProcessor.handlerMap.put(LocalEchoCmd.class.getName(), new LocalEchoCmd());
+        ConnectManager.registerColocatedCmds("ls-test", Collections.singletonList(new LedgerCmd()));
+        ConnectManager.setColocationEnabled(true);
+    }
+
+    @AfterClass
+    public static void after() {
+        ConnectManager.setColocationEnabled(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> dataOf(Response response, String cmd) {
+        return (Map<String, Object>) ((Map<String, Object>) response.getResponseData()).get(cmd);
+    }
+
+    @Test
+    public void requestIsHandledInMemory() throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("value", "abc");
+        long count = RequestMessageProcessor.getInvoker("local_echo", 1.0).getCount();
+        Response response = ResponseMessageProcessor.requestAndResponse("local-test", "local_echo", params);
+        Assert.assertTrue(response.isSuccess());
+        Map<String, Object> data = dataOf(response, "local_echo");
+        Assert.assertEquals("abc", data.get("value"));
+        Assert.assertEquals(100, data.get("height"));
+        Assert.assertEquals(new BigDecimal("1.5"), data.get("amount"));
+        Assert.assertEquals("tx", ((Map<?, ?>) data.get("pojo")).get("Abbreviation"));
+        Assert.assertFalse(params.containsKey("touched"));
+        Assert.assertEquals(count + 1, RequestMessageProcessor.getInvoker("local_echo", 1.0).getCount());
+    }
+
+    @Test
+    public void crossRoleRequestIsHandledInMemory() throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("address", "tNULSeBaMtest");
+        Response response = ResponseMessageProcessor.requestAndResponse("ls-test", "ls_balance", params);
+        Assert.assertTrue(response.isSuccess());
+        Map<String, Object> data = dataOf(response, "ls_balance");
+        Assert.assertEquals("tNULSeBaMtest", data.get("address"));
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) data.get("available"));
+        Assert.assertNull(RequestMessageProcessor.getInvoker("ls_balance", 1.0));
+    }
+
+    @Test
+    public void sameCmdIsDispatchedToItsOwnRole() throws Exception {
+        Response response = ResponseMessageProcessor.requestAndResponse("ls-test", "local_echo", new HashMap<>());
+        Assert.assertTrue(response.isSuccess());
+        Assert.assertEquals("ls-test", dataOf(response, "local_echo").get("role"));
+        response = ResponseMessageProcessor.requestAndResponse("local-test", "local_echo", new HashMap<>());
+        Assert.assertNull(dataOf(response, "local_echo").get("role"));
+    }
+
+    @Test
+    public void unknownCmdIsNotLocal() {
+        Map<String, Object> methods = new HashMap<>();
+        methods.put("missing_cmd", new HashMap<>());
+        io.nuls.core.rpc.model.message.Request request = new io.nuls.core.rpc.model.message.Request();
+        request.setRequestMethods(methods);
+        Assert.assertFalse(LocalRequestProcessor.isLocal("local-test", request));
+        Assert.assertFalse(LocalRequestProcessor.isLocal("other-role", request));
+    }
+
+    @Test
+    public void cmdOfAnotherRoleIsNotLocal() {
+        Map<String, Object> methods = new HashMap<>();
+        methods.put("local_echo", new HashMap<>());
+        io.nuls.core.rpc.model.message.Request request = new io.nuls.core.rpc.model.message.Request();
+        request.setRequestMethods(methods);
+        Assert.assertTrue(LocalRequestProcessor.isLocal("local-test", request));
+        Assert.assertFalse(LocalRequestProcessor.isLocal("other-role", request));
+    }
+
+    @Test
+    public void normalizeMatchesJson() throws Exception {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("int", 1);
+        value.put("long", 1L << 40);
+        value.put("small", 7L);
+        value.put("list", Arrays.asList("a", 2.5F, null));
+        value.put("array", new int[]{1, 2});
+        Object expected = JSONUtils.json2pojo(JSONUtils.obj2json(value), Map.class);
+        Assert.assertEquals(expected, MessageValueUtil.normalize(value));
+
+        byte[] bytes = {1, 2, 3};
+        byte[] copy = (byte[]) MessageValueUtil.normalize(bytes);
+        Assert.assertArrayEquals(bytes, copy);
+        Assert.assertNotSame(bytes, copy);
+    }
+}
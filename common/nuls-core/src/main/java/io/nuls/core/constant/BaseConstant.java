@@ -58,6 +58,11 @@ public class BaseConstant {
      */
     public static final String MSG_PROCESS = "msgProcess";
 
+    /**
+     * 模块统一消息处理器RPC接口,一次处理多条消息,消息体为原始字节
+     */
+    public static final String MSG_PROCESS_BATCH = "msgProcessBatch";
+
     /**
      * 模块统一交易验证器RPC接口
      */
@@ -24,7 +24,7 @@
  */
 package io.nuls.core.core.inteceptor;
 
-import io.nuls.core.core.inteceptor.base.BeanMethodInterceptorManager;
+import io.nuls.core.core.inteceptor.base.BeanMethodInterceptorChainCache;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 
@@ -39,6 +39,19 @@ import java.util.Arrays;
  * @author: Niels Wang
  */
 public class DefaultMethodInterceptor implements MethodInterceptor {
+
+    /**
+     * 按方法缓存的拦截器链
+     * Interceptor chains cached per method.
+     */
+    private final BeanMethodInterceptorChainCache chainCache = new BeanMethodInterceptorChainCache((clazz, method) -> {
+        Annotation[] clsAnns = clazz.getDeclaredAnnotations();
+        Annotation[] methodAnns = method.getDeclaredAnnotations();
+        Annotation[] anns = Arrays.copyOf(methodAnns, methodAnns.length + clsAnns.length);
+        System.arraycopy(clsAnns, 0, anns, methodAnns.length, clsAnns.length);
+        return anns;
+    });
+
     /**
      * 拦截方法
      * Intercept method
@@ -52,14 +65,6 @@ public class DefaultMethodInterceptor implements MethodInterceptor {
      */
     @Override
     public Object intercept(Object obj, Method method, Object[] params, MethodProxy methodProxy) throws Throwable {
-        Annotation[] clsAnns = obj.getClass().getSuperclass().getDeclaredAnnotations();
-        Annotation[] methodAnns = method.getDeclaredAnnotations();
-        if ((null == method.getDeclaredAnnotations() || method.getDeclaredAnnotations().length == 0) &&
-                (obj.getClass().getSuperclass().getDeclaredAnnotations() == null || obj.getClass().getSuperclass().getDeclaredAnnotations().length == 0 )) {
-            return methodProxy.invokeSuper(obj, params);
-        }
-        Annotation[] anns = Arrays.copyOf(methodAnns,methodAnns.length + clsAnns.length);
-        System.arraycopy(clsAnns,0,anns,methodAnns.length,clsAnns.length);
-        return BeanMethodInterceptorManager.doInterceptor(anns, obj, method, params, methodProxy);
+        return chainCache.invoke(obj, method, params, methodProxy);
     }
 }
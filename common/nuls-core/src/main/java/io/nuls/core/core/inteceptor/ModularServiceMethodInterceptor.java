@@ -25,7 +25,7 @@
 
 package io.nuls.core.core.inteceptor;
 
-import io.nuls.core.core.inteceptor.base.BeanMethodInterceptorManager;
+import io.nuls.core.core.inteceptor.base.BeanMethodInterceptorChainCache;
 import io.nuls.core.exception.BeanStatusException;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
@@ -50,6 +50,12 @@ public class ModularServiceMethodInterceptor implements MethodInterceptor {
      */
     private ThreadLocal<Integer> threadLocal = new ThreadLocal<>();
 
+    /**
+     * 按方法缓存的拦截器链
+     * Interceptor chains cached per method.
+     */
+    private final BeanMethodInterceptorChainCache chainCache = new BeanMethodInterceptorChainCache(this::getAnnotations);
+
     /**
      * 拦截方法
      * Intercept method
@@ -89,18 +95,23 @@ public class ModularServiceMethodInterceptor implements MethodInterceptor {
      * @throws Throwable 该方法可能抛出异常，请谨慎处理/This method may throw an exception, handle with care.
      */
     private Object doIntercept(Object obj, Method method, Object[] params, MethodProxy methodProxy) throws Throwable {
+        return chainCache.invoke(obj, method, params, methodProxy);
+    }
+
+    /**
+     * 获取被代理类型的方法需要拦截的注解，结果由拦截器链缓存保存
+     * Get the annotations to intercept for a method of the proxied type, the result is kept by the chain cache.
+     *
+     * @param clazz  方法所属对象的类型/The type of the object that the method belongs to.
+     * @param method 方法定义/Method definition
+     * @return 注解实例数组/Annotation instances
+     */
+    private Annotation[] getAnnotations(Class clazz, Method method) {
         List<Annotation> annotationList = new ArrayList<>();
         if (!method.getDeclaringClass().equals(Object.class)) {
-            String className = obj.getClass().getCanonicalName();
-            className = className.substring(0, className.indexOf("$$"));
-            Class clazz = Class.forName(className);
             fillAnnotationList(annotationList, clazz, method);
         }
-        if (annotationList.isEmpty()) {
-            return methodProxy.invokeSuper(obj, params);
-        }
-        return BeanMethodInterceptorManager.doInterceptor(annotationList.toArray(new Annotation[0]), obj, method, params, methodProxy);
-
+        return annotationList.toArray(new Annotation[0]);
     }
 
     /**
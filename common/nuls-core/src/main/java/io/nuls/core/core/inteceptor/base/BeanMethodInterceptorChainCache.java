@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.core.inteceptor.base;
+
+import net.sf.cglib.proxy.MethodProxy;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 按方法缓存已组装的拦截器链，代理对象的方法每次调用时无需再收集注解、组装拦截器链，没有拦截器的方法直接调用原方法
+ * Cache of assembled interceptor chains per method, proxied method calls no longer collect annotations and assemble the chain on every call,
+ * methods without interceptors invoke the original method directly.
+ */
+public class BeanMethodInterceptorChainCache {
+
+    /**
+     * 没有拦截器的方法的占位标记
+     * Placeholder of methods without interceptors.
+     */
+    private static final MultipleBeanMethodInterceptorChain NONE = new MultipleBeanMethodInterceptorChain(null, null);
+
+    private final Map<Class, Map<Method, MultipleBeanMethodInterceptorChain>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 收集被代理类型的方法上需要拦截的注解
+     * Collect the annotations to intercept for a method of the proxied type.
+     */
+    private final BiFunction<Class, Method, Annotation[]> annotationResolver;
+
+    private volatile int version = BeanMethodInterceptorManager.getVersion();
+
+    public BeanMethodInterceptorChainCache(BiFunction<Class, Method, Annotation[]> annotationResolver) {
+        this.annotationResolver = annotationResolver;
+    }
+
+    /**
+     * 使用缓存的拦截器链执行方法
+     * Execute the method with the cached interceptor chain.
+     *
+     * @param object      方法所属对象/Method owner
+     * @param method      方法定义/Method definition
+     * @param params      方法参数列表/Method parameter list
+     * @param methodProxy 方法代理器
+     * @return 返回拦截的方法的返回值，可以对该值进行处理和替换/Returns the return value of the intercepting method, which can be processed and replaced.
+     * @throws Throwable 该方法可能抛出异常，请谨慎处理/This method may throw an exception, handle with care.
+     */
+    public Object invoke(Object object, Method method, Object[] params, MethodProxy methodProxy) throws Throwable {
+        MultipleBeanMethodInterceptorChain template = getInterceptorChain(object.getClass().getSuperclass(), method);
+        if (template == NONE) {
+            return methodProxy.invokeSuper(object, params);
+        }
+        return new MultipleBeanMethodInterceptorChain(template).startInterceptor(null, object, method, params, methodProxy);
+    }
+
+    private MultipleBeanMethodInterceptorChain getInterceptorChain(Class clazz, Method method) {
+        int currentVersion = BeanMethodInterceptorManager.getVersion();
+        if (version != currentVersion) {
+            cache.clear();
+            version = currentVersion;
+        }
+        return cache.computeIfAbsent(clazz, k -> new ConcurrentHashMap<>()).computeIfAbsent(method, m -> {
+            Annotation[] annotations = annotationResolver.apply(clazz, m);
+            if (annotations.length == 0) {
+                return NONE;
+            }
+            MultipleBeanMethodInterceptorChain chain = BeanMethodInterceptorManager.getInterceptorChain(annotations);
+            return null == chain ? NONE : chain;
+        });
+    }
+}
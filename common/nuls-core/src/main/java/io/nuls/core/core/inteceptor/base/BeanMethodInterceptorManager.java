@@ -47,6 +47,12 @@ public class BeanMethodInterceptorManager {
      */
     private static final Map<Class, BeanMethodInterceptorChain> INTERCEPTOR_MAP = new HashMap<>();
 
+    /**
+     * 拦截器池版本，每次注册拦截器后递增，已缓存的拦截器链据此失效
+     * Version of the interceptor pool, increased on every registration so that cached chains are invalidated.
+     */
+    private static volatile int version;
+
     /**
      * 添加方法拦截器到管理器中
      * Add a method interceptor to the manager.
@@ -54,28 +60,28 @@ public class BeanMethodInterceptorManager {
      * @param annotationType 注解类型
      * @param interceptor    拦截器
      */
-    public static void addBeanMethodInterceptor(Class annotationType, BeanMethodInterceptor interceptor) {
+    public static synchronized void addBeanMethodInterceptor(Class annotationType, BeanMethodInterceptor interceptor) {
         BeanMethodInterceptorChain interceptorChain = INTERCEPTOR_MAP.get(annotationType);
         if (null == interceptorChain) {
             interceptorChain = new BeanMethodInterceptorChain();
             INTERCEPTOR_MAP.put(annotationType, interceptorChain);
         }
         interceptorChain.add(interceptor);
+        version++;
+    }
+
+    public static int getVersion() {
+        return version;
     }
 
     /**
-     * 执行一个方法，根据方法的注解组装拦截器链，并放入拦截器链中执行
-     * Implement a method that assembles the interceptor chain according to the method's annotations and puts it into the interceptor chain.
+     * 根据方法的注解组装拦截器链模板，没有匹配的拦截器时返回null
+     * Assemble the interceptor chain template for the method's annotations, returns null when no interceptor matches.
      *
      * @param annotations 方法上标注的注解列表/Method annotated list of annotations.
-     * @param object      方法所属对象/Method owner
-     * @param method      方法定义/Method definition
-     * @param params      方法参数列表/Method parameter list
-     * @param methodProxy 方法代理器
-     * @return 返回拦截的方法的返回值，可以对该值进行处理和替换/Returns the return value of the intercepting method, which can be processed and replaced.
-     * @throws Throwable 该方法可能抛出异常，请谨慎处理/This method may throw an exception, handle with care.
+     * @return 拦截器链模板/Interceptor chain template
      */
-    public static Object doInterceptor(Annotation[] annotations, Object object, Method method, Object[] params, MethodProxy methodProxy) throws Throwable {
+    public static MultipleBeanMethodInterceptorChain getInterceptorChain(Annotation[] annotations) {
         List<Annotation> annotationList = new ArrayList<>();
         List<BeanMethodInterceptorChain> chainList = new ArrayList<>();
         for (Annotation ann : annotations) {
@@ -86,9 +92,28 @@ public class BeanMethodInterceptorManager {
             }
         }
         if (annotationList.isEmpty()) {
+            return null;
+        }
+        return new MultipleBeanMethodInterceptorChain(annotationList, chainList);
+    }
+
+    /**
+     * 执行一个方法，根据方法的注解组装拦截器链，并放入拦截器链中执行
+     * Implement a method that assembles the interceptor chain according to the method's annotations and puts it into the interceptor chain.
+     *
+     * @param annotations 方法上标注的注解列表/Method annotated list of annotations.
+     * @param object      方法所属对象/Method owner
+     * @param method      方法定义/Method definition
+     * @param params      方法参数列表/Method parameter list
+     * @param methodProxy 方法代理器
+     * @return 返回拦截的方法的返回值，可以对该值进行处理和替换/Returns the return value of the intercepting method, which can be processed and replaced.
+     * @throws Throwable 该方法可能抛出异常，请谨慎处理/This method may throw an exception, handle with care.
+     */
+    public static Object doInterceptor(Annotation[] annotations, Object object, Method method, Object[] params, MethodProxy methodProxy) throws Throwable {
+        MultipleBeanMethodInterceptorChain chain = getInterceptorChain(annotations);
+        if (null == chain) {
             return methodProxy.invokeSuper(object, params);
         }
-        MultipleBeanMethodInterceptorChain chain = new MultipleBeanMethodInterceptorChain(annotationList, chainList);
         return chain.startInterceptor(null, object, method, params, methodProxy);
     }
 }
@@ -75,6 +75,17 @@ public class MultipleBeanMethodInterceptorChain extends BeanMethodInterceptorCha
         }
     }
 
+    /**
+     * 以已组装好的拦截器链为模板创建一条新链，共享模板的注解和拦截器列表，只持有本次执行的进度
+     * Create a new chain from an assembled template, sharing its annotation and interceptor lists and only holding the progress of this execution.
+     *
+     * @param template 拦截器链模板/Interceptor chain template
+     */
+    public MultipleBeanMethodInterceptorChain(MultipleBeanMethodInterceptorChain template) {
+        this.annotationList = template.annotationList;
+        this.interceptorList = template.interceptorList;
+    }
+
     /**
      * 将一条拦截器链加入到多重拦截器链中
      * Add an interceptor chain to the multiple interceptor chain,
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.core.ioc;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 编译期生成bean索引的注解处理器，将标注了Service/Component/Controller/Configuration/Interceptor的类型写入{@link ScanUtil#BEAN_INDEX}，
+ * 启动时{@link ScanUtil#scanBeans(String)}读取索引，无需遍历classpath加载所有类型
+ * Annotation processor generating the bean index at compile time. Types annotated with Service/Component/Controller/Configuration/Interceptor
+ * are written to {@link ScanUtil#BEAN_INDEX}, {@link ScanUtil#scanBeans(String)} reads it at startup instead of walking the classpath and loading every type.
+ * <p>
+ * 需通过编译参数-Anuls.bean.index=true开启，根pom只在先clean再全量编译的release profile中开启。增量编译只会处理部分源文件，
+ * 关闭时写入空索引覆盖之前构建留下的索引，{@link ScanUtil#scanBeans(String)}遇到空索引时回退为扫描classpath
+ * Enabled with the compiler option -Anuls.bean.index=true, which the root pom only passes in the release profile that builds from clean.
+ * Incremental compilation only processes part of the sources, so when disabled the processor writes an empty index over one left by
+ * an earlier build, and {@link ScanUtil#scanBeans(String)} falls back to scanning the classpath for an empty index.
+ */
+@SupportedAnnotationTypes({
+        "io.nuls.core.core.annotation.Service",
+        "io.nuls.core.core.annotation.Component",
+        "io.nuls.core.core.annotation.Controller",
+        "io.nuls.core.core.annotation.Configuration",
+        "io.nuls.core.core.annotation.Interceptor"})
+@SupportedOptions(BeanIndexProcessor.OPTION)
+public class BeanIndexProcessor extends AbstractProcessor {
+
+    public static final String OPTION = "nuls.bean.index";
+
+    private final Set<String> beans = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!Boolean.parseBoolean(processingEnv.getOptions().get(OPTION))) {
+            if (roundEnv.processingOver()) {
+                writeIndex();
+            }
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    beans.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ScanUtil.BEAN_INDEX);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String bean : beans) {
+                    writer.write(bean);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "write bean index fail : " + e.getMessage());
+        }
+    }
+}
@@ -26,10 +26,13 @@ package io.nuls.core.core.ioc;
 
 import io.nuls.core.model.StringUtils;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
@@ -50,6 +53,18 @@ public class ScanUtil {
     private static final String JAR_TYPE = "jar";
     private static final String CLASS_TYPE = ".class";
 
+    /**
+     * 编译期生成的bean索引文件，见{@link BeanIndexProcessor}
+     * Bean index generated at compile time, see {@link BeanIndexProcessor}
+     */
+    public static final String BEAN_INDEX = "META-INF/nuls/beans.idx";
+
+    /**
+     * 设置该系统属性为true时忽略bean索引，始终扫描classpath
+     * Ignore the bean index and always scan the classpath when this system property is true.
+     */
+    public static final String BEAN_INDEX_IGNORE = "nuls.bean.index.ignore";
+
     /**
      * 扫描执行包名称下的所有类型
      * Scans all types under the package name.
@@ -83,6 +98,93 @@ public class ScanUtil {
         return list;
     }
 
+    /**
+     * 扫描包名称下可能是bean的类型：classpath中带有bean索引的目录或jar包只加载索引中的类型，没有索引的仍然逐个扫描
+     * Scans the types under the package name that may be beans. Directories or jars of the classpath with a bean index
+     * only load the indexed types, the ones without an index are still scanned one by one.
+     *
+     * @param packageName 要扫描的包路径，如果传入的路径为空，默认为“io.nuls”/The package path to be scanned.If the incoming path is empty, the default is "IO. Nuls"
+     * @return 所有扫描到的类型的列表/List of all scanned types.
+     */
+    public static List<Class> scanBeans(String packageName) {
+        if (StringUtils.isBlank(packageName)) {
+            packageName = "io.nuls";
+        }
+        List<Class> list = new ArrayList<>();
+        String packagePath = packageName.replace(".", "/");
+        Enumeration<URL> dirs;
+        try {
+            dirs = Thread.currentThread().getContextClassLoader().getResources(packagePath);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (null == dirs) {
+            return list;
+        }
+        boolean ignoreIndex = Boolean.getBoolean(BEAN_INDEX_IGNORE);
+        while (dirs.hasMoreElements()) {
+            URL url = dirs.nextElement();
+            List<String> index = ignoreIndex ? null : readBeanIndex(url, packagePath);
+            if (null != index) {
+                String prefix = packageName + ".";
+                for (String className : index) {
+                    if (!className.startsWith(prefix)) {
+                        continue;
+                    }
+                    try {
+                        list.add(CLASS_LOADER.loadClass(className));
+                    } catch (ClassNotFoundException e) {
+                        continue;
+                    }
+                }
+                continue;
+            }
+            String protocol = url.getProtocol();
+            if (FILE_TYPE.equals(protocol)) {
+                findClassLocal(packageName, url.getPath(), list);
+            } else if (JAR_TYPE.equals(protocol)) {
+                findClassJar(packageName, url.getPath(), list);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 读取包所在目录或jar包根路径下的bean索引，没有索引或索引为空(未开启索引的编译)时返回null
+     * Read the bean index at the root of the directory or jar containing the package,
+     * returns null without an index or with an empty one (written by a compile with the index disabled).
+     *
+     * @param url         包路径的资源地址/Resource url of the package path
+     * @param packagePath 包路径/The package path
+     * @return 索引中的类型名称列表/Type names in the index
+     */
+    private static List<String> readBeanIndex(URL url, String packagePath) {
+        String path = url.toString();
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (!path.endsWith(packagePath)) {
+            return null;
+        }
+        List<String> index = new ArrayList<>();
+        try {
+            URL indexUrl = new URL(path.substring(0, path.length() - packagePath.length()) + BEAN_INDEX);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexUrl.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty()) {
+                        index.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            //没有索引文件/No index file
+            return null;
+        }
+        return index.isEmpty() ? null : index;
+    }
+
     /**
      * 扫描所有本地类型，将扫描到的结果添加到类型列表中
      * Scan all local types and add the scanned results to the list of types.
@@ -89,8 +89,8 @@ public class SpringLiteContext {
         }
         SpringLiteContext.interceptor = interceptor;
         Log.info("spring lite scan package : " + Arrays.toString(packName));
-        Set<Class> classes = new HashSet<>(ScanUtil.scan("io.nuls.core.core.config"));
-        Arrays.stream(packName).forEach(pack -> classes.addAll(ScanUtil.scan(pack)));
+        Set<Class> classes = new HashSet<>(ScanUtil.scanBeans("io.nuls.core.core.config"));
+        Arrays.stream(packName).forEach(pack -> classes.addAll(ScanUtil.scanBeans(pack)));
         classes.stream()
                 //通过Order注解控制类加载顺序
                 .sorted((b1, b2) -> getOrderByClass(b1) > getOrderByClass(b2) ? 1 : -1)
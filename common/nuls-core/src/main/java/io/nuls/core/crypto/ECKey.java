@@ -22,6 +22,8 @@ import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.primitives.UnsignedBytes;
 import io.nuls.core.basic.VarInt;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.core.model.CollectionUtils;
 import io.nuls.core.model.ObjectUtils;
 import io.nuls.core.parse.SerializeUtils;
 import org.bouncycastle.asn1.*;
@@ -55,6 +57,7 @@ import java.security.SecureRandom;
 import java.security.SignatureException;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Map;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -662,7 +665,7 @@ public class ECKey {
      */
     public static boolean verify(byte[] data, ECDSASignature signature, byte[] pub) {
         ECDSASigner signer = new ECDSASigner();
-        ECPublicKeyParameters params = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE);
+        ECPublicKeyParameters params = new ECPublicKeyParameters(decodePubPoint(pub), CURVE);
         signer.init(false, params);
         try {
             return signer.verifySignature(data, signature.r, signature.s);
@@ -681,7 +684,62 @@ public class ECKey {
      * @throws Exception if the signature is unparseable in some way.
      */
     public static boolean verify(byte[] data, byte[] signature, byte[] pub) {
-        return verify(data, ECKey.ECDSASignature.decodeFromDER(signature), pub);
+        ByteArrayWrapper key = verifiedCacheKey(data, signature, pub);
+        if (VERIFIED_SIGNATURE_CACHE.containsKey(key)) {
+            return true;
+        }
+        boolean result = verify(data, ECKey.ECDSASignature.decodeFromDER(signature), pub);
+        if (result) {
+            VERIFIED_SIGNATURE_CACHE.put(key, Boolean.TRUE);
+        }
+        return result;
+    }
+
+    /**
+     * 已验证通过的签名缓存，同一笔交易在入池、区块验证等环节会被重复验签
+     * Signatures that passed verification, the same transaction is verified again on ingress, in block verification and so on
+     * <p>
+     * 键为带长度前缀的(数据摘要, 公钥, 签名)的sha256，只缓存验证通过的结果
+     * The key is the sha256 of the length prefixed (digest, public key, signature), only successful results are cached
+     */
+    private static final Map<ByteArrayWrapper, Boolean> VERIFIED_SIGNATURE_CACHE = CollectionUtils.getSynSizedMap(100000);
+
+    /**
+     * 解码后的公钥点缓存，公钥点上保存着bouncy castle的wNAF预计算表，常用公钥（共识节点、交易所热钱包）可省去解压和预计算
+     * Decoded public key points, each point keeps the wNAF precomputation of bouncy castle,
+     * frequently seen keys (consensus packers, exchange hot wallets) skip the decompression and the precomputation
+     */
+    private static final Map<ByteArrayWrapper, ECPoint> PUB_POINT_CACHE = CollectionUtils.getSynLruMap(10000);
+
+    /**
+     * 每个字段前加4字节长度, 避免同一串字节的不同切分得到相同的键
+     * Every field is prefixed with its 4 byte length, so different splits of the same bytes never share a key
+     */
+    private static ByteArrayWrapper verifiedCacheKey(byte[] data, byte[] signature, byte[] pub) {
+        byte[] bytes = new byte[12 + data.length + pub.length + signature.length];
+        int offset = putWithLength(bytes, 0, data);
+        offset = putWithLength(bytes, offset, pub);
+        putWithLength(bytes, offset, signature);
+        return new ByteArrayWrapper(Sha256Hash.hash(bytes));
+    }
+
+    private static int putWithLength(byte[] bytes, int offset, byte[] field) {
+        bytes[offset++] = (byte) (field.length >>> 24);
+        bytes[offset++] = (byte) (field.length >>> 16);
+        bytes[offset++] = (byte) (field.length >>> 8);
+        bytes[offset++] = (byte) field.length;
+        System.arraycopy(field, 0, bytes, offset, field.length);
+        return offset + field.length;
+    }
+
+    private static ECPoint decodePubPoint(byte[] pub) {
+        ByteArrayWrapper key = new ByteArrayWrapper(pub);
+        ECPoint point = PUB_POINT_CACHE.get(key);
+        if (point == null) {
+            point = CURVE.getCurve().decodePoint(pub);
+            PUB_POINT_CACHE.put(new ByteArrayWrapper(pub.clone()), point);
+        }
+        return point;
     }
 
     /**
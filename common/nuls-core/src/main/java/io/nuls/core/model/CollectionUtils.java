@@ -112,6 +112,21 @@ public class CollectionUtils {
         });
     }
 
+    /**
+     * 获取线程安全的固定大小的map，超出上限时淘汰最久未访问的元素
+     *
+     * @param size  map元素上限
+     * @return Map  map对象
+     */
+    public static <K, V> Map<K, V> getSynLruMap(int size) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(size, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > size;
+            }
+        });
+    }
+
     /**
      * 获取线程安全的固定大小的set
      *
@@ -0,0 +1,61 @@
+package io.nuls.core.core.inteceptor;
+
+import io.nuls.core.core.inteceptor.base.BeanMethodInterceptor;
+import io.nuls.core.core.inteceptor.base.BeanMethodInterceptorManager;
+import net.sf.cglib.proxy.Enhancer;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ModularServiceMethodInterceptorTest {
+
+    @Target({ElementType.METHOD, ElementType.TYPE})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Counted {
+        int value() default 1;
+    }
+
+    public static class CountedService {
+        @Counted(2)
+        public int counted(int a) {
+            return a + 1;
+        }
+
+        public int plain(int a) {
+            return a + 2;
+        }
+    }
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    @BeforeClass
+    public static void before() {
+        BeanMethodInterceptor<Counted> interceptor = (annotation, object, method, params, chain) -> {
+            COUNT.addAndGet(annotation.value());
+            return chain.execute(annotation, object, method, params);
+        };
+        BeanMethodInterceptorManager.addBeanMethodInterceptor(Counted.class, interceptor);
+    }
+
+    @Test
+    public void cachedChains() {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(CountedService.class);
+        enhancer.setCallback(new ModularServiceMethodInterceptor());
+        CountedService service = (CountedService) enhancer.create();
+        COUNT.set(0);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(2, service.counted(1));
+            Assert.assertEquals(3, service.plain(1));
+        }
+        Assert.assertEquals(6, COUNT.get());
+        Assert.assertNotNull(service.toString());
+        Assert.assertEquals(6, COUNT.get());
+    }
+}
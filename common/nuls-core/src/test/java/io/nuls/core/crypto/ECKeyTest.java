@@ -0,0 +1,39 @@
+package io.nuls.core.crypto;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ECKeyTest {
+
+    @Test
+    public void verifyWithCache() {
+        ECKey key = new ECKey();
+        ECKey other = new ECKey();
+        byte[] hash = Sha256Hash.hash("nuls".getBytes());
+        byte[] signature = key.sign(hash);
+        for (int i = 0; i < 2; i++) {
+            Assert.assertTrue(ECKey.verify(hash, signature, key.getPubKey()));
+            Assert.assertFalse(ECKey.verify(hash, signature, other.getPubKey()));
+        }
+        byte[] otherHash = Sha256Hash.hash("nuls2".getBytes());
+        Assert.assertFalse(ECKey.verify(otherHash, signature, key.getPubKey()));
+        Assert.assertTrue(ECKey.verify(otherHash, key.sign(otherHash), key.getPubKey()));
+
+        byte[] pub = key.getPubKey();
+        byte[] shortPub = Arrays.copyOf(pub, pub.length - 1);
+        byte[] longSignature = new byte[signature.length + 1];
+        longSignature[0] = pub[pub.length - 1];
+        System.arraycopy(signature, 0, longSignature, 1, signature.length);
+        Assert.assertFalse(accepted(hash, longSignature, shortPub));
+    }
+
+    private static boolean accepted(byte[] data, byte[] signature, byte[] pub) {
+        try {
+            return ECKey.verify(data, signature, pub);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.Log;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.info.HostInfo;
+import io.nuls.core.rpc.model.CmdPriority;
 import io.nuls.core.rpc.model.ModuleE;
 import io.nuls.core.rpc.modulebootstrap.Module;
 import io.nuls.core.rpc.modulebootstrap.NulsRpcModuleBootstrap;
@@ -25,10 +26,13 @@ import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.core.thread.ThreadUtils;
 import io.nuls.core.thread.commom.NulsThreadFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import static io.nuls.block.constant.CommandConstant.*;
 import static io.nuls.block.constant.Constant.*;
 
 /**
@@ -51,6 +55,19 @@ public class BlockBootstrap extends RpcModule {
 
     public static boolean started = false;
 
+    /**
+     * 区块相关消息在网络模块的发送队列中优先发送
+     * Block messages are sent first from the network module's send queues
+     */
+    private static final Map<String, CmdPriority> MSG_PRIORITY = new HashMap<>();
+
+    static {
+        for (String cmd : new String[]{BLOCK_MESSAGE, SMALL_BLOCK_MESSAGE, FORWARD_SMALL_BLOCK_MESSAGE, GET_BLOCK_MESSAGE, GET_BLOCK_BY_HEIGHT_MESSAGE,
+                GET_BLOCKS_BY_HEIGHT_MESSAGE, GET_SMALL_BLOCK_MESSAGE, GET_TXGROUP_MESSAGE, TXGROUP_MESSAGE, COMPLETE_MESSAGE}) {
+            MSG_PRIORITY.put(cmd, CmdPriority.HIGH);
+        }
+    }
+
     public static void main(String[] args) {
         if (args == null || args.length == 0) {
             args = new String[]{"ws://" + HostInfo.getLocalIP() + ":7771"};
@@ -105,7 +122,12 @@ public class BlockBootstrap extends RpcModule {
      */
     private void initDb() throws Exception {
         //读取配置文件,数据存储根目录,初始化打开该目录下所有表连接并放入缓存
-        RocksDBService.init(blockConfig.getDataFolder());
+        RocksDBService.setBlockCacheSize(blockConfig.getDbBlockCacheSize());
+        if (blockConfig.isColumnFamilyMode()) {
+            RocksDBService.initColumnFamilyMode(blockConfig.getDataFolder());
+        } else {
+            RocksDBService.init(blockConfig.getDataFolder());
+        }
         RocksDBService.createTable(CHAIN_LATEST_HEIGHT);
         RocksDBService.createTable(CHAIN_PARAMETERS);
         RocksDBService.createTable(PROTOCOL_CONFIG);
@@ -195,7 +217,7 @@ public class BlockBootstrap extends RpcModule {
     @Override
     public void onDependenciesReady(Module module) {
         if (ModuleE.NW.abbr.equals(module.getName())) {
-            RegisterHelper.registerMsg(ProtocolGroupManager.getOneProtocol());
+            RegisterHelper.registerMsg(ProtocolGroupManager.getOneProtocol(), MSG_PRIORITY);
         }
         if (ModuleE.PU.abbr.equals(module.getName())) {
             ContextManager.CHAIN_ID_LIST.forEach(RegisterHelper::registerProtocol);
@@ -144,4 +144,8 @@ public interface CommandConstant {
      * 接收本地节点新打包的区块
      */
     String GET_STATUS = "getStatus";
+    /**
+     * 区块同步时各节点的下载统计
+     */
+    String GET_SYN_DOWNLOAD_STATS = "getSynDownloadStats";
 }
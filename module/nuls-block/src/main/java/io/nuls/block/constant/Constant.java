@@ -70,6 +70,41 @@ public interface Constant {
      */
     int MODULE_WAITING = 0;
 
+    /**
+     * 区块同步时并行预验证区块的线程数
+     */
+    int SYN_VERIFY_THREAD_COUNT = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors() - 1));
+
+    /**
+     * 区块同步时每个预验证线程最多领先于保存高度的区块数
+     */
+    int SYN_VERIFY_AHEAD_PER_THREAD = 8;
+
+    /**
+     * 区块同步时已预验证未保存的区块字节数占cachedBlockSizeLimit的最大百分比
+     */
+    int SYN_VERIFY_CACHE_PERCENT = 50;
+
+    /**
+     * 区块同步时输出各阶段统计信息的间隔区块数
+     */
+    int SYN_METRICS_LOG_INTERVAL = 1000;
+
+    /**
+     * 区块同步时按节点下载速度分配区间,使单个下载任务的耗时约为该值(毫秒)
+     */
+    long SYN_DOWNLOAD_TARGET_MILLIS = 2000;
+
+    /**
+     * 区块同步时下载任务耗时超过预期耗时的倍数后,把未下载的区间转交给更快的空闲节点
+     */
+    int SYN_STRAGGLER_FACTOR = 3;
+
+    /**
+     * 区块同步时判定下载任务掉队的最小耗时(毫秒)
+     */
+    long SYN_STRAGGLER_MIN_MILLIS = 3000;
+
     /**
      * 区块排序器
      */
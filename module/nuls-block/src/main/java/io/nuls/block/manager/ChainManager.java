@@ -33,6 +33,7 @@ import io.nuls.core.constant.TxType;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.logback.NulsLogger;
+import io.nuls.core.rockdb.constant.DBTableProfile;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.List;
@@ -99,12 +100,12 @@ public class ChainManager {
     private void initTable(int chainId) {
         NulsLogger logger = ContextManager.getContext(chainId).getLogger();
         try {
-            RocksDBService.createTable(BLOCK_HEADER + chainId);
-            RocksDBService.createTable(BLOCK_HEADER_INDEX + chainId);
+            RocksDBService.createTable(BLOCK_HEADER + chainId, DBTableProfile.POINT_LOOKUP);
+            RocksDBService.createTable(BLOCK_HEADER_INDEX + chainId, DBTableProfile.POINT_LOOKUP);
             if (RocksDBService.existTable(CACHED_BLOCK + chainId)) {
                 RocksDBService.destroyTable(CACHED_BLOCK + chainId);
             }
-            RocksDBService.createTable(CACHED_BLOCK + chainId);
+            RocksDBService.createTable(CACHED_BLOCK + chainId, DBTableProfile.WRITE_HEAVY);
         } catch (Exception e) {
             logger.error(e);
         }
@@ -25,7 +25,9 @@ import io.nuls.base.data.Block;
 import io.nuls.base.protocol.MessageProcessor;
 import io.nuls.block.manager.ContextManager;
 import io.nuls.block.message.BlockMessage;
+import io.nuls.block.model.BlockDownloaderParams;
 import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.Node;
 import io.nuls.block.utils.SingleBlockCacher;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.logback.NulsLogger;
@@ -62,11 +64,16 @@ public class BlockHandler implements MessageProcessor {
             long height = block.getHeader().getHeight();
             //接受到的区块高度比当前最新高度高，并且区块同步过程正在进行
             boolean b = height > context.getLatestHeight() && context.isNeedSyn();
-            if (b && context.getBlockMap().put(height, block) == null) {
-                context.getCachedBlockSize().addAndGet(block.size());
-            } else {
+            block.setNodeId(nodeId);
+            if (!b || !context.putSynBlock(height, block)) {
                 logger.debug("ignore BlockMessage from node-{}, blockHeight-{}, isNeedSyn-{}, LatestHeight-{}", nodeId, height, context.isNeedSyn(), context.getLatestHeight());
             }
+            //记录节点下载速度,重复的区块同样计入
+            BlockDownloaderParams downloaderParams = context.getDownloaderParams();
+            Node node = downloaderParams == null ? null : downloaderParams.getNodeMap().get(nodeId);
+            if (node != null) {
+                node.recordBlock(block.size());
+            }
         } else {
             if (block != null) {
                 block.setNodeId(nodeId);
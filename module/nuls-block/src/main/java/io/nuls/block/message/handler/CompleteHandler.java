@@ -22,7 +22,6 @@ package io.nuls.block.message.handler;
 
 import io.nuls.base.RPCUtil;
 import io.nuls.base.protocol.MessageProcessor;
-import io.nuls.block.constant.NodeEnum;
 import io.nuls.block.manager.ContextManager;
 import io.nuls.block.message.CompleteMessage;
 import io.nuls.block.model.ChainContext;
@@ -60,7 +59,10 @@ public class CompleteHandler implements MessageProcessor {
             return;
         }
         Node node = context.getDownloaderParams().getNodeMap().get(nodeId);
-        node.adjustCredit(message.isSuccess());
-        node.setNodeEnum(NodeEnum.IDLE);
+        if (node == null) {
+            return;
+        }
+        node.completeRequest(message.isSuccess());
+        context.signalSyn();
     }
 }
@@ -3,6 +3,7 @@ package io.nuls.block.model;
 import io.nuls.core.basic.ModuleConfig;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.core.annotation.Configuration;
+import io.nuls.core.rockdb.manager.RocksDBManager;
 import io.nuls.core.rpc.model.ModuleE;
 
 import java.io.File;
@@ -75,6 +76,18 @@ public class BlockConfig extends ChainParameters implements ModuleConfig {
      */
     private int rollbackHeight;
 
+    /**
+     * 是否以列族模式存储, 开启后区块头、高度索引与最新高度在同一批次中原子提交, 已有数据的节点需要重新同步
+     * Store tables as column families of one database so that the header, its height index and the latest height
+     * are committed in one batch. Existing nodes have to resync after switching.
+     */
+    private boolean columnFamilyMode;
+
+    /**
+     * 数据库共享块缓存字节数
+     */
+    private long dbBlockCacheSize = RocksDBManager.DEFAULT_BLOCK_CACHE_SIZE;
+
     public int getNodesMonitorInterval() {
         return nodesMonitorInterval;
     }
@@ -174,4 +187,20 @@ public class BlockConfig extends ChainParameters implements ModuleConfig {
     public void setRollbackHeight(int rollbackHeight) {
         this.rollbackHeight = rollbackHeight;
     }
+
+    public boolean isColumnFamilyMode() {
+        return columnFamilyMode;
+    }
+
+    public void setColumnFamilyMode(boolean columnFamilyMode) {
+        this.columnFamilyMode = columnFamilyMode;
+    }
+
+    public long getDbBlockCacheSize() {
+        return dbBlockCacheSize;
+    }
+
+    public void setDbBlockCacheSize(long dbBlockCacheSize) {
+        this.dbBlockCacheSize = dbBlockCacheSize;
+    }
 }
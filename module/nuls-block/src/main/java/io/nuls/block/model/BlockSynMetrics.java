@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.nuls.block.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 区块同步流水线各阶段的统计信息
+ * 下载等待:保存线程等待下一个高度的区块到达的时间
+ * 预验证:并行线程中基本信息、梅克尔哈希、签名验证的次数与耗时
+ * 验证等待:保存线程等待预验证结果的时间
+ * 保存:保存线程中共识验证与区块保存的次数、字节数与耗时
+ */
+public class BlockSynMetrics {
+
+    private final long startTime = System.nanoTime();
+
+    private final LongAdder downloadWaitNanos = new LongAdder();
+
+    private final LongAdder verifyCount = new LongAdder();
+    private final LongAdder verifyFailCount = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+
+    private final LongAdder verifyWaitNanos = new LongAdder();
+
+    private final LongAdder saveCount = new LongAdder();
+    private final LongAdder saveBytes = new LongAdder();
+    private final LongAdder saveNanos = new LongAdder();
+
+    public void recordDownloadWait(long nanos) {
+        downloadWaitNanos.add(nanos);
+    }
+
+    public void recordVerify(long nanos, boolean success) {
+        verifyCount.increment();
+        verifyNanos.add(nanos);
+        if (!success) {
+            verifyFailCount.increment();
+        }
+    }
+
+    public void recordVerifyWait(long nanos) {
+        verifyWaitNanos.add(nanos);
+    }
+
+    public void recordSave(long nanos, int bytes) {
+        saveCount.increment();
+        saveBytes.add(bytes);
+        saveNanos.add(nanos);
+    }
+
+    public long getSaveCount() {
+        return saveCount.sum();
+    }
+
+    public long getVerifyCount() {
+        return verifyCount.sum();
+    }
+
+    public long getVerifyFailCount() {
+        return verifyFailCount.sum();
+    }
+
+    /**
+     * 自开始同步以来每秒保存的区块数
+     */
+    public double getBlocksPerSecond() {
+        long elapsed = System.nanoTime() - startTime;
+        return elapsed <= 0 ? 0 : saveCount.sum() * 1e9 / elapsed;
+    }
+
+    private static long avgMicros(long nanos, long count) {
+        return count == 0 ? 0 : nanos / count / 1000;
+    }
+
+    @Override
+    public String toString() {
+        long saved = saveCount.sum();
+        long verified = verifyCount.sum();
+        return String.format("saved:%d, blocks/s:%.1f, KB/s:%.1f, save avg:%dus, verify:%d(fail %d) avg:%dus, download wait:%dms, verify wait:%dms",
+                saved, getBlocksPerSecond(), getBlocksPerSecond() == 0 ? 0 : saveBytes.sum() / 1024.0 * getBlocksPerSecond() / saved,
+                avgMicros(saveNanos.sum(), saved), verified, verifyFailCount.sum(), avgMicros(verifyNanos.sum(), verified),
+                downloadWaitNanos.sum() / 1000000, verifyWaitNanos.sum() / 1000000);
+    }
+}
@@ -35,7 +35,10 @@ import io.nuls.core.model.CollectionUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.StampedLock;
 
 /**
@@ -127,11 +130,89 @@ public class ChainContext {
      */
     private Map<Long, Block> blockMap = new ConcurrentHashMap<>(100);
 
+    /**
+     * 同步区块到达、下载任务结束、缓存区块被消费时通知区块下载、消费线程
+     */
+    private final ReentrantLock blockArrivedLock = new ReentrantLock();
+    private final Condition blockArrived = blockArrivedLock.newCondition();
+
+    /**
+     * 本次区块同步各阶段的统计信息
+     */
+    private BlockSynMetrics synMetrics;
+
     /**
      * 孤儿区块关联的节点,维护孤儿区块时优先从这些节点下载
      */
     private Map<NulsHash, List<String>> orphanBlockRelatedNodes;
 
+    /**
+     * 缓存下载的同步区块并通知区块消费线程
+     *
+     * @param height 区块高度
+     * @param block  区块
+     * @return 该高度之前是否没有缓存区块
+     */
+    public boolean putSynBlock(long height, Block block) {
+        boolean added = blockMap.put(height, block) == null;
+        if (added) {
+            cachedBlockSize.addAndGet(block.size());
+        }
+        signalSyn();
+        return added;
+    }
+
+    /**
+     * 通知等待同步状态变化的线程
+     */
+    public void signalSyn() {
+        blockArrivedLock.lock();
+        try {
+            blockArrived.signalAll();
+        } finally {
+            blockArrivedLock.unlock();
+        }
+    }
+
+    /**
+     * 等待同步状态变化,被通知或超时后返回
+     *
+     * @param timeout 超时时间(毫秒)
+     */
+    public void awaitSyn(long timeout) throws InterruptedException {
+        blockArrivedLock.lock();
+        try {
+            blockArrived.await(timeout, TimeUnit.MILLISECONDS);
+        } finally {
+            blockArrivedLock.unlock();
+        }
+    }
+
+    /**
+     * 等待指定高度的同步区块,任意同步区块到达或超时后返回
+     *
+     * @param height  区块高度
+     * @param timeout 超时时间(毫秒)
+     */
+    public void awaitSynBlock(long height, long timeout) throws InterruptedException {
+        blockArrivedLock.lock();
+        try {
+            if (!blockMap.containsKey(height)) {
+                blockArrived.await(timeout, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            blockArrivedLock.unlock();
+        }
+    }
+
+    public BlockSynMetrics getSynMetrics() {
+        return synMetrics;
+    }
+
+    public void setSynMetrics(BlockSynMetrics synMetrics) {
+        this.synMetrics = synMetrics;
+    }
+
     public Map<NulsHash, List<String>> getOrphanBlockRelatedNodes() {
         return orphanBlockRelatedNodes;
     }
@@ -35,6 +35,11 @@ import java.util.StringJoiner;
  */
 public class Node {
 
+    /**
+     * 下载速度、延迟的指数移动平均系数
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
     /**
      * ip+port
      */
@@ -71,6 +76,41 @@ public class Node {
      * 节点状态
      */
     private NodeEnum nodeEnum;
+    /**
+     * 当前下载任务收到第一个区块的时间
+     */
+    private long firstBlockTime = 0;
+    /**
+     * 当前下载任务已收到的区块数、字节数
+     */
+    private int requestBlocks = 0;
+    private long requestBytes = 0;
+    /**
+     * 当前下载任务收到的第一个区块的字节数
+     */
+    private int firstBlockBytes = 0;
+    /**
+     * 当前下载任务是否已转交其他节点
+     */
+    private boolean reassigned = false;
+    /**
+     * 本次同步累计下载的区块数、字节数
+     */
+    private long downloadedBlocks = 0;
+    private long downloadedBytes = 0;
+    /**
+     * 本次同步累计下载任务数、被转交的任务数
+     */
+    private int requestCount = 0;
+    private int reassignedCount = 0;
+    /**
+     * 下载速度(字节/秒)的指数移动平均,0表示尚未测得
+     */
+    private double bytesPerSecond = 0;
+    /**
+     * 发出下载请求到收到第一个区块的延迟(毫秒)的指数移动平均,-1表示尚未测得
+     */
+    private long latency = -1;
 
     public long getStartHeight() {
         return startHeight;
@@ -170,6 +210,155 @@ public class Node {
         }
     }
 
+    /**
+     * 开始一个下载任务
+     *
+     * @param startHeight 起始高度
+     * @param endHeight   结束高度
+     */
+    public synchronized void startRequest(long startHeight, long endHeight) {
+        this.startHeight = startHeight;
+        this.endHeight = endHeight;
+        this.startTime = System.currentTimeMillis();
+        this.firstBlockTime = 0;
+        this.requestBlocks = 0;
+        this.requestBytes = 0;
+        this.firstBlockBytes = 0;
+        this.reassigned = false;
+        this.requestCount++;
+        this.nodeEnum = NodeEnum.WORKING;
+    }
+
+    /**
+     * 记录从该节点收到的同步区块,第一个区块到达时采样延迟
+     *
+     * @param size 区块字节数
+     */
+    public synchronized void recordBlock(int size) {
+        long now = System.currentTimeMillis();
+        if (requestBlocks == 0 && NodeEnum.WORKING.equals(nodeEnum)) {
+            firstBlockTime = now;
+            firstBlockBytes = size;
+            long sample = now - startTime;
+            latency = latency < 0 ? sample : (long) (latency * (1 - EWMA_ALPHA) + sample * EWMA_ALPHA);
+        }
+        requestBlocks++;
+        requestBytes += size;
+        downloadedBlocks++;
+        downloadedBytes += size;
+    }
+
+    /**
+     * 下载任务结束,采样下载速度并根据是否成功调整信用值
+     *
+     * @param success 是否成功
+     */
+    public synchronized void completeRequest(boolean success) {
+        if (success && requestBlocks > 0) {
+            sampleSpeed(System.currentTimeMillis());
+        }
+        adjustCredit(success);
+        if (!nodeEnum.equals(NodeEnum.TIMEOUT)) {
+            nodeEnum = NodeEnum.IDLE;
+        }
+    }
+
+    /**
+     * 判断当前下载任务是否明显慢于该节点的预期,是则标记为已转交,由调用方把剩余区间交给其他节点
+     *
+     * @param avgBlockSize 平均区块字节数
+     * @param factor       超过预期耗时的倍数
+     * @param minMillis    判定的最小耗时
+     * @return 是否为掉队的下载任务
+     */
+    public synchronized boolean markStraggler(long avgBlockSize, int factor, long minMillis) {
+        if (!NodeEnum.WORKING.equals(nodeEnum) || reassigned) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long elapsed = now - startTime;
+        if (elapsed < Math.max(minMillis, expectedMillis(endHeight - startHeight + 1, avgBlockSize) * factor)) {
+            return false;
+        }
+        //按已收到的字节数重新采样,使下次分配的区间变小
+        if (requestBlocks > 0) {
+            sampleSpeed(now);
+        } else if (bytesPerSecond > 0) {
+            bytesPerSecond /= 2;
+        }
+        reassigned = true;
+        reassignedCount++;
+        return true;
+    }
+
+    /**
+     * 下载指定数量区块的预期耗时(毫秒),尚未测速时返回0
+     *
+     * @param blocks       区块数
+     * @param avgBlockSize 平均区块字节数
+     * @return 预期耗时
+     */
+    public synchronized long expectedMillis(long blocks, long avgBlockSize) {
+        if (bytesPerSecond <= 0) {
+            return 0;
+        }
+        return Math.max(latency, 0) + (long) (blocks * avgBlockSize * 1000 / bytesPerSecond);
+    }
+
+    /**
+     * 根据测得的下载速度计算下一个下载任务的区块数,使每个任务耗时约为targetMillis,
+     * 尚未测速时按信用值取downloadNumber的一部分作为探测
+     *
+     * @param downloadNumber 单个任务最大区块数
+     * @param avgBlockSize   平均区块字节数
+     * @param targetMillis   单个任务的目标耗时
+     * @return 区块数
+     */
+    public synchronized int rangeSize(int downloadNumber, long avgBlockSize, long targetMillis) {
+        long size;
+        if (bytesPerSecond <= 0 || avgBlockSize <= 0) {
+            size = downloadNumber * credit / 100;
+        } else {
+            size = (long) (bytesPerSecond * Math.max(targetMillis - Math.max(latency, 0), targetMillis / 2) / 1000 / avgBlockSize);
+        }
+        return (int) Math.max(1, Math.min(downloadNumber, size));
+    }
+
+    private void sampleSpeed(long now) {
+        double sample;
+        if (requestBlocks > 1 && now > firstBlockTime) {
+            //第一个区块之后的传输速度,不含请求延迟
+            sample = (requestBytes - firstBlockBytes) * 1000D / (now - firstBlockTime);
+        } else {
+            sample = requestBytes * 1000D / Math.max(1, now - startTime);
+        }
+        bytesPerSecond = bytesPerSecond <= 0 ? sample : bytesPerSecond * (1 - EWMA_ALPHA) + sample * EWMA_ALPHA;
+    }
+
+    public synchronized double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public synchronized long getLatency() {
+        return latency;
+    }
+
+    public synchronized long getDownloadedBlocks() {
+        return downloadedBlocks;
+    }
+
+    public synchronized long getDownloadedBytes() {
+        return downloadedBytes;
+    }
+
+    public synchronized int getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized int getReassignedCount() {
+        return reassignedCount;
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", Node.class.getSimpleName() + "[", "]")
@@ -177,6 +366,8 @@ public class Node {
                 .add("height=" + height)
                 .add("hash=" + hash)
                 .add("credit=" + credit)
+                .add("bytesPerSecond=" + (long) bytesPerSecond)
+                .add("latency=" + latency)
                 .add("nodeEnum=" + nodeEnum)
                 .toString();
     }
@@ -28,7 +28,9 @@ import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.po.BlockHeaderPo;
 import io.nuls.block.constant.BlockErrorCode;
 import io.nuls.block.manager.ContextManager;
+import io.nuls.block.model.BlockDownloaderParams;
 import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.Node;
 import io.nuls.block.service.BlockService;
 import io.nuls.block.utils.SmallBlockCacher;
 import io.nuls.core.core.annotation.Autowired;
@@ -646,4 +648,47 @@ public class BlockResource extends BaseCmd {
         }
         return success(responseData);
     }
+
+    /**
+     * 获取区块同步时各节点的下载统计,不在同步过程中时返回空列表
+     *
+     * @param map
+     * @return
+     */
+    @CmdAnnotation(cmd = GET_SYN_DOWNLOAD_STATS, version = 1.0, description = "get per-peer download statistics of block synchronization")
+    @Parameters({
+            @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID")
+    })
+    @ResponseData(name = "返回值", description = "返回一个Map对象，包含一个属性", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+            @Key(name = "list", valueType = List.class, valueElement = Map.class, description = "各节点的下载统计")})
+    )
+    public Response getSynDownloadStats(Map map) {
+        int chainId = Integer.parseInt(map.get(Constants.CHAIN_ID).toString());
+        ChainContext context = ContextManager.getContext(chainId);
+        if (context == null) {
+            return success();
+        }
+        List<Map<String, Object>> list = new ArrayList<>();
+        BlockDownloaderParams downloaderParams = context.getDownloaderParams();
+        if (downloaderParams != null && downloaderParams.getNodes() != null) {
+            for (Node node : downloaderParams.getNodes()) {
+                Map<String, Object> stats = new HashMap<>(12);
+                stats.put("nodeId", node.getId());
+                stats.put("status", node.getNodeEnum().name());
+                stats.put("credit", node.getCredit());
+                stats.put("bytesPerSecond", (long) node.getBytesPerSecond());
+                stats.put("latency", node.getLatency());
+                stats.put("downloadedBlocks", node.getDownloadedBlocks());
+                stats.put("downloadedBytes", node.getDownloadedBytes());
+                stats.put("requestCount", node.getRequestCount());
+                stats.put("reassignedCount", node.getReassignedCount());
+                stats.put("startHeight", node.getStartHeight());
+                stats.put("endHeight", node.getEndHeight());
+                list.add(stats);
+            }
+        }
+        Map<String, Object> responseData = new HashMap<>(2);
+        responseData.put("list", list);
+        return success(responseData);
+    }
 }
@@ -62,12 +62,28 @@ public class ConsensusCall {
      * @return
      */
     public static Result verify(int chainId, Block block, int download) {
+        return verify(chainId, block, download, false);
+    }
+
+    /**
+     * 批量验证区块,preVerified为true时共识模块跳过同步预验证中已完成的梅克尔哈希与签名验证
+     *
+     * @param chainId     链Id/chain id
+     * @param block       待验证区块
+     * @param download    是否最新区块,最新区块-1,非最新区块-0
+     * @param preVerified 是否已通过预验证
+     * @return
+     */
+    public static Result verify(int chainId, Block block, int download, boolean preVerified) {
         NulsLogger logger = ContextManager.getContext(chainId).getLogger();
         try {
             Map<String, Object> params = new HashMap<>(5);
 //            params.put(Constants.VERSION_KEY_STR, "1.0");
             params.put(Constants.CHAIN_ID, chainId);
             params.put("download", download);
+            if (preVerified) {
+                params.put("preVerified", true);
+            }
             params.put("block", RPCUtil.encode(block.serialize()));
             Response response = ResponseMessageProcessor.requestAndResponse(ModuleE.CS.abbr, "cs_validBlock", params, 10 * 60 * 1000);
             if (response.isSuccess()) {
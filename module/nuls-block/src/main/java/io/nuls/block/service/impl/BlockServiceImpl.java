@@ -286,15 +286,20 @@ public class BlockServiceImpl implements BlockService {
 
     @Override
     public boolean saveBlock(int chainId, Block block, boolean needLock) {
-        return saveBlock(chainId, block, false, 0, needLock, false, false);
+        return saveBlock(chainId, block, false, 0, needLock, false, false, false);
+    }
+
+    @Override
+    public boolean saveBlock(int chainId, Block block, boolean needLock, boolean preVerified) {
+        return saveBlock(chainId, block, false, 0, needLock, false, false, preVerified);
     }
 
     @Override
     public boolean saveBlock(int chainId, Block block, int download, boolean needLock, boolean broadcast, boolean forward) {
-        return saveBlock(chainId, block, false, download, needLock, broadcast, forward);
+        return saveBlock(chainId, block, false, download, needLock, broadcast, forward, false);
     }
 
-    private boolean saveBlock(int chainId, Block block, boolean localInit, int download, boolean needLock, boolean broadcast, boolean forward) {
+    private boolean saveBlock(int chainId, Block block, boolean localInit, int download, boolean needLock, boolean broadcast, boolean forward, boolean preVerified) {
         long startTime = System.nanoTime();
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger logger = context.getLogger();
@@ -312,7 +317,7 @@ public class BlockServiceImpl implements BlockService {
         }
         try {
             //1.验证区块
-            Result result = verifyBlock(chainId, block, localInit, download);
+            Result result = verifyBlock(chainId, block, localInit, download, preVerified);
             if (result.isFailed()) {
                 logger.debug("verifyBlock fail! height-" + height);
                 return false;
@@ -327,30 +332,17 @@ public class BlockServiceImpl implements BlockService {
                     forwardBlock(chainId, hash, null);
                 }
             }
-            //2.设置最新高度,如果失败则恢复上一个高度
-            boolean setHeight = blockStorageService.setLatestHeight(chainId, height);
-            if (!setHeight) {
-                if (!blockStorageService.setLatestHeight(chainId, height - 1)) {
-                    throw new NulsRuntimeException(BlockErrorCode.UPDATE_HEIGHT_ERROR);
-                }
-                logger.error("setHeight false, height-" + height);
-                return false;
-            }
-
-            //3.保存区块头, 保存交易
+            //2.设置最新高度并保存区块头(列族模式下原子提交), 保存交易, 如果失败则恢复上一个高度
             BlockHeaderPo blockHeaderPo = BlockUtil.toBlockHeaderPo(block);
             boolean headerSave;
             boolean txSave = false;
-            if (!(headerSave = blockStorageService.save(chainId, blockHeaderPo)) || !(txSave = TransactionCall.save(chainId, blockHeaderPo, block.getTxs(), localInit, (List) result.getData()))) {
+            if (!(headerSave = blockStorageService.saveWithLatestHeight(chainId, blockHeaderPo)) || !(txSave = TransactionCall.save(chainId, blockHeaderPo, block.getTxs(), localInit, (List) result.getData()))) {
                 if (headerSave && !TransactionCall.rollback(chainId, blockHeaderPo)) {
                     throw new NulsRuntimeException(BlockErrorCode.TX_ROLLBACK_ERROR);
                 }
-                if (!blockStorageService.remove(chainId, height)) {
+                if (!blockStorageService.removeWithLatestHeight(chainId, height)) {
                     throw new NulsRuntimeException(BlockErrorCode.HEADER_REMOVE_ERROR);
                 }
-                if (!blockStorageService.setLatestHeight(chainId, height - 1)) {
-                    throw new NulsRuntimeException(BlockErrorCode.UPDATE_HEIGHT_ERROR);
-                }
                 logger.error("headerSave-" + headerSave + ", txsSave-" + txSave + ", height-" + height + ", hash-" + hash);
                 return false;
             }
@@ -360,12 +352,9 @@ public class BlockServiceImpl implements BlockService {
                 if (!TransactionCall.rollback(chainId, blockHeaderPo)) {
                     throw new NulsRuntimeException(BlockErrorCode.TX_ROLLBACK_ERROR);
                 }
-                if (!blockStorageService.remove(chainId, height)) {
+                if (!blockStorageService.removeWithLatestHeight(chainId, height)) {
                     throw new NulsRuntimeException(BlockErrorCode.HEADER_REMOVE_ERROR);
                 }
-                if (!blockStorageService.setLatestHeight(chainId, height - 1)) {
-                    throw new NulsRuntimeException(BlockErrorCode.UPDATE_HEIGHT_ERROR);
-                }
                 logger.error("consensus notice fail! height-" + height);
                 return false;
             }
@@ -379,12 +368,9 @@ public class BlockServiceImpl implements BlockService {
                 if (!TransactionCall.rollback(chainId, blockHeaderPo)) {
                     throw new NulsRuntimeException(BlockErrorCode.TX_ROLLBACK_ERROR);
                 }
-                if (!blockStorageService.remove(chainId, height)) {
+                if (!blockStorageService.removeWithLatestHeight(chainId, height)) {
                     throw new NulsRuntimeException(BlockErrorCode.HEADER_REMOVE_ERROR);
                 }
-                if (!blockStorageService.setLatestHeight(chainId, height - 1)) {
-                    throw new NulsRuntimeException(BlockErrorCode.UPDATE_HEIGHT_ERROR);
-                }
                 logger.error("ProtocolCall saveNotice fail! height-" + height);
                 return false;
             }
@@ -576,7 +562,7 @@ public class BlockServiceImpl implements BlockService {
         return broadcast;
     }
 
-    private Result verifyBlock(int chainId, Block block, boolean localInit, int download) {
+    private Result verifyBlock(int chainId, Block block, boolean localInit, int download, boolean preVerified) {
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger logger = context.getLogger();
         BlockHeader header = block.getHeader();
@@ -586,8 +572,8 @@ public class BlockServiceImpl implements BlockService {
             return Result.getFailed(BlockErrorCode.BLOCK_VERIFY_ERROR);
         }
 
-        //1.验证一些基本信息如区块大小限制、字段非空验证
-        boolean basicVerify = BlockUtil.basicVerify(chainId, block);
+        //1.验证一些基本信息如区块大小限制、字段非空验证,同步的区块已在预验证中完成
+        boolean basicVerify = preVerified || BlockUtil.basicVerify(chainId, block);
         if (localInit) {
             logger.debug("basicVerify-" + basicVerify);
             if (basicVerify) {
@@ -604,7 +590,7 @@ public class BlockServiceImpl implements BlockService {
             return Result.getFailed(BlockErrorCode.BLOCK_VERIFY_ERROR);
         }
         //共识验证
-        Result consensusVerify = ConsensusCall.verify(chainId, block, download);
+        Result consensusVerify = ConsensusCall.verify(chainId, block, download, preVerified);
         if (consensusVerify.isFailed()) {
             logger.error("consensusVerify-" + consensusVerify);
             return Result.getFailed(BlockErrorCode.BLOCK_VERIFY_ERROR);
@@ -637,7 +623,7 @@ public class BlockServiceImpl implements BlockService {
                         genesisBlock = GenesisBlock.getInstance(chainId, chainParameters.getAssetId(), Files.readString(Path.of(configFile, value)));
                     }
                 }
-                boolean b = saveBlock(chainId, genesisBlock, true, 0, false, false, false);
+                boolean b = saveBlock(chainId, genesisBlock, true, 0, false, false, false, false);
                 if (!b) {
                     throw new NulsRuntimeException(BlockErrorCode.SAVE_GENESIS_ERROR);
                 }
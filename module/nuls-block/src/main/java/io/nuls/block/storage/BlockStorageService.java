@@ -109,4 +109,24 @@ public interface BlockStorageService {
      */
     boolean setLatestHeight(int chainId, long height);
 
+    /**
+     * 存储一个{@link BlockHeaderPo}并将最新高度设置为其高度, 列族模式下区块头、高度索引与最新高度在同一批次中原子提交
+     * Save a header and move the latest height to it, committed in one batch in column family mode
+     *
+     * @param chainId 链Id/chain id
+     * @param blockHeader
+     * @return
+     */
+    boolean saveWithLatestHeight(int chainId, BlockHeaderPo blockHeader);
+
+    /**
+     * 移除指定高度的{@link BlockHeaderPo}并将最新高度退回height-1, 列族模式下原子提交, 区块头不存在时只退回高度
+     * Remove the header at height and move the latest height back to height-1, committed in one batch in column family mode
+     *
+     * @param chainId 链Id/chain id
+     * @param height
+     * @return
+     */
+    boolean removeWithLatestHeight(int chainId, long height);
+
 }
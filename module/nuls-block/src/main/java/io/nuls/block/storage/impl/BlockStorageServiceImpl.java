@@ -29,6 +29,7 @@ import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ByteUtils;
 import io.nuls.core.parse.SerializeUtils;
+import io.nuls.core.rockdb.service.MultiTableBatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
@@ -167,4 +168,43 @@ public class BlockStorageServiceImpl implements BlockStorageService {
         }
     }
 
+    @Override
+    public boolean saveWithLatestHeight(int chainId, BlockHeaderPo blockHeader) {
+        if (!RocksDBService.isColumnFamilyMode()) {
+            return setLatestHeight(chainId, blockHeader.getHeight()) && save(chainId, blockHeader);
+        }
+        try {
+            byte[] hash = blockHeader.getHash().getBytes();
+            MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+            batch.put(CHAIN_LATEST_HEIGHT, ByteUtils.intToBytes(chainId), SerializeUtils.uint64ToByteArray(blockHeader.getHeight()));
+            batch.put(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(blockHeader.getHeight()), hash);
+            batch.put(BLOCK_HEADER + chainId, hash, blockHeader.serialize());
+            return batch.executeBatch();
+        } catch (Exception e) {
+            COMMON_LOG.error("", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean removeWithLatestHeight(int chainId, long height) {
+        byte[] key = SerializeUtils.uint64ToByteArray(height);
+        byte[] hash = RocksDBService.get(BLOCK_HEADER_INDEX + chainId, key);
+        if (!RocksDBService.isColumnFamilyMode()) {
+            return (hash == null || remove(chainId, height)) && setLatestHeight(chainId, height - 1);
+        }
+        try {
+            MultiTableBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+            if (hash != null) {
+                batch.delete(BLOCK_HEADER_INDEX + chainId, key);
+                batch.delete(BLOCK_HEADER + chainId, hash);
+            }
+            batch.put(CHAIN_LATEST_HEIGHT, ByteUtils.intToBytes(chainId), SerializeUtils.uint64ToByteArray(height - 1));
+            return batch.executeBatch();
+        } catch (Exception e) {
+            COMMON_LOG.error("", e);
+            return false;
+        }
+    }
+
 }
@@ -25,6 +25,7 @@ import io.nuls.block.constant.BlockErrorCode;
 import io.nuls.block.constant.NodeEnum;
 import io.nuls.block.manager.ContextManager;
 import io.nuls.block.model.BlockDownloaderParams;
+import io.nuls.block.model.BlockSynMetrics;
 import io.nuls.block.model.ChainContext;
 import io.nuls.block.model.Node;
 import io.nuls.block.service.BlockService;
@@ -32,13 +33,22 @@ import io.nuls.block.utils.BlockUtil;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.logback.NulsLogger;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static io.nuls.block.constant.Constant.*;
 
 /**
  * 消费共享队列中的区块
+ * 流水线处理:下载线程缓存区块,多个预验证线程并行验证高度N+1..N+k的区块(基本信息、梅克尔哈希、签名),
+ * 同时本线程按高度顺序保存区块N.已预验证未保存的区块字节数不超过cachedBlockSizeLimit的一定比例
  *
  * @author captain
  * @version 1.0
@@ -50,8 +60,12 @@ public class BlockConsumer implements Callable<Boolean> {
     private BlockService blockService;
 
     BlockConsumer(int chainId) {
+        this(chainId, SpringLiteContext.getBean(BlockService.class));
+    }
+
+    BlockConsumer(int chainId, BlockService blockService) {
         this.chainId = chainId;
-        this.blockService = SpringLiteContext.getBean(BlockService.class);
+        this.blockService = blockService;
     }
 
     @Override
@@ -61,27 +75,80 @@ public class BlockConsumer implements Callable<Boolean> {
         long netLatestHeight = params.getNetLatestHeight();
         long pendingHeight = params.getLocalLatestHeight() + 1;
         NulsLogger logger = context.getLogger();
-        Block block;
-        logger.info("BlockConsumer start work");
+        BlockSynMetrics metrics = new BlockSynMetrics();
+        context.setSynMetrics(metrics);
+        long verifyBytesLimit = context.getParameters().getCachedBlockSizeLimit() * SYN_VERIFY_CACHE_PERCENT / 100;
+        int verifyAhead = SYN_VERIFY_THREAD_COUNT * SYN_VERIFY_AHEAD_PER_THREAD;
+        //已提交预验证的区块,key为高度
+        Map<Long, VerifyTask> verifyTasks = new HashMap<>(verifyAhead * 2);
+        long verifyBytes = 0;
+        ThreadPoolExecutor verifyPool = ThreadUtils.createThreadPool(SYN_VERIFY_THREAD_COUNT, 0, new NulsThreadFactory("block-verify-" + chainId));
+        logger.info("BlockConsumer start work, verify threads-" + SYN_VERIFY_THREAD_COUNT);
         try {
             long begin = System.nanoTime();
             while (pendingHeight <= netLatestHeight && context.isNeedSyn()) {
-                block = context.getBlockMap().remove(pendingHeight);
-                if (block != null) {
-                    begin = System.nanoTime();
-                    boolean saveBlock = blockService.saveBlock(chainId, block, true);
-                    if (!saveBlock) {
+                //1.提交已下载区块的预验证,领先保存高度的区块数与字节数受限
+                long maxHeight = Math.min(netLatestHeight, pendingHeight + verifyAhead - 1);
+                for (long height = pendingHeight; height <= maxHeight; height++) {
+                    if (verifyTasks.containsKey(height)) {
+                        continue;
+                    }
+                    //保存高度的区块总是提交,避免较高的区块占满字节数限制
+                    if (height != pendingHeight && verifyBytes >= verifyBytesLimit) {
+                        break;
+                    }
+                    Block block = context.getBlockMap().get(height);
+                    if (block != null) {
+                        VerifyTask task = new VerifyTask(block, metrics);
+                        task.future = verifyPool.submit(task);
+                        verifyTasks.put(height, task);
+                        verifyBytes += task.size;
+                    }
+                }
+                //2.按高度顺序保存区块
+                VerifyTask task = verifyTasks.remove(pendingHeight);
+                if (task != null) {
+                    verifyBytes -= task.size;
+                    long waitStart = System.nanoTime();
+                    boolean verified = task.future.get();
+                    metrics.recordVerifyWait(System.nanoTime() - waitStart);
+                    Block block = context.getBlockMap().remove(pendingHeight);
+                    if (block != task.block) {
+                        //预验证期间该高度的区块被替换,重新验证
+                        verified = block != null && BlockUtil.preVerify(chainId, block);
+                    }
+                    if (block == null) {
+                        continue;
+                    }
+                    context.getCachedBlockSize().addAndGet(-block.size());
+                    context.signalSyn();
+                    long saveStart = System.nanoTime();
+                    SaveResult saveResult = saveInOrder(block, verified);
+                    if (saveResult == SaveResult.REJECTED) {
+                        logger.error("Downloaded block pre-verification failed, height-" + pendingHeight + ", hash-" + block.getHeader().getHash() + ", node-" + block.getNodeId());
+                        punishNode(block.getNodeId(), params.getNodes());
+                        retryDownload(pendingHeight, context);
+                        begin = System.nanoTime();
+                        continue;
+                    }
+                    metrics.recordSave(System.nanoTime() - saveStart, task.size);
+                    if (saveResult == SaveResult.FAILED) {
                         logger.error("An exception occurred while saving the downloaded block, height-" + pendingHeight + ", hash-" + block.getHeader().getHash());
                         context.setNeedSyn(false);
                         return false;
                     }
                     pendingHeight++;
-                    context.getCachedBlockSize().addAndGet(-block.size());
+                    if (metrics.getSaveCount() % SYN_METRICS_LOG_INTERVAL == 0) {
+                        logger.info("BlockConsumer metrics, height-" + (pendingHeight - 1) + ", " + metrics);
+                    }
+                    begin = System.nanoTime();
                     continue;
                 }
-                Thread.sleep(10);
+                long waitStart = System.nanoTime();
+                context.awaitSynBlock(pendingHeight, 100);
                 long end = System.nanoTime();
-                //超过10秒没有高度更新
+                metrics.recordDownloadWait(end - waitStart);
+                //超过5秒没有高度更新
                 if ((end - begin) / 1000000 > 5000) {
                     updateNodeStatus(context);
                     punishNode(pendingHeight, params.getNodes(), context);
@@ -89,12 +156,94 @@ public class BlockConsumer implements Callable<Boolean> {
                     begin = System.nanoTime();
                 }
             }
-            logger.info("BlockConsumer stop work normally");
+            logger.info("BlockConsumer stop work normally, " + metrics);
             return context.isNeedSyn();
         } catch (Exception e) {
             logger.error("BlockConsumer stop work abnormally", e);
             context.setNeedSyn(false);
             return false;
+        } finally {
+            verifyPool.shutdownNow();
+        }
+    }
+
+    /**
+     * 按高度顺序保存区块的结果
+     */
+    enum SaveResult {
+        /**
+         * 已保存
+         */
+        SAVED,
+        /**
+         * 预验证失败,未保存
+         */
+        REJECTED,
+        /**
+         * 保存失败
+         */
+        FAILED
+    }
+
+    /**
+     * 按高度顺序保存区块,预验证失败的区块不保存
+     * 预验证通过的区块保存时跳过已完成的基本信息、梅克尔哈希与签名验证,只做分叉与共识验证
+     *
+     * @param block    待保存区块
+     * @param verified 预验证结果
+     * @return 保存结果
+     */
+    SaveResult saveInOrder(Block block, boolean verified) {
+        if (!verified) {
+            return SaveResult.REJECTED;
+        }
+        return blockService.saveBlock(chainId, block, true, true) ? SaveResult.SAVED : SaveResult.FAILED;
+    }
+
+    /**
+     * 区块预验证任务
+     */
+    private class VerifyTask implements Callable<Boolean> {
+
+        private final Block block;
+        private final int size;
+        private final BlockSynMetrics metrics;
+        private Future<Boolean> future;
+
+        VerifyTask(Block block, BlockSynMetrics metrics) {
+            this.block = block;
+            this.size = block.size();
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Boolean call() {
+            long start = System.nanoTime();
+            boolean result = false;
+            try {
+                result = BlockUtil.preVerify(chainId, block);
+                return result;
+            } catch (Exception e) {
+                ContextManager.getContext(chainId).getLogger().error("Block pre-verification error, height-" + block.getHeader().getHeight(), e);
+                return false;
+            } finally {
+                metrics.recordVerify(System.nanoTime() - start, result);
+            }
+        }
+    }
+
+    /**
+     * 降低提供了验证失败区块的节点的信用值
+     */
+    private void punishNode(String nodeId, List<Node> nodes) {
+        if (nodeId == null) {
+            return;
+        }
+        for (Node node : nodes) {
+            if (nodeId.equals(node.getId())) {
+                node.adjustCredit(false);
+                return;
+            }
         }
     }
 
@@ -139,8 +288,8 @@ public class BlockConsumer implements Callable<Boolean> {
             if (block != null) {
                 context.getLogger().info("retryDownload, get block from " + node.getId() + " success, height-" + height);
                 download = true;
-                context.getBlockMap().put(height, block);
-                context.getCachedBlockSize().addAndGet(block.size());
+                block.setNodeId(node.getId());
+                context.putSynBlock(height, block);
                 break;
             } else {
                 node.adjustCredit(false);
@@ -35,13 +35,17 @@ import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.log.logback.NulsLogger;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.nuls.block.constant.CommandConstant.GET_BLOCKS_BY_HEIGHT_MESSAGE;
+import static io.nuls.block.constant.Constant.*;
 
 /**
  * 区块下载管理器
+ * 按各节点测得的下载速度选择节点、确定每个下载任务的区块数,
+ * 下载任务明显慢于预期时把未下载的区间转交给更快的空闲节点
  *
  * @author captain
  * @version 1.0
@@ -49,6 +53,11 @@ import static io.nuls.block.constant.CommandConstant.GET_BLOCKS_BY_HEIGHT_MESSAG
  */
 public class BlockDownloader implements Callable<Boolean> {
 
+    /**
+     * 尚未下载到区块时假定的平均区块字节数
+     */
+    private static final long DEFAULT_BLOCK_SIZE = 10 * 1024;
+
     /**
      * 链ID
      */
@@ -73,48 +82,46 @@ public class BlockDownloader implements Callable<Boolean> {
             int downloadNumber = chainParameters.getDownloadNumber();
             AtomicInteger cachedBlockSize = context.getCachedBlockSize();
             long limit = context.getParameters().getCachedBlockSizeLimit() * 80 / 100;
+            boolean waiting = false;
             while (startHeight <= netLatestHeight && context.isNeedSyn()) {
                 int cachedSize = cachedBlockSize.get();
-                while (cachedSize > cachedBlockSizeLimit) {
-                    logger.info("BlockDownloader wait! cached block:" + context.getBlockMap().size() + ", total block size:" + cachedSize);
-                    nodes.forEach(e -> e.setCredit(20));
-                    Thread.sleep(3000L);
-                    cachedSize = cachedBlockSize.get();
-                    if (!context.isNeedSyn()) {
-                        return false;
+                if (cachedSize > cachedBlockSizeLimit) {
+                    if (!waiting) {
+                        logger.info("BlockDownloader wait! cached block:" + context.getBlockMap().size() + ", total block size:" + cachedSize);
+                        waiting = true;
                     }
+                    context.awaitSyn(1000L);
+                    continue;
                 }
-                //下载的区块字节数达到缓存阈值的80%时，降慢下载速度
-                if (cachedSize > limit) {
-                    nodes.forEach(e -> e.setCredit(e.getCredit() / 2));
-                }
+                waiting = false;
+                long avgBlockSize = averageBlockSize(nodes);
+                reassignStragglers(context, nodes, downloadNumber, avgBlockSize);
                 Node node = getNode(nodes);
                 if (node == null) {
-                    Thread.sleep(100L);
+                    context.awaitSyn(100L);
                     continue;
                 }
-                int credit = node.getCredit();
-                int size = downloadNumber * credit / 100;
-                size = size <= 0 ? 1 : size;
+                int size = node.rangeSize(downloadNumber, avgBlockSize, SYN_DOWNLOAD_TARGET_MILLIS);
+                //下载的区块字节数达到缓存阈值的80%时，降慢下载速度
+                if (cachedSize > limit) {
+                    size = Math.max(1, size / 2);
+                }
                 if (startHeight + size > netLatestHeight) {
                     size = (int) (netLatestHeight - startHeight + 1);
                 }
                 long endHeight = startHeight + size - 1;
-                //组装批量获取区块消息
-                HeightRangeMessage message = new HeightRangeMessage(startHeight, endHeight);
-                //发送消息给目标节点
-                boolean b = NetworkCall.sendToNode(chainId, message, node.getId(), GET_BLOCKS_BY_HEIGHT_MESSAGE);
-                if (b) {
-                    node.setNodeEnum(NodeEnum.WORKING);
-                    node.setStartTime(System.currentTimeMillis());
-                    node.setStartHeight(startHeight);
-                    node.setEndHeight(endHeight);
+                if (request(node, startHeight, endHeight)) {
                     startHeight += size;
                 } else {
                     logger.error("BlockDownloader sendToNode failed!");
                 }
             }
-            logger.info("BlockDownloader stop work, flag-" + context.isNeedSyn());
+            //区间分配完毕后继续处理掉队的下载任务,直到区块全部保存
+            while (context.isNeedSyn() && context.getLatestHeight() < netLatestHeight) {
+                reassignStragglers(context, nodes, downloadNumber, averageBlockSize(nodes));
+                context.awaitSyn(100L);
+            }
+            logger.info("BlockDownloader stop work, flag-" + context.isNeedSyn() + ", nodes-" + nodes);
         } catch (Exception e) {
             logger.error("", e);
             context.setNeedSyn(false);
@@ -122,12 +129,67 @@ public class BlockDownloader implements Callable<Boolean> {
         return context.isNeedSyn();
     }
 
+    /**
+     * 向节点发送批量获取区块消息
+     */
+    private boolean request(Node node, long startHeight, long endHeight) {
+        //组装批量获取区块消息
+        HeightRangeMessage message = new HeightRangeMessage(startHeight, endHeight);
+        //发送消息给目标节点
+        boolean b = NetworkCall.sendToNode(chainId, message, node.getId(), GET_BLOCKS_BY_HEIGHT_MESSAGE);
+        if (b) {
+            node.startRequest(startHeight, endHeight);
+        }
+        return b;
+    }
+
+    /**
+     * 把掉队的下载任务中尚未收到的区间转交给最快的空闲节点
+     */
+    private void reassignStragglers(ChainContext context, List<Node> nodes, int downloadNumber, long avgBlockSize) {
+        Map<Long, ?> blockMap = context.getBlockMap();
+        for (Node straggler : nodes) {
+            Node helper = fastestIdleNode(nodes);
+            if (helper == null) {
+                return;
+            }
+            if (!straggler.markStraggler(avgBlockSize, SYN_STRAGGLER_FACTOR, SYN_STRAGGLER_MIN_MILLIS)) {
+                continue;
+            }
+            long from = Math.max(straggler.getStartHeight(), context.getLatestHeight() + 1);
+            long to = straggler.getEndHeight();
+            while (from <= to && blockMap.containsKey(from)) {
+                from++;
+            }
+            while (to >= from && blockMap.containsKey(to)) {
+                to--;
+            }
+            if (from > to) {
+                continue;
+            }
+            to = Math.min(to, from + downloadNumber - 1);
+            if (request(helper, from, to)) {
+                context.getLogger().info("BlockDownloader reassign height " + from + "-" + to + " from slow node-" + straggler.getId() + " to node-" + helper.getId());
+            }
+        }
+    }
+
+    /**
+     * 按已下载的区块计算平均区块字节数
+     */
+    private long averageBlockSize(List<Node> nodes) {
+        long blocks = 0;
+        long bytes = 0;
+        for (Node node : nodes) {
+            blocks += node.getDownloadedBlocks();
+            bytes += node.getDownloadedBytes();
+        }
+        return blocks == 0 ? DEFAULT_BLOCK_SIZE : Math.max(1, bytes / blocks);
+    }
+
     private Node getNode(List<Node> nodes) {
         int count = 0;
         for (Node node : nodes) {
-            if (node.getNodeEnum().equals(NodeEnum.IDLE)) {
-                return node;
-            }
             if (node.getNodeEnum().equals(NodeEnum.TIMEOUT)) {
                 count++;
             }
@@ -135,7 +197,29 @@ public class BlockDownloader implements Callable<Boolean> {
         if (count == nodes.size()) {
             throw new NulsRuntimeException(BlockErrorCode.BLOCK_SYN_ERROR);
         }
-        return null;
+        return fastestIdleNode(nodes);
+    }
+
+    /**
+     * 取下载速度最快的空闲节点,尚未测速的节点优先,以便尽快得到其下载速度
+     */
+    private Node fastestIdleNode(List<Node> nodes) {
+        Node best = null;
+        for (Node node : nodes) {
+            if (node.getNodeEnum().equals(NodeEnum.IDLE) && (best == null || faster(node, best))) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    private boolean faster(Node node, Node other) {
+        double speed = node.getBytesPerSecond();
+        double otherSpeed = other.getBytesPerSecond();
+        if (speed <= 0 || otherSpeed <= 0) {
+            return speed <= 0 && otherSpeed > 0;
+        }
+        return speed > otherSpeed;
     }
 
 }
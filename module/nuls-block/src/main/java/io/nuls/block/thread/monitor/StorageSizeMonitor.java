@@ -27,6 +27,7 @@ import io.nuls.block.model.Chain;
 import io.nuls.block.model.ChainContext;
 import io.nuls.block.model.ChainParameters;
 import io.nuls.core.log.logback.NulsLogger;
+import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -60,6 +61,8 @@ public class StorageSizeMonitor extends BaseMonitor {
         orphanChainsCleaner(chainId, heightRange, context, orphanChainMaxAge);
         int cacheSize = parameters.getCacheSize();
         dbSizeCleaner(chainId, context, cacheSize);
+        context.getLogger().info("db block cache hit rate:" + RocksDBService.getBlockCacheHitRate()
+                + ", hit:" + RocksDBService.getBlockCacheHitCount() + ", miss:" + RocksDBService.getBlockCacheMissCount());
         context.setStatus(StatusEnum.RUNNING);
     }
 
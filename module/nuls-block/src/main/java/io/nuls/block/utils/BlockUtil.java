@@ -103,6 +103,31 @@ public class BlockUtil {
         return true;
     }
 
+    /**
+     * 同步区块的预验证,只依赖区块自身的数据,可以在多个线程中并行执行
+     * 包括基本信息、梅克尔哈希、区块签名验证,同时计算并缓存区块头与交易的hash
+     *
+     * @param chainId 链Id/chain id
+     * @param block   待验证区块
+     * @return
+     */
+    public static boolean preVerify(int chainId, Block block) {
+        if (!basicVerify(chainId, block)) {
+            return false;
+        }
+        NulsLogger logger = ContextManager.getContext(chainId).getLogger();
+        BlockHeader header = block.getHeader();
+        if (header.getMerkleHash() == null || !header.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()))) {
+            logger.debug("preVerify fail, merkle hash error! height-" + header.getHeight() + ", hash-" + header.getHash());
+            return false;
+        }
+        if (header.getBlockSignature() == null || header.getBlockSignature().verifySignature(header.getHash()).isFailed()) {
+            logger.debug("preVerify fail, block signature error! height-" + header.getHeight() + ", hash-" + header.getHash());
+            return false;
+        }
+        return true;
+    }
+
     public static boolean headerVerify(int chainId, BlockHeader header) {
         NulsLogger logger = ContextManager.getContext(chainId).getLogger();
         if (header.getHash() == null) {
@@ -392,7 +417,6 @@ public class BlockUtil {
 
     public static BlockHeader fromBlockHeaderPo(BlockHeaderPo po) {
         BlockHeader header = new BlockHeader();
-        header.setHash(po.getHash());
         header.setHeight(po.getHeight());
         header.setExtend(po.getExtend());
         header.setPreHash(po.getPreHash());
@@ -400,6 +424,8 @@ public class BlockUtil {
         header.setMerkleHash(po.getMerkleHash());
         header.setTxCount(po.getTxCount());
         header.setBlockSignature(po.getBlockSignature());
+        //修改字段会清除hash缓存，已存储的hash最后设置
+        header.setHash(po.getHash());
         return header;
     }
 
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.block.model;
+
+import io.nuls.block.constant.NodeEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NodeTest {
+
+    private Node idleNode() {
+        Node node = new Node();
+        node.setId("127.0.0.1:8001");
+        node.setNodeEnum(NodeEnum.IDLE);
+        return node;
+    }
+
+    /**
+     * 尚未测速时按信用值探测,测速后按下载速度确定区间大小且不超过downloadNumber
+     */
+    @Test
+    public void rangeSizeFollowsSpeed() throws InterruptedException {
+        Node node = idleNode();
+        Assert.assertEquals(5, node.rangeSize(10, 1000, 2000));
+        node.startRequest(1, 5);
+        Assert.assertEquals(NodeEnum.WORKING, node.getNodeEnum());
+        Thread.sleep(20);
+        for (int i = 0; i < 5; i++) {
+            node.recordBlock(1000);
+            Thread.sleep(10);
+        }
+        node.completeRequest(true);
+        Assert.assertEquals(NodeEnum.IDLE, node.getNodeEnum());
+        Assert.assertTrue(node.getLatency() >= 20);
+        Assert.assertTrue(node.getBytesPerSecond() > 0);
+        Assert.assertEquals(5, node.getDownloadedBlocks());
+        Assert.assertEquals(5000, node.getDownloadedBytes());
+        //约100KB/s,每个区块1MB时只分配1个区块,每个区块100字节时分配到上限
+        Assert.assertEquals(1, node.rangeSize(10, 1024 * 1024, 2000));
+        Assert.assertEquals(10, node.rangeSize(10, 100, 2000));
+    }
+
+    /**
+     * 超时的下载任务只被判定为掉队一次
+     */
+    @Test
+    public void stragglerIsMarkedOnce() {
+        Node node = idleNode();
+        Assert.assertFalse(node.markStraggler(1000, 3, 0));
+        node.startRequest(1, 5);
+        Assert.assertFalse(node.markStraggler(1000, 3, 60000));
+        Assert.assertTrue(node.markStraggler(1000, 3, 0));
+        Assert.assertFalse(node.markStraggler(1000, 3, 0));
+        Assert.assertEquals(1, node.getReassignedCount());
+        node.completeRequest(false);
+        Assert.assertEquals(NodeEnum.IDLE, node.getNodeEnum());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.storage;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.po.BlockHeaderPo;
+import io.nuls.block.storage.impl.BlockStorageServiceImpl;
+import io.nuls.core.parse.SerializeUtils;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+
+import static io.nuls.block.constant.Constant.*;
+import static org.junit.Assert.*;
+
+/**
+ * 列族模式下区块头、高度索引与最新高度的原子提交
+ */
+public class BlockStorageServiceColumnFamilyTest {
+
+    private static final int CHAIN_ID = 2;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BlockStorageService service = new BlockStorageServiceImpl();
+
+    @Before
+    public void before() throws Exception {
+        RocksDBService.initColumnFamilyMode(folder.newFolder("block").getAbsolutePath());
+        RocksDBService.createTable(CHAIN_LATEST_HEIGHT);
+        RocksDBService.createTable(BLOCK_HEADER + CHAIN_ID);
+        RocksDBService.createTable(BLOCK_HEADER_INDEX + CHAIN_ID);
+    }
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+    }
+
+    @Test
+    public void saveAndRemoveWithLatestHeight() {
+        service.setLatestHeight(CHAIN_ID, 0);
+        BlockHeaderPo header = header(1);
+        assertTrue(service.saveWithLatestHeight(CHAIN_ID, header));
+        assertEquals(1, service.queryLatestHeight(CHAIN_ID));
+        assertEquals(header.getHash(), service.query(CHAIN_ID, 1).getHash());
+
+        assertTrue(service.removeWithLatestHeight(CHAIN_ID, 1));
+        assertEquals(0, service.queryLatestHeight(CHAIN_ID));
+        assertNull(service.query(CHAIN_ID, 1));
+        assertNull(service.query(CHAIN_ID, header.getHash()));
+    }
+
+    @Test
+    public void failedSaveLeavesNothingBehind() throws Exception {
+        service.setLatestHeight(CHAIN_ID, 0);
+        //区块头表不存在时整个批次失败, 最新高度与高度索引都不会写入
+        RocksDBService.destroyTable(BLOCK_HEADER + CHAIN_ID);
+        assertFalse(service.saveWithLatestHeight(CHAIN_ID, header(1)));
+        assertEquals(0, service.queryLatestHeight(CHAIN_ID));
+        assertNull(RocksDBService.get(BLOCK_HEADER_INDEX + CHAIN_ID, SerializeUtils.uint64ToByteArray(1)));
+    }
+
+    @Test
+    public void removeMissingHeaderOnlyMovesHeight() {
+        service.setLatestHeight(CHAIN_ID, 1);
+        assertTrue(service.removeWithLatestHeight(CHAIN_ID, 1));
+        assertEquals(0, service.queryLatestHeight(CHAIN_ID));
+    }
+
+    private static BlockHeaderPo header(long height) {
+        BlockHeaderPo header = new BlockHeaderPo();
+        header.setHash(NulsHash.calcHash(("block-" + height).getBytes()));
+        header.setPreHash(NulsHash.calcHash(new byte[0]));
+        header.setMerkleHash(NulsHash.calcHash(new byte[0]));
+        header.setHeight(height);
+        header.setTime(System.currentTimeMillis() / 1000);
+        header.setExtend(new byte[0]);
+        header.setTxHashList(new ArrayList<>());
+        return header;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.thread;
+
+import io.nuls.base.data.Block;
+import io.nuls.base.data.BlockHeader;
+import io.nuls.block.service.BlockService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BlockConsumerTest {
+
+    /**
+     * 记录saveBlock调用的BlockService
+     */
+    private static BlockService recordingService(List<Object[]> saved) {
+        return (BlockService) Proxy.newProxyInstance(BlockService.class.getClassLoader(), new Class[]{BlockService.class}, (proxy, method, args) -> {
+            if ("saveBlock".equals(method.getName())) {
+                saved.add(args);
+                return true;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static Block block(long height) {
+        Block block = new Block();
+        BlockHeader header = new BlockHeader();
+        header.setHeight(height);
+        block.setHeader(header);
+        return block;
+    }
+
+    /**
+     * 预验证失败的区块不会被保存
+     */
+    @Test
+    public void rejectsBlockFailedPreVerification() {
+        List<Object[]> saved = new ArrayList<>();
+        BlockConsumer consumer = new BlockConsumer(1, recordingService(saved));
+        Assert.assertEquals(BlockConsumer.SaveResult.REJECTED, consumer.saveInOrder(block(10), false));
+        Assert.assertTrue(saved.isEmpty());
+    }
+
+    /**
+     * 预验证通过的区块保存时带上预验证标记,跳过已完成的检查
+     */
+    @Test
+    public void savesPreVerifiedBlockWithFlag() {
+        List<Object[]> saved = new ArrayList<>();
+        BlockConsumer consumer = new BlockConsumer(1, recordingService(saved));
+        Block block = block(10);
+        Assert.assertEquals(BlockConsumer.SaveResult.SAVED, consumer.saveInOrder(block, true));
+        Assert.assertEquals(1, saved.size());
+        Object[] args = saved.get(0);
+        Assert.assertSame(block, args[1]);
+        Assert.assertEquals(4, args.length);
+        Assert.assertEquals(Boolean.TRUE, args[3]);
+    }
+}
@@ -8,6 +8,7 @@ import io.nuls.core.log.Log;
 import io.nuls.core.parse.I18nUtils;
 import io.nuls.poc.model.bo.config.ConfigBean;
 import io.nuls.poc.model.bo.consensus.Evidence;
+import io.nuls.poc.model.bo.round.ConsensusIndex;
 import io.nuls.poc.model.bo.round.MeetingRound;
 import io.nuls.poc.model.bo.tx.txdata.Agent;
 import io.nuls.poc.model.bo.tx.txdata.Deposit;
@@ -111,6 +112,12 @@ public class Chain {
      */
     private List<BlockHeader> blockHeaderList;
 
+    /**
+     * 轮次计算使用的委托、出块数、黄牌数索引
+     * Index of deposits, block counts and yellow punish counts used by round calculation
+     */
+    private final ConsensusIndex consensusIndex = new ConsensusIndex();
+
     private final Lock roundLock = new ReentrantLock();
 
     private NulsLogger logger;
@@ -231,20 +238,7 @@ public class Chain {
      * @return List<Deposit>
      */
     private List<Deposit> getDepositListByAgentId(NulsHash agentHash, long startBlockHeight) {
-        List<Deposit> resultList = new ArrayList<>();
-        for (int i = depositList.size() - 1; i >= 0; i--) {
-            Deposit deposit = depositList.get(i);
-            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
-                continue;
-            }
-            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
-                continue;
-            }
-            if (deposit.getAgentHash().equals(agentHash)) {
-                resultList.add(deposit);
-            }
-        }
-        return resultList;
+        return consensusIndex.getDepositList(agentHash, startBlockHeight);
     }
 
 
@@ -286,6 +280,7 @@ public class Chain {
 
     public void setDepositList(List<Deposit> depositList) {
         this.depositList = depositList;
+        consensusIndex.resetDeposits(depositList);
     }
 
     public List<PunishLogPo> getYellowPunishList() {
@@ -294,6 +289,7 @@ public class Chain {
 
     public void setYellowPunishList(List<PunishLogPo> yellowPunishList) {
         this.yellowPunishList = yellowPunishList;
+        consensusIndex.resetYellowPunishes(yellowPunishList);
     }
 
     public List<PunishLogPo> getRedPunishList() {
@@ -342,6 +338,11 @@ public class Chain {
 
     public void setBlockHeaderList(List<BlockHeader> blockHeaderList) {
         this.blockHeaderList = blockHeaderList;
+        consensusIndex.resetBlockHeaders(config.getChainId(), blockHeaderList);
+    }
+
+    public ConsensusIndex getConsensusIndex() {
+        return consensusIndex;
     }
 
     public ScheduledThreadPoolExecutor getScheduledThreadPoolExecutor() {
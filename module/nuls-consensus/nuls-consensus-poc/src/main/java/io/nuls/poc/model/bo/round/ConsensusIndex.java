@@ -0,0 +1,229 @@
+/*
+ * *
+ *  * MIT License
+ *  *
+ *  * Copyright (c) 2017-2019 nuls.io
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package io.nuls.poc.model.bo.round;
+
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import io.nuls.poc.model.po.PunishLogPo;
+
+import java.util.*;
+
+/**
+ * 轮次计算使用的共识数据索引
+ * Index of consensus data used by round calculation
+ * <p>
+ * 按节点索引委托信息，按轮次与地址统计出块数与黄牌数，随委托、区块、黄牌的保存与回滚增量维护。
+ * 委托的生效与退出高度仍保存在委托信息中，查询时按高度过滤，因此同一份索引可以计算任意高度的轮次。
+ * <p>
+ * Deposits are indexed by agent, and block and yellow punish counts are kept per round and address.
+ * The index is maintained incrementally as deposits, blocks and yellow punishes are saved and rolled back.
+ * Deposit heights stay on the deposits and are filtered at query time, so the same index serves rounds of any height.
+ */
+public class ConsensusIndex {
+
+    private final Map<NulsHash, List<Deposit>> depositMap = new HashMap<>();
+
+    private final Map<Long, Map<ByteArrayWrapper, Integer>> blockCountMap = new HashMap<>();
+
+    private final Map<Long, Map<ByteArrayWrapper, Integer>> yellowPunishCountMap = new HashMap<>();
+
+    /**
+     * 重建委托索引
+     * Rebuild the deposit index
+     *
+     * @param depositList 委托列表/deposit list
+     */
+    public synchronized void resetDeposits(List<Deposit> depositList) {
+        depositMap.clear();
+        for (Deposit deposit : depositList) {
+            addDeposit(deposit);
+        }
+    }
+
+    public synchronized void addDeposit(Deposit deposit) {
+        depositMap.computeIfAbsent(deposit.getAgentHash(), k -> new ArrayList<>()).add(deposit);
+    }
+
+    /**
+     * 替换交易hash相同的委托
+     * Replace the deposit with the same tx hash
+     *
+     * @param deposit 委托信息/deposit
+     */
+    public synchronized void updateDeposit(Deposit deposit) {
+        List<Deposit> list = depositMap.computeIfAbsent(deposit.getAgentHash(), k -> new ArrayList<>());
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getTxHash().equals(deposit.getTxHash())) {
+                list.set(i, deposit);
+                return;
+            }
+        }
+        list.add(deposit);
+    }
+
+    public synchronized void removeDeposit(Deposit deposit) {
+        List<Deposit> list = depositMap.get(deposit.getAgentHash());
+        if (list == null) {
+            return;
+        }
+        list.removeIf(d -> d.getTxHash().equals(deposit.getTxHash()));
+        if (list.isEmpty()) {
+            depositMap.remove(deposit.getAgentHash());
+        }
+    }
+
+    /**
+     * 获取指定高度节点的有效委托，顺序与按委托列表倒序遍历的结果一致
+     * Get the deposits of an agent valid at the height, in the order of a reverse walk over the deposit list
+     *
+     * @param agentHash        节点ID/agent hash
+     * @param startBlockHeight 上一轮次的起始区块高度/Initial blocks of the last round
+     * @return List<Deposit>
+     */
+    public synchronized List<Deposit> getDepositList(NulsHash agentHash, long startBlockHeight) {
+        List<Deposit> list = depositMap.get(agentHash);
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        List<Deposit> resultList = new ArrayList<>();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            Deposit deposit = list.get(i);
+            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
+                continue;
+            }
+            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
+                continue;
+            }
+            resultList.add(deposit);
+        }
+        return resultList;
+    }
+
+    /**
+     * 重建出块数索引
+     * Rebuild the block count index
+     *
+     * @param chainId         链ID/chain id
+     * @param blockHeaderList 区块头列表/block header list
+     */
+    public synchronized void resetBlockHeaders(int chainId, List<BlockHeader> blockHeaderList) {
+        blockCountMap.clear();
+        for (BlockHeader blockHeader : blockHeaderList) {
+            addBlockHeader(chainId, blockHeader);
+        }
+    }
+
+    public synchronized void addBlockHeader(int chainId, BlockHeader blockHeader) {
+        increase(blockCountMap, blockHeader.getExtendsData().getRoundIndex(), blockHeader.getPackingAddress(chainId), 1);
+    }
+
+    public synchronized void removeBlockHeader(int chainId, BlockHeader blockHeader) {
+        increase(blockCountMap, blockHeader.getExtendsData().getRoundIndex(), blockHeader.getPackingAddress(chainId), -1);
+    }
+
+    /**
+     * 获取地址在指定轮次区间内的出块数量
+     * Get the number of blocks packed by the address in the round range
+     *
+     * @param packingAddress 出块地址/packing address
+     * @param roundStart     起始轮次/round start index
+     * @param roundEnd       结束轮次/round end index
+     * @return long
+     */
+    public synchronized long getBlockCount(byte[] packingAddress, long roundStart, long roundEnd) {
+        return count(blockCountMap, packingAddress, roundStart, roundEnd);
+    }
+
+    /**
+     * 重建黄牌索引
+     * Rebuild the yellow punish index
+     *
+     * @param yellowPunishList 黄牌列表/yellow punish list
+     */
+    public synchronized void resetYellowPunishes(List<PunishLogPo> yellowPunishList) {
+        yellowPunishCountMap.clear();
+        for (PunishLogPo po : yellowPunishList) {
+            addYellowPunish(po);
+        }
+    }
+
+    public synchronized void addYellowPunish(PunishLogPo po) {
+        increase(yellowPunishCountMap, po.getRoundIndex(), po.getAddress(), 1);
+    }
+
+    public synchronized void removeYellowPunish(PunishLogPo po) {
+        increase(yellowPunishCountMap, po.getRoundIndex(), po.getAddress(), -1);
+    }
+
+    /**
+     * 获取地址在指定轮次区间内的黄牌数量
+     * Get the number of yellow punishes of the address in the round range
+     *
+     * @param address    地址/address
+     * @param roundStart 起始轮次/round start index
+     * @param roundEnd   结束轮次/round end index
+     * @return long
+     */
+    public synchronized long getYellowPunishCount(byte[] address, long roundStart, long roundEnd) {
+        return count(yellowPunishCountMap, address, roundStart, roundEnd);
+    }
+
+    private static void increase(Map<Long, Map<ByteArrayWrapper, Integer>> map, long roundIndex, byte[] address, int delta) {
+        if (address == null) {
+            return;
+        }
+        Map<ByteArrayWrapper, Integer> roundMap = map.computeIfAbsent(roundIndex, k -> new HashMap<>());
+        Integer count = roundMap.merge(new ByteArrayWrapper(address), delta, Integer::sum);
+        if (count <= 0) {
+            roundMap.remove(new ByteArrayWrapper(address));
+            if (roundMap.isEmpty()) {
+                map.remove(roundIndex);
+            }
+        }
+    }
+
+    private static long count(Map<Long, Map<ByteArrayWrapper, Integer>> map, byte[] address, long roundStart, long roundEnd) {
+        ByteArrayWrapper key = new ByteArrayWrapper(address);
+        long count = 0;
+        if (roundEnd - roundStart >= map.size()) {
+            for (Map.Entry<Long, Map<ByteArrayWrapper, Integer>> entry : map.entrySet()) {
+                if (entry.getKey() >= roundStart && entry.getKey() <= roundEnd) {
+                    count += entry.getValue().getOrDefault(key, 0);
+                }
+            }
+            return count;
+        }
+        for (long roundIndex = roundStart; roundIndex <= roundEnd; roundIndex++) {
+            Map<ByteArrayWrapper, Integer> roundMap = map.get(roundIndex);
+            if (roundMap != null) {
+                count += roundMap.getOrDefault(key, 0);
+            }
+        }
+        return count;
+    }
+}
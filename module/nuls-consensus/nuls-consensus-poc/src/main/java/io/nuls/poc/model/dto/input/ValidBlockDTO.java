@@ -11,6 +11,11 @@ public class ValidBlockDTO {
     private int chainId;
     private int download;
     private String block;
+    /**
+     * 区块模块是否已完成梅克尔哈希与签名验证(同步时的预验证)
+     * Whether the block module already checked the merkle hash and signature (pre-verification while syncing)
+     */
+    private boolean preVerified;
 
     public int getChainId() {
         return chainId;
@@ -35,4 +40,12 @@ public class ValidBlockDTO {
     public void setBlock(String block) {
         this.block = block;
     }
+
+    public boolean isPreVerified() {
+        return preVerified;
+    }
+
+    public void setPreVerified(boolean preVerified) {
+        this.preVerified = preVerified;
+    }
 }
@@ -597,6 +597,9 @@ public class CallMethodUtils {
         }
         blockHeaders.sort(new BlockHeaderComparator());
         chain.getBlockHeaderList().addAll(0, blockHeaders);
+        for (BlockHeader blockHeader : blockHeaders) {
+            chain.getConsensusIndex().addBlockHeader(chain.getConfig().getChainId(), blockHeader);
+        }
         Log.debug("---------------------------回滚区块轮次变化从新加载区块成功！");
     }
 
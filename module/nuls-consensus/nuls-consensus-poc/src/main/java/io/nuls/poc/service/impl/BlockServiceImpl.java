@@ -123,6 +123,9 @@ public class BlockServiceImpl implements BlockService {
             }
             List<BlockHeader> localBlockHeaders = chain.getBlockHeaderList();
             localBlockHeaders.addAll(0, blockHeaderList);
+            for (BlockHeader blockHeader : blockHeaderList) {
+                chain.getConsensusIndex().addBlockHeader(chainId, blockHeader);
+            }
             Map<String, Object> validResult = new HashMap<>(2);
             validResult.put("value", true);
             return Result.getSuccess(ConsensusErrorCode.SUCCESS).setData(validResult);
@@ -160,7 +163,8 @@ public class BlockServiceImpl implements BlockService {
         try {
             Block block = new Block();
             block.parse(new NulsByteBuffer(RPCUtil.decode(blockHex)));
-            blockValidator.validate(isDownload, chain, block);
+            //只有同步中的区块可以跳过区块模块已完成的预验证
+            blockValidator.validate(isDownload, chain, block, isDownload && dto.isPreVerified());
             Response response = CallMethodUtils.verify(chainId, block.getTxs(), block.getHeader(), chain.getNewestHeader(), chain.getLogger());
             if (response.isSuccess()) {
                 Map responseData = (Map) response.getResponseData();
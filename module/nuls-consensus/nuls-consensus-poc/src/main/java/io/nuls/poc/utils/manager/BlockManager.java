@@ -48,9 +48,11 @@ public class BlockManager {
             if (receiveRoundIndex > newestExtendsData.getRoundIndex() && (receiveRoundIndex - ConsensusConstant.INIT_BLOCK_HEADER_COUNT > lastRoundIndex)) {
                 Iterator<BlockHeader> iterator = chain.getBlockHeaderList().iterator();
                 while (iterator.hasNext()) {
-                    lastExtendsData = iterator.next().getExtendsData();
+                    BlockHeader lastHeader = iterator.next();
+                    lastExtendsData = lastHeader.getExtendsData();
                     if (lastExtendsData.getRoundIndex() == lastRoundIndex) {
                         iterator.remove();
+                        chain.getConsensusIndex().removeBlockHeader(chain.getConfig().getChainId(), lastHeader);
                     } else if (lastExtendsData.getRoundIndex() > lastRoundIndex) {
                         break;
                     }
@@ -60,6 +62,7 @@ public class BlockManager {
             }
         }
         chain.getBlockHeaderList().add(blockHeader);
+        chain.getConsensusIndex().addBlockHeader(chain.getConfig().getChainId(), blockHeader);
         chain.setNewestHeader(blockHeader);
         chain.getLogger().info("区块保存，高度为：" + blockHeader.getHeight() + " , txCount: " + blockHeader.getTxCount() + ",本地最新区块高度为：" + chain.getNewestHeader().getHeight() + ", 轮次:" + receiveExtendsData.getRoundIndex());
         //清除已经缓存了的比本节点轮次大的轮次信息
@@ -82,12 +85,11 @@ public class BlockManager {
         long originalRound = originalExtendsData.getRoundIndex();
         for (int index = headerList.size() - 1; index >= 0; index--) {
             if (headerList.get(index).getHeight() >= height) {
-                headerList.remove(index);
+                chain.getConsensusIndex().removeBlockHeader(chain.getConfig().getChainId(), headerList.remove(index));
             } else {
                 break;
             }
         }
-        chain.setBlockHeaderList(headerList);
         chain.setNewestHeader(headerList.get(headerList.size() - 1));
         BlockHeader newestBlocHeader = chain.getNewestHeader();
         BlockExtendsData bestExtendsData = newestBlocHeader.getExtendsData();
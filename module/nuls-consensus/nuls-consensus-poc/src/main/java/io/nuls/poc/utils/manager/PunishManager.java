@@ -108,6 +108,7 @@ public class PunishManager {
                 break;
             }
             iterator.remove();
+            chain.getConsensusIndex().removeYellowPunish(punishLogPo);
         }
     }
 
@@ -777,6 +778,9 @@ public class PunishManager {
             }
         }
         chain.getYellowPunishList().addAll(savedList);
+        for (PunishLogPo po : savedList) {
+            chain.getConsensusIndex().addYellowPunish(po);
+        }
         return true;
     }
 
@@ -808,7 +812,11 @@ public class PunishManager {
             }
             deleteIndex++;
         }
-        chain.getYellowPunishList().removeAll(deletedList);
+        for (PunishLogPo po : deletedList) {
+            if (chain.getYellowPunishList().remove(po)) {
+                chain.getConsensusIndex().removeYellowPunish(po);
+            }
+        }
         return true;
     }
 
@@ -6,7 +6,6 @@ import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
-import io.nuls.core.log.Log;
 import io.nuls.core.model.DoubleUtils;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rpc.util.NulsDateUtils;
@@ -20,7 +19,6 @@ import io.nuls.poc.model.po.PunishLogPo;
 import io.nuls.poc.rpc.call.CallMethodUtils;
 import io.nuls.poc.utils.enumeration.PunishType;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.*;
 
@@ -478,14 +476,7 @@ public class RoundManager {
         }
         List<Agent> agentList = getAliveAgentList(chain, startBlockHeader.getHeight());
         for (Agent agent : agentList) {
-            Agent realAgent = new Agent();
-            try {
-                realAgent.parse(agent.serialize(), 0);
-                realAgent.setTxHash(agent.getTxHash());
-            } catch (IOException io) {
-                Log.error(io);
-                return;
-            }
+            Agent realAgent = copyAgent(agent);
             MeetingMember member = new MeetingMember();
             member.setRoundStartTime(round.getStartTime());
             /*
@@ -525,22 +516,25 @@ public class RoundManager {
      * @return List<Deposit>
      */
     private List<Deposit> getDepositListByAgentId(Chain chain, NulsHash agentHash, long startBlockHeight) {
-        List<Deposit> depositList = chain.getDepositList();
-        List<Deposit> resultList = new ArrayList<>();
-        for (int i = depositList.size() - 1; i >= 0; i--) {
-            Deposit deposit = depositList.get(i);
-            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
-                continue;
-            }
-            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
-                continue;
-            }
-            if (!deposit.getAgentHash().equals(agentHash)) {
-                continue;
-            }
-            resultList.add(deposit);
-        }
-        return resultList;
+        return chain.getConsensusIndex().getDepositList(agentHash, startBlockHeight);
+    }
+
+    /**
+     * 复制节点的序列化字段与交易hash，轮次中的节点信息与缓存中的节点互不影响
+     * Copy the serialized fields and tx hash of an agent so the round does not share it with the cache
+     *
+     * @param agent 节点信息/agent
+     * @return Agent
+     */
+    private Agent copyAgent(Agent agent) {
+        Agent realAgent = new Agent();
+        realAgent.setAgentAddress(agent.getAgentAddress() == null ? null : agent.getAgentAddress().clone());
+        realAgent.setPackingAddress(agent.getPackingAddress() == null ? null : agent.getPackingAddress().clone());
+        realAgent.setRewardAddress(agent.getRewardAddress() == null ? null : agent.getRewardAddress().clone());
+        realAgent.setDeposit(agent.getDeposit());
+        realAgent.setCommissionRate(agent.getCommissionRate());
+        realAgent.setTxHash(agent.getTxHash());
+        return realAgent;
     }
 
     /**
@@ -609,11 +603,13 @@ public class RoundManager {
      * @return long
      */
     private long getPunishCountByAddress(Chain chain, byte[] address, long roundStart, long roundEnd, int code) throws NulsException {
-        long count = 0;
-        List<PunishLogPo> punishList = chain.getYellowPunishList();
-        if (code == PunishType.RED.getCode()) {
-            punishList = chain.getRedPunishList();
+        if (code != PunishType.RED.getCode()) {
+            //黄牌按轮次索引统计，超过上限的部分与下方逻辑一样截断
+            long count = chain.getConsensusIndex().getYellowPunishCount(address, roundStart, roundEnd);
+            return Math.min(count, ConsensusConstant.CREDIT_MAGIC_NUM);
         }
+        long count = 0;
+        List<PunishLogPo> punishList = chain.getRedPunishList();
         for (int i = punishList.size() - 1; i >= 0; i--) {
             if (count >= ConsensusConstant.CREDIT_MAGIC_NUM) {
                 break;
@@ -712,22 +708,7 @@ public class RoundManager {
      * @param roundEnd       结束轮次
      */
     private long getBlockCountByAddress(Chain chain, byte[] packingAddress, long roundStart, long roundEnd) {
-        long count = 0;
-        List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
-        for (int i = blockHeaderList.size() - 1; i >= 0; i--) {
-            BlockHeader blockHeader = blockHeaderList.get(i);
-            BlockExtendsData roundData = blockHeader.getExtendsData();
-            if (roundData.getRoundIndex() > roundEnd) {
-                continue;
-            }
-            if (roundData.getRoundIndex() < roundStart) {
-                break;
-            }
-            if (Arrays.equals(blockHeader.getPackingAddress(chain.getConfig().getChainId()), packingAddress)) {
-                count++;
-            }
-        }
-        return count;
+        return chain.getConsensusIndex().getBlockCount(packingAddress, roundStart, roundEnd);
     }
 
 
@@ -57,15 +57,30 @@ public class BlockValidator {
      * @param block      block info
      */
     public void validate(boolean isDownload, Chain chain, Block block) throws NulsException, IOException {
+        validate(isDownload, chain, block, false);
+    }
+
+    /**
+     * 区块头验证
+     * Block verification
+     *
+     * @param isDownload  block status
+     * @param chain       chain info
+     * @param block       block info
+     * @param preVerified 梅克尔哈希与签名已由区块模块在同步时验证 / merkle hash and signature were already checked by the block module while syncing
+     */
+    public void validate(boolean isDownload, Chain chain, Block block, boolean preVerified) throws NulsException, IOException {
         BlockHeader blockHeader = block.getHeader();
-        //验证梅克尔哈希]
-        if (!blockHeader.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()))) {
-            throw new NulsException(ConsensusErrorCode.MERKEL_HASH_ERROR);
-        }
-        //区块头签名验证
-        if (blockHeader.getBlockSignature().verifySignature(blockHeader.getHash()).isFailed()) {
-            chain.getLogger().error("Block Header Verification Error!");
-            throw new NulsException(ConsensusErrorCode.SIGNATURE_ERROR);
+        if (!preVerified) {
+            //验证梅克尔哈希]
+            if (!blockHeader.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()))) {
+                throw new NulsException(ConsensusErrorCode.MERKEL_HASH_ERROR);
+            }
+            //区块头签名验证
+            if (blockHeader.getBlockSignature().verifySignature(blockHeader.getHash()).isFailed()) {
+                chain.getLogger().error("Block Header Verification Error!");
+                throw new NulsException(ConsensusErrorCode.SIGNATURE_ERROR);
+            }
         }
         RoundValidResult roundValidResult;
         String blockHeaderHash = blockHeader.getHash().toHex();
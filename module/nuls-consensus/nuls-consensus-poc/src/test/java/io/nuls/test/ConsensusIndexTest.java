@@ -0,0 +1,91 @@
+package io.nuls.test;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.poc.model.bo.round.ConsensusIndex;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import io.nuls.poc.model.po.PunishLogPo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ConsensusIndexTest {
+
+    private static NulsHash hash(int value) {
+        byte[] bytes = new byte[32];
+        bytes[0] = (byte) value;
+        return new NulsHash(bytes);
+    }
+
+    private static Deposit deposit(int agent, int tx, long blockHeight, long delHeight) {
+        Deposit deposit = new Deposit();
+        deposit.setAgentHash(hash(agent));
+        deposit.setTxHash(hash(tx));
+        deposit.setBlockHeight(blockHeight);
+        deposit.setDelHeight(delHeight);
+        deposit.setDeposit(BigInteger.valueOf(tx));
+        return deposit;
+    }
+
+    private static PunishLogPo punish(byte[] address, long roundIndex, int index) {
+        PunishLogPo po = new PunishLogPo();
+        po.setAddress(address);
+        po.setRoundIndex(roundIndex);
+        po.setHeight(roundIndex * 10);
+        po.setIndex(index);
+        po.setType((byte) 1);
+        return po;
+    }
+
+    /**
+     * 委托按节点与高度过滤，顺序与倒序遍历委托列表一致
+     */
+    @Test
+    public void depositsByAgentAndHeight() {
+        ConsensusIndex index = new ConsensusIndex();
+        Deposit first = deposit(1, 10, 5, -1);
+        Deposit canceled = deposit(1, 11, 6, 8);
+        Deposit other = deposit(2, 12, 6, -1);
+        Deposit late = deposit(1, 13, 20, -1);
+        index.resetDeposits(new ArrayList<>(Arrays.asList(first, canceled, other, late)));
+
+        Assert.assertEquals(Arrays.asList(canceled, first), index.getDepositList(hash(1), 7));
+        Assert.assertEquals(Arrays.asList(first), index.getDepositList(hash(1), 8));
+        Assert.assertEquals(Arrays.asList(late, first), index.getDepositList(hash(1), 20));
+
+        Deposit restored = deposit(1, 11, 6, -1);
+        index.updateDeposit(restored);
+        Assert.assertEquals(Arrays.asList(restored, first), index.getDepositList(hash(1), 8));
+        index.removeDeposit(first);
+        Assert.assertEquals(Arrays.asList(restored), index.getDepositList(hash(1), 8));
+        Assert.assertTrue(index.getDepositList(hash(3), 8).isEmpty());
+    }
+
+    /**
+     * 黄牌按轮次区间统计，回滚后同步减少
+     */
+    @Test
+    public void yellowPunishCountByRound() {
+        ConsensusIndex index = new ConsensusIndex();
+        byte[] address = new byte[]{1, 2, 3};
+        List<PunishLogPo> list = new ArrayList<>();
+        for (int round = 1; round <= 5; round++) {
+            list.add(punish(address, round, 1));
+        }
+        list.add(punish(new byte[]{9}, 3, 1));
+        index.resetYellowPunishes(list);
+        Assert.assertEquals(3, index.getYellowPunishCount(new byte[]{1, 2, 3}, 2, 4));
+        Assert.assertEquals(5, index.getYellowPunishCount(address, 0, 1000));
+
+        PunishLogPo extra = punish(address, 3, 2);
+        index.addYellowPunish(extra);
+        Assert.assertEquals(4, index.getYellowPunishCount(address, 2, 4));
+        index.removeYellowPunish(extra);
+        index.removeYellowPunish(list.get(0));
+        Assert.assertEquals(2, index.getYellowPunishCount(address, 0, 3));
+        Assert.assertEquals(1, index.getYellowPunishCount(new byte[]{9}, 0, 3));
+    }
+}
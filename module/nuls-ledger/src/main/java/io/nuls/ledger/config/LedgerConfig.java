@@ -3,6 +3,7 @@ package io.nuls.ledger.config;
 import io.nuls.core.basic.ModuleConfig;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.core.annotation.Configuration;
+import io.nuls.core.rockdb.manager.RocksDBManager;
 import io.nuls.core.rpc.model.ModuleE;
 
 /**
@@ -37,6 +38,11 @@ public class LedgerConfig implements ModuleConfig {
      */
     private String dataPath;
 
+    /**
+     * 数据库共享块缓存字节数
+     */
+    private long dbBlockCacheSize = RocksDBManager.DEFAULT_BLOCK_CACHE_SIZE;
+
     public String getLanguage() {
         return language;
     }
@@ -69,6 +75,14 @@ public class LedgerConfig implements ModuleConfig {
         this.dataPath = dataPath;
     }
 
+    public long getDbBlockCacheSize() {
+        return dbBlockCacheSize;
+    }
+
+    public void setDbBlockCacheSize(long dbBlockCacheSize) {
+        this.dbBlockCacheSize = dbBlockCacheSize;
+    }
+
     public String getLogLevel() {
         return logLevel;
     }
@@ -113,6 +113,7 @@ public class LedgerChainManager {
      */
     private void initRocksDb() {
         try {
+            RocksDBService.setBlockCacheSize(ledgerConfig.getDbBlockCacheSize());
             RocksDBService.init(ledgerConfig.getDataPath() + File.separator + ModuleE.LG.name);
             Repository initDB = SpringLiteContext.getBean(RepositoryImpl.class);
             initDB.initTableName();
@@ -28,6 +28,7 @@ package io.nuls.ledger.rpc.cmd;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.model.*;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.ledger.constant.CmdConstant;
@@ -184,7 +185,7 @@ public class TransactionCmd extends BaseLedgerCmd {
         }
         long blockHeight = Long.valueOf(params.get("blockHeight").toString());
         List<String> txStrList = (List) params.get("txList");
-        LoggerUtil.logger(chainId).info("commitBlockTxs chainId={},blockHeight={},txs={}", chainId, blockHeight,txStrList.size());
+        LoggerUtil.logger(chainId).info("commitBlockTxs chainId={},blockHeight={},txs={},dbCacheHitRate={}", chainId, blockHeight,txStrList.size(), RocksDBService.getBlockCacheHitRate());
         if (null == txStrList || 0 == txStrList.size()) {
             LoggerUtil.logger(chainId).error("txList is blank");
             return failed("txList is blank");
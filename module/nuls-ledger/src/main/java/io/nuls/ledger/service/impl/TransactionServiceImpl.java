@@ -52,6 +52,7 @@ import io.nuls.ledger.validator.CoinDataValidator;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 import static io.nuls.ledger.utils.LoggerUtil.logger;
 
@@ -84,13 +85,13 @@ public class TransactionServiceImpl implements TransactionService {
     @Autowired
     AssetRegMngService assetRegMngService;
     /**
-     * 缓存一个区块的nonce值
+     * 按链缓存一个区块的nonce值
      */
-    private Map<String, Integer> ledgerNonce = new ConcurrentHashMap<String, Integer>(5120);
+    private Map<Integer, Map<String, Integer>> ledgerNonce = new ConcurrentHashMap<>();
     /**
-     * 缓存一个区块的hash值
+     * 按链缓存一个区块的hash值
      */
-    private Map<String, Integer> ledgerHash = new ConcurrentHashMap<>(5120);
+    private Map<Integer, Map<String, Integer>> ledgerHash = new ConcurrentHashMap<>();
 
 
     /**
@@ -137,7 +138,7 @@ public class TransactionServiceImpl implements TransactionService {
             byte[] nonce8Bytes = LedgerUtil.getNonceByTx(transaction);
             String nonce8Str = LedgerUtil.getNonceEncode(nonce8Bytes);
             String txHash = transaction.getHash().toHex();
-            ledgerHash.put(txHash, 1);
+            getLedgerHash(addressChainId).put(txHash, 1);
             //从缓存校验交易
             CoinData coinData = CoinDataUtil.parseCoinData(transaction.getCoinData());
             if (null == coinData) {
@@ -180,7 +181,7 @@ public class TransactionServiceImpl implements TransactionService {
                     }
                     //非解锁交易处理
                     process = commontTransactionProcessor.processFromCoinData(from, nonce8Bytes, accountBalance.getNowAccountState());
-                    ledgerNonce.put(LedgerUtil.getAccountNoncesStrKey(address, from.getAssetsChainId(), from.getAssetsId(), nonce8Str), 1);
+                    getLedgerNonce(addressChainId).put(LedgerUtil.getAccountNoncesStrKey(address, from.getAssetsChainId(), from.getAssetsId(), nonce8Str), 1);
                 } else {
                     process = lockedTransactionProcessor.processCoinData(from, nonce8Bytes, txHash, accountBalance.getNowAccountState(), transaction.getTime(), address, true);
                 }
@@ -233,9 +234,10 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public boolean confirmBlockProcess(int addressChainId, List<Transaction> txList, long blockHeight) {
+        Lock ledgerLocker = LockerUtil.getLedgerLocker(addressChainId);
+        ledgerLocker.lock();
         try {
-            cleanBlockCommitTempDatas();
-            LockerUtil.LEDGER_LOCKER.lock();
+            cleanBlockCommitTempDatas(addressChainId);
             long currentDbHeight = repository.getBlockHeight(addressChainId);
             if ((blockHeight - currentDbHeight) != 1) {
                 //高度不一致，数据出问题了
@@ -269,10 +271,11 @@ public class TransactionServiceImpl implements TransactionService {
             } catch (Exception e) {
                 logger(addressChainId).error("confirmBlockProcess blockSnapshotAccounts addAccountState error!");
                 logger(addressChainId).error(e);
-                cleanBlockCommitTempDatas();
+                cleanBlockCommitTempDatas(addressChainId);
                 return false;
             }
-            //提交整体数据
+            //提交整体数据，只锁定本区块涉及的账户，其他账户的未确认交易处理不受影响
+            List<Lock> accountLockers = LockerUtil.lockAccounts(addressChainId, updateAccounts.keySet());
             try {
                 //备份历史
                 repository.saveBlockSnapshot(addressChainId, blockHeight, blockSnapshotAccounts);
@@ -294,22 +297,23 @@ public class TransactionServiceImpl implements TransactionService {
                 }
             } catch (Exception e) {
                 //需要回滚数据
-                cleanBlockCommitTempDatas();
+                cleanBlockCommitTempDatas(addressChainId);
                 logger(addressChainId).error(e);
                 LoggerUtil.logger(addressChainId).error("confirmBlockProcess  error! go rollBackBlock!addrChainId={},height={}", addressChainId, blockHeight);
                 rollBackBlock(addressChainId, blockSnapshotAccounts.getAccounts(), blockHeight);
                 return false;
+            } finally {
+                LockerUtil.unlockAccounts(accountLockers);
             }
             //完全提交,存储当前高度。
             repository.saveOrUpdateBlockHeight(addressChainId, blockHeight);
             return true;
         } catch (Exception e) {
             LoggerUtil.logger(addressChainId).error("confirmBlockProcess error", e);
-            cleanBlockCommitTempDatas();
+            cleanBlockCommitTempDatas(addressChainId);
             return false;
         } finally {
-            LockerUtil.LEDGER_LOCKER.unlock();
-
+            ledgerLocker.unlock();
         }
 
     }
@@ -335,7 +339,10 @@ public class TransactionServiceImpl implements TransactionService {
      * @return
      */
     @Override
-    public synchronized boolean rollBackBlock(int addressChainId, List<AccountStateSnapshot> preAccountStates, long blockHeight) {
+    public boolean rollBackBlock(int addressChainId, List<AccountStateSnapshot> preAccountStates, long blockHeight) {
+        Lock ledgerLocker = LockerUtil.getLedgerLocker(addressChainId);
+        ledgerLocker.lock();
+        List<Lock> accountLockers = LockerUtil.lockAccounts(addressChainId, getAssetKeys(preAccountStates));
         try {
             //回滚账号信息
             accountStateService.rollAccountState(addressChainId, preAccountStates);
@@ -344,19 +351,31 @@ public class TransactionServiceImpl implements TransactionService {
         } catch (Exception e) {
             logger(addressChainId).error("rollBackBlock error!!", e);
             return false;
+        } finally {
+            LockerUtil.unlockAccounts(accountLockers);
+            ledgerLocker.unlock();
         }
         return true;
     }
 
+    private List<String> getAssetKeys(List<AccountStateSnapshot> accountStates) {
+        List<String> assetKeys = new ArrayList<>(accountStates.size());
+        for (AccountStateSnapshot accountState : accountStates) {
+            assetKeys.add(LedgerUtil.getKeyStr(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId()));
+        }
+        return assetKeys;
+    }
+
     /**
      * @param addressChainId
      * @return
      */
     @Override
     public boolean rollBackConfirmTxs(int addressChainId, long blockHeight, List<Transaction> txs) {
+        Lock ledgerLocker = LockerUtil.getLedgerLocker(addressChainId);
+        ledgerLocker.lock();
         try {
-            LockerUtil.LEDGER_LOCKER.lock();
-            cleanBlockCommitTempDatas();
+            cleanBlockCommitTempDatas(addressChainId);
             long currentDbHeight = repository.getBlockHeight(addressChainId);
             if ((blockHeight - currentDbHeight) == 1) {
                 logger(addressChainId).debug("addressChainId ={},blockHeight={},ledgerBlockHeight={}", addressChainId, blockHeight, currentDbHeight);
@@ -375,7 +394,12 @@ public class TransactionServiceImpl implements TransactionService {
             //回滚高度
             repository.saveOrUpdateBlockHeight(addressChainId, (blockHeight - 1));
             List<AccountStateSnapshot> preAccountStates = blockSnapshotAccounts.getAccounts();
-            accountStateService.rollAccountState(addressChainId, preAccountStates);
+            List<Lock> accountLockers = LockerUtil.lockAccounts(addressChainId, getAssetKeys(preAccountStates));
+            try {
+                accountStateService.rollAccountState(addressChainId, preAccountStates);
+            } finally {
+                LockerUtil.unlockAccounts(accountLockers);
+            }
             //删除备份数据
             repository.delBlockSnapshot(addressChainId, blockHeight);
             //回滚nonce缓存信息
@@ -413,7 +437,7 @@ public class TransactionServiceImpl implements TransactionService {
             repository.saveOrUpdateBlockHeight(addressChainId, blockHeight);
             return false;
         } finally {
-            LockerUtil.LEDGER_LOCKER.unlock();
+            ledgerLocker.unlock();
         }
         return true;
     }
@@ -453,20 +477,28 @@ public class TransactionServiceImpl implements TransactionService {
      *
      * @return
      */
-    private void cleanBlockCommitTempDatas() {
-        ledgerNonce.clear();
-        ledgerHash.clear();
+    private void cleanBlockCommitTempDatas(int addressChainId) {
+        getLedgerNonce(addressChainId).clear();
+        getLedgerHash(addressChainId).clear();
+    }
+
+    private Map<String, Integer> getLedgerNonce(int addressChainId) {
+        return ledgerNonce.computeIfAbsent(addressChainId, k -> new ConcurrentHashMap<>(5120));
+    }
+
+    private Map<String, Integer> getLedgerHash(int addressChainId) {
+        return ledgerHash.computeIfAbsent(addressChainId, k -> new ConcurrentHashMap<>(5120));
     }
 
     @Override
     public boolean fromNonceExist(int addressChainId, String accountNonceKey) throws Exception {
-        return ledgerNonce.containsKey(accountNonceKey);
+        return getLedgerNonce(addressChainId).containsKey(accountNonceKey);
 //        return (lgBlockSyncRepository.existAccountNonce(addressChainId, accountNonceKey));
     }
 
     @Override
     public boolean hadTxExist(int addressChainId, String hash) throws Exception {
-        return ledgerHash.containsKey(hash);
+        return getLedgerHash(addressChainId).containsKey(hash);
 //        return (lgBlockSyncRepository.existAccountHash(addressChainId, hash));
     }
 
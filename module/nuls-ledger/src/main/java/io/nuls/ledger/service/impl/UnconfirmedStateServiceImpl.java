@@ -45,6 +45,7 @@ import io.nuls.ledger.utils.LoggerUtil;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Created by wangkun23 on 2018/12/4.
@@ -158,6 +159,16 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
 
     @Override
     public boolean rollUnconfirmedTx(int addressChainId, String assetKey, String txHash) {
+        Lock locker = LockerUtil.getAccountLocker(addressChainId, assetKey);
+        locker.lock();
+        try {
+            return doRollUnconfirmedTx(addressChainId, assetKey, txHash);
+        } finally {
+            locker.unlock();
+        }
+    }
+
+    private boolean doRollUnconfirmedTx(int addressChainId, String assetKey, String txHash) {
         //更新未确认上一个状态
         AccountStateUnconfirmed accountStateUnconfirmed = unconfirmedRepository.getMemAccountStateUnconfirmed(addressChainId, assetKey);
         try {
@@ -211,11 +222,12 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     @Override
     public void clearAllAccountUnconfirmed(int addressChainId) throws Exception {
         //账户处理锁
-        LockerUtil.UNCONFIRMED_SYNC_LOCKER.lock();
+        Lock locker = LockerUtil.getUnconfirmedSyncLocker(addressChainId);
+        locker.lock();
         try {
             unconfirmedRepository.clearAllMemUnconfirmedTxs(addressChainId);
         } finally {
-            LockerUtil.UNCONFIRMED_SYNC_LOCKER.unlock();
+            locker.unlock();
         }
 
     }
@@ -232,6 +244,16 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     public ValidateResult updateUnconfirmedTx(String txHash, int addressChainId, byte[] txNonce, TxUnconfirmed txUnconfirmed) {
         //账户同步锁
         String keyStr = LedgerUtil.getKeyStr(txUnconfirmed.getAddress(), txUnconfirmed.getAssetChainId(), txUnconfirmed.getAssetId());
+        Lock locker = LockerUtil.getAccountLocker(addressChainId, keyStr);
+        locker.lock();
+        try {
+            return doUpdateUnconfirmedTx(addressChainId, keyStr, txNonce, txUnconfirmed);
+        } finally {
+            locker.unlock();
+        }
+    }
+
+    private ValidateResult doUpdateUnconfirmedTx(int addressChainId, String keyStr, byte[] txNonce, TxUnconfirmed txUnconfirmed) {
         AccountState accountState = accountStateService.getAccountState(txUnconfirmed.getAddress(), addressChainId, txUnconfirmed.getAssetChainId(), txUnconfirmed.getAssetId());
         AccountStateUnconfirmed accountStateUnconfirmed = getUnconfirmedInfoAndClear(txUnconfirmed.getAddress(),addressChainId,txUnconfirmed.getAssetChainId(),txUnconfirmed.getAssetId(),accountState);
         byte[] preNonce = null;
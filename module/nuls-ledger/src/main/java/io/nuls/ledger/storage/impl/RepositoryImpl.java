@@ -31,7 +31,9 @@ import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.ByteUtils;
+import io.nuls.core.rockdb.constant.DBTableProfile;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.service.DBIterator;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.ledger.model.ChainHeight;
 import io.nuls.ledger.model.po.AccountState;
@@ -180,16 +182,21 @@ public class RepositoryImpl implements Repository, InitializingBean {
 
     @Override
     public List<ChainHeight> getChainsBlockHeight() {
-        List<Entry<byte[], byte[]>> list = RocksDBService.entryList(getChainsHeightTableName());
         List<ChainHeight> rtList = new ArrayList<>();
-        if (null == list || 0 == list.size()) {
-            return null;
+        try (DBIterator iterator = RocksDBService.iterator(getChainsHeightTableName())) {
+            if (null == iterator) {
+                return null;
+            }
+            while (iterator.hasNext()) {
+                Entry<byte[], byte[]> entry = iterator.next();
+                ChainHeight chainHeight = new ChainHeight();
+                chainHeight.setChainId(ByteUtils.bytesToInt(entry.getKey()));
+                chainHeight.setBlockHeight(ByteUtils.byteToLong(entry.getValue()));
+                rtList.add(chainHeight);
+            }
         }
-        for (Entry<byte[], byte[]> entry : list) {
-            ChainHeight chainHeight = new ChainHeight();
-            chainHeight.setChainId(ByteUtils.bytesToInt(entry.getKey()));
-            chainHeight.setBlockHeight(ByteUtils.byteToLong(entry.getValue()));
-            rtList.add(chainHeight);
+        if (0 == rtList.size()) {
+            return null;
         }
         return rtList;
     }
@@ -216,10 +223,10 @@ public class RepositoryImpl implements Repository, InitializingBean {
     public void initChainDb(int addressChainId) {
         try {
             if (!RocksDBService.existTable(getLedgerAccountTableName(addressChainId))) {
-                RocksDBService.createTable(getLedgerAccountTableName(addressChainId));
+                RocksDBService.createTable(getLedgerAccountTableName(addressChainId), DBTableProfile.POINT_LOOKUP);
             }
             if (!RocksDBService.existTable(getBlockSnapshotTableName(addressChainId))) {
-                RocksDBService.createTable(getBlockSnapshotTableName(addressChainId));
+                RocksDBService.createTable(getBlockSnapshotTableName(addressChainId), DBTableProfile.ARCHIVE);
             }
         } catch (Exception e) {
             logger(addressChainId).error(e);
@@ -24,16 +24,105 @@
  */
 package io.nuls.ledger.utils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * 账本锁，按链和账户资产分段，不同链之间、不相关账户之间的处理互不阻塞
+ * Ledger locks partitioned by chain and account asset key, so unrelated chains and accounts do not block each other.
+ *
  * @author lan
  * @description
  * @date 2019/01/07
  **/
 public class LockerUtil {
-//    public final static Lock BLOCK_SYNC_LOCKER = new ReentrantLock();
-    public final static Lock UNCONFIRMED_SYNC_LOCKER = new ReentrantLock();
-    public final static Lock LEDGER_LOCKER = new ReentrantLock();
+    /**
+     * 每条链的账户锁分段数
+     * Account lock stripes per chain
+     */
+    private static final int ACCOUNT_LOCK_STRIPES = 256;
+
+    /**
+     * 区块确认、回滚锁
+     */
+    private static final Map<Integer, Lock> LEDGER_LOCKERS = new ConcurrentHashMap<>();
+    /**
+     * 未确认数据整体清理锁
+     */
+    private static final Map<Integer, Lock> UNCONFIRMED_SYNC_LOCKERS = new ConcurrentHashMap<>();
+    /**
+     * 账户资产分段锁
+     */
+    private static final Map<Integer, Lock[]> ACCOUNT_LOCKERS = new ConcurrentHashMap<>();
+
+    /**
+     * 链的区块确认、回滚锁
+     */
+    public static Lock getLedgerLocker(int addressChainId) {
+        return LEDGER_LOCKERS.computeIfAbsent(addressChainId, k -> new ReentrantLock());
+    }
+
+    /**
+     * 链的未确认数据整体清理锁
+     */
+    public static Lock getUnconfirmedSyncLocker(int addressChainId) {
+        return UNCONFIRMED_SYNC_LOCKERS.computeIfAbsent(addressChainId, k -> new ReentrantLock());
+    }
+
+    /**
+     * 账户资产(address+assetChainId+assetId)所在分段的锁
+     */
+    public static Lock getAccountLocker(int addressChainId, String assetKey) {
+        return getAccountLockers(addressChainId)[stripe(assetKey)];
+    }
+
+    /**
+     * 按分段顺序锁定多个账户资产，避免与其他批量加锁产生死锁，返回已加的锁
+     * Lock several account asset keys in stripe order to avoid deadlocks with other batch locking, returns the acquired locks.
+     */
+    public static List<Lock> lockAccounts(int addressChainId, Collection<String> assetKeys) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (String assetKey : assetKeys) {
+            stripes.add(stripe(assetKey));
+        }
+        Lock[] lockers = getAccountLockers(addressChainId);
+        List<Lock> locked = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                lockers[stripe].lock();
+                locked.add(lockers[stripe]);
+            }
+        } catch (RuntimeException e) {
+            unlockAccounts(locked);
+            throw e;
+        }
+        return locked;
+    }
+
+    public static void unlockAccounts(List<Lock> locked) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).unlock();
+        }
+    }
+
+    private static Lock[] getAccountLockers(int addressChainId) {
+        return ACCOUNT_LOCKERS.computeIfAbsent(addressChainId, k -> {
+            Lock[] lockers = new Lock[ACCOUNT_LOCK_STRIPES];
+            for (int i = 0; i < lockers.length; i++) {
+                lockers[i] = new ReentrantLock();
+            }
+            return lockers;
+        });
+    }
+
+    private static int stripe(String assetKey) {
+        int h = assetKey.hashCode();
+        return (h ^ (h >>> 16)) & (ACCOUNT_LOCK_STRIPES - 1);
+    }
 }
@@ -0,0 +1,51 @@
+package io.nuls.ledger.test.utils;
+
+import io.nuls.ledger.utils.LockerUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+
+public class LockerUtilTest {
+
+    private static boolean tryLockInOtherThread(Lock lock) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> {
+                if (lock.tryLock()) {
+                    lock.unlock();
+                    return true;
+                }
+                return false;
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void locksArePartitioned() throws Exception {
+        Lock chain1 = LockerUtil.getLedgerLocker(1);
+        Assert.assertSame(chain1, LockerUtil.getLedgerLocker(1));
+        chain1.lock();
+        try {
+            Assert.assertFalse(tryLockInOtherThread(LockerUtil.getLedgerLocker(1)));
+            Assert.assertTrue(tryLockInOtherThread(LockerUtil.getLedgerLocker(2)));
+        } finally {
+            chain1.unlock();
+        }
+
+        List<Lock> locked = LockerUtil.lockAccounts(1, Arrays.asList("a-1-1", "b-1-1", "a-1-1"));
+        try {
+            Assert.assertFalse(tryLockInOtherThread(LockerUtil.getAccountLocker(1, "a-1-1")));
+            Assert.assertFalse(tryLockInOtherThread(LockerUtil.getAccountLocker(1, "b-1-1")));
+            Assert.assertTrue(tryLockInOtherThread(LockerUtil.getAccountLocker(2, "a-1-1")));
+        } finally {
+            LockerUtil.unlockAccounts(locked);
+        }
+        Assert.assertTrue(tryLockInOtherThread(LockerUtil.getAccountLocker(1, "a-1-1")));
+    }
+}
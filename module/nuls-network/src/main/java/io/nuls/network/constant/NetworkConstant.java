@@ -55,6 +55,11 @@ public interface NetworkConstant {
      * MAX FRAME LENGTH
      */
     int MAX_FRAME_LENGTH = 10 * 1024 * 1024;
+    /**
+     * 消息体超过该长度时,对支持压缩的节点压缩发送
+     * Payloads longer than this are compressed for peers that support compression
+     */
+    int COMPRESS_THRESHOLD = 1024;
     /**
      * netty 发起连接的超时时间,单位秒
      * netty connect time out,unit s
@@ -124,9 +129,47 @@ public interface NetworkConstant {
     long MAX_NUMBER_4_BYTE = 4294967295L;
     int MAX_NUMBER_2_BYTE = 65535;
 
-    int MAX_CACHE_MSG_QUEUE = 100;
-    int INIT_CACHE_MSG_QUEUE_NUMBER = 110;
+    /**
+     * 节点发送队列各优先级(区块、交易、地址广播)的容量
+     * Capacity of each priority (blocks, txs, address gossip) of a peer's send queue
+     */
+    int PEER_SEND_QUEUE_HIGH_CAPACITY = 200;
+    int PEER_SEND_QUEUE_NORMAL_CAPACITY = 1000;
+    int PEER_SEND_QUEUE_LOW_CAPACITY = 100;
 
     int MAX_CACHE_MSG_CYCLE_MILL_TIME = 5000;
-    int MAX_CACHE_MSG_TRY_TIME = 5;
+
+    /**
+     * 转发给其他模块的消息,每次RPC最多携带的消息条数、字节数
+     * Max messages and bytes carried by one RPC when forwarding messages to other modules
+     */
+    int MODULE_MSG_BATCH_SIZE = 500;
+    int MODULE_MSG_BATCH_BYTES = 4 * 1024 * 1024;
+    /**
+     * 每个模块每个消息指令同时进行中的批量RPC数
+     * Concurrent batch RPCs per module and message cmd
+     */
+    int MODULE_MSG_MAX_IN_FLIGHT = 4;
+    /**
+     * 每个模块独立的转发线程数,处理慢的模块不会占用其他模块的转发线程
+     * Forwarding threads owned by each module, so a slow module never holds the threads of the others
+     */
+    int MODULE_MSG_ROLE_THREADS = 4;
+    /**
+     * 每个模块每个消息指令待转发的消息数达到该值时暂停读取发送节点的数据,降到一半以下时恢复
+     * Reading from the sending peer is paused when a module's queue for a cmd reaches this size, and resumed below half of it
+     */
+    int MODULE_MSG_QUEUE_HIGH_WATER = 5000;
+    /**
+     * 批量RPC的超时时间、失败后的重试间隔(毫秒)
+     * Timeout of a batch RPC and retry interval after a failure, in milliseconds
+     */
+    long MODULE_MSG_BATCH_TIMEOUT = 30000;
+    long MODULE_MSG_RETRY_INTERVAL = 500;
+
+    /**
+     * 合并flush时最多累计的flush次数,达到后立即flush
+     * Max flushes merged by the flush consolidation handler before flushing immediately
+     */
+    int FLUSH_CONSOLIDATION_LIMIT = 256;
 }
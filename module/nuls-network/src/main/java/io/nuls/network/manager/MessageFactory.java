@@ -39,6 +39,7 @@ import io.nuls.network.model.dto.IpAddressShare;
 import io.nuls.network.model.message.*;
 import io.nuls.network.model.message.base.BaseMessage;
 import io.nuls.network.model.message.body.*;
+import io.nuls.network.netty.codec.MessageCompressor;
 import io.nuls.network.utils.LoggerUtil;
 
 import java.net.InetAddress;
@@ -126,6 +127,7 @@ public class MessageFactory {
             }
             IpAddress addrMe = new IpAddress(networkConfig.getExternalIp(), localPort);
             versionMessageBody.setAddrMe(addrMe);
+            versionMessageBody.setExtend(MessageCompressor.CAPABILITY_SNAPPY);
             return new VersionMessage(nodeGroup.getMagicNumber(), NetworkConstant.CMD_MESSAGE_VERSION, versionMessageBody);
         } catch (UnknownHostException e) {
             LoggerUtil.logger(nodeGroup.getChainId()).error(e.getMessage(), e);
@@ -24,11 +24,14 @@
  */
 package io.nuls.network.manager;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.base.data.BaseNulsData;
+import io.nuls.core.constant.ToolsConstant;
 import io.nuls.core.crypto.Sha256Hash;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.ByteUtils;
@@ -43,11 +46,11 @@ import io.nuls.network.model.NetworkEventResult;
 import io.nuls.network.model.Node;
 import io.nuls.network.model.NodeGroup;
 import io.nuls.network.model.dto.IpAddressShare;
-import io.nuls.network.model.dto.PeerCacheMessage;
 import io.nuls.network.model.message.AddrMessage;
 import io.nuls.network.model.message.GetAddrMessage;
 import io.nuls.network.model.message.base.BaseMessage;
 import io.nuls.network.model.message.base.MessageHeader;
+import io.nuls.network.netty.codec.MessageCompressor;
 import io.nuls.network.utils.LoggerUtil;
 import io.nuls.network.utils.MessageUtil;
 
@@ -59,6 +62,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 消息管理器，用于收发消息
@@ -262,11 +266,25 @@ public class MessageManager extends BaseManager {
             connectNodes = nodeGroup.getLocalNetNodeContainer().getConnectedNodes().values();
         }
         if (null != connectNodes && connectNodes.size() > 0) {
-            for (Node connectNode : connectNodes) {
-                if (null != excludeNode && connectNode.getId().equals(excludeNode.getId())) {
-                    continue;
+            //只序列化、计算校验和、压缩一次,各节点共享同一缓冲区
+            MessageCompressor.BroadcastFrame frame;
+            try {
+                frame = new MessageCompressor.BroadcastFrame(serializeToBuf(message));
+            } catch (Exception e) {
+                LoggerUtil.COMMON_LOG.error(e);
+                return new NetworkEventResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
+            }
+            try {
+                boolean handShake = isHandShakeMessage(message);
+                String cmd = message.getHeader().getCommandStr();
+                for (Node connectNode : connectNodes) {
+                    if (null != excludeNode && connectNode.getId().equals(excludeNode.getId())) {
+                        continue;
+                    }
+                    sendBuf(cmd, handShake, frame.retainedDuplicate(connectNode.getChannel()), connectNode, asyn);
                 }
-                this.sendToNode(message, connectNode, asyn);
+            } finally {
+                frame.release();
             }
         }
         return new NetworkEventResult(true, NetworkErrorCode.SUCCESS);
@@ -304,41 +322,74 @@ public class MessageManager extends BaseManager {
     }
 
     private NetworkEventResult broadcastToANode(BaseMessage message, Node node, boolean asyn) {
+        ByteBuf buf;
+        try {
+            buf = serializeToBuf(message);
+        } catch (Exception e) {
+            LoggerUtil.COMMON_LOG.error(e);
+            return new NetworkEventResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
+        }
+        return sendBuf(message.getHeader().getCommandStr(), isHandShakeMessage(message), MessageCompressor.compressFor(node.getChannel(), buf), node, asyn);
+    }
+
+    /**
+     * 序列化消息,消息体只序列化一次并据此计算校验和,结果写入池化的ByteBuf
+     * Serialize a message into a pooled ByteBuf, serializing the body only once for both the checksum and the payload
+     *
+     * @param message 消息 / Message
+     * @return ByteBuf, 调用方负责释放 / released by the caller
+     */
+    public ByteBuf serializeToBuf(BaseMessage message) throws IOException {
+        MessageHeader header = message.getHeader();
+        BaseNulsData body = message.getMsgBody();
+        byte[] bodyBytes = body == null ? new byte[0] : body.serialize();
+        header.setPayloadLength(bodyBytes.length);
+        header.setChecksum(getCheckSum(bodyBytes.length == 0 ? ToolsConstant.PLACE_HOLDER : bodyBytes));
+        byte[] headerBytes = header.serialize();
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer(headerBytes.length + bodyBytes.length);
+        buf.writeBytes(headerBytes);
+        buf.writeBytes(bodyBytes);
+        return buf;
+    }
+
+    /**
+     * 向节点发送已序列化的消息,buf的一次引用交给本方法,发送完成或失败后释放
+     *
+     * @param cmd       消息指令
+     * @param handShake 是否是握手消息
+     * @param buf       已序列化的消息
+     * @param node      目标节点
+     * @param asyn      是否异步发送
+     * @return NetworkEventResult
+     */
+    private NetworkEventResult sendBuf(String cmd, boolean handShake, ByteBuf buf, Node node, boolean asyn) {
         /*
          *not handShakeMessage must be  validate peer status
          */
-        if (!isHandShakeMessage(message)) {
+        if (!handShake) {
             if (NodeConnectStatusEnum.AVAILABLE != node.getConnectStatus()) {
+                buf.release();
                 Log.error("============={} status is not handshake(AVAILABLE)", node.getId());
                 return new NetworkEventResult(false, NetworkErrorCode.NET_NODE_DEAD);
             }
         }
         if (node.getChannel() == null || !node.getChannel().isActive()) {
+            buf.release();
             Log.error("============={} getChannel is not Active", node.getId());
             return new NetworkEventResult(false, NetworkErrorCode.NET_NODE_MISS_CHANNEL);
         }
         try {
-            MessageHeader header = message.getHeader();
-            BaseNulsData body = message.getMsgBody();
-            header.setPayloadLength(body.size());
             if (asyn) {
                 node.getChannel().eventLoop().execute(() -> {
                     Channel channel = node.getChannel();
-                    if (channel != null) {
-                        try {
-                            if (!channel.isWritable()) {
-                                LoggerUtil.COMMON_LOG.error("#### isWritable=false,send fail.node={},cmd={}", node.getId(), header.getCommandStr());
-
-                            }
-                            channel.writeAndFlush(Unpooled.wrappedBuffer(message.serialize()));
-                        } catch (IOException e) {
-                            LoggerUtil.COMMON_LOG.error(e);
-                        }
+                    if (channel == null) {
+                        buf.release();
+                        return;
                     }
-
+                    node.getSendQueue().send(channel, buf, MessageUtil.getSendPriority(cmd));
                 });
             } else {
-                ChannelFuture future = node.getChannel().writeAndFlush(Unpooled.wrappedBuffer(message.serialize()));
+                ChannelFuture future = node.getChannel().writeAndFlush(buf);
                 future.await();
                 boolean success = future.isSuccess();
                 if (!success) {
@@ -346,6 +397,10 @@ public class MessageManager extends BaseManager {
                 }
             }
 
+        } catch (RejectedExecutionException e) {
+            buf.release();
+            LoggerUtil.COMMON_LOG.error(e);
+            return new NetworkEventResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
         } catch (Exception e) {
             LoggerUtil.COMMON_LOG.error(e);
             return new NetworkEventResult(false, NetworkErrorCode.NET_MESSAGE_ERROR);
@@ -372,39 +427,43 @@ public class MessageManager extends BaseManager {
             }
             nodes = nodes.subList(0, toIndex);
         }
-        for (Node node : nodes) {
-            if (node.getChannel() == null || !node.getChannel().isActive()) {
-                Log.info("broadcastToNodes node={} is not Active", node.getId());
-                continue;
-            }
-            try {
-                if (asyn) {
-                    node.getChannel().eventLoop().execute(() -> {
-                        Channel channel = node.getChannel();
-                        if (channel != null) {
-                            if (!channel.isWritable()) {
-                                if (!MessageUtil.isLowerLeverCmd(cmd)) {
-                                    LoggerUtil.COMMON_LOG.debug("#### isWritable=false,node={},cmd={} add to cache", node.getId(), cmd);
-                                    node.getCacheSendMsgQueue().addLast(new PeerCacheMessage(message));
-                                } else {
-                                    LoggerUtil.COMMON_LOG.debug("#### isWritable=false,node={},cmd={} send to peer is drop", node.getId(), cmd);
-                                }
-                            } else {
-                                channel.writeAndFlush(Unpooled.wrappedBuffer(message));
+        //各节点共享同一缓冲区,不再逐个包装,压缩也只做一次
+        MessageCompressor.BroadcastFrame frame = new MessageCompressor.BroadcastFrame(Unpooled.wrappedBuffer(message));
+        int priority = MessageUtil.getSendPriority(cmd);
+        try {
+            for (Node node : nodes) {
+                if (node.getChannel() == null || !node.getChannel().isActive()) {
+                    Log.info("broadcastToNodes node={} is not Active", node.getId());
+                    continue;
+                }
+                ByteBuf duplicate = frame.retainedDuplicate(node.getChannel());
+                try {
+                    if (asyn) {
+                        node.getChannel().eventLoop().execute(() -> {
+                            Channel channel = node.getChannel();
+                            if (channel == null) {
+                                duplicate.release();
+                            } else if (!node.getSendQueue().send(channel, duplicate, priority)) {
+                                LoggerUtil.COMMON_LOG.debug("#### send queue full,node={},cmd={} send to peer is drop", node.getId(), cmd);
                             }
+                        });
+                    } else {
+                        ChannelFuture future = node.getChannel().writeAndFlush(duplicate);
+                        future.await();
+                        boolean success = future.isSuccess();
+                        if (!success) {
+                            return new NetworkEventResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
                         }
-                    });
-                } else {
-                    ChannelFuture future = node.getChannel().writeAndFlush(Unpooled.wrappedBuffer(message));
-                    future.await();
-                    boolean success = future.isSuccess();
-                    if (!success) {
-                        return new NetworkEventResult(false, NetworkErrorCode.NET_BROADCAST_FAIL);
                     }
+                } catch (RejectedExecutionException e) {
+                    duplicate.release();
+                    Log.error(e);
+                } catch (Exception e) {
+                    Log.error(e);
                 }
-            } catch (Exception e) {
-                Log.error(e);
             }
+        } finally {
+            frame.release();
         }
         return new NetworkEventResult(true, NetworkErrorCode.SUCCESS);
     }
@@ -0,0 +1,306 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.manager;
+
+import io.netty.channel.Channel;
+import io.nuls.base.RPCUtil;
+import io.nuls.core.constant.BaseConstant;
+import io.nuls.core.constant.CommonCodeConstanst;
+import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.model.message.MessageUtil;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.model.message.Response;
+import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+import io.nuls.network.model.Node;
+import io.nuls.network.utils.LoggerUtil;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.nuls.network.constant.NetworkConstant.*;
+
+/**
+ * 把其他节点发来的消息转发给注册了该消息的模块
+ * Forward messages received from peers to the modules that registered them
+ * <p>
+ * 每个模块的每个消息指令有一个队列,多条消息合并为一次msgProcessBatch调用,消息体以原始字节传输;
+ * 队列积压到MODULE_MSG_QUEUE_HIGH_WATER时暂停读取发送节点的数据,积压消除后恢复,不再丢弃消息。
+ * 节点的所有消息共用一条TCP连接,暂停读取会同时停止该节点的全部消息(包括发往其他模块、其他指令的消息),直到积压的队列恢复。
+ * 模块不支持批量接口时退回单条msgProcess调用。每个模块角色使用独立的转发线程池,处理慢的模块只会延迟自己的消息。
+ * <p>
+ * Each module has one queue per message cmd. Many messages are merged into one msgProcessBatch call and the message body travels as raw bytes.
+ * When a queue backs up to MODULE_MSG_QUEUE_HIGH_WATER, reading from the sending peers is paused until the backlog clears, instead of dropping messages.
+ * All messages of a peer share one TCP connection, so a pause stalls every message from that peer, including those for other modules and cmds,
+ * until the backed-up queue recovers.
+ * Modules without the batch cmd fall back to one msgProcess call per message.
+ * Every module role has its own forwarding pool, so a module that answers slowly only delays its own messages.
+ */
+public class ModuleMessageSender {
+
+    private static ModuleMessageSender instance = new ModuleMessageSender();
+
+    public static ModuleMessageSender getInstance() {
+        return instance;
+    }
+
+    /**
+     * 每个模块角色独立的转发线程池,批量RPC会同步等待模块返回,共用线程池时一个处理慢的模块会阻塞其他模块的消息
+     * One forwarding pool per module role. A batch RPC waits for the module's answer, so with a shared pool one slow module would block the messages of every other module
+     */
+    private final Map<String, ScheduledThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+    /**
+     * key: role + "_" + cmd
+     */
+    private final Map<String, CmdQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 不支持msgProcessBatch的模块角色
+     * Roles that do not support msgProcessBatch
+     */
+    private final Set<String> singleRoles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 因积压被暂停读取的节点及暂停的次数
+     * Peers paused because of a backlog, and how many queues paused them
+     */
+    private final Map<Node, AtomicInteger> pausedNodes = new ConcurrentHashMap<>();
+
+    private ModuleMessageSender() {
+    }
+
+    /**
+     * 把消息加入模块的转发队列
+     * Queue a message for a module
+     *
+     * @param role    模块角色 / Module role
+     * @param chainId 链ID / Chain id
+     * @param node    发送消息的节点 / Peer that sent the message
+     * @param cmd     消息指令 / Message cmd
+     * @param body    消息体 / Message body
+     */
+    public void offer(String role, int chainId, Node node, String cmd, byte[] body) {
+        CmdQueue queue = queues.computeIfAbsent(role + DOWN_LINE + cmd, k -> new CmdQueue(role, cmd, executorOf(role)));
+        queue.messages.addLast(new PendingMessage(chainId, node.getId(), body));
+        if (queue.size.incrementAndGet() >= MODULE_MSG_QUEUE_HIGH_WATER && queue.pausedNodes.add(node)) {
+            pause(node);
+            LoggerUtil.logger(chainId).warn("role={},cmd={},queue size={},pause reading from node={}", role, cmd, queue.size.get(), node.getId());
+        }
+        schedule(queue);
+    }
+
+    private ScheduledThreadPoolExecutor executorOf(String role) {
+        return executors.computeIfAbsent(role, k -> ThreadUtils.createScheduledThreadPool(MODULE_MSG_ROLE_THREADS, new NulsThreadFactory("module-msg-send-" + role)));
+    }
+
+    public int getQueueSize(String role, String cmd) {
+        CmdQueue queue = queues.get(role + DOWN_LINE + cmd);
+        return queue == null ? 0 : queue.size.get();
+    }
+
+    private void schedule(CmdQueue queue) {
+        while (queue.size.get() > 0) {
+            int inFlight = queue.inFlight.get();
+            if (inFlight >= MODULE_MSG_MAX_IN_FLIGHT) {
+                return;
+            }
+            if (queue.inFlight.compareAndSet(inFlight, inFlight + 1)) {
+                queue.executor.execute(() -> drain(queue));
+                return;
+            }
+        }
+    }
+
+    private void drain(CmdQueue queue) {
+        List<PendingMessage> batch = new ArrayList<>();
+        long bytes = 0;
+        PendingMessage message;
+        while (batch.size() < MODULE_MSG_BATCH_SIZE && bytes < MODULE_MSG_BATCH_BYTES && (message = queue.messages.pollFirst()) != null) {
+            batch.add(message);
+            bytes += message.body.length;
+        }
+        queue.size.addAndGet(-batch.size());
+        boolean sent = true;
+        try {
+            if (!batch.isEmpty()) {
+                sent = send(queue, batch);
+            }
+        } catch (Exception e) {
+            LoggerUtil.COMMON_LOG.error("role=" + queue.role + ",cmd=" + queue.cmd + ",send fail", e);
+            sent = false;
+        }
+        if (sent) {
+            resume(queue);
+            queue.inFlight.decrementAndGet();
+            schedule(queue);
+            return;
+        }
+        requeue(queue, batch);
+        //模块暂时不可用时稍后重试,仍占用一个进行中的名额
+        queue.executor.schedule(() -> drain(queue), MODULE_MSG_RETRY_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 发送失败的消息放回队首,超过MAX_CACHE_MSG_CYCLE_MILL_TIME的消息丢弃,避免模块长时间不可用时节点一直被暂停
+     */
+    private void requeue(CmdQueue queue, List<PendingMessage> batch) {
+        long expired = System.currentTimeMillis() - MAX_CACHE_MSG_CYCLE_MILL_TIME;
+        int dropped = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            PendingMessage message = batch.get(i);
+            if (message.createTime < expired) {
+                dropped++;
+                continue;
+            }
+            queue.messages.addFirst(message);
+            queue.size.incrementAndGet();
+        }
+        if (dropped > 0) {
+            LoggerUtil.COMMON_LOG.error("role={},cmd={},RPC fail,drop {} expired msg", queue.role, queue.cmd, dropped);
+            resume(queue);
+        }
+    }
+
+    private boolean send(CmdQueue queue, List<PendingMessage> batch) throws Exception {
+        if (!singleRoles.contains(queue.role)) {
+            List<Map<String, Object>> messages = new ArrayList<>(batch.size());
+            for (PendingMessage message : batch) {
+                Map<String, Object> map = new HashMap<>(4);
+                map.put(Constants.CHAIN_ID, message.chainId);
+                map.put("nodeId", message.nodeId);
+                map.put("cmd", queue.cmd);
+                map.put("messageBody", message.body);
+                messages.add(map);
+            }
+            Map<String, Object> params = new HashMap<>(2);
+            params.put("messages", messages);
+            Response response = ResponseMessageProcessor.requestAndResponse(queue.role, BaseConstant.MSG_PROCESS_BATCH, params, MODULE_MSG_BATCH_TIMEOUT);
+            if (response.isSuccess()) {
+                return true;
+            }
+            String errorCode = response.getResponseErrorCode();
+            if (CommonCodeConstanst.REQUEST_TIME_OUT.getCode().equals(errorCode)) {
+                //请求已发出,模块仍可能在处理,不重发以免重复处理
+                LoggerUtil.COMMON_LOG.warn("role={},cmd={},batch size={},msgProcessBatch timeout", queue.role, queue.cmd, batch.size());
+                return true;
+            }
+            if (!CommonCodeConstanst.CMD_NOTFOUND.getCode().equals(errorCode)) {
+                LoggerUtil.COMMON_LOG.error("role={},cmd={},msgProcessBatch fail:{}", queue.role, queue.cmd, response.getResponseComment());
+                return true;
+            }
+            LoggerUtil.COMMON_LOG.info("role={} does not support {}, forward messages one by one", queue.role, BaseConstant.MSG_PROCESS_BATCH);
+            singleRoles.add(queue.role);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage message = batch.get(i);
+            Map<String, Object> paramMap = new HashMap<>(4);
+            paramMap.put(Constants.CHAIN_ID, message.chainId);
+            paramMap.put("nodeId", message.nodeId);
+            paramMap.put("cmd", queue.cmd);
+            paramMap.put("messageBody", RPCUtil.encode(message.body));
+            Request request = MessageUtil.newRequest(BaseConstant.MSG_PROCESS, paramMap, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+            if ("0".equals(ResponseMessageProcessor.requestOnly(queue.role, request))) {
+                //只重发尚未发出的消息
+                batch.subList(0, i).clear();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 暂停读取节点的连接,作用于整个连接而不是单个队列:该节点发给所有模块的消息都会停止,直到所有暂停它的队列恢复
+     * Pause reading the peer's connection. This applies to the whole connection, not to one queue:
+     * every message the peer sends to any module stalls until all queues that paused it recover
+     */
+    private void pause(Node node) {
+        if (pausedNodes.computeIfAbsent(node, k -> new AtomicInteger()).getAndIncrement() == 0) {
+            setAutoRead(node, false);
+        }
+    }
+
+    /**
+     * 队列积压降到高水位一半以下时恢复读取被该队列暂停的节点
+     */
+    private void resume(CmdQueue queue) {
+        if (queue.pausedNodes.isEmpty() || queue.size.get() >= MODULE_MSG_QUEUE_HIGH_WATER / 2) {
+            return;
+        }
+        for (Node node : queue.pausedNodes) {
+            if (queue.pausedNodes.remove(node)) {
+                AtomicInteger count = pausedNodes.get(node);
+                if (count != null && count.decrementAndGet() <= 0) {
+                    pausedNodes.remove(node);
+                    setAutoRead(node, true);
+                }
+            }
+        }
+    }
+
+    private void setAutoRead(Node node, boolean autoRead) {
+        Channel channel = node.getChannel();
+        if (channel != null) {
+            channel.config().setAutoRead(autoRead);
+        }
+    }
+
+    /**
+     * 一个模块的一个消息指令的转发队列
+     */
+    private static class CmdQueue {
+        private final String role;
+        private final String cmd;
+        private final ConcurrentLinkedDeque<PendingMessage> messages = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Set<Node> pausedNodes = ConcurrentHashMap.newKeySet();
+        private final ScheduledThreadPoolExecutor executor;
+
+        CmdQueue(String role, String cmd, ScheduledThreadPoolExecutor executor) {
+            this.role = role;
+            this.cmd = cmd;
+            this.executor = executor;
+        }
+    }
+
+    private static class PendingMessage {
+        private final int chainId;
+        private final String nodeId;
+        private final byte[] body;
+        private final long createTime = System.currentTimeMillis();
+
+        PendingMessage(int chainId, String nodeId, byte[] body) {
+            this.chainId = chainId;
+            this.nodeId = nodeId;
+            this.body = body;
+        }
+    }
+}
@@ -70,8 +70,6 @@ public class TaskManager extends BaseManager {
         scheduleGroupStatusMonitor();
         timeServiceThreadStart();
         nwInfosThread();
-        peerCacheMsgSendTask();
-        RPCMsgSendTask();
         heartBeatThread();
     }
 
@@ -109,16 +107,6 @@ public class TaskManager extends BaseManager {
         ThreadUtils.createAndRunThread("TimeTask", new TimeTask(), true);
     }
 
-    private void peerCacheMsgSendTask() {
-        Log.debug("----------- peerCacheMsgSendTask start -------------");
-        ThreadUtils.createAndRunThread("peerCacheMsgSendTask", new PeerCacheMsgSendTask(), true);
-    }
-
-    private void RPCMsgSendTask() {
-        Log.debug("----------- RPCMsgSendTask start -------------");
-        ThreadUtils.createAndRunThread("RPCMsgSendTask", new RPCCacheMsgSendTask(), true);
-    }
-
     public void createShareAddressTask(NodeGroup nodeGroup, boolean isCross) {
         Log.debug("----------- createShareAddressTask start -------------");
         ThreadUtils.createAndRunThread("share-mine-node", new ShareAddressTask(nodeGroup, isCross));
@@ -26,6 +26,7 @@
 package io.nuls.network.manager.handler.base;
 
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.nuls.base.data.BaseNulsData;
 import io.nuls.network.constant.NetworkErrorCode;
@@ -33,6 +34,7 @@ import io.nuls.network.model.NetworkEventResult;
 import io.nuls.network.model.Node;
 import io.nuls.network.model.message.base.BaseMessage;
 import io.nuls.network.model.message.base.MessageHeader;
+import io.nuls.network.netty.codec.MessageCompressor;
 import io.nuls.network.utils.LoggerUtil;
 
 
@@ -59,7 +61,8 @@ public abstract class BaseMessageHandler implements BaseMeesageHandlerInf {
             header.setMagicNumber(header.getMagicNumber());
             BaseNulsData body = message.getMsgBody();
             header.setPayloadLength(body.size());
-            ChannelFuture future = node.getChannel().writeAndFlush(Unpooled.wrappedBuffer(message.serialize()));
+            Channel channel = node.getChannel();
+            ChannelFuture future = channel.writeAndFlush(MessageCompressor.compressFor(channel, Unpooled.wrappedBuffer(message.serialize())));
             if (!asyn) {
                 future.await();
                 boolean success = future.isSuccess();
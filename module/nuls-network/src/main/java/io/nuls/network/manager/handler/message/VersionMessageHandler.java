@@ -42,6 +42,7 @@ import io.nuls.network.model.message.VersionMessage;
 import io.nuls.network.model.message.base.BaseMessage;
 import io.nuls.network.model.message.body.VerackMessageBody;
 import io.nuls.network.model.message.body.VersionMessageBody;
+import io.nuls.network.netty.codec.MessageCompressor;
 import io.nuls.network.netty.container.NodesContainer;
 import io.nuls.network.rpc.call.BlockRpcService;
 import io.nuls.network.rpc.call.impl.BlockRpcServiceImpl;
@@ -235,6 +236,8 @@ public class VersionMessageHandler extends BaseMessageHandler {
     public NetworkEventResult recieve(BaseMessage message, Node node) {
         int chainId = NodeGroupManager.getInstance().getChainIdByMagicNum(message.getHeader().getMagicNumber());
         LoggerUtil.logger(chainId).info("VersionMessageHandler recieve:" + (node.isServer() ? "Server" : "Client") + ":" + node.getIp() + ":" + node.getRemotePort() + "==CMD=" + message.getHeader().getCommandStr());
+        //对端在extend中声明支持压缩时,之后发往该节点的大消息压缩发送
+        MessageCompressor.negotiate(node.getChannel(), ((VersionMessageBody) message.getMsgBody()).getExtend());
         if (Node.IN == node.getType()) {
             serverRecieveHandler(message, node);
         } else {
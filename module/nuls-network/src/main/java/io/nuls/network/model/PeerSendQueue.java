@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.model;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.nuls.network.constant.NetworkConstant;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 节点发送队列
+ * Send queue of a peer
+ * <p>
+ * 通道可写且队列为空时消息直接写出,否则按优先级(区块 > 交易 > 地址广播)进入有界队列,
+ * 通道恢复可写(channelWritabilityChanged)时立即按优先级写出,队列满时丢弃新消息,超时的消息在写出前丢弃。
+ * 除统计数据外,所有方法只在通道的事件循环中调用,无需加锁。
+ * <p>
+ * Messages are written straight through while the channel is writable and nothing is queued. Otherwise they go into
+ * bounded queues by priority (blocks > txs > address gossip), which are drained by priority as soon as the channel becomes
+ * writable again. New messages are dropped when their queue is full and stale messages are dropped before writing.
+ * Apart from the counters, every method runs on the channel's event loop, so no locking is needed.
+ */
+public class PeerSendQueue {
+
+    public static final int PRIORITY_HIGH = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_LOW = 2;
+
+    private static final int[] CAPACITY = {NetworkConstant.PEER_SEND_QUEUE_HIGH_CAPACITY, NetworkConstant.PEER_SEND_QUEUE_NORMAL_CAPACITY, NetworkConstant.PEER_SEND_QUEUE_LOW_CAPACITY};
+
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Entry>[] queues = new ArrayDeque[]{new ArrayDeque<>(), new ArrayDeque<>(), new ArrayDeque<>()};
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropCount = new AtomicLong();
+    private final AtomicLong expireCount = new AtomicLong();
+
+    /**
+     * 发送消息,buf的一次引用交给本方法
+     * Send a message, taking over one reference of buf
+     *
+     * @param channel  通道 / Channel
+     * @param buf      已序列化的消息 / Serialized message
+     * @param priority 优先级 / Priority
+     * @return 是否已写出或进入队列 / Whether the message was written or queued
+     */
+    public boolean send(Channel channel, ByteBuf buf, int priority) {
+        if (!channel.isActive()) {
+            buf.release();
+            return false;
+        }
+        if (size.get() == 0 && channel.isWritable()) {
+            channel.writeAndFlush(buf);
+            return true;
+        }
+        ArrayDeque<Entry> queue = queues[priority];
+        if (queue.size() >= CAPACITY[priority]) {
+            buf.release();
+            dropCount.incrementAndGet();
+            return false;
+        }
+        queue.addLast(new Entry(buf));
+        size.incrementAndGet();
+        drain(channel);
+        return true;
+    }
+
+    /**
+     * 通道可写时按优先级写出排队的消息
+     * Write queued messages by priority while the channel is writable
+     *
+     * @param channel 通道 / Channel
+     */
+    public void drain(Channel channel) {
+        if (size.get() == 0) {
+            return;
+        }
+        long expireTime = System.currentTimeMillis() - NetworkConstant.MAX_CACHE_MSG_CYCLE_MILL_TIME;
+        boolean written = false;
+        for (ArrayDeque<Entry> queue : queues) {
+            Entry entry;
+            while (channel.isWritable() && (entry = queue.pollFirst()) != null) {
+                size.decrementAndGet();
+                if (entry.createTime < expireTime) {
+                    entry.buf.release();
+                    expireCount.incrementAndGet();
+                    continue;
+                }
+                channel.write(entry.buf);
+                written = true;
+            }
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    /**
+     * 断开连接时释放排队的消息
+     * Release queued messages when the peer disconnects
+     */
+    public void clear() {
+        for (ArrayDeque<Entry> queue : queues) {
+            Entry entry;
+            while ((entry = queue.pollFirst()) != null) {
+                size.decrementAndGet();
+                entry.buf.release();
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getDropCount() {
+        return dropCount.get();
+    }
+
+    public long getExpireCount() {
+        return expireCount.get();
+    }
+
+    private static class Entry {
+        private final ByteBuf buf;
+        private final long createTime = System.currentTimeMillis();
+
+        Entry(ByteBuf buf) {
+            this.buf = buf;
+        }
+    }
+}
@@ -45,6 +45,10 @@ public class VersionMessageBody extends BaseNulsData {
     private IpAddress addrMe = new IpAddress();
     private long blockHeight;
     private String blockHash = "";
+    /**
+     * 扩展信息,以逗号分隔,如支持的压缩算法 compress=snappy
+     * Extension items separated by commas, e.g. the supported compression compress=snappy
+     */
     private String extend = "";
 
     public VersionMessageBody() {
@@ -55,6 +55,10 @@ public class NodeVo implements Ivo {
     private int isOut;
     @ApiModelProperty(description = "连接时间毫秒")
     private long time;
+    @ApiModelProperty(description = "发送队列中等待的消息数")
+    private int sendQueueSize;
+    @ApiModelProperty(description = "发送队列已满而丢弃的消息数")
+    private long sendDropCount;
 
     public int getChainId() {
         return chainId;
@@ -135,4 +139,20 @@ public class NodeVo implements Ivo {
     public void setTime(long time) {
         this.time = time;
     }
+
+    public int getSendQueueSize() {
+        return sendQueueSize;
+    }
+
+    public void setSendQueueSize(int sendQueueSize) {
+        this.sendQueueSize = sendQueueSize;
+    }
+
+    public long getSendDropCount() {
+        return sendDropCount;
+    }
+
+    public void setSendDropCount(long sendDropCount) {
+        this.sendDropCount = sendDropCount;
+    }
 }
@@ -29,6 +29,7 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.nuls.network.netty.codec.NulsMessageDecoder;
 import io.nuls.network.netty.codec.NulsMessageEncoder;
@@ -54,6 +55,8 @@ public class NulsChannelInitializer<T extends ChannelInboundHandlerAdapter> exte
     @Override
     protected void initChannel(SocketChannel socketChannel) {
         ChannelPipeline p = socketChannel.pipeline();
+        //同一事件循环周期内的多次flush合并为一次系统调用,广播时大量写入不再逐条flush
+        p.addLast("flush", new FlushConsolidationHandler(FLUSH_CONSOLIDATION_LIMIT, true));
         p.addLast("idle", new IdleStateHandler(READ_IDEL_TIME_OUT, WRITE_IDEL_TIME_OUT, ALL_IDLE_TIME_OUT));
         p.addLast("decoder", new NulsMessageDecoder());
         p.addLast("encoder0", new NulsMessageEncoder());
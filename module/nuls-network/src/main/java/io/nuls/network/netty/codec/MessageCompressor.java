@@ -0,0 +1,247 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.network.netty.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.compression.Snappy;
+import io.netty.util.AttributeKey;
+import io.nuls.network.constant.NetworkConstant;
+
+/**
+ * 消息体压缩
+ * Message payload compression
+ * <p>
+ * 节点在version消息的extend字段中声明支持的压缩算法,只有对端声明支持时才会向其发送压缩消息。
+ * 消息体超过阈值且压缩后更小时才压缩,压缩后的消息在消息头的长度字段最高位置1,
+ * 消息体为4字节原始长度加Snappy压缩数据,校验值仍按原始消息体计算,解码时还原为原始消息。
+ * 压缩在发送方序列化消息之后进行,广播时同一条消息只压缩一次。
+ * <p>
+ * Peers announce the compression they support in the extend field of the version message, and compressed messages
+ * are only sent to peers that announced support. A payload is compressed when it is above the threshold and actually
+ * shrinks. A compressed message has the top bit of the header length field set and its payload is the 4-byte original
+ * length followed by Snappy data. The checksum still covers the original payload, which is restored by the decoder.
+ * Compression happens right after the sender serializes the message, and a broadcast message is compressed only once.
+ */
+public final class MessageCompressor {
+
+    /**
+     * version消息extend字段中声明支持Snappy压缩
+     * Announces Snappy support in the extend field of the version message
+     */
+    public static final String CAPABILITY_SNAPPY = "compress=snappy";
+
+    /**
+     * 对端是否支持压缩
+     * Whether the peer supports compression
+     */
+    public static final AttributeKey<Boolean> PEER_COMPRESS = AttributeKey.valueOf("peer-compress");
+
+    /**
+     * 长度字段中的压缩标记
+     * Compression flag in the length field
+     */
+    public static final long COMPRESSED_FLAG = 0x80000000L;
+
+    private static final int HEADER_SIZE = 24;
+    private static final int LENGTH_OFFSET = 4;
+    private static final int ORIGINAL_LENGTH_SIZE = 4;
+
+    private MessageCompressor() {
+    }
+
+    /**
+     * 根据对端version消息的extend字段记录其是否支持压缩
+     * Record whether the peer supports compression from the extend field of its version message
+     *
+     * @param channel 通道 / Channel
+     * @param extend  extend字段 / Extend field
+     */
+    public static void negotiate(Channel channel, String extend) {
+        if (channel != null) {
+            channel.attr(PEER_COMPRESS).set(isSupported(extend));
+        }
+    }
+
+    public static boolean isSupported(String extend) {
+        if (extend == null || extend.isEmpty()) {
+            return false;
+        }
+        for (String item : extend.split(",")) {
+            if (CAPABILITY_SNAPPY.equals(item.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 对端是否声明支持压缩
+     * Whether the peer announced compression support
+     *
+     * @param channel 通道 / Channel
+     * @return boolean
+     */
+    public static boolean peerSupports(Channel channel) {
+        return channel != null && Boolean.TRUE.equals(channel.attr(PEER_COMPRESS).get());
+    }
+
+    /**
+     * 向单个节点发送前按对端能力压缩,frame的引用交给本方法
+     * Compress a frame for a single peer when it supports compression, the reference to frame is handed over
+     *
+     * @param channel 通道 / Channel
+     * @param frame   消息头加消息体 / Header and payload
+     * @return 要发送的消息 / Message to send
+     */
+    public static ByteBuf compressFor(Channel channel, ByteBuf frame) {
+        if (!peerSupports(channel)) {
+            return frame;
+        }
+        ByteBuf compressed = compress(channel.alloc(), frame);
+        if (compressed == null) {
+            return frame;
+        }
+        frame.release();
+        return compressed;
+    }
+
+    public static boolean isCompressed(ByteBuf frame) {
+        return (frame.getUnsignedIntLE(frame.readerIndex() + LENGTH_OFFSET) & COMPRESSED_FLAG) != 0;
+    }
+
+    /**
+     * 压缩一条完整消息
+     * Compress a complete message
+     *
+     * @param alloc 分配器 / Allocator
+     * @param frame 消息头加消息体 / Header and payload
+     * @return 压缩后的消息,不需要压缩时返回null / Compressed message, or null when it is not worth compressing
+     */
+    public static ByteBuf compress(ByteBufAllocator alloc, ByteBuf frame) {
+        int bodyLength = frame.readableBytes() - HEADER_SIZE;
+        if (bodyLength < NetworkConstant.COMPRESS_THRESHOLD) {
+            return null;
+        }
+        int readerIndex = frame.readerIndex();
+        ByteBuf out = alloc.buffer(HEADER_SIZE + ORIGINAL_LENGTH_SIZE + bodyLength / 2);
+        try {
+            out.writeBytes(frame, readerIndex, HEADER_SIZE);
+            out.writeIntLE(bodyLength);
+            new Snappy().encode(frame.slice(readerIndex + HEADER_SIZE, bodyLength), out, bodyLength);
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+        int payloadLength = out.readableBytes() - HEADER_SIZE;
+        if (payloadLength >= bodyLength) {
+            out.release();
+            return null;
+        }
+        out.setIntLE(LENGTH_OFFSET, (int) (payloadLength | COMPRESSED_FLAG));
+        return out;
+    }
+
+    /**
+     * 广播的消息：原始与压缩两种形式各一份,压缩在第一个支持压缩的节点需要时做一次,各节点共享同一缓冲区
+     * A broadcast message kept in plain and compressed form. It is compressed once, when the first peer supporting
+     * compression needs it, and every peer shares the same buffers
+     */
+    public static final class BroadcastFrame {
+
+        private final ByteBuf plain;
+        private ByteBuf compressed;
+        private boolean compressTried;
+
+        /**
+         * @param plain 未压缩的消息,引用交给本对象 / Uncompressed message, the reference is handed over
+         */
+        public BroadcastFrame(ByteBuf plain) {
+            this.plain = plain;
+        }
+
+        /**
+         * 按对端能力取一份共享的消息
+         * A shared copy of the message in the form the peer accepts
+         *
+         * @param channel 通道 / Channel
+         * @return 调用方负责释放 / Released by the caller
+         */
+        public ByteBuf retainedDuplicate(Channel channel) {
+            if (peerSupports(channel)) {
+                if (!compressTried) {
+                    compressTried = true;
+                    compressed = compress(channel.alloc(), plain);
+                }
+                if (compressed != null) {
+                    return compressed.retainedDuplicate();
+                }
+            }
+            return plain.retainedDuplicate();
+        }
+
+        public void release() {
+            plain.release();
+            if (compressed != null) {
+                compressed.release();
+            }
+        }
+    }
+
+    /**
+     * 还原压缩的消息
+     * Restore a compressed message
+     *
+     * @param alloc 分配器 / Allocator
+     * @param frame 压缩的消息 / Compressed message
+     * @return 原始消息 / Original message
+     */
+    public static ByteBuf decompress(ByteBufAllocator alloc, ByteBuf frame) {
+        int readerIndex = frame.readerIndex();
+        int payloadLength = frame.readableBytes() - HEADER_SIZE - ORIGINAL_LENGTH_SIZE;
+        if (payloadLength < 0) {
+            throw new CorruptedFrameException("compressed message too short");
+        }
+        int bodyLength = frame.getIntLE(readerIndex + HEADER_SIZE);
+        if (bodyLength < 0 || bodyLength > NetworkConstant.MAX_FRAME_LENGTH) {
+            throw new CorruptedFrameException("illegal original length: " + bodyLength);
+        }
+        //容量限定为原始长度,异常数据无法撑大缓冲区
+        ByteBuf out = alloc.buffer(HEADER_SIZE + bodyLength, HEADER_SIZE + bodyLength);
+        try {
+            out.writeBytes(frame, readerIndex, HEADER_SIZE);
+            out.setIntLE(LENGTH_OFFSET, bodyLength);
+            new Snappy().decode(frame.slice(readerIndex + HEADER_SIZE + ORIGINAL_LENGTH_SIZE, payloadLength), out);
+            if (out.readableBytes() != HEADER_SIZE + bodyLength) {
+                throw new CorruptedFrameException("original length mismatch: " + (out.readableBytes() - HEADER_SIZE) + "!=" + bodyLength);
+            }
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+}
@@ -40,6 +40,15 @@ public class NulsLengthFieldBasedFrameDecoder extends LengthFieldBasedFrameDecod
         super(byteOrder, maxFrameLength, lengthFieldOffset, lengthFieldLength, lengthAdjustment, initialBytesToStrip, failFast);
     }
 
+    /**
+     * 长度字段最高位为压缩标记,不计入帧长度
+     * The top bit of the length field is the compression flag and not part of the frame length
+     */
+    @Override
+    protected long getUnadjustedFrameLength(ByteBuf buf, int offset, int length, ByteOrder order) {
+        return super.getUnadjustedFrameLength(buf, offset, length, order) & ~MessageCompressor.COMPRESSED_FLAG;
+    }
+
     @Override
     public Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
         return super.decode(ctx, in);
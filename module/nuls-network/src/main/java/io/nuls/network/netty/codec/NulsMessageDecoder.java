@@ -48,7 +48,16 @@ public class NulsMessageDecoder extends ByteToMessageDecoder {
         if (NodeGroupManager.getInstance().validMagicNumber(readMagicNumber)) {
             Object decoded = newDecoder.decode(ctx, in);
             if (decoded != null) {
-                out.add(decoded);
+                ByteBuf frame = (ByteBuf) decoded;
+                if (MessageCompressor.isCompressed(frame)) {
+                    try {
+                        out.add(MessageCompressor.decompress(ctx.alloc(), frame));
+                    } finally {
+                        frame.release();
+                    }
+                } else {
+                    out.add(frame);
+                }
             }
         } else {
             LoggerUtil.COMMON_LOG.error("readMagicNumber={} illegal message REC", readMagicNumber);
@@ -37,6 +37,7 @@ public class NulsMessageEncoder extends MessageToMessageEncoder<ByteBuf> {
     @Override
     protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
         // new protocol
+        //压缩由发送方在序列化后完成(MessageCompressor),广播的消息只压缩一次
         out.add(msg.retain());
 
     }
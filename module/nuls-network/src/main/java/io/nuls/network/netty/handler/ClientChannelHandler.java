@@ -84,6 +84,16 @@ public class ClientChannelHandler extends BaseChannelHandler {
         super.channelInactive(ctx);
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        super.channelWritabilityChanged(ctx);
+        Node node = ctx.channel().attr(key).get();
+        if (node != null && ctx.channel().isWritable()) {
+            //通道恢复可写,继续发送排队的消息
+            node.getSendQueue().drain(ctx.channel());
+        }
+    }
+
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception {
         SocketChannel socketChannel = (SocketChannel) ctx.channel();
@@ -117,6 +127,9 @@ public class ClientChannelHandler extends BaseChannelHandler {
         super.channelUnregistered(ctx);
         Attribute<Node> nodeAttribute = ctx.channel().attr(key);
         Node node = nodeAttribute.get();
+        if (node != null) {
+            node.getSendQueue().clear();
+        }
         if (node != null && node.getDisconnectListener() != null) {
             LoggerUtil.COMMON_LOG.info("-----------------client channelInactive  node is channelUnregistered node={}-----------------", node.getId());
             node.getDisconnectListener().action();
@@ -283,6 +283,8 @@ public class NodeRpc extends BaseCmd {
         nodeVo.setMagicNumber(magicNumber);
         nodeVo.setNodeId(node.getId());
         nodeVo.setPort(node.getRemotePort());
+        nodeVo.setSendQueueSize(node.getSendQueue().size());
+        nodeVo.setSendDropCount(node.getSendQueue().getDropCount());
         return nodeVo;
     }
 }
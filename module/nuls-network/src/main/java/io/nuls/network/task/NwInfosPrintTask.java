@@ -85,7 +85,9 @@ public class NwInfosPrintTask implements Runnable {
         sb1.append("\n*****(connected)******************************\n");
         for (Node n : d1) {
             sb1.append("(connected):").append(n.getId()).append(",channelId=")
-                    .append(n.getChannel().id().asShortText()).append(",connStatus=").append(n.getConnectStatus()).append("\n");
+                    .append(n.getChannel().id().asShortText()).append(",connStatus=").append(n.getConnectStatus())
+                    .append(",sendQueue=").append(n.getSendQueue().size()).append(",sendDrop=").append(n.getSendQueue().getDropCount())
+                    .append(",sendExpire=").append(n.getSendQueue().getExpireCount()).append("\n");
         }
         sb1.append("\n*****(canConnect)*******************************\n");
         for (Node n : d2) {
@@ -127,7 +129,9 @@ public class NwInfosPrintTask implements Runnable {
         sb1.append("\n*****(connected)******************************\n");
         for (Node n : c1) {
             sb1.append("(connected):").append(n.getId()).append(",blockHash=").append(n.getBlockHash()).append(",blockHeight=").append(n.getBlockHeight()).append(",channelId=")
-                    .append(n.getChannel().id().asShortText()).append(",connStatus=").append(n.getConnectStatus()).append("\n");
+                    .append(n.getChannel().id().asShortText()).append(",connStatus=").append(n.getConnectStatus())
+                    .append(",sendQueue=").append(n.getSendQueue().size()).append(",sendDrop=").append(n.getSendQueue().getDropCount())
+                    .append(",sendExpire=").append(n.getSendQueue().getExpireCount()).append("\n");
         }
         sb1.append("\n*****(canConnect)******************************\n");
         for (Node n : c2) {
@@ -25,46 +25,67 @@
 package io.nuls.network.utils;
 
 import io.nuls.core.rpc.model.CmdPriority;
+import io.nuls.network.constant.NetworkConstant;
+import io.nuls.network.model.PeerSendQueue;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author lanjinsheng
  * @date 2019-07-30
  */
 public class MessageUtil {
+
     /**
-     * 目前测试使用，后期使用协议注册来处理优先级。
+     * 网络模块自身消息的发送优先级:握手与心跳优先,地址广播最低
+     * Send priority of the network module's own messages: handshake and heartbeat first, address gossip last
      */
-    public static Map<String, Integer> lowerLeverCmd = new HashMap<>();
+    private static final Map<String, Integer> NETWORK_SEND_PRIORITY = new HashMap<>();
 
     static {
-        lowerLeverCmd.put("newHash", 1);
-        lowerLeverCmd.put("askTx", 1);
-        lowerLeverCmd.put("receiveTx", 1);
-        lowerLeverCmd.put("block", 1);
+        for (String cmd : new String[]{NetworkConstant.CMD_MESSAGE_VERSION, NetworkConstant.CMD_MESSAGE_VERACK, NetworkConstant.CMD_MESSAGE_BYE,
+                NetworkConstant.CMD_MESSAGE_PING, NetworkConstant.CMD_MESSAGE_PONG, NetworkConstant.CMD_MESSAGE_GET_TIME, NetworkConstant.CMD_MESSAGE_RESPONSE_TIME}) {
+            NETWORK_SEND_PRIORITY.put(cmd, PeerSendQueue.PRIORITY_HIGH);
+        }
+        for (String cmd : new String[]{NetworkConstant.CMD_MESSAGE_ADDR, NetworkConstant.CMD_MESSAGE_GET_ADDR, NetworkConstant.CMD_MESSAGE_SEND_LOCAL_INFOS}) {
+            NETWORK_SEND_PRIORITY.put(cmd, PeerSendQueue.PRIORITY_LOW);
+        }
     }
 
-    public static Map<String, Integer> highLeverCmd = new HashMap<>();
+    /**
+     * 其他模块注册消息时声明的发送优先级
+     * Send priority other modules declared when registering their messages
+     */
+    private static final Map<String, Integer> REGISTERED_SEND_PRIORITY = new ConcurrentHashMap<>();
 
-    public static boolean isLowerLeverCmd(String cmd) {
-        return (lowerLeverCmd.get(cmd) != null);
+    /**
+     * 发往节点的消息在发送队列中的优先级
+     * Priority of a message in a peer's send queue
+     */
+    public static int getSendPriority(String cmd) {
+        Integer priority = NETWORK_SEND_PRIORITY.get(cmd);
+        if (priority != null) {
+            return priority;
+        }
+        return REGISTERED_SEND_PRIORITY.getOrDefault(cmd, PeerSendQueue.PRIORITY_NORMAL);
     }
 
+    /**
+     * 记录模块注册消息时声明的优先级,DEFAULT表示未声明,不覆盖其他注册声明的优先级
+     * Record the priority declared when a module registers a message, DEFAULT means undeclared and keeps a priority declared by another registration
+     */
     public static void addCmdPriority(String cmd, CmdPriority cmdPriority) {
         switch (cmdPriority) {
             case HIGH:
-                highLeverCmd.put(cmd, 1);
-                break;
-            case DEFAULT:
+                REGISTERED_SEND_PRIORITY.put(cmd, PeerSendQueue.PRIORITY_HIGH);
                 break;
             case LOWER:
-                lowerLeverCmd.put(cmd, 1);
+                REGISTERED_SEND_PRIORITY.put(cmd, PeerSendQueue.PRIORITY_LOW);
                 break;
             default:
                 break;
         }
     }
-   
 }
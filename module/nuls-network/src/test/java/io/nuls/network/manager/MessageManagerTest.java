@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.manager;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.nuls.network.constant.NetworkConstant;
+import io.nuls.network.model.message.PingMessage;
+import io.nuls.network.model.message.body.PingPongMessageBody;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MessageManagerTest {
+
+    /**
+     * 广播使用的一次序列化结果与BaseMessage.serialize一致
+     */
+    @Test
+    public void serializeToBufMatchesSerialize() throws Exception {
+        PingPongMessageBody body = new PingPongMessageBody();
+        body.setRandomCode(123456789L);
+        PingMessage message = new PingMessage(20190101L, NetworkConstant.CMD_MESSAGE_PING, body);
+        ByteBuf buf = MessageManager.getInstance().serializeToBuf(message);
+        try {
+            Assert.assertArrayEquals(message.serialize(), ByteBufUtil.getBytes(buf));
+            ByteBuf duplicate = buf.retainedDuplicate();
+            Assert.assertEquals(2, buf.refCnt());
+            duplicate.release();
+        } finally {
+            buf.release();
+        }
+        Assert.assertEquals(0, buf.refCnt());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.model;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.nuls.network.constant.NetworkConstant;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PeerSendQueueTest {
+
+    private static ByteBuf message(int tag, int size) {
+        ByteBuf buf = Unpooled.buffer(size);
+        buf.writeByte(tag);
+        buf.writerIndex(size);
+        return buf;
+    }
+
+    private static EmbeddedChannel blockedChannel() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(1024, 2048));
+        channel.write(message(9, 4096));
+        Assert.assertFalse(channel.isWritable());
+        return channel;
+    }
+
+    /**
+     * 通道可写且无排队时直接写出
+     */
+    @Test
+    public void writeThroughWhenWritable() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        PeerSendQueue queue = new PeerSendQueue();
+        Assert.assertTrue(queue.send(channel, message(1, 4), PeerSendQueue.PRIORITY_LOW));
+        Assert.assertEquals(0, queue.size());
+        ByteBuf out = channel.readOutbound();
+        Assert.assertEquals(1, out.getByte(0));
+        out.release();
+    }
+
+    /**
+     * 通道恢复可写后按优先级写出
+     */
+    @Test
+    public void drainByPriority() {
+        EmbeddedChannel channel = blockedChannel();
+        PeerSendQueue queue = new PeerSendQueue();
+        queue.send(channel, message(PeerSendQueue.PRIORITY_LOW, 4), PeerSendQueue.PRIORITY_LOW);
+        queue.send(channel, message(PeerSendQueue.PRIORITY_NORMAL, 4), PeerSendQueue.PRIORITY_NORMAL);
+        queue.send(channel, message(PeerSendQueue.PRIORITY_HIGH, 4), PeerSendQueue.PRIORITY_HIGH);
+        Assert.assertEquals(3, queue.size());
+
+        channel.flush();
+        Assert.assertTrue(channel.isWritable());
+        queue.drain(channel);
+        Assert.assertEquals(0, queue.size());
+        int[] expected = {9, PeerSendQueue.PRIORITY_HIGH, PeerSendQueue.PRIORITY_NORMAL, PeerSendQueue.PRIORITY_LOW};
+        for (int tag : expected) {
+            ByteBuf out = channel.readOutbound();
+            Assert.assertEquals(tag, out.getByte(0));
+            out.release();
+        }
+        Assert.assertNull(channel.readOutbound());
+    }
+
+    /**
+     * 队列满时丢弃新消息,断开时释放排队的消息
+     */
+    @Test
+    public void dropWhenFull() {
+        EmbeddedChannel channel = blockedChannel();
+        PeerSendQueue queue = new PeerSendQueue();
+        for (int i = 0; i < NetworkConstant.PEER_SEND_QUEUE_LOW_CAPACITY; i++) {
+            Assert.assertTrue(queue.send(channel, message(i, 4), PeerSendQueue.PRIORITY_LOW));
+        }
+        ByteBuf dropped = message(0, 4);
+        Assert.assertFalse(queue.send(channel, dropped, PeerSendQueue.PRIORITY_LOW));
+        Assert.assertEquals(0, dropped.refCnt());
+        Assert.assertEquals(1, queue.getDropCount());
+        Assert.assertTrue(queue.send(channel, message(0, 4), PeerSendQueue.PRIORITY_HIGH));
+        Assert.assertEquals(NetworkConstant.PEER_SEND_QUEUE_LOW_CAPACITY + 1, queue.size());
+
+        queue.clear();
+        Assert.assertEquals(0, queue.size());
+        channel.finishAndReleaseAll();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.netty.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.nuls.network.constant.NetworkConstant;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteOrder;
+
+public class MessageCompressorTest {
+
+    private static ByteBuf frame(int bodyLength) {
+        ByteBuf buf = Unpooled.buffer(24 + bodyLength);
+        buf.writeIntLE(0x12345678);
+        buf.writeIntLE(bodyLength);
+        buf.writeBytes("block".getBytes());
+        buf.writeZero(7);
+        buf.writeIntLE(0x0BADF00D);
+        for (int i = 0; i < bodyLength; i++) {
+            buf.writeByte(i % 7);
+        }
+        return buf;
+    }
+
+    @Test
+    public void negotiate() {
+        Assert.assertFalse(MessageCompressor.isSupported(""));
+        Assert.assertFalse(MessageCompressor.isSupported(null));
+        Assert.assertTrue(MessageCompressor.isSupported("other=1, compress=snappy"));
+    }
+
+    /**
+     * 压缩后经帧解码器切分,再还原为原始消息
+     */
+    @Test
+    public void roundTripThroughFrameDecoder() {
+        ByteBuf original = frame(64 * 1024);
+        ByteBuf compressed = MessageCompressor.compress(ByteBufAllocator.DEFAULT, original);
+        Assert.assertNotNull(compressed);
+        Assert.assertTrue(compressed.readableBytes() < original.readableBytes());
+        Assert.assertTrue(MessageCompressor.isCompressed(compressed));
+
+        EmbeddedChannel channel = new EmbeddedChannel(new NulsLengthFieldBasedFrameDecoder(ByteOrder.LITTLE_ENDIAN,
+                NetworkConstant.MAX_FRAME_LENGTH, 4, 4, 16, 0, true));
+        ByteBuf wire = Unpooled.wrappedBuffer(compressed, Unpooled.wrappedBuffer(ByteBufUtil.getBytes(original, 0, 1024 + 24)));
+        wire.setIntLE(compressed.readableBytes() + 4, 1024);
+        Assert.assertTrue(channel.writeInbound(wire));
+        ByteBuf received = channel.readInbound();
+        ByteBuf restored = MessageCompressor.decompress(ByteBufAllocator.DEFAULT, received);
+        Assert.assertFalse(MessageCompressor.isCompressed(restored));
+        Assert.assertTrue(ByteBufUtil.equals(original, restored));
+        received.release();
+        restored.release();
+
+        ByteBuf plain = channel.readInbound();
+        Assert.assertEquals(24 + 1024, plain.readableBytes());
+        plain.release();
+        original.release();
+    }
+
+    @Test
+    public void smallPayloadIsNotCompressed() {
+        ByteBuf small = frame(NetworkConstant.COMPRESS_THRESHOLD - 1);
+        Assert.assertNull(MessageCompressor.compress(ByteBufAllocator.DEFAULT, small));
+        small.release();
+    }
+
+    /**
+     * 广播时同一条消息只压缩一次,支持压缩的节点共享压缩后的缓冲区
+     */
+    @Test
+    public void broadcastFrameIsCompressedOnce() {
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+        EmbeddedChannel legacy = new EmbeddedChannel();
+        first.attr(MessageCompressor.PEER_COMPRESS).set(true);
+        second.attr(MessageCompressor.PEER_COMPRESS).set(true);
+        ByteBuf original = frame(64 * 1024);
+        MessageCompressor.BroadcastFrame broadcast = new MessageCompressor.BroadcastFrame(original);
+        ByteBuf a = broadcast.retainedDuplicate(first);
+        ByteBuf b = broadcast.retainedDuplicate(second);
+        ByteBuf c = broadcast.retainedDuplicate(legacy);
+        Assert.assertTrue(MessageCompressor.isCompressed(a));
+        Assert.assertSame(a.unwrap(), b.unwrap());
+        Assert.assertFalse(MessageCompressor.isCompressed(c));
+        Assert.assertSame(original, c.unwrap());
+        broadcast.release();
+        a.release();
+        b.release();
+        c.release();
+        Assert.assertEquals(0, original.refCnt());
+        Assert.assertEquals(0, a.unwrap().refCnt());
+    }
+
+    @Test(expected = CorruptedFrameException.class)
+    public void oversizedOriginalLengthIsRejected() {
+        ByteBuf compressed = MessageCompressor.compress(ByteBufAllocator.DEFAULT, frame(4096));
+        compressed.setIntLE(24, NetworkConstant.MAX_FRAME_LENGTH + 1);
+        try {
+            MessageCompressor.decompress(ByteBufAllocator.DEFAULT, compressed);
+        } finally {
+            compressed.release();
+        }
+    }
+}
@@ -92,6 +92,10 @@ public class ApiContext {
     public static boolean syncCoinBase;
 
     public static List<String> syncAddress = new ArrayList<>();
+    //追块时每批处理的区块数
+    public static int syncBatchSize;
+    //追块时并发预取区块的线程数
+    public static int syncPrefetchThreads;
     //开发者节点地址
     public static Set<String> DEVELOPER_NODE_ADDRESS = new HashSet<>();
     //大使节点地址
@@ -147,6 +147,8 @@ public class PublicServiceBootstrap extends RpcModule {
         ApiContext.connectTimeOut = apiConfig.getConnectTimeOut();
         ApiContext.socketTimeout = apiConfig.getSocketTimeout();
         ApiContext.syncCoinBase = apiConfig.isSyncCoinBase();
+        ApiContext.syncBatchSize = apiConfig.getSyncBatchSize();
+        ApiContext.syncPrefetchThreads = apiConfig.getSyncPrefetchThreads();
         if (StringUtils.isNotBlank(apiConfig.getSyncAddress())) {
             for (String address : apiConfig.getSyncAddress().split(",")) {
                 ApiContext.syncAddress.add(address);
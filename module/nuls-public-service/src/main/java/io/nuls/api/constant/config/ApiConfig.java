@@ -76,6 +76,18 @@ public class ApiConfig implements ModuleConfig {
 
     private String syncAddress;
 
+    /**
+     * 追块时每批处理的区块数，小于2表示逐块同步
+     * Blocks processed per batch while catching up, less than 2 means block by block
+     */
+    private int syncBatchSize;
+
+    /**
+     * 追块时并发预取区块的线程数
+     * Threads prefetching blocks concurrently while catching up
+     */
+    private int syncPrefetchThreads;
+
     public String getEncoding() {
         return encoding;
     }
@@ -299,4 +311,20 @@ public class ApiConfig implements ModuleConfig {
     public void setSyncAddress(String syncAddress) {
         this.syncAddress = syncAddress;
     }
+
+    public int getSyncBatchSize() {
+        return syncBatchSize;
+    }
+
+    public void setSyncBatchSize(int syncBatchSize) {
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    public int getSyncPrefetchThreads() {
+        return syncPrefetchThreads;
+    }
+
+    public void setSyncPrefetchThreads(int syncPrefetchThreads) {
+        this.syncPrefetchThreads = syncPrefetchThreads;
+    }
 }
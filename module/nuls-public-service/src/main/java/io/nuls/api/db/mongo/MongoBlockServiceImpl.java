@@ -72,11 +72,35 @@ public class MongoBlockServiceImpl implements BlockService {
         mongoDBService.insertOne(BLOCK_HEADER_TABLE + chainId, document);
     }
 
+    public void saveBlockHeaderList(int chainId, List<BlockHeaderInfo> headerList) {
+        if (headerList.isEmpty()) {
+            return;
+        }
+        List<Document> documentList = new ArrayList<>();
+        for (BlockHeaderInfo headerInfo : headerList) {
+            Document document = DocumentTransferTool.toDocument(headerInfo, "height");
+            document.remove("mainVersion");
+            documentList.add(document);
+        }
+        mongoDBService.insertMany(BLOCK_HEADER_TABLE + chainId, documentList);
+    }
+
     public void saveBlockHexInfo(int chainId, BlockHexInfo hexInfo) {
         Document document = DocumentTransferTool.toDocument(hexInfo, "height");
         mongoDBService.insertOne(BLOCK_HEX_TABLE + chainId, document);
     }
 
+    public void saveBlockHexList(int chainId, List<BlockHexInfo> hexInfoList) {
+        if (hexInfoList.isEmpty()) {
+            return;
+        }
+        List<Document> documentList = new ArrayList<>();
+        for (BlockHexInfo hexInfo : hexInfoList) {
+            documentList.add(DocumentTransferTool.toDocument(hexInfo, "height"));
+        }
+        mongoDBService.insertMany(BLOCK_HEX_TABLE + chainId, documentList);
+    }
+
     public BlockHexInfo getBlockHexInfo(int chainId, long height) {
         Document document = mongoDBService.findOne(BLOCK_HEX_TABLE + chainId, Filters.eq("_id", height));
         if (document == null) {
@@ -17,6 +17,7 @@ import org.bson.conversions.Bson;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static io.nuls.api.constant.DBTableConstant.*;
@@ -150,21 +151,38 @@ public class MongoChainServiceImpl implements ChainService {
     }
 
     public SyncInfo saveNewSyncInfo(int chainId, long newHeight, BlockHeaderInfo headerInfo) {
+        return saveNewSyncInfo(chainId, Collections.singletonList(headerInfo));
+    }
+
+    /**
+     * 一次写入一批连续区块的同步信息，startHeight记录这批区块的起始高度，用于未完成时整批回滚
+     * Write the sync info of a batch of consecutive blocks at once, startHeight records where the batch begins so an unfinished batch can be rolled back as a whole
+     */
+    public SyncInfo saveNewSyncInfo(int chainId, List<BlockHeaderInfo> headerList) {
         Bson query = Filters.eq("_id", chainId);
         Document document = mongoDBService.findOne(SYNC_INFO_TABLE, query);
+        BlockHeaderInfo firstHeader = headerList.get(0);
+        BlockHeaderInfo lastHeader = headerList.get(headerList.size() - 1);
         SyncInfo syncInfo;
         boolean isNew = false;
+        int i = 0;
         if (document == null) {
             isNew = true;
-            syncInfo = new SyncInfo(chainId, newHeight, headerInfo);
+            syncInfo = new SyncInfo(chainId, firstHeader.getHeight(), firstHeader);
+            i = 1;
         } else {
             syncInfo = DocumentTransferTool.toInfo(document, "chainId", SyncInfo.class);
-            syncInfo.setVersion(headerInfo.getMainVersion());
-            syncInfo.setBestHeight(headerInfo.getHeight());
+        }
+        for (; i < headerList.size(); i++) {
+            BlockHeaderInfo headerInfo = headerList.get(i);
             BigInteger reward = headerInfo.getReward() == null ? BigInteger.ZERO : headerInfo.getReward();
             BigInteger totalFee = headerInfo.getTotalFee() == null ? BigInteger.ZERO : headerInfo.getTotalFee();
             syncInfo.setTotalSupply(syncInfo.getTotalSupply().add(reward).subtract(totalFee));
         }
+        syncInfo.setVersion(lastHeader.getMainVersion());
+        syncInfo.setBestHeight(lastHeader.getHeight());
+        syncInfo.setStartHeight(firstHeader.getHeight());
+        syncInfo.setStep(0);
         document = DocumentTransferTool.toDocument(syncInfo, "chainId");
         if (isNew) {
             mongoDBService.insertOne(SYNC_INFO_TABLE, document);
@@ -14,6 +14,9 @@ public class SyncInfo {
 
     private int step;
 
+    //正在写入的这批区块的起始高度，逐块同步时与bestHeight相同
+    private long startHeight = -1;
+
     public SyncInfo() {
     }
 
@@ -23,6 +26,7 @@ public class SyncInfo {
         this.version = headerInfo.getMainVersion();
         this.totalSupply = headerInfo.getReward();
         this.step = 0;
+        this.startHeight = bestHeight;
     }
 
     public boolean isFinish() {
@@ -68,4 +72,12 @@ public class SyncInfo {
     public void setTotalSupply(BigInteger totalSupply) {
         this.totalSupply = totalSupply;
     }
+
+    public long getStartHeight() {
+        return startHeight;
+    }
+
+    public void setStartHeight(long startHeight) {
+        this.startHeight = startHeight;
+    }
 }
@@ -7,6 +7,7 @@ import io.nuls.api.db.*;
 import io.nuls.api.manager.CacheManager;
 import io.nuls.api.model.po.*;
 import io.nuls.api.utils.DBUtil;
+import io.nuls.api.utils.LoggerUtil;
 import io.nuls.base.basic.AddressTool;
 import io.nuls.core.constant.TxType;
 import io.nuls.core.core.annotation.Autowired;
@@ -74,14 +75,54 @@ public class RollbackService {
     Set<String> addressSet = new HashSet<>();
 
     public boolean rollbackBlock(int chainId, long blockHeight) {
+        return rollbackBlocks(chainId, blockHeight, blockHeight);
+    }
+
+    /**
+     * 回滚一批连续区块，与追块时一次写库的区块窗口对应，从高到低解析后一次写库
+     * Roll back a range of consecutive blocks, matching a window written at once while catching up, parsed from high to low and written at once
+     */
+    public boolean rollbackBlocks(int chainId, long startHeight, long endHeight) {
         clear();
-        BlockHexInfo blockHexInfo = blockService.getBlockHexInfo(chainId, blockHeight);
-        if (blockHexInfo == null) {
-            blockService.deleteBlockHeader(chainId, blockHeight);
+        List<BlockInfo> blockList = new ArrayList<>();
+        for (long height = endHeight; height >= startHeight; height--) {
+            BlockHexInfo blockHexInfo = blockService.getBlockHexInfo(chainId, height);
+            if (blockHexInfo == null) {
+                continue;
+            }
+            Map<String, ContractResultInfo> resultInfoMap = null;
+            if (blockHexInfo.getContractHashList() != null && !blockHexInfo.getContractHashList().isEmpty()) {
+                resultInfoMap = new HashMap<>();
+                for (String hash : blockHexInfo.getContractHashList()) {
+                    ContractResultInfo resultInfo = contractService.getContractResultInfo(chainId, hash);
+                    resultInfoMap.put(resultInfo.getTxHash(), resultInfo);
+                }
+            }
+            BlockInfo blockInfo;
+            try {
+                blockInfo = AnalysisHandler.toBlockInfo(blockHexInfo.getBlockHex(), resultInfoMap, chainId);
+            } catch (Exception e) {
+                Log.error(e);
+                return false;
+            }
+
+            findAddProcessAgentOfBlock(chainId, blockInfo);
+
+            processTxs(chainId, blockInfo.getTxList());
+
+            roundManager.rollback(chainId, blockInfo);
+
+            blockList.add(blockInfo);
+        }
+
+        if (blockList.isEmpty()) {
+            for (long height = endHeight; height >= startHeight; height--) {
+                blockService.deleteBlockHeader(chainId, height);
+            }
             SyncInfo syncInfo = chainService.getSyncInfo(chainId);
             if (syncInfo != null) {
                 if (syncInfo.getBestHeight() > 0) {
-                    syncInfo.setBestHeight(syncInfo.getBestHeight() - 1);
+                    syncInfo.setBestHeight(startHeight - 1);
                     syncInfo.setStep(100);
                     chainService.updateStep(syncInfo);
                 }
@@ -89,31 +130,9 @@ public class RollbackService {
             return true;
         }
 
-        Map<String, ContractResultInfo> resultInfoMap = null;
-        if (blockHexInfo.getContractHashList() != null && !blockHexInfo.getContractHashList().isEmpty()) {
-            resultInfoMap = new HashMap<>();
-            for (String hash : blockHexInfo.getContractHashList()) {
-                ContractResultInfo resultInfo = contractService.getContractResultInfo(chainId, hash);
-                resultInfoMap.put(resultInfo.getTxHash(), resultInfo);
-            }
-        }
-        BlockInfo blockInfo;
-        try {
-            blockInfo = AnalysisHandler.toBlockInfo(blockHexInfo.getBlockHex(), resultInfoMap, chainId);
-        } catch (Exception e) {
-            Log.error(e);
-            return false;
-        }
-
-        findAddProcessAgentOfBlock(chainId, blockInfo);
+        save(chainId, startHeight, endHeight, blockList);
 
-        processTxs(chainId, blockInfo.getTxList());
-
-        roundManager.rollback(chainId, blockInfo);
-
-        save(chainId, blockInfo);
-
-        System.out.println("-------------rollbackBlock: " + blockHeight + ", txCount:" + blockInfo.getHeader().getTxCount());
+        LoggerUtil.commonLog.info("-------------rollbackBlock: " + startHeight + "~" + endHeight + ", blockCount:" + blockList.size());
         return true;
     }
 
@@ -709,11 +728,12 @@ public class RollbackService {
         return ledgerInfo;
     }
 
-    private void save(int chainId, BlockInfo blockInfo) {
+    private void save(int chainId, long startHeight, long endHeight, List<BlockInfo> blockList) {
         SyncInfo syncInfo = chainService.getSyncInfo(chainId);
-        if (blockInfo.getHeader().getHeight() != syncInfo.getBestHeight()) {
+        if (endHeight != syncInfo.getBestHeight()) {
             throw new NulsRuntimeException(ApiErrorCode.DATA_ERROR);
         }
+        syncInfo.setStartHeight(startHeight);
         if (syncInfo.isFinish()) {
             accountService.saveAccounts(chainId, accountInfoMap);
             syncInfo.setStep(50);
@@ -745,20 +765,28 @@ public class RollbackService {
         }
         //回滚chain信息
         chainService.rollbackChainList(chainInfoList);
-        //回滾token转账信息
-        tokenService.rollbackTokenTransfers(chainId, tokenTransferHashList, blockInfo.getHeader().getHeight());
+        for (long height = startHeight; height <= endHeight; height++) {
+            //回滾token转账信息
+            tokenService.rollbackTokenTransfers(chainId, tokenTransferHashList, height);
+            punishService.rollbackPunishLog(chainId, punishTxHashList, height);
+        }
         //回滾智能合約交易
         contractService.rollbackContractResults(chainId, contractTxHashList);
         contractService.rollbackContractTxInfos(chainId, contractTxHashList);
         depositService.rollbackDeposit(chainId, depositInfoList);
-        punishService.rollbackPunishLog(chainId, punishTxHashList, blockInfo.getHeader().getHeight());
         aliasService.rollbackAliasList(chainId, aliasInfoList);
         transactionService.rollbackTxRelationList(chainId, txRelationInfoSet);
-        transactionService.rollbackTx(chainId, blockInfo.getHeader().getTxHashList());
-        blockService.deleteBlockHeader(chainId, blockInfo.getHeader().getHeight());
+        List<String> txHashList = new ArrayList<>();
+        for (BlockInfo blockInfo : blockList) {
+            txHashList.addAll(blockInfo.getHeader().getTxHashList());
+        }
+        transactionService.rollbackTx(chainId, txHashList);
+        for (long height = startHeight; height <= endHeight; height++) {
+            blockService.deleteBlockHeader(chainId, height);
+        }
 
         syncInfo.setStep(100);
-        syncInfo.setBestHeight(blockInfo.getHeader().getHeight() - 1);
+        syncInfo.setBestHeight(startHeight - 1);
         chainService.updateStep(syncInfo);
     }
 
@@ -97,11 +97,7 @@ public class SyncService {
         clear(chainId);
         long time1, time2;
         time1 = System.currentTimeMillis();
-        findAddProcessAgentOfBlock(chainId, blockInfo);
-        //处理交易
-        processTxs(chainId, blockInfo.getTxList());
-        //处理交易
-        roundManager.process(chainId, blockInfo);
+        process(chainId, blockInfo);
         //保存数据
         save(chainId, blockInfo);
 
@@ -113,6 +109,91 @@ public class SyncService {
         return true;
     }
 
+    /**
+     * 追块时批量解析一组连续区块，在内存中合并各区块的统计数据后一次写库
+     * Parse a group of consecutive blocks while catching up, merging their statistics in memory and writing them to the database at once
+     * <p>
+     * 换轮次的区块以及会从数据库读取共识或链数据的交易所在区块作为屏障，屏障之前累积的区块先写库，保证这些读取看到的是最新数据
+     * A block that starts a new round or carries a transaction reading consensus or chain data from the database is a barrier,
+     * the blocks accumulated before it are written first so that those reads see up to date data
+     */
+    public boolean syncBlocks(int chainId, List<BlockInfo> blockList) {
+        clear(chainId);
+        long time1, time2;
+        time1 = System.currentTimeMillis();
+        List<BlockInfo> window = new ArrayList<>();
+        try {
+            for (BlockInfo blockInfo : blockList) {
+                if (!window.isEmpty() && isBarrier(chainId, blockInfo)) {
+                    flush(chainId, window);
+                }
+                process(chainId, blockInfo);
+                window.add(blockInfo);
+            }
+        } catch (Exception e) {
+            //轮次信息在解析时已写入，未交给save的区块需要撤销；已交给save的区块由RollbackService按同步记录回滚
+            //Rounds are written while parsing, undo them for the blocks not yet handed to save; blocks already handed to save are rolled back by RollbackService from the sync info
+            for (int i = window.size() - 1; i >= 0; i--) {
+                roundManager.rollback(chainId, window.get(i));
+            }
+            clear(chainId);
+            throw e;
+        }
+        if (!window.isEmpty()) {
+            flush(chainId, window);
+        }
+
+        time2 = System.currentTimeMillis();
+        BlockHeaderInfo lastHeader = blockList.get(blockList.size() - 1).getHeader();
+        LoggerUtil.commonLog.info("-----height finish:" + blockList.get(0).getHeader().getHeight() + "~" + lastHeader.getHeight() + "-----use:" + (time2 - time1) + "-----");
+        return true;
+    }
+
+    private void flush(int chainId, List<BlockInfo> window) {
+        //先清空窗口再写库，写库失败时这些区块不再由syncBlocks撤销轮次
+        //Empty the window before writing, so a failing save never makes syncBlocks undo the rounds of these blocks
+        List<BlockInfo> blockList = new ArrayList<>(window);
+        window.clear();
+        save(chainId, blockList);
+        ApiCache apiCache = CacheManager.getCache(chainId);
+        apiCache.setBestHeader(blockList.get(blockList.size() - 1).getHeader());
+        clear(chainId);
+    }
+
+    private boolean isBarrier(int chainId, BlockInfo blockInfo) {
+        CurrentRound currentRound = CacheManager.getCache(chainId).getCurrentRound();
+        if (currentRound.getItemList() == null || blockInfo.getHeader().getRoundIndex() != currentRound.getIndex()) {
+            return true;
+        }
+        for (TransactionInfo tx : blockInfo.getTxList()) {
+            switch (tx.getType()) {
+                case TxType.REGISTER_AGENT:
+                case TxType.CONTRACT_CREATE_AGENT:
+                case TxType.DEPOSIT:
+                case TxType.CONTRACT_DEPOSIT:
+                case TxType.CANCEL_DEPOSIT:
+                case TxType.CONTRACT_CANCEL_DEPOSIT:
+                case TxType.STOP_AGENT:
+                case TxType.CONTRACT_STOP_AGENT:
+                case TxType.RED_PUNISH:
+                case TxType.REGISTER_CHAIN_AND_ASSET:
+                case TxType.DESTROY_CHAIN_AND_ASSET:
+                case TxType.ADD_ASSET_TO_CHAIN:
+                case TxType.REMOVE_ASSET_FROM_CHAIN:
+                    return true;
+                default:
+            }
+        }
+        return false;
+    }
+
+    private void process(int chainId, BlockInfo blockInfo) {
+        findAddProcessAgentOfBlock(chainId, blockInfo);
+        //处理交易
+        processTxs(chainId, blockInfo.getTxList());
+        //处理轮次
+        roundManager.process(chainId, blockInfo);
+    }
 
     /**
      * 查找当前出块节点并处理相关信息
@@ -981,22 +1062,30 @@ public class SyncService {
      * Store entity in the database after parsing the block and all transactions
      */
     public void save(int chainId, BlockInfo blockInfo) {
-        long height = blockInfo.getHeader().getHeight();
+        save(chainId, Collections.singletonList(blockInfo));
+    }
 
-        long time1, time2;
+    private void save(int chainId, List<BlockInfo> blockList) {
+        List<BlockHeaderInfo> headerList = new ArrayList<>();
+        List<BlockHexInfo> hexInfoList = new ArrayList<>();
+        List<TransactionInfo> txList = new ArrayList<>();
+        for (BlockInfo blockInfo : blockList) {
+            headerList.add(blockInfo.getHeader());
+            hexInfoList.add(blockInfo.getBlockHexInfo());
+            txList.addAll(blockInfo.getTxList());
+        }
 
-        SyncInfo syncInfo = chainService.saveNewSyncInfo(chainId, height, blockInfo.getHeader());
+        SyncInfo syncInfo = chainService.saveNewSyncInfo(chainId, headerList);
 
         //存储区块头信息
-        time1 = System.currentTimeMillis();
-        blockService.saveBLockHeaderInfo(chainId, blockInfo.getHeader());
+        blockService.saveBlockHeaderList(chainId, headerList);
         //存区块序列化完整信息
-        blockService.saveBlockHexInfo(chainId, blockInfo.getBlockHexInfo());
+        blockService.saveBlockHexList(chainId, hexInfoList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveBlockHexInfo, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
         //存储交易记录
-        txService.saveTxList(chainId, blockInfo.getTxList());
+        txService.saveTxList(chainId, txList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveTxList, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
@@ -1168,7 +1257,7 @@ public class SyncService {
 
     private ChainInfo queryChainInfo(int chainId) {
         for (ChainInfo chainInfo : chainInfoList) {
-            if (chainInfo != null) {
+            if (chainInfo != null && chainInfo.getChainId() == chainId) {
                 return chainInfo;
             }
         }
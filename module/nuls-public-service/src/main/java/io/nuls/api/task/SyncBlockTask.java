@@ -11,6 +11,15 @@ import io.nuls.api.utils.LoggerUtil;
 import io.nuls.core.basic.Result;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.Log;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class SyncBlockTask implements Runnable {
 
@@ -20,10 +29,17 @@ public class SyncBlockTask implements Runnable {
 
     private RollbackService rollbackService;
 
+    //追块时并发预取区块的线程池
+    private ThreadPoolExecutor prefetchPool;
+
+    //已提交预取的区块，按高度排序
+    private TreeMap<Long, Future<Result<BlockInfo>>> prefetchMap = new TreeMap<>();
+
     public SyncBlockTask(int chainId) {
         this.chainId = chainId;
         syncService = SpringLiteContext.getBean(SyncService.class);
         rollbackService = SpringLiteContext.getBean(RollbackService.class);
+        prefetchPool = ThreadUtils.createThreadPool(Math.max(1, ApiContext.syncPrefetchThreads), 0, new NulsThreadFactory("sync-prefetch"));
     }
 
     @Override
@@ -38,7 +54,12 @@ public class SyncBlockTask implements Runnable {
         try {
             SyncInfo syncInfo = syncService.getSyncInfo(chainId);
             if (syncInfo != null && !syncInfo.isFinish()) {
-                rollbackService.rollbackBlock(chainId, syncInfo.getBestHeight());
+                //批量写入的区块需要整批回滚
+                long startHeight = syncInfo.getStartHeight();
+                if (startHeight < 0 || startHeight > syncInfo.getBestHeight()) {
+                    startHeight = syncInfo.getBestHeight();
+                }
+                rollbackService.rollbackBlocks(chainId, startHeight, syncInfo.getBestHeight());
             }
         } catch (Exception e) {
             Log.error(e);
@@ -85,6 +106,13 @@ public class SyncBlockTask implements Runnable {
         if (localBestBlockHeader != null) {
             nextHeight = localBestBlockHeader.getHeight() + 1;
         }
+        if (ApiContext.syncBatchSize > 1 && ApiContext.localHeight > nextHeight) {
+            List<BlockInfo> blockList = fetchBlocks(localBestBlockHeader, nextHeight);
+            if (!blockList.isEmpty()) {
+                return syncService.syncBlocks(chainId, blockList);
+            }
+        }
+        prefetchMap.clear();
         Result<BlockInfo> result = WalletRpcHandler.getBlockInfo(chainId, nextHeight);
         if (result.isFailed()) {
             return false;
@@ -102,6 +130,50 @@ public class SyncBlockTask implements Runnable {
         return false;
     }
 
+    /**
+     * 落后节点较多时，并发预取下一批连续区块，同时预读再下一批
+     * Fetch the next batch of consecutive blocks concurrently while far behind the node, reading one more batch ahead
+     * <p>
+     * 取块失败或连续性验证不通过时截断，返回空列表时走逐块同步，由逐块同步处理分叉回滚
+     * The batch is cut at a failed fetch or a continuity break, an empty list falls back to block by block sync which handles fork rollback
+     */
+    private List<BlockInfo> fetchBlocks(BlockHeaderInfo localBestBlockHeader, long nextHeight) throws InterruptedException {
+        long endHeight = Math.min(nextHeight + ApiContext.syncBatchSize - 1, ApiContext.localHeight);
+        long prefetchHeight = Math.min(endHeight + ApiContext.syncBatchSize, ApiContext.localHeight);
+        prefetchMap.headMap(nextHeight).clear();
+        for (long height = nextHeight; height <= prefetchHeight; height++) {
+            if (!prefetchMap.containsKey(height)) {
+                long h = height;
+                prefetchMap.put(height, prefetchPool.submit(() -> WalletRpcHandler.getBlockInfo(chainId, h)));
+            }
+        }
+
+        List<BlockInfo> blockList = new ArrayList<>();
+        BlockHeaderInfo preHeader = localBestBlockHeader;
+        for (long height = nextHeight; height <= endHeight; height++) {
+            Result<BlockInfo> result;
+            try {
+                result = prefetchMap.remove(height).get();
+            } catch (ExecutionException e) {
+                LoggerUtil.commonLog.error(e);
+                break;
+            }
+            if (result.isFailed() || result.getData() == null) {
+                break;
+            }
+            BlockInfo blockInfo = result.getData();
+            if (!checkBlockContinuity(preHeader, blockInfo.getHeader())) {
+                break;
+            }
+            blockList.add(blockInfo);
+            preHeader = blockInfo.getHeader();
+        }
+        if (blockList.size() < endHeight - nextHeight + 1) {
+            prefetchMap.clear();
+        }
+        return blockList;
+    }
+
     /**
      * 区块连续性验证
      * Block continuity verification
@@ -67,6 +67,84 @@ public class ContractConfig implements ModuleConfig {
 
     private String crossTokenSystemContract;
 
+    /**
+     * 并行执行合约交易的线程数，0表示使用默认值（CPU核心数，最大4个）
+     * Threads executing contract transactions in parallel, 0 means the default (CPU cores, at most 4)
+     */
+    private int txExecutorSize;
+
+    /**
+     * 是否修剪合约世界状态中不再被引用的节点
+     * Whether trie nodes no longer referenced by the contract world state are pruned
+     */
+    private boolean statePruneEnabled;
+
+    /**
+     * 保留最近多少个区块的完整合约状态
+     * Number of recent blocks whose full contract state is kept
+     */
+    private int statePruneBlocks;
+
+    /**
+     * 允许回滚的最大区块数，这些区块的状态同样不会被修剪
+     * Maximum rollback depth in blocks, state of these blocks is not pruned either
+     */
+    private int statePruneRollbackDepth;
+
+    /**
+     * 合约状态读缓存大小（MB），0表示使用默认值
+     * Size of the contract state read cache in MB, 0 means the default
+     */
+    private int stateCacheSize;
+
+    public boolean isStatePruneEnabled() {
+        return statePruneEnabled;
+    }
+
+    public void setStatePruneEnabled(boolean statePruneEnabled) {
+        this.statePruneEnabled = statePruneEnabled;
+    }
+
+    public int getStatePruneBlocks() {
+        return statePruneBlocks;
+    }
+
+    public void setStatePruneBlocks(int statePruneBlocks) {
+        this.statePruneBlocks = statePruneBlocks;
+    }
+
+    public int getStatePruneRollbackDepth() {
+        return statePruneRollbackDepth;
+    }
+
+    public void setStatePruneRollbackDepth(int statePruneRollbackDepth) {
+        this.statePruneRollbackDepth = statePruneRollbackDepth;
+    }
+
+    public int getStateCacheSize() {
+        return stateCacheSize;
+    }
+
+    public void setStateCacheSize(int stateCacheSize) {
+        this.stateCacheSize = stateCacheSize;
+    }
+
+    /**
+     * 合约状态修剪深度，未开启修剪时返回-1
+     * Contract state prune depth, -1 when pruning is disabled
+     */
+    public int getStatePruneDepth() {
+        return statePruneEnabled ? statePruneBlocks + statePruneRollbackDepth : -1;
+    }
+
+    public int getTxExecutorSize() {
+        return txExecutorSize;
+    }
+
+    public void setTxExecutorSize(int txExecutorSize) {
+        this.txExecutorSize = txExecutorSize;
+    }
+
     public String getCrossTokenSystemContract() {
         return crossTokenSystemContract;
     }
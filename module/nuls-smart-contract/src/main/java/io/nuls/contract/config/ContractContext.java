@@ -58,4 +58,10 @@ public class ContractContext {
     public static short UPDATE_VERSION_V240 = 4;
 
     public static short UPDATE_VERSION_V250 = 5;
+
+    /**
+     * 并行执行按存储键检测冲突
+     * Key level conflict detection of parallel execution
+     */
+    public static short UPDATE_VERSION_V260 = 6;
 }
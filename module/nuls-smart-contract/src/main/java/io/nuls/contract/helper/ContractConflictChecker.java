@@ -23,10 +23,21 @@
  */
 package io.nuls.contract.helper;
 
+import io.nuls.base.basic.AddressTool;
 import io.nuls.base.data.Transaction;
+import io.nuls.base.protocol.ProtocolGroupManager;
+import io.nuls.contract.config.ContractContext;
 import io.nuls.contract.model.bo.ContractResult;
+import io.nuls.contract.util.ContractUtil;
+import io.nuls.contract.vm.program.ProgramStorageAccess;
+import io.nuls.contract.vm.program.ProgramTransfer;
+import io.nuls.core.crypto.HexUtil;
+import org.ethereum.db.ByteArrayWrapper;
+import org.ethereum.vm.DataWord;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -34,11 +45,29 @@ import static io.nuls.contract.util.ContractUtil.collectAddress;
 
 
 /**
+ * 并行执行的合约冲突检测
+ * <p>
+ * 每个合约容器的commitSet记录已提交交易访问过的状态，元素有三种：
+ * 合约地址 - 整个合约（余额、创建、调用外部命令等无法细分到存储键的访问），
+ * R#地址#存储键 / W#地址#存储键 - 读取/修改过的存储键（协议版本V260起）。
+ * 写与其他容器的读写冲突，读与其他容器的写冲突，整个合约与其他容器对该合约的任何访问冲突。
+ * <p>
+ * Conflict detection of parallel contract execution.
+ * The commitSet of every contract container records the state accessed by its committed transactions:
+ * a contract address locks the whole contract (balance, creation, external cmds and other access that cannot be narrowed to storage keys),
+ * R#address#key / W#address#key are storage keys read / changed (since protocol version V260).
+ * A write conflicts with a read or write of another container, a read conflicts with a write, and a whole contract conflicts with any access to it.
+ *
  * @author: PierreLuo
  * @date: 2019/1/11
  */
 public class ContractConflictChecker {
 
+    private static final String READ_PREFIX = "R#";
+    private static final String WRITE_PREFIX = "W#";
+    private static final String KEY_LEVEL_PREFIX = "K#";
+    private static final String SEPARATOR = "#";
+
     private final ReentrantLock lock = new ReentrantLock();
 
     public static ContractConflictChecker newInstance() {
@@ -55,16 +84,16 @@ public class ContractConflictChecker {
         lock.lock();
         try {
             boolean isConflict = false;
-            Set<String> collectAddress = collectAddress(chainId, contractResult);
-            for (String address : collectAddress) {
-                if (containAddress(address, commitSet)) {
+            Set<String> accessSet = collectAccess(chainId, contractResult);
+            for (String access : accessSet) {
+                if (isConflict(access, commitSet)) {
                     isConflict = true;
                     break;
                 }
             }
             if (!isConflict) {
                 if (contractResult.isSuccess()) {
-                    commitSet.addAll(collectAddress);
+                    commitSet.addAll(accessSet);
                 }
             }
 
@@ -75,14 +104,103 @@ public class ContractConflictChecker {
 
     }
 
-    private boolean containAddress(String address, Set<String> commitSet) {
+    /**
+     * 收集合约执行访问过的状态，无法按存储键区分时退化为合约地址
+     * Collect the state accessed by the execution, falling back to contract addresses when it cannot be narrowed to storage keys
+     */
+    private Set<String> collectAccess(int chainId, ContractResult contractResult) {
+        Set<String> addressSet = collectAddress(chainId, contractResult);
+        ProgramStorageAccess storageAccess = contractResult.getStorageAccess();
+        Short version = ProtocolGroupManager.getCurrentVersion(chainId);
+        if (version == null || version < ContractContext.UPDATE_VERSION_V260 || storageAccess == null || !contractResult.isSuccess()) {
+            return addressSet;
+        }
+        // 调用外部命令、生成内部交易的合约，影响范围超出合约存储
+        List<?> invokeRegisterCmds = contractResult.getInvokeRegisterCmds();
+        List<?> orderedInnerTxs = contractResult.getOrderedInnerTxs();
+        if ((invokeRegisterCmds != null && !invokeRegisterCmds.isEmpty()) || (orderedInnerTxs != null && !orderedInnerTxs.isEmpty())) {
+            return addressSet;
+        }
+        // 余额发生变化或者被读取的合约，锁定整个合约
+        Set<String> accessSet = new HashSet<>();
+        for (ProgramTransfer transfer : contractResult.getTransfers()) {
+            addWholeContract(chainId, transfer.getFrom(), accessSet);
+            addWholeContract(chainId, transfer.getTo(), accessSet);
+        }
+        if (contractResult.getAccounts() != null) {
+            for (ByteArrayWrapper address : contractResult.getAccounts().keySet()) {
+                addWholeContract(chainId, address.getData(), accessSet);
+            }
+        }
+        if (contractResult.getValue() > 0) {
+            addWholeContract(chainId, contractResult.getContractAddress(), accessSet);
+        }
+        // 没有存储访问记录的合约，锁定整个合约
+        for (String address : addressSet) {
+            if (!storageAccess.contains(AddressTool.getAddress(address))) {
+                accessSet.add(address);
+            }
+        }
+        for (ByteArrayWrapper wrapper : storageAccess.getAddresses()) {
+            String address = AddressTool.getStringAddressByBytes(wrapper.getData());
+            if (!accessSet.contains(address)) {
+                accessSet.add(KEY_LEVEL_PREFIX + address);
+            }
+        }
+        addKeys(READ_PREFIX, storageAccess.getReads(), accessSet);
+        addKeys(WRITE_PREFIX, storageAccess.getWrites(), accessSet);
+        return accessSet;
+    }
+
+    private void addWholeContract(int chainId, byte[] address, Set<String> accessSet) {
+        if (ContractUtil.isLegalContractAddress(chainId, address)) {
+            accessSet.add(AddressTool.getStringAddressByBytes(address));
+        }
+    }
+
+    private void addKeys(String prefix, Map<ByteArrayWrapper, Set<DataWord>> keyMap, Set<String> accessSet) {
+        for (Map.Entry<ByteArrayWrapper, Set<DataWord>> entry : keyMap.entrySet()) {
+            String address = AddressTool.getStringAddressByBytes(entry.getKey().getData());
+            // 已锁定整个合约的，不需要再记录存储键
+            if (accessSet.contains(address)) {
+                continue;
+            }
+            for (DataWord key : entry.getValue()) {
+                accessSet.add(prefix + address + SEPARATOR + HexUtil.encode(key.getData()));
+            }
+        }
+    }
+
+    private boolean isConflict(String access, Set<String> commitSet) {
+        if (access.startsWith(KEY_LEVEL_PREFIX)) {
+            // 存储键级别的标记，只与锁定整个合约的访问冲突，已在存储键的检测中覆盖
+            return false;
+        }
+        if (access.startsWith(READ_PREFIX)) {
+            String key = access.substring(READ_PREFIX.length());
+            return containAccess(commitSet, addressOf(key), WRITE_PREFIX + key);
+        }
+        if (access.startsWith(WRITE_PREFIX)) {
+            String key = access.substring(WRITE_PREFIX.length());
+            return containAccess(commitSet, addressOf(key), WRITE_PREFIX + key, READ_PREFIX + key);
+        }
+        return containAccess(commitSet, access, KEY_LEVEL_PREFIX + access);
+    }
+
+    private String addressOf(String key) {
+        return key.substring(0, key.indexOf(SEPARATOR));
+    }
+
+    private boolean containAccess(Set<String> commitSet, String... accesses) {
         for (Set<String> set : contractSetList) {
             // 排除掉自己线程执行的智能合约，因为自己线程执行的合约是排队顺序执行，不会冲突
             if (set == commitSet) {
                 continue;
             }
-            if (set.contains(address)) {
-                return true;
+            for (String access : accesses) {
+                if (set.contains(access)) {
+                    return true;
+                }
             }
         }
         return false;
@@ -115,7 +115,8 @@ public class ChainManager {
     }
 
     private void initContractExecutor(Chain chain) {
-        ProgramExecutor programExecutor = new ProgramExecutorImpl(vmContext, chain);
+        ProgramExecutor programExecutor = new ProgramExecutorImpl(vmContext, chain,
+                contractConfig.getStatePruneDepth(), contractConfig.getStateCacheSize());
         chain.setProgramExecutor(programExecutor);
     }
 
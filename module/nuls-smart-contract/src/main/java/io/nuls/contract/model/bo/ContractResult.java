@@ -31,6 +31,7 @@ import io.nuls.contract.model.tx.ContractTransferTransaction;
 import io.nuls.contract.model.txdata.ContractData;
 import io.nuls.contract.vm.program.ProgramAccount;
 import io.nuls.contract.vm.program.ProgramInvokeRegisterCmd;
+import io.nuls.contract.vm.program.ProgramStorageAccess;
 import io.nuls.contract.vm.program.ProgramTransfer;
 import org.ethereum.db.ByteArrayWrapper;
 
@@ -102,6 +103,7 @@ public class ContractResult {
     private transient Object txTrack;
     private transient Map<ByteArrayWrapper, ProgramAccount> accounts;
     private transient List<Object> orderedInnerTxs = new ArrayList<>();
+    private transient ProgramStorageAccess storageAccess;
 
     public Map<ByteArrayWrapper, ProgramAccount> getAccounts() {
         return accounts;
@@ -111,6 +113,15 @@ public class ContractResult {
         this.accounts = accounts;
     }
 
+    @JsonIgnore
+    public ProgramStorageAccess getStorageAccess() {
+        return storageAccess;
+    }
+
+    public void setStorageAccess(ProgramStorageAccess storageAccess) {
+        this.storageAccess = storageAccess;
+    }
+
     public boolean isSuccess() {
         return !error && !revert;
     }
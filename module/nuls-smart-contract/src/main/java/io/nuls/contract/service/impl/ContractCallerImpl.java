@@ -27,6 +27,7 @@ import io.nuls.base.basic.AddressTool;
 import io.nuls.base.data.BlockHeader;
 import io.nuls.contract.callable.ContractBatchEndCallable;
 import io.nuls.contract.callable.ContractTxCallable;
+import io.nuls.contract.config.ContractConfig;
 import io.nuls.contract.helper.ContractConflictChecker;
 import io.nuls.contract.helper.ContractHelper;
 import io.nuls.contract.helper.ContractNewTxHandler;
@@ -38,9 +39,11 @@ import io.nuls.contract.service.ContractCaller;
 import io.nuls.contract.service.ContractExecutor;
 import io.nuls.contract.util.Log;
 import io.nuls.contract.vm.program.ProgramExecutor;
+import io.nuls.core.basic.InitializingBean;
 import io.nuls.core.basic.Result;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.exception.NulsException;
 import io.nuls.core.thread.commom.NulsThreadFactory;
 
 import java.util.ArrayList;
@@ -56,25 +59,9 @@ import static io.nuls.core.constant.TxType.CALL_CONTRACT;
  * @date: 2018/11/19
  */
 @Component
-public class ContractCallerImpl implements ContractCaller {
-
-    private static ExecutorService TX_EXECUTOR_SERVICE;
-    static {
-        int availableProcessors = Runtime.getRuntime().availableProcessors();
-        int threadCount = 4;
-        // 线程数最大4个，线程核心小于4时，使用线程核心数
-        if(availableProcessors < threadCount) {
-            threadCount = availableProcessors;
-        }
-        TX_EXECUTOR_SERVICE =
-                new ThreadPoolExecutor(
-                        threadCount,
-                        threadCount,
-                        10L,
-                        TimeUnit.SECONDS,
-                        new LinkedBlockingQueue<Runnable>(),
-                        new NulsThreadFactory("contract-tx-executor-pool"));
-    }
+public class ContractCallerImpl implements ContractCaller, InitializingBean {
+
+    private ExecutorService txExecutorService;
     private static final ExecutorService BATCH_END_SERVICE = Executors.newSingleThreadExecutor(new NulsThreadFactory("contract-batch-end-pool"));
 
     @Autowired
@@ -86,6 +73,30 @@ public class ContractCallerImpl implements ContractCaller {
     @Autowired
     private ContractNewTxHandler contractNewTxHandler;
 
+    @Autowired
+    private ContractConfig contractConfig;
+
+    @Override
+    public void afterPropertiesSet() throws NulsException {
+        int threadCount = contractConfig.getTxExecutorSize();
+        if (threadCount <= 0) {
+            int availableProcessors = Runtime.getRuntime().availableProcessors();
+            threadCount = 4;
+            // 未配置时线程数最大4个，线程核心小于4时，使用线程核心数
+            if (availableProcessors < threadCount) {
+                threadCount = availableProcessors;
+            }
+        }
+        txExecutorService =
+                new ThreadPoolExecutor(
+                        threadCount,
+                        threadCount,
+                        10L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new NulsThreadFactory("contract-tx-executor-pool"));
+    }
+
     @Override
     public Result callTx(int chainId, ContractContainer container, ProgramExecutor batchExecutor, ContractWrapperTransaction tx, String preStateRoot) {
         try {
@@ -104,7 +115,7 @@ public class ContractCallerImpl implements ContractCaller {
             //    Log.debug("Latest block header height is {}", latestBlockHeader.getHeight());
             //}
             ContractTxCallable txCallable = new ContractTxCallable(chainId, blockType, blockTime, batchExecutor, contract, tx, lastestHeight, preStateRoot, checker, container);
-            Future<ContractResult> contractResultFuture = TX_EXECUTOR_SERVICE.submit(txCallable);
+            Future<ContractResult> contractResultFuture = txExecutorService.submit(txCallable);
             String hash = tx.getHash().toHex();
             batchInfo.getContractMap().put(hash, contractResultFuture);
             if(Log.isDebugEnabled()) {
@@ -154,6 +154,7 @@ public class ContractExecutorImpl implements ContractExecutor {
         contractResult.setOrderedInnerTxs(programResult.getOrderedInnerTxs());
         contractResult.setContractAddressInnerCallSet(contractTxHelper.generateInnerCallSet(programResult.getInternalCalls()));
         contractResult.setAccounts(programResult.getAccounts());
+        contractResult.setStorageAccess(programResult.getStorageAccess());
 
         return contractResult;
     }
@@ -24,6 +24,7 @@
  */
 package io.nuls.contract.vm;
 
+import io.nuls.contract.vm.code.InsnStream;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.code.VariableType;
 import io.nuls.contract.vm.instructions.references.Athrow;
@@ -49,6 +50,14 @@ public class Frame {
 
     public final Result result;
 
+    private final InsnStream insnStream;
+
+    /**
+     * 当前指令在指令流中的位置
+     * Position of the current instruction in the instruction stream
+     */
+    private int index;
+
     private AbstractInsnNode currentInsnNode;
 
     private OpCode currentOpCode;
@@ -65,32 +74,46 @@ public class Frame {
         this.operandStack = new OperandStack(this.maxStack);
         this.localVariables = new LocalVariables(this.maxLocals, args);
         this.result = new Result(this.methodCode.returnVariableType);
-        this.currentInsnNode = this.methodCode.instructions.getFirst();
+        this.insnStream = this.methodCode.getInsnStream();
+        moveTo(this.insnStream.first());
+    }
+
+    private void moveTo(int index) {
+        this.index = index;
+        this.currentInsnNode = this.insnStream.node(index);
     }
 
     public void step() {
         if (this.currentInsnNode != null) {
-            this.currentInsnNode = this.currentInsnNode.getNext();
+            moveTo(this.insnStream.next(this.index));
         }
     }
 
     public void jump() {
-        this.currentInsnNode = jumpInsnNode().label;
+        moveTo(this.insnStream.jump(this.index));
     }
 
     public void jump(LabelNode label) {
-        this.currentInsnNode = label;
+        moveTo(this.insnStream.indexOf(label));
     }
 
     public OpCode currentOpCode() {
-        if (this.currentInsnNode != null) {
-            this.currentOpCode = OpCode.valueOf(this.currentInsnNode.getOpcode());
-        } else {
-            this.currentOpCode = null;
-        }
+        this.currentOpCode = this.insnStream.opCode(this.index);
         return this.currentOpCode;
     }
 
+    /**
+     * 当前方法调用指令预解析的方法引用
+     * Pre-resolved method reference of the current invoke instruction
+     */
+    public InsnStream.MethodRef methodRef() {
+        return this.insnStream.methodRef(this.index);
+    }
+
+    public InsnStream.FieldRef fieldRef() {
+        return this.insnStream.fieldRef(this.index);
+    }
+
     public int getLine(LabelNode labelNode) {
         AbstractInsnNode abstractInsnNode = labelNode;
         while (!(abstractInsnNode instanceof LineNumberNode)) {
@@ -28,7 +28,7 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import io.nuls.contract.util.Log;
 import io.nuls.contract.vm.code.ClassCode;
-import io.nuls.contract.vm.code.FieldCode;
+import io.nuls.contract.vm.code.FieldLayout;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.code.VariableType;
 import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
@@ -183,6 +183,12 @@ public class Heap {
         }
         byte[] value = dataWord.getNoLeadZeroesData();
         Map<String, Object> map = (Map<String, Object>) JsonUtils.decode(new String(value), classNames);
+        if (!objectRef.isArray() && this.vm != null) {
+            FieldLayout fieldLayout = this.vm.methodArea.fieldLayout(objectRef.getVariableType().getType());
+            if (fieldLayout != null) {
+                map = ObjectFields.valueOf(fieldLayout, map);
+            }
+        }
         return map;
     }
 
@@ -190,11 +196,37 @@ public class Heap {
         return getFields(objectRef).get(fieldName);
     }
 
+    /**
+     * 按预解析的字段位置读取字段，对象不是按位置存储时按字段名查找
+     * Read a field through its pre-resolved slot, falls back to the name when the object is not stored by slot
+     */
+    public Object getField(ObjectRef objectRef, String fieldName, int slot) {
+        Map<String, Object> fields = getFields(objectRef);
+        if (fields instanceof ObjectFields) {
+            return ((ObjectFields) fields).get(slot, fieldName);
+        }
+        return fields.get(fieldName);
+    }
+
     public void putField(ObjectRef objectRef, String fieldName, Object value) {
         putFields(objectRef).put(fieldName, value);
         change(objectRef);
     }
 
+    /**
+     * 按预解析的字段位置写入字段，对象不是按位置存储时按字段名写入
+     * Write a field through its pre-resolved slot, falls back to the name when the object is not stored by slot
+     */
+    public void putField(ObjectRef objectRef, String fieldName, int slot, Object value) {
+        Map<String, Object> fields = putFields(objectRef);
+        if (fields instanceof ObjectFields) {
+            ((ObjectFields) fields).put(slot, fieldName, value);
+        } else {
+            fields.put(fieldName, value);
+        }
+        change(objectRef);
+    }
+
     public Object getStatic(String className, String fieldName) {
         ObjectRef objectRef = getStaticObjectRef(className);
         return getField(objectRef, fieldName);
@@ -697,15 +729,14 @@ public class Heap {
     }
 
     private void initFields(ClassCode classCode, ObjectRef objectRef) {
-        if (StringUtils.isNotBlank(classCode.superName)) {
-            ClassCode superClassCode = this.vm.methodArea.loadClass(classCode.superName);
-            initFields(superClassCode, objectRef);
-        }
-        for (FieldCode fieldCode : classCode.fields.values()) {
-            if (!fieldCode.isStatic) {
-                putField(objectRef, fieldCode.name, fieldCode.variableType.getDefaultValue());
-            }
+        // 创建对象时依次加载父类（执行父类的静态初始化）
+        String superName = classCode.superName;
+        while (StringUtils.isNotBlank(superName)) {
+            superName = this.vm.methodArea.loadClass(superName).superName;
         }
+        FieldLayout fieldLayout = this.vm.methodArea.fieldLayout(classCode);
+        objects.put(objectRef, new ObjectFields(fieldLayout));
+        change(objectRef);
     }
 
     private void checkArray(Object array, int index) {
@@ -28,9 +28,7 @@ import io.nuls.contract.vm.code.*;
 import io.nuls.contract.vm.util.Constants;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 
 public class MethodArea {
 
@@ -65,6 +63,14 @@ public class MethodArea {
         } else {
             fullName = className + "." + methodName;
         }
+        return loadMethod(fullName, className, methodName, methodDesc);
+    }
+
+    /**
+     * 使用预先拼接好的方法全名加载方法
+     * Load a method with its pre-built full name
+     */
+    public MethodCode loadMethod(String fullName, String className, String methodName, String methodDesc) {
         MethodCode methodCode = INIT_METHOD_CODES.get(fullName);
         if (methodCode != null) {
             return methodCode;
@@ -147,6 +153,61 @@ public class MethodArea {
         }
     }
 
+    /**
+     * 获取类的实例字段布局，解析时不加载类、不执行静态初始化
+     * Instance field layout of the class, resolving it neither loads classes nor runs static initialisation
+     */
+    public FieldLayout fieldLayout(ClassCode classCode) {
+        FieldLayout fieldLayout = classCode.getFieldLayout();
+        if (fieldLayout == null) {
+            List<FieldCode> fieldCodes = new ArrayList<>();
+            if (!instanceFields(classCode, fieldCodes)) {
+                return null;
+            }
+            fieldLayout = new FieldLayout(fieldCodes);
+            classCode.setFieldLayout(fieldLayout);
+        }
+        return fieldLayout;
+    }
+
+    /**
+     * 已加载的类的实例字段布局，类不存在时返回null
+     * Instance field layout of a loaded class, null when the class is not found
+     */
+    public FieldLayout fieldLayout(String className) {
+        ClassCode classCode = findClass(className);
+        return classCode == null ? null : fieldLayout(classCode);
+    }
+
+    private boolean instanceFields(ClassCode classCode, List<FieldCode> fieldCodes) {
+        if (StringUtils.isNotBlank(classCode.superName)) {
+            ClassCode superClassCode = findClass(classCode.superName);
+            if (superClassCode == null || !instanceFields(superClassCode, fieldCodes)) {
+                return false;
+            }
+        }
+        for (FieldCode fieldCode : classCode.fields.values()) {
+            if (!fieldCode.isStatic) {
+                fieldCodes.add(fieldCode);
+            }
+        }
+        return true;
+    }
+
+    private ClassCode findClass(String className) {
+        ClassCode classCode = INIT_CLASS_CODES.get(className);
+        if (classCode == null) {
+            classCode = this.classCodes.get(className);
+        }
+        if (classCode == null) {
+            classCode = ClassCodeLoader.getFromResource(className);
+        }
+        if (classCode == null) {
+            classCode = this.loadClassCodes.get(className);
+        }
+        return classCode;
+    }
+
     private void clinit(ClassCode classCode) {
         for (FieldCode fieldCode : classCode.fields.values()) {
             if (fieldCode.isStatic && !fieldCode.isFinal) {
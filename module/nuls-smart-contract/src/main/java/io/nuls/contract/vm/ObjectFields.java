@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm;
+
+import io.nuls.contract.vm.code.FieldLayout;
+import io.nuls.contract.vm.util.CloneUtils;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static io.nuls.contract.vm.util.Utils.hashMapInitialCapacity;
+
+/**
+ * 按类的字段布局存放对象字段，值按位置存放在数组中，Getfield/Putfield通过预解析的字段位置直接读写
+ * 行为与按插入顺序的LinkedHashMap完全一致（包括遍历顺序，保证持久化的状态格式不变），
+ * 字段按布局顺序写入时使用位置存储，出现其他写入顺序或者删除时转为LinkedHashMap
+ * <p>
+ * Object fields stored by the field layout of the class, values are kept by slot in an array and
+ * Getfield/Putfield read and write them through the pre-resolved slot of the field.
+ * Behaves exactly like an insertion ordered LinkedHashMap (iteration order included, so the persisted state format is unchanged):
+ * slots are used while fields are written in layout order, any other insertion order or a removal switches to a LinkedHashMap.
+ */
+public class ObjectFields extends AbstractMap<String, Object> {
+
+    private final FieldLayout layout;
+
+    private Object[] values;
+
+    private int size;
+
+    private Map<String, Object> map;
+
+    private ObjectFields(FieldLayout layout, int capacity) {
+        this.layout = layout;
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * 以字段默认值创建
+     * Create with the default values of the fields
+     */
+    public ObjectFields(FieldLayout layout) {
+        this(layout, layout.size());
+        for (int i = 0; i < values.length; i++) {
+            values[i] = layout.getDefault(i);
+        }
+        this.size = values.length;
+    }
+
+    /**
+     * 字段顺序与布局一致时转为按位置存储，否则返回原Map
+     * Convert to slot storage when the fields follow the layout order, otherwise return the map itself
+     */
+    public static Map<String, Object> valueOf(FieldLayout layout, Map<String, Object> fields) {
+        if (fields.size() > layout.size()) {
+            return fields;
+        }
+        int i = 0;
+        for (String name : fields.keySet()) {
+            if (layout.indexOf(name) != i++) {
+                return fields;
+            }
+        }
+        ObjectFields objectFields = new ObjectFields(layout, layout.size());
+        fields.forEach(objectFields::put);
+        return objectFields;
+    }
+
+    /**
+     * 位置上存放的是该字段时直接读取，否则按字段名查找
+     * Read the slot directly when it holds the field, otherwise look the field up by name
+     *
+     * @param slot 字段在声明类布局中的位置 / Slot of the field in the layout of its declaring class
+     * @param name 字段名 / Field name
+     */
+    public Object get(int slot, String name) {
+        if (map == null && isSlotOf(slot, name)) {
+            return values[slot];
+        }
+        return get(name);
+    }
+
+    /**
+     * 位置上存放的是该字段时直接写入，否则按字段名写入
+     * Write the slot directly when it holds the field, otherwise put the field by name
+     *
+     * @param slot  字段在声明类布局中的位置 / Slot of the field in the layout of its declaring class
+     * @param name  字段名 / Field name
+     * @param value 值 / Value
+     */
+    public void put(int slot, String name, Object value) {
+        if (map == null && isSlotOf(slot, name)) {
+            values[slot] = value;
+        } else {
+            put(name, value);
+        }
+    }
+
+    /**
+     * 子类布局以父类布局为前缀，所以声明类中的位置在对象的实际类中同样有效，这里仍然校验字段名
+     * A subclass layout starts with the layout of its super class, so the slot of the declaring class is valid
+     * for the actual class of the object as well, the name is still checked here
+     */
+    private boolean isSlotOf(int slot, String name) {
+        if (slot < 0 || slot >= size) {
+            return false;
+        }
+        String slotName = layout.getName(slot);
+        return slotName == name || slotName.equals(name);
+    }
+
+    private Map<String, Object> toMap() {
+        if (map == null) {
+            Map<String, Object> linkedMap = new LinkedHashMap<>(hashMapInitialCapacity(size));
+            for (int i = 0; i < size; i++) {
+                linkedMap.put(layout.getName(i), values[i]);
+            }
+            map = linkedMap;
+            values = null;
+        }
+        return map;
+    }
+
+    private int slot(Object key) {
+        int index = layout.indexOf(key);
+        return index < size ? index : -1;
+    }
+
+    @Override
+    public int size() {
+        return map != null ? map.size() : size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map != null ? map.containsKey(key) : slot(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (map != null) {
+            return map.get(key);
+        }
+        int index = slot(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (map == null) {
+            int index = layout.indexOf(key);
+            if (index >= 0 && index < size) {
+                Object old = values[index];
+                values[index] = value;
+                return old;
+            }
+            if (index >= 0 && index == size) {
+                values[index] = value;
+                size++;
+                return null;
+            }
+        }
+        return toMap().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (map == null && slot(key) < 0) {
+            return null;
+        }
+        return toMap().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        toMap().clear();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        if (map != null) {
+            map.forEach(action);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            action.accept(layout.getName(i), values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (map != null) {
+            return map.entrySet();
+        }
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < size && map == null;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        String name = layout.getName(index);
+                        return new SimpleEntry<String, Object>(name, values[index++]) {
+                            @Override
+                            public Object setValue(Object value) {
+                                super.setValue(value);
+                                return put(name, value);
+                            }
+                        };
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ObjectFields.this.size();
+            }
+        };
+    }
+
+    /**
+     * 复制字段，数组值同时复制
+     * Copy the fields, array values are copied as well
+     */
+    public Map<String, Object> copy() {
+        if (map != null) {
+            return CloneUtils.clone(map);
+        }
+        ObjectFields copy = new ObjectFields(layout, values.length);
+        for (int i = 0; i < size; i++) {
+            copy.values[i] = CloneUtils.cloneObject(values[i]);
+        }
+        copy.size = size;
+        return copy;
+    }
+
+}
@@ -179,6 +179,12 @@ public class ClassCode {
 
     public final String simpleName;
 
+    /**
+     * 实例字段布局，首次创建对象时解析
+     * Instance field layout, resolved on first object creation
+     */
+    private volatile FieldLayout fieldLayout;
+
     public ClassCode(ClassNode classNode) {
         version = classNode.version;
         access = classNode.access;
@@ -250,6 +256,14 @@ public class ClassCode {
         }
     }
 
+    public FieldLayout getFieldLayout() {
+        return fieldLayout;
+    }
+
+    public void setFieldLayout(FieldLayout fieldLayout) {
+        this.fieldLayout = fieldLayout;
+    }
+
     public boolean isSyntheticField(String fieldName) {
         FieldCode fieldCode = fields.get(fieldName);
         return fieldCode != null && fieldCode.isSynthetic;
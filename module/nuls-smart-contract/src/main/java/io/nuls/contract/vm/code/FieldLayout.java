@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.code;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.nuls.contract.vm.util.Utils.hashMapInitialCapacity;
+
+/**
+ * 类的实例字段布局，每个ClassCode只解析一次
+ * 字段顺序与创建对象时初始化字段的顺序一致：先父类后子类，同名字段保留先出现的位置，默认值取后出现的字段
+ * <p>
+ * Instance field layout of a class, resolved once per ClassCode.
+ * The order matches field initialisation on object creation: super class first, a shadowed name keeps
+ * its first position and takes the default value of the last declaration.
+ */
+public class FieldLayout {
+
+    private final String[] names;
+
+    private final Object[] defaults;
+
+    private final Map<String, Integer> indexes;
+
+    public FieldLayout(List<FieldCode> fieldCodes) {
+        Map<String, Integer> indexes = new HashMap<>(hashMapInitialCapacity(fieldCodes.size()));
+        for (FieldCode fieldCode : fieldCodes) {
+            indexes.putIfAbsent(fieldCode.name, indexes.size());
+        }
+        int size = indexes.size();
+        this.names = new String[size];
+        this.defaults = new Object[size];
+        for (FieldCode fieldCode : fieldCodes) {
+            int index = indexes.get(fieldCode.name);
+            this.names[index] = fieldCode.name;
+            this.defaults[index] = fieldCode.variableType.getDefaultValue();
+        }
+        this.indexes = indexes;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return 字段的位置，不存在时返回-1 / Slot of the field, -1 when absent
+     */
+    public int indexOf(Object name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public Object getDefault(int index) {
+        return defaults[index];
+    }
+
+}
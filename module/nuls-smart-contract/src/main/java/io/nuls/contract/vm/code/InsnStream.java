@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.code;
+
+import io.nuls.contract.vm.MethodArea;
+import io.nuls.contract.vm.OpCode;
+import org.objectweb.asm.tree.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.nuls.contract.vm.util.Utils.hashMapInitialCapacity;
+
+/**
+ * 预解码的方法指令流，每个MethodCode只解码一次，随ClassCode一起缓存
+ * 指令按数组下标寻址：操作码、跳转目标、下一条可执行指令、方法引用以及字段引用都预先解析，
+ * 解释器不再遍历指令链表、重复查找操作码、拼接方法全名和按字段名查找字段
+ * <p>
+ * Pre-decoded instruction stream of a method, decoded once per MethodCode and cached along with the ClassCode.
+ * Instructions are addressed by index: opcodes, jump targets, the next executable instruction, method and field references
+ * are resolved up front, so the interpreter no longer walks the node list, looks up opcodes, builds method names or looks fields up by name.
+ * <p>
+ * 标签、行号、栈帧节点仍保留在数组中（跳转目标与行号查找依赖它们），但顺序执行时会被跳过，它们本身不计gas
+ * Label, line number and frame nodes stay in the array (jump targets and line lookups rely on them)
+ * but are skipped on sequential execution, they never cost gas.
+ */
+public class InsnStream {
+
+    private final AbstractInsnNode[] nodes;
+
+    private final OpCode[] opCodes;
+
+    /**
+     * 顺序执行时的下一条可执行指令
+     * Next executable instruction on sequential execution
+     */
+    private final int[] next;
+
+    /**
+     * JumpInsnNode的跳转目标（标签的位置），其他指令为-1
+     * Jump target (position of the label) of a JumpInsnNode, -1 for other instructions
+     */
+    private final int[] jumps;
+
+    private final MethodRef[] methodRefs;
+
+    private final FieldRef[] fieldRefs;
+
+    private final Map<LabelNode, Integer> labels;
+
+    private final int first;
+
+    public InsnStream(InsnList instructions) {
+        int length = instructions.size();
+        this.nodes = instructions.toArray();
+        this.opCodes = new OpCode[length];
+        this.next = new int[length];
+        this.jumps = new int[length];
+        this.methodRefs = new MethodRef[length];
+        this.fieldRefs = new FieldRef[length];
+        Map<LabelNode, Integer> labels = new HashMap<>(hashMapInitialCapacity(length));
+        for (int i = 0; i < length; i++) {
+            AbstractInsnNode node = nodes[i];
+            opCodes[i] = OpCode.valueOf(node.getOpcode());
+            if (node instanceof LabelNode) {
+                labels.put((LabelNode) node, i);
+            } else if (node instanceof MethodInsnNode) {
+                methodRefs[i] = new MethodRef((MethodInsnNode) node);
+            } else if (node instanceof FieldInsnNode) {
+                fieldRefs[i] = new FieldRef((FieldInsnNode) node);
+            }
+        }
+        int following = length;
+        for (int i = length - 1; i >= 0; i--) {
+            next[i] = following;
+            if (nodes[i].getOpcode() >= 0) {
+                following = i;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            AbstractInsnNode node = nodes[i];
+            jumps[i] = node instanceof JumpInsnNode ? labels.get(((JumpInsnNode) node).label) : -1;
+        }
+        this.first = following;
+        this.labels = labels;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * 第一条可执行指令
+     * The first executable instruction
+     */
+    public int first() {
+        return first;
+    }
+
+    public int next(int index) {
+        return next[index];
+    }
+
+    public int jump(int index) {
+        return jumps[index];
+    }
+
+    public int indexOf(LabelNode labelNode) {
+        return labels.get(labelNode);
+    }
+
+    public AbstractInsnNode node(int index) {
+        return index < nodes.length ? nodes[index] : null;
+    }
+
+    public OpCode opCode(int index) {
+        return index < opCodes.length ? opCodes[index] : null;
+    }
+
+    public MethodRef methodRef(int index) {
+        return methodRefs[index];
+    }
+
+    public FieldRef fieldRef(int index) {
+        return fieldRefs[index];
+    }
+
+    /**
+     * 预解析的方法引用
+     * Pre-resolved method reference
+     */
+    public static class MethodRef {
+
+        public final String owner;
+
+        public final String name;
+
+        public final String desc;
+
+        /**
+         * owner + "." + name + desc，与MethodArea中的方法缓存键一致
+         * owner + "." + name + desc, the key of the method cache in MethodArea
+         */
+        public final String fullName;
+
+        public final List<VariableType> argsVariableType;
+
+        public MethodRef(MethodInsnNode methodInsnNode) {
+            this.owner = methodInsnNode.owner;
+            this.name = methodInsnNode.name;
+            this.desc = methodInsnNode.desc;
+            this.fullName = owner + "." + name + desc;
+            this.argsVariableType = VariableType.parseArgs(desc);
+        }
+
+    }
+
+    /**
+     * 预解析的字段引用，字段在owner类布局中的位置在第一次执行时解析
+     * Pre-resolved field reference, the slot of the field in the layout of the owner class is resolved on first execution
+     */
+    public static class FieldRef {
+
+        private static final int UNRESOLVED = -2;
+
+        public final String owner;
+
+        public final String name;
+
+        public final String desc;
+
+        public final boolean isLong;
+
+        public final boolean isDouble;
+
+        /**
+         * 解析结果只取决于类代码，多个线程重复解析得到相同的值
+         * The result only depends on the class code, threads resolving it concurrently store the same value
+         */
+        private int slot = UNRESOLVED;
+
+        public FieldRef(FieldInsnNode fieldInsnNode) {
+            this.owner = fieldInsnNode.owner;
+            this.name = fieldInsnNode.name;
+            this.desc = fieldInsnNode.desc;
+            this.isLong = Descriptors.LONG_DESC.equals(desc);
+            this.isDouble = Descriptors.DOUBLE_DESC.equals(desc);
+        }
+
+        /**
+         * @return 字段在owner类布局中的位置，没有布局时返回-1 / Slot of the field in the layout of the owner class, -1 without a layout
+         */
+        public int slot(MethodArea methodArea) {
+            int slot = this.slot;
+            if (slot == UNRESOLVED) {
+                FieldLayout fieldLayout = methodArea.fieldLayout(owner);
+                slot = fieldLayout == null ? -1 : fieldLayout.indexOf(name);
+                this.slot = slot;
+            }
+            return slot;
+        }
+
+    }
+
+}
@@ -216,6 +216,12 @@ public class MethodCode {
 
     public final String normalDesc;
 
+    /**
+     * 预解码的指令流，首次执行时解码
+     * Pre-decoded instruction stream, decoded on first execution
+     */
+    private volatile InsnStream insnStream;
+
     public MethodCode(ClassCode classCode, MethodNode methodNode) {
         access = methodNode.access;
         name = methodNode.name;
@@ -313,6 +319,15 @@ public class MethodCode {
 //        }
     }
 
+    public InsnStream getInsnStream() {
+        InsnStream insnStream = this.insnStream;
+        if (insnStream == null) {
+            insnStream = new InsnStream(instructions);
+            this.insnStream = insnStream;
+        }
+        return insnStream;
+    }
+
     public boolean hasViewAnnotation() {
         return hasAnnotation(VIEW_ANNOTATION_DESC);
     }
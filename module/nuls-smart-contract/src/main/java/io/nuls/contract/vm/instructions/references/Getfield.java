@@ -26,21 +26,20 @@ package io.nuls.contract.vm.instructions.references;
 
 import io.nuls.contract.vm.Frame;
 import io.nuls.contract.vm.ObjectRef;
-import io.nuls.contract.vm.code.Descriptors;
-import org.objectweb.asm.tree.FieldInsnNode;
+import io.nuls.contract.vm.code.InsnStream;
 
 public class Getfield {
 
     public static void getfield(Frame frame) {
-        FieldInsnNode fieldInsnNode = frame.fieldInsnNode();
-        String fieldName = fieldInsnNode.name;
-        String fieldDesc = fieldInsnNode.desc;
+        InsnStream.FieldRef fieldRef = frame.fieldRef();
+        String fieldName = fieldRef.name;
+        String fieldDesc = fieldRef.desc;
         ObjectRef objectRef = frame.operandStack.popRef();
         if (objectRef == null) {
             frame.throwNullPointerException();
             return;
         }
-        Object value = frame.heap.getField(objectRef, fieldName);
+        Object value = frame.heap.getField(objectRef, fieldName, fieldRef.slot(frame.methodArea));
         //if(value instanceof ObjectRef) {
         //    try {
         //        ObjectRef objectRef1 = (ObjectRef) value;
@@ -69,9 +68,9 @@ public class Getfield {
         //        }
         //    } catch (Exception e) {}
         //}
-        if (Descriptors.LONG_DESC.equals(fieldDesc)) {
+        if (fieldRef.isLong) {
             frame.operandStack.pushLong((long) value);
-        } else if (Descriptors.DOUBLE_DESC.equals(fieldDesc)) {
+        } else if (fieldRef.isDouble) {
             frame.operandStack.pushDouble((double) value);
         } else {
             frame.operandStack.push(value);
@@ -27,21 +27,21 @@ package io.nuls.contract.vm.instructions.references;
 import io.nuls.contract.vm.Frame;
 import io.nuls.contract.vm.MethodArgs;
 import io.nuls.contract.vm.ObjectRef;
+import io.nuls.contract.vm.code.InsnStream.MethodRef;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.code.VariableType;
-import org.objectweb.asm.tree.MethodInsnNode;
 
 import java.util.List;
 
 public class Invokeinterface {
 
     public static void invokeinterface(Frame frame) {
-        MethodInsnNode methodInsnNode = frame.methodInsnNode();
-        String interfaceName = methodInsnNode.owner;
-        String interfaceMethodName = methodInsnNode.name;
-        String interfaceMethodDesc = methodInsnNode.desc;
+        MethodRef methodRef = frame.methodRef();
+        String interfaceName = methodRef.owner;
+        String interfaceMethodName = methodRef.name;
+        String interfaceMethodDesc = methodRef.desc;
 
-        List<VariableType> variableTypes = VariableType.parseArgs(interfaceMethodDesc);
+        List<VariableType> variableTypes = methodRef.argsVariableType;
         MethodArgs methodArgs = new MethodArgs(variableTypes, frame.operandStack, false);
         ObjectRef objectRef = methodArgs.objectRef;
         if (objectRef == null) {
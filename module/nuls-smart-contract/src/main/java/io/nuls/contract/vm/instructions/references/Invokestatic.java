@@ -27,19 +27,19 @@ package io.nuls.contract.vm.instructions.references;
 import io.nuls.contract.vm.Frame;
 import io.nuls.contract.vm.MethodArgs;
 import io.nuls.contract.vm.Result;
+import io.nuls.contract.vm.code.InsnStream.MethodRef;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.natives.NativeMethod;
-import org.objectweb.asm.tree.MethodInsnNode;
 
 public class Invokestatic {
 
     public static void invokestatic(Frame frame) {
-        MethodInsnNode methodInsnNode = frame.methodInsnNode();
-        String className = methodInsnNode.owner;
-        String methodName = methodInsnNode.name;
-        String methodDesc = methodInsnNode.desc;
+        MethodRef methodRef = frame.methodRef();
+        String className = methodRef.owner;
+        String methodName = methodRef.name;
+        String methodDesc = methodRef.desc;
 
-        MethodCode methodCode = frame.methodArea.loadMethod(className, methodName, methodDesc);
+        MethodCode methodCode = frame.methodArea.loadMethod(methodRef.fullName, className, methodName, methodDesc);
 
         MethodArgs methodArgs = new MethodArgs(methodCode.argsVariableType, frame.operandStack, true);
 
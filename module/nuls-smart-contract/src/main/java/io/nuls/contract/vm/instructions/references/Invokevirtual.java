@@ -28,11 +28,11 @@ import io.nuls.contract.vm.Frame;
 import io.nuls.contract.vm.MethodArgs;
 import io.nuls.contract.vm.ObjectRef;
 import io.nuls.contract.vm.Result;
+import io.nuls.contract.vm.code.InsnStream.MethodRef;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.code.VariableType;
 import io.nuls.contract.vm.natives.NativeMethod;
 import io.nuls.contract.vm.util.Constants;
-import org.objectweb.asm.tree.MethodInsnNode;
 
 import java.util.List;
 import java.util.Objects;
@@ -40,12 +40,12 @@ import java.util.Objects;
 public class Invokevirtual {
 
     public static void invokevirtual(Frame frame) {
-        MethodInsnNode methodInsnNode = frame.methodInsnNode();
-        String className = methodInsnNode.owner;
-        String methodName = methodInsnNode.name;
-        String methodDesc = methodInsnNode.desc;
+        MethodRef methodRef = frame.methodRef();
+        String className = methodRef.owner;
+        String methodName = methodRef.name;
+        String methodDesc = methodRef.desc;
 
-        List<VariableType> variableTypes = VariableType.parseArgs(methodDesc);
+        List<VariableType> variableTypes = methodRef.argsVariableType;
         MethodArgs methodArgs = new MethodArgs(variableTypes, frame.operandStack, false);
         ObjectRef objectRef = methodArgs.objectRef;
         if (objectRef == null) {
@@ -67,7 +67,12 @@ public class Invokevirtual {
             className = Constants.OBJECT_CLASS_NAME;
         }
 
-        MethodCode methodCode = frame.methodArea.loadMethod(className, methodName, methodDesc);
+        MethodCode methodCode;
+        if (className.equals(methodRef.owner)) {
+            methodCode = frame.methodArea.loadMethod(methodRef.fullName, className, methodName, methodDesc);
+        } else {
+            methodCode = frame.methodArea.loadMethod(className, methodName, methodDesc);
+        }
 
         //Log.opcode(frame.getCurrentOpCode(), objectRef, methodName, methodDesc);
 
@@ -26,19 +26,16 @@ package io.nuls.contract.vm.instructions.references;
 
 import io.nuls.contract.vm.Frame;
 import io.nuls.contract.vm.ObjectRef;
-import io.nuls.contract.vm.code.Descriptors;
-import org.objectweb.asm.tree.FieldInsnNode;
+import io.nuls.contract.vm.code.InsnStream;
 
 public class Putfield {
 
     public static void putfield(Frame frame) {
-        FieldInsnNode fieldInsnNode = frame.fieldInsnNode();
-        String fieldName = fieldInsnNode.name;
-        String fieldDesc = fieldInsnNode.desc;
+        InsnStream.FieldRef fieldRef = frame.fieldRef();
         Object value;
-        if (Descriptors.LONG_DESC.equals(fieldDesc)) {
+        if (fieldRef.isLong) {
             value = frame.operandStack.popLong();
-        } else if (Descriptors.DOUBLE_DESC.equals(fieldDesc)) {
+        } else if (fieldRef.isDouble) {
             value = frame.operandStack.popDouble();
         } else {
             value = frame.operandStack.pop();
@@ -48,7 +45,7 @@ public class Putfield {
             frame.throwNullPointerException();
             return;
         }
-        frame.heap.putField(objectRef, fieldName, value);
+        frame.heap.putField(objectRef, fieldRef.name, fieldRef.slot(frame.methodArea), value);
 
         //Log.result(frame.getCurrentOpCode(), value, objectRef, fieldName);
     }
@@ -49,6 +49,8 @@ public class ProgramResult {
     private String nonce;
     private Map<ByteArrayWrapper, ProgramAccount> accounts;
 
+    private ProgramStorageAccess storageAccess;
+
     private List<ProgramTransfer> transfers = new ArrayList<>();
 
     private List<ProgramInternalCall> internalCalls = new ArrayList<>();
@@ -153,6 +155,14 @@ public class ProgramResult {
         this.accounts = accounts;
     }
 
+    public ProgramStorageAccess getStorageAccess() {
+        return storageAccess;
+    }
+
+    public void setStorageAccess(ProgramStorageAccess storageAccess) {
+        this.storageAccess = storageAccess;
+    }
+
     public List<ProgramTransfer> getTransfers() {
         return transfers;
     }
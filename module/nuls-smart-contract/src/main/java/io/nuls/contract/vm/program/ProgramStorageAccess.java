@@ -0,0 +1,52 @@
+package io.nuls.contract.vm.program;
+
+import org.ethereum.db.ByteArrayWrapper;
+import org.ethereum.vm.DataWord;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一笔合约交易执行过程中读写过的合约存储键，用于并行执行时按存储键检测冲突
+ * Storage keys read and written while executing one contract transaction, used for key level conflict detection in parallel execution
+ */
+public class ProgramStorageAccess {
+
+    private final Map<ByteArrayWrapper, Set<DataWord>> reads = new HashMap<>();
+
+    private final Map<ByteArrayWrapper, Set<DataWord>> writes = new HashMap<>();
+
+    public void read(byte[] address, DataWord key) {
+        reads.computeIfAbsent(new ByteArrayWrapper(address), k -> new HashSet<>()).add(key);
+    }
+
+    /**
+     * 只记录值发生变化的写入，值未变化的写入视为读取
+     * Only writes that change the value are recorded, an unchanged write counts as a read
+     */
+    public void write(byte[] address, DataWord key) {
+        writes.computeIfAbsent(new ByteArrayWrapper(address), k -> new HashSet<>()).add(key);
+    }
+
+    public Map<ByteArrayWrapper, Set<DataWord>> getReads() {
+        return Collections.unmodifiableMap(reads);
+    }
+
+    public Map<ByteArrayWrapper, Set<DataWord>> getWrites() {
+        return Collections.unmodifiableMap(writes);
+    }
+
+    public Set<ByteArrayWrapper> getAddresses() {
+        Set<ByteArrayWrapper> addresses = new HashSet<>(reads.keySet());
+        addresses.addAll(writes.keySet());
+        return addresses;
+    }
+
+    public boolean contains(byte[] address) {
+        ByteArrayWrapper wrapper = new ByteArrayWrapper(address);
+        return reads.containsKey(wrapper) || writes.containsKey(wrapper);
+    }
+}
@@ -47,10 +47,10 @@ import org.ethereum.config.CommonConfig;
 import org.ethereum.config.DefaultConfig;
 import org.ethereum.config.SystemProperties;
 import org.ethereum.core.AccountState;
-import org.ethereum.core.Block;
 import org.ethereum.core.Repository;
 import org.ethereum.datasource.Source;
 import org.ethereum.db.ByteArrayWrapper;
+import org.ethereum.db.RepositoryImpl;
 import org.ethereum.db.RepositoryRoot;
 import org.ethereum.db.StateSource;
 import org.ethereum.util.FastByteComparisons;
@@ -94,8 +94,23 @@ public class ProgramExecutorImpl implements ProgramExecutor {
     private final Thread thread;
 
     public ProgramExecutorImpl(VMContext vmContext, Chain chain) {
-        this(null, vmContext, stateSource(chain), null, null, null, null);
+        this(vmContext, chain, -1, 0);
+    }
+
+    /**
+     * @param statePruneDepth 合约状态修剪深度，小于0表示不修剪 / state prune depth, negative means pruning disabled
+     * @param stateCacheSize  合约状态读缓存大小（MB），0表示默认值 / state read cache size in MB, 0 means the default
+     */
+    public ProgramExecutorImpl(VMContext vmContext, Chain chain, int statePruneDepth, int stateCacheSize) {
+        this(null, vmContext, stateSource(chain, statePruneDepth, stateCacheSize), null, null, null, null);
         this.chain = chain;
+        if (vmContext != null) {
+            int chainId = chain.getChainId();
+            chain.getDefaultConfig().pruneManager().setStateRootProvider(height -> {
+                BlockHeaderDto blockHeaderDto = vmContext.getBlockHeader(chainId, height);
+                return blockHeaderDto == null ? null : blockHeaderDto.getStateRoot();
+            });
+        }
     }
 
     private ProgramExecutorImpl(ProgramExecutorImpl programExecutor, VMContext vmContext, Source<byte[], byte[]> source, Repository repository, byte[] prevStateRoot,
@@ -160,6 +175,10 @@ public class ProgramExecutorImpl implements ProgramExecutor {
             log.debug("startTracking");
         }
         Repository track = repository.startTracking();
+        // 交易级的track记录读写过的存储键，用于并行执行时的冲突检测
+        if (track instanceof RepositoryImpl) {
+            ((RepositoryImpl) track).setStorageAccess(new ProgramStorageAccess());
+        }
         return new ProgramExecutorImpl(this, vmContext, source, track, null, new HashMap<>(), thread);
     }
 
@@ -176,20 +195,11 @@ public class ProgramExecutorImpl implements ProgramExecutor {
                     throw new RuntimeException(String.format("must use the same block number, parent blockNumber is [%s], this blockNumber is [%s]", parent.blockNumber, blockNumber));
                 }
             } else {
-                if (vmContext != null) {
-                    BlockHeaderDto blockHeaderDto;
-                    try {
-                        blockHeaderDto = vmContext.getBlockHeader(getCurrentChainId(), blockNumber);
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
-                    byte[] parentHash = HexUtil.decode(blockHeaderDto.getPreHash());
-                    byte[] hash = HexUtil.decode(blockHeaderDto.getHash());
-                    Block block = new Block(parentHash, hash, blockNumber);
-                    getCurrentChain().getDefaultConfig().blockStore().saveBlock(block, BigInteger.ONE, true);
-                    getCurrentChain().getDefaultConfig().pruneManager().blockCommitted(block.getHeader());
-                }
+                getCurrentChain().getDefaultConfig().pruneManager().stateCommitted(prevStateRoot, repository.getRoot(), blockNumber);
                 getCurrentChain().getCommonConfig().dbFlushManager().flush();
+                if (log.isDebugEnabled()) {
+                    log.debug("state cache: {}", ((StateSource) source).getCacheStats());
+                }
             }
             logTime("commit");
         }
@@ -560,6 +570,9 @@ public class ProgramExecutorImpl implements ProgramExecutor {
             programResult.setGasUsed(vm.getGasUsed());
             // 当合约用到nonce时，维护了临时nonce
             programResult.setAccounts(accounts);
+            if (repository instanceof RepositoryImpl) {
+                programResult.setStorageAccess(((RepositoryImpl) repository).getStorageAccess());
+            }
 
             return programResult;
         } catch (ErrorException e) {
@@ -786,14 +799,18 @@ public class ProgramExecutorImpl implements ProgramExecutor {
                 .collect(Collectors.toList());
     }
 
-    private static Source<byte[], byte[]> stateSource(Chain chain) {
+    private static Source<byte[], byte[]> stateSource(Chain chain, int statePruneDepth, int stateCacheSize) {
         SystemProperties config = SystemProperties.getDefault();
         CommonConfig commonConfig = CommonConfig.newInstance(chain.getChainId());
+        commonConfig.setPruneDepth(statePruneDepth);
         chain.setCommonConfig(commonConfig);
         DefaultConfig defaultConfig = DefaultConfig.newInstance(commonConfig);
         chain.setDefaultConfig(defaultConfig);
         StateSource stateSource = commonConfig.stateSource();
         stateSource.setConfig(config);
+        if (stateCacheSize > 0) {
+            stateSource.setCacheSize(stateCacheSize);
+        }
         stateSource.setCommonConfig(commonConfig);
         return stateSource;
     }
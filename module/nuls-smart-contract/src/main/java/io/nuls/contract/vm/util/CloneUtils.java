@@ -24,6 +24,7 @@
  */
 package io.nuls.contract.vm.util;
 
+import io.nuls.contract.vm.ObjectFields;
 import io.nuls.contract.vm.ObjectRef;
 
 import java.lang.reflect.Array;
@@ -44,6 +45,9 @@ public class CloneUtils {
     }
 
     public static Map<String, Object> clone(Map<String, Object> source) {
+        if (source instanceof ObjectFields) {
+            return ((ObjectFields) source).copy();
+        }
         Map<String, Object> target = new LinkedHashMap<>(hashMapInitialCapacity(source.size()));
         clone(source, target);
         return target;
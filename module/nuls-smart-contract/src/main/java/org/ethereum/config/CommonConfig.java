@@ -36,6 +36,7 @@ public class CommonConfig {
     private static final Logger logger = LoggerFactory.getLogger("general");
     private Set<DbSource> dbSources = new HashSet<>();
     private int chainId;
+    private Integer pruneDepth;
 
     //private static CommonConfig defaultInstance;
     //
@@ -56,6 +57,18 @@ public class CommonConfig {
         return SystemProperties.getSpringDefault();
     }
 
+    /**
+     * 状态修剪深度，小于0表示不修剪
+     * State prune depth, negative means pruning disabled
+     */
+    public int pruneDepth() {
+        return pruneDepth != null ? pruneDepth : systemProperties().databasePruneDepth();
+    }
+
+    public void setPruneDepth(int pruneDepth) {
+        this.pruneDepth = pruneDepth;
+    }
+
     public Repository defaultRepository() {
         return new RepositoryRoot(stateSource(), null);
     }
@@ -95,7 +108,7 @@ public class CommonConfig {
         if (this.stateSource == null) {
             //fastSyncCleanUp();
             StateSource stateSource = new StateSource(blockchainSource("state"),
-                    systemProperties().databasePruneDepth() >= 0);
+                    pruneDepth() >= 0);
 
             dbFlushManager().addCache(stateSource.getWriteCache());
 
@@ -72,11 +72,11 @@ public class DefaultConfig {
 
     public PruneManager pruneManager() {
         if (pruneManager == null) {
-            if (config.databasePruneDepth() >= 0) {
-                pruneManager = new PruneManager((IndexedBlockStore) blockStore(), commonConfig.stateSource().getJournalSource(),
-                        commonConfig.stateSource().getNoJournalSource(), config.databasePruneDepth());
+            if (commonConfig.pruneDepth() >= 0) {
+                pruneManager = new PruneManager(commonConfig.stateSource().getJournalSource(),
+                        commonConfig.stateSource().getNoJournalSource(), commonConfig.pruneDepth());
             } else {
-                pruneManager = new PruneManager(null, null, null, -1); // dummy
+                pruneManager = new PruneManager(null, null, -1); // dummy
             }
         }
         return pruneManager;
@@ -26,6 +26,9 @@ import org.ethereum.util.RLPList;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.ethereum.util.ByteUtil.byteArrayToInt;
+import static org.ethereum.util.ByteUtil.intToBytes;
+
 /**
  * The JournalSource records all the changes which were made before each commitUpdate
  * Unlike 'put' deletes are not propagated to the backing Source immediately but are
@@ -91,10 +94,23 @@ public class JournalSource<V> extends AbstractChainedSource<byte[], V, byte[], V
         }
     }
 
+    /**
+     * Reference count stored for nodes which existed before counting started,
+     * such nodes may be referenced by tries nobody counted and are never released
+     */
+    private static final int PINNED = -1;
+
     private Update currentUpdate = new Update();
 
     Source<byte[], Update> journal = new HashMapDB<>();
 
+    /**
+     * Number of puts minus released deletes per node key. Trie nodes are content
+     * addressed, so several tries may reference the same node and each of them
+     * puts it once
+     */
+    Source<byte[], byte[]> refCounts = new HashMapDB<>();
+
     /**
      * Constructs instance with the underlying backing Source
      */
@@ -117,9 +133,14 @@ public class JournalSource<V> extends AbstractChainedSource<byte[], V, byte[], V
                 });
     }
 
+    public void setRefCountStore(Source<byte[], byte[]> refCountSource) {
+        refCounts = refCountSource;
+    }
+
     /**
      * Inserts are immediately propagated to the backing Source
-     * though are still recorded to the current update
+     * though are still recorded to the current update and counted as
+     * one more reference to the node
      * The insert might later be reverted by {@link Pruner}
      */
     @Override
@@ -129,10 +150,36 @@ public class JournalSource<V> extends AbstractChainedSource<byte[], V, byte[], V
             return;
         }
 
+        byte[] count = refCounts.get(key);
+        if (count == null) {
+            // a node stored before counting started has references nobody counted
+            refCounts.put(key, intToBytes(getSource().get(key) != null ? PINNED : 1));
+        } else if (byteArrayToInt(count) != PINNED) {
+            refCounts.put(key, intToBytes(byteArrayToInt(count) + 1));
+        }
         getSource().put(key, val);
         currentUpdate.insertedKeys.add(key);
     }
 
+    /**
+     * Releases one reference to the node, called when a journaled delete is persisted
+     *
+     * @return true if no reference is left and the node can be deleted from the backing Source
+     */
+    public synchronized boolean release(byte[] key) {
+        byte[] count = refCounts.get(key);
+        if (count == null || byteArrayToInt(count) == PINNED) {
+            return false;
+        }
+        int left = byteArrayToInt(count) - 1;
+        if (left > 0) {
+            refCounts.put(key, intToBytes(left));
+            return false;
+        }
+        refCounts.delete(key);
+        return true;
+    }
+
     /**
      * Deletes are not propagated to the backing Source immediately
      * but instead they are recorded to the current Update and
@@ -169,6 +216,7 @@ public class JournalSource<V> extends AbstractChainedSource<byte[], V, byte[], V
     @Override
     public synchronized boolean flushImpl() {
         journal.flush();
+        refCounts.flush();
         return false;
     }
 }
@@ -21,10 +21,8 @@ import org.apache.commons.collections4.map.LRUMap;
 import org.ethereum.db.ByteArrayWrapper;
 import org.ethereum.util.ByteArrayMap;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Caches entries get/updated and use LRU algo to purge them if the number
@@ -47,6 +45,9 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
     private Map<Key, Value> cache;
     private boolean byteKeyMap;
 
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
     public ReadCache(Source<Key, Value> src) {
         super(src);
         withCache(new HashMap<Key, Value>());
@@ -58,6 +59,7 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
     public ReadCache<Key, Value> withCache(Map<Key, Value> cache) {
         byteKeyMap = cache instanceof ByteArrayMap;
         this.cache = Collections.synchronizedMap(cache);
+        cacheCleared();
         return this;
     }
 
@@ -68,12 +70,21 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
         return withCache(new LRUMap<Key, Value>(maxCapacity) {
             @Override
             protected boolean removeLRU(LinkEntry<Key, Value> entry) {
-                cacheRemoved(entry.getKey(), entry.getValue());
+                cacheEvicted(entry.getKey(), entry.getValue());
                 return super.removeLRU(entry);
             }
         });
     }
 
+    /**
+     * Accounts for a removed cache entry, the null marker is accounted as null value
+     */
+    protected void cacheEvicted(Key key, Value value) {
+        if (value != null) {
+            cacheRemoved(key, value == NULL ? null : value);
+        }
+    }
+
     // the guard against incorrect Map implementation for byte[] keys
     private boolean checked = false;
 
@@ -96,8 +107,8 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
         if (val == null) {
             delete(key);
         } else {
-            cache.put(key, val);
             cacheAdded(key, val);
+            cacheEvicted(key, cache.put(key, val));
             getSource().put(key, val);
         }
     }
@@ -107,12 +118,16 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
         checkByteArrKey(key);
         Value ret = cache.get(key);
         if (ret == NULL) {
+            hits.increment();
             return null;
         }
-        if (ret == null) {
+        if (ret != null) {
+            hits.increment();
+        } else {
+            misses.increment();
             ret = getSource().get(key);
-            cache.put(key, ret == null ? NULL : ret);
             cacheAdded(key, ret);
+            cacheEvicted(key, cache.put(key, ret == null ? NULL : ret));
         }
         return ret;
     }
@@ -120,8 +135,7 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
     @Override
     public void delete(Key key) {
         checkByteArrKey(key);
-        Value value = cache.remove(key);
-        cacheRemoved(key, value);
+        cacheEvicted(key, cache.remove(key));
         getSource().delete(key);
     }
 
@@ -140,6 +154,24 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
         return false;
     }
 
+    /**
+     * Number of reads served from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of reads passed to the underlying source
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int getCacheEntries() {
+        return cache.size();
+    }
+
     @Override
     public synchronized Entry<Value> getCached(Key key) {
         Value value = cache.get(key);
@@ -162,11 +194,31 @@ public class ReadCache<Key, Value> extends AbstractCachedSource<Key, Value> {
             withCache(new ByteArrayMap<V>(new LRUMap<ByteArrayWrapper, V>(maxCapacity) {
                 @Override
                 protected boolean removeLRU(LinkEntry<ByteArrayWrapper, V> entry) {
-                    cacheRemoved(entry.getKey().getData(), entry.getValue());
+                    cacheEvicted(entry.getKey().getData(), entry.getValue());
                     return super.removeLRU(entry);
                 }
             }));
             return this;
         }
+
+        /**
+         * Limits the cache by the estimated memory size of its entries instead of their number,
+         * the least recently used entries are purged first. Size estimators must be set
+         */
+        public ReadCache.BytesKey<V> withMaxMemory(long maxMemory) {
+            withCache(new ByteArrayMap<V>(new LinkedHashMap<ByteArrayWrapper, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ByteArrayWrapper, V> eldest) {
+                    Iterator<Map.Entry<ByteArrayWrapper, V>> iterator = entrySet().iterator();
+                    while (estimateCacheSize() > maxMemory && iterator.hasNext()) {
+                        Map.Entry<ByteArrayWrapper, V> entry = iterator.next();
+                        iterator.remove();
+                        cacheEvicted(entry.getKey().getData(), entry.getValue());
+                    }
+                    return false;
+                }
+            }));
+            return this;
+        }
     }
 }
@@ -17,153 +17,210 @@
  */
 package org.ethereum.db;
 
-import org.ethereum.config.SystemProperties;
-import org.ethereum.core.Block;
-import org.ethereum.core.BlockHeader;
 import org.ethereum.datasource.JournalSource;
 import org.ethereum.datasource.Source;
 import org.ethereum.db.prune.Pruner;
-import org.ethereum.db.prune.Segment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.function.LongFunction;
+
+import static org.ethereum.crypto.HashUtil.sha3;
+import static org.ethereum.util.ByteUtil.merge;
 
 /**
  * Manages state pruning part of block processing.
  *
  * <p>
- * Constructs chain segments and prune them when they are complete
+ * The upstream {@link Pruner} keys journal updates by block hash and expects
+ * exactly one state commit per block. Contract state may be committed several
+ * times for the same height (batch execution, consensus rewards) and on
+ * competing forks, so updates are keyed by the state transition
+ * {@code (prevRoot, root)} instead.
+ * <p>
+ * Once a height is older than {@code pruneBlocksCnt} the canonical chain of
+ * transitions is rebuilt from the state roots of the confirmed block headers:
+ * deletions of that chain are persisted, transitions which did not end up
+ * on the main chain are discarded (their inserts are kept, which is safe)
+ * <p>
+ * Trie nodes are content addressed, so the same node may be referenced by
+ * several tries. A persisted deletion only releases one reference counted by
+ * {@link JournalSource}, the node is removed once no reference is left
  * <p>
  * Created by Anton Nashatyrev on 10.11.2016.
- *
- * @see Segment
- * @see Pruner
  */
 public class PruneManager {
 
-    private static final int LONGEST_CHAIN = 192;
+    private static final Logger logger = LoggerFactory.getLogger("prune");
+
+    /**
+     * 提交时记录的高度可能是父区块高度（批量执行）或区块高度（共识奖励），允许相差一个高度
+     * The height recorded on commit is either the parent height (batch execution)
+     * or the block height (consensus rewards), allow one height of slack
+     */
+    private static final int NUMBER_SLACK = 1;
 
     private JournalSource<?> journalSource;
 
-    private IndexedBlockStore blockStore;
+    private Source<byte[], ?> pruneStorage;
 
     private int pruneBlocksCnt;
 
-    private Segment segment;
-    private Pruner pruner;
+    /**
+     * 按区块高度返回区块头中的合约状态根
+     * Returns the contract state root of the confirmed block header at the height
+     */
+    private LongFunction<byte[]> stateRootProvider;
 
-    private PruneManager(SystemProperties config) {
-        pruneBlocksCnt = config.databasePruneDepth();
-    }
+    /**
+     * 尚未处理的状态提交，按提交顺序排列
+     * State commits not processed yet, in commit order
+     */
+    private final Map<ByteArrayWrapper, Execution> pending = new LinkedHashMap<>();
+
+    private long prunedNumber = -1;
+
+    private byte[] prunedRoot;
 
-    public PruneManager(IndexedBlockStore blockStore, JournalSource<?> journalSource,
-                        Source<byte[], ?> pruneStorage, int pruneBlocksCnt) {
-        this.blockStore = blockStore;
+    public PruneManager(JournalSource<?> journalSource, Source<byte[], ?> pruneStorage, int pruneBlocksCnt) {
         this.journalSource = journalSource;
+        this.pruneStorage = pruneStorage;
         this.pruneBlocksCnt = pruneBlocksCnt;
+    }
 
-        if (journalSource != null && pruneStorage != null) {
-            this.pruner = new Pruner(journalSource.getJournal(), pruneStorage);
-        }
+    public void setStateRootProvider(LongFunction<byte[]> stateRootProvider) {
+        this.stateRootProvider = stateRootProvider;
     }
 
-    public void setStateSource(StateSource stateSource) {
-        journalSource = stateSource.getJournalSource();
-        if (journalSource != null) {
-            pruner = new Pruner(journalSource.getJournal(), stateSource.getNoJournalSource());
-        }
+    public boolean isEnabled() {
+        return pruneBlocksCnt >= 0 && journalSource != null && pruneStorage != null;
     }
 
-    public void blockCommitted(BlockHeader block) {
-        if (pruneBlocksCnt < 0) {
+    /**
+     * 记录一次状态提交，并修剪已足够久远的高度
+     * Records a state commit and prunes heights which are old enough
+     *
+     * @param prevRoot state root the commit started from
+     * @param root     state root after the commit
+     * @param number   height of the committed block
+     */
+    public synchronized void stateCommitted(byte[] prevRoot, byte[] root, long number) {
+        if (!isEnabled()) {
             return; // pruning disabled
         }
 
-        JournalSource.Update update = journalSource.commitUpdates(block.getHash());
-        pruner.feed(update);
-
-        long forkBlockNum = block.getNumber() - getForkBlocksCnt();
-        if (forkBlockNum < 0) {
-            return;
+        byte[] key = sha3(merge(prevRoot, root));
+        ByteArrayWrapper wrapper = new ByteArrayWrapper(key);
+        Source<byte[], JournalSource.Update> journal = journalSource.getJournal();
+        JournalSource.Update previous = pending.containsKey(wrapper) ? journal.get(key) : null;
+        JournalSource.Update update = journalSource.commitUpdates(key);
+        if (previous != null) {
+            // the same transition committed again, e.g. the block was re-executed
+            previous.getInsertedKeys().addAll(update.getInsertedKeys());
+            previous.getDeletedKeys().addAll(update.getDeletedKeys());
+            journal.put(key, previous);
+        }
+        Execution execution = pending.get(wrapper);
+        if (execution == null) {
+            pending.put(wrapper, new Execution(key, prevRoot, root, number));
+        } else {
+            execution.number = Math.max(execution.number, number);
         }
 
-        List<Block> pruneBlocks = blockStore.getBlocksByNumber(forkBlockNum);
-        Block chainBlock = blockStore.getChainBlockByNumber(forkBlockNum);
+        if (stateRootProvider != null) {
+            prune(number - pruneBlocksCnt);
+        }
+    }
 
-        // reset segment and return
-        // if chainBlock is accidentally null
-        if (chainBlock == null) {
-            segment = null;
+    private void prune(long toNumber) {
+        if (toNumber <= 0) {
             return;
         }
+        long from = prunedNumber < 0 ? toNumber : prunedNumber + 1;
+        for (long number = from; number <= toNumber; number++) {
+            pruneNumber(number);
+        }
+    }
 
-        if (segment == null) {
-            if (pruneBlocks.size() == 1)    // wait for a single chain
-            {
-                segment = new Segment(chainBlock);
-            }
+    private void pruneNumber(long number) {
+        byte[] root = stateRootProvider.apply(number);
+        byte[] prevRoot = prunedNumber == number - 1 && prunedRoot != null ? prunedRoot : stateRootProvider.apply(number - 1);
+        if (root == null || prevRoot == null) {
+            prunedNumber = number;
+            prunedRoot = root;
             return;
         }
 
-        Segment.Tracker tracker = segment.startTracking();
-        tracker.addMain(chainBlock);
-        tracker.addAll(pruneBlocks);
-        tracker.commit();
-
-        if (segment.isComplete()) {
-            if (!pruner.isReady()) {
-                List<byte[]> forkWindow = getAllChainsHashes(segment.getRootNumber() + 1, blockStore.getMaxNumber());
-                pruner.init(forkWindow, getForkBlocksCnt());
-
-                int mainChainWindowSize = pruneBlocksCnt - getForkBlocksCnt();
-                if (mainChainWindowSize > 0) {
-                    List<byte[]> mainChainWindow = getMainChainHashes(Math.max(1, segment.getRootNumber() - mainChainWindowSize + 1),
-                            segment.getRootNumber());
-                    pruner.withSecondStep(mainChainWindow, mainChainWindowSize);
+        // walk back from the confirmed root to the confirmed parent root
+        LinkedList<Execution> main = new LinkedList<>();
+        Set<Execution> visited = new HashSet<>();
+        byte[] current = root;
+        while (!Arrays.equals(current, prevRoot)) {
+            Execution found = null;
+            for (Execution execution : pending.values()) {
+                if (execution.number <= number + NUMBER_SLACK && !visited.contains(execution)
+                        && Arrays.equals(execution.root, current) && !Arrays.equals(execution.prevRoot, current)) {
+                    found = execution;
+                    break;
                 }
             }
-            pruner.prune(segment);
-            segment = new Segment(chainBlock);
+            if (found == null) {
+                // the transitions were committed before a restart, nothing to persist
+                main.clear();
+                break;
+            }
+            visited.add(found);
+            main.addFirst(found);
+            current = found.prevRoot;
         }
 
-        long mainBlockNum = block.getNumber() - getMainBlocksCnt();
-        if (mainBlockNum < 0) {
-            return;
+        int deleted = 0;
+        for (Execution execution : main) {
+            JournalSource.Update update = journalSource.getJournal().get(execution.key);
+            if (update != null) {
+                for (byte[] key : update.getDeletedKeys()) {
+                    if (journalSource.release(key)) {
+                        pruneStorage.delete(key);
+                        deleted++;
+                    }
+                }
+            }
+            release(execution);
         }
 
-        byte[] hash = blockStore.getBlockHashByNumber(mainBlockNum);
-        pruner.persist(hash);
-    }
-
-    private int getForkBlocksCnt() {
-        return Math.min(pruneBlocksCnt, 2 * LONGEST_CHAIN);
-    }
+        int abandoned = 0;
+        for (Execution execution : new ArrayList<>(pending.values())) {
+            if (execution.number < number - NUMBER_SLACK) {
+                release(execution);
+                abandoned++;
+            }
+        }
 
-    private int getMainBlocksCnt() {
-        if (pruneBlocksCnt <= 2 * LONGEST_CHAIN) {
-            return Integer.MAX_VALUE;
-        } else {
-            return pruneBlocksCnt;
+        if (logger.isDebugEnabled()) {
+            logger.debug("State pruned at height {}: {} transitions, {} nodes deleted, {} transitions abandoned",
+                    number, main.size(), deleted, abandoned);
         }
+        prunedNumber = number;
+        prunedRoot = root;
     }
 
-    private List<byte[]> getAllChainsHashes(long fromBlock, long toBlock) {
-        List<byte[]> ret = new ArrayList<>();
-        for (long num = fromBlock; num <= toBlock; num++) {
-            List<Block> blocks = blockStore.getBlocksByNumber(num);
-            List<byte[]> hashes = blocks.stream().map(Block::getHash).collect(Collectors.toList());
-            ret.addAll(hashes);
-        }
-        return ret;
+    private void release(Execution execution) {
+        journalSource.getJournal().delete(execution.key);
+        pending.remove(new ByteArrayWrapper(execution.key));
     }
 
-    private List<byte[]> getMainChainHashes(long fromBlock, long toBlock) {
-        List<byte[]> ret = new ArrayList<>();
-        for (long num = fromBlock; num <= toBlock; num++) {
-            byte[] hash = blockStore.getBlockHashByNumber(num);
-            ret.add(hash);
+    private static class Execution {
+        final byte[] key;
+        final byte[] prevRoot;
+        final byte[] root;
+        long number;
+
+        Execution(byte[] key, byte[] prevRoot, byte[] root, long number) {
+            this.key = key;
+            this.prevRoot = prevRoot;
+            this.root = root;
+            this.number = number;
         }
-        return ret;
     }
 }
@@ -17,6 +17,7 @@
  */
 package org.ethereum.db;
 
+import io.nuls.contract.vm.program.ProgramStorageAccess;
 import org.ethereum.config.SystemProperties;
 import org.ethereum.core.AccountState;
 import org.ethereum.core.Block;
@@ -44,6 +45,12 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
 
     protected SystemProperties config = SystemProperties.getDefault();
 
+    /**
+     * 非空时记录经由本仓库读写的存储键
+     * When set, records the storage keys read and written through this repository
+     */
+    private ProgramStorageAccess storageAccess;
+
     protected RepositoryImpl() {
     }
 
@@ -153,15 +160,35 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
         getOrCreateAccountState(addr);
 
         Source<DataWord, DataWord> contractStorage = storageCache.get(addr);
+        if (storageAccess != null) {
+            DataWord current = contractStorage.get(key);
+            boolean unchanged = value.isZero() ? current == null || current.isZero() : value.equals(current);
+            if (unchanged) {
+                storageAccess.read(addr, key);
+            } else {
+                storageAccess.write(addr, key);
+            }
+        }
         contractStorage.put(key, value.isZero() ? null : value);
     }
 
     @Override
     public synchronized DataWord getStorageValue(byte[] addr, DataWord key) {
         AccountState accountState = getAccountState(addr);
+        if (storageAccess != null) {
+            storageAccess.read(addr, key);
+        }
         return accountState == null ? null : storageCache.get(addr).get(key);
     }
 
+    public synchronized ProgramStorageAccess getStorageAccess() {
+        return storageAccess;
+    }
+
+    public synchronized void setStorageAccess(ProgramStorageAccess storageAccess) {
+        this.storageAccess = storageAccess;
+    }
+
     @Override
     public synchronized BigInteger getBalance(byte[] addr) {
         AccountState accountState = getAccountState(addr);
@@ -30,12 +30,14 @@ public class StateSource extends SourceChainBox<byte[], byte[], byte[], byte[]>
     JournalSource<byte[]> journalSource;
     NoDeleteSource<byte[], byte[]> noDeleteSource;
 
-    ReadCache<byte[], byte[]> readCache;
+    ReadCache.BytesKey<byte[]> readCache;
     AbstractCachedSource<byte[], byte[]> writeCache;
 
     public StateSource(Source<byte[], byte[]> src, boolean pruningEnabled) {
         super(src);
-        add(readCache = new ReadCache.BytesKey<>(src).withMaxCapacity(16 * 1024 * 1024 / 512)); // 512 - approx size of a node
+        readCache = new ReadCache.BytesKey<>(src);
+        readCache.withSizeEstimators(MemSizeEstimator.ByteArrayEstimator, MemSizeEstimator.ByteArrayEstimator);
+        add(readCache.withMaxMemory(16L * 1024 * 1024));
         readCache.setFlushSource(true);
         writeCache = new AsyncWriteCache<byte[], byte[]>(readCache) {
             @Override
@@ -57,13 +59,32 @@ public class StateSource extends SourceChainBox<byte[], byte[], byte[], byte[]>
     }
 
     public void setConfig(SystemProperties config) {
-        int size = config.getConfig().getInt("cache.stateCacheSize");
-        readCache.withMaxCapacity(size * 1024 * 1024 / 512); // 512 - approx size of a node
+        setCacheSize(config.getConfig().getInt("cache.stateCacheSize"));
+    }
+
+    /**
+     * Limits the trie node read cache to the given size in megabytes
+     */
+    public void setCacheSize(int sizeInMb) {
+        readCache.withMaxMemory(sizeInMb * 1024L * 1024);
+    }
+
+    /**
+     * Read cache statistics: estimated size, entries, hits and misses
+     */
+    public String getCacheStats() {
+        long hits = readCache.getHitCount();
+        long misses = readCache.getMissCount();
+        long total = hits + misses;
+        return String.format("size %dKB, entries %d, hits %d, misses %d, hit rate %.2f%%",
+                readCache.estimateCacheSize() / 1024, readCache.getCacheEntries(), hits, misses,
+                total == 0 ? 0D : hits * 100D / total);
     }
 
     public void setCommonConfig(CommonConfig commonConfig) {
         if (journalSource != null) {
             journalSource.setJournalStore(commonConfig.cachedDbSource("journal"));
+            journalSource.setRefCountStore(commonConfig.cachedDbSource("refcount"));
         }
     }
 
@@ -0,0 +1,135 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.helper;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.base.data.Address;
+import io.nuls.base.protocol.ProtocolGroupManager;
+import io.nuls.contract.config.ContractContext;
+import io.nuls.contract.model.bo.ContractResult;
+import io.nuls.contract.vm.program.ProgramStorageAccess;
+import io.nuls.core.constant.BaseConstant;
+import org.ethereum.vm.DataWord;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ContractConflictCheckerTest {
+
+    private static final int CHAIN_ID = 2;
+
+    private final byte[] token = contract(1);
+    private final byte[] dex = contract(2);
+
+    private ContractConflictChecker checker;
+    private Set<String> tokenSet;
+    private Set<String> dexSet;
+
+    private static byte[] contract(int seed) {
+        byte[] hash160 = new byte[20];
+        hash160[0] = (byte) seed;
+        return new Address(CHAIN_ID, BaseConstant.CONTRACT_ADDRESS_TYPE, hash160).getAddressBytes();
+    }
+
+    @Before
+    public void before() {
+        ProtocolGroupManager.setLoadProtocol(false);
+        ProtocolGroupManager.updateProtocol(CHAIN_ID, ContractContext.UPDATE_VERSION_V260);
+        checker = ContractConflictChecker.newInstance();
+        List<Set<String>> setList = new ArrayList<>();
+        tokenSet = new HashSet<>();
+        dexSet = new HashSet<>();
+        setList.add(tokenSet);
+        setList.add(dexSet);
+        checker.setContractSetList(setList);
+    }
+
+    private ContractResult result(byte[] contractAddress, ProgramStorageAccess access, byte[]... innerCalls) {
+        ContractResult result = new ContractResult();
+        result.setContractAddress(contractAddress);
+        result.setStorageAccess(access);
+        Set<String> innerCallSet = new HashSet<>();
+        for (byte[] innerCall : innerCalls) {
+            innerCallSet.add(AddressTool.getStringAddressByBytes(innerCall));
+        }
+        result.setContractAddressInnerCallSet(innerCallSet);
+        return result;
+    }
+
+    private ProgramStorageAccess readWrite(byte[] address, String key) {
+        ProgramStorageAccess access = new ProgramStorageAccess();
+        access.read(address, new DataWord(key));
+        access.write(address, new DataWord(key));
+        return access;
+    }
+
+    @Test
+    public void differentKeysOfSameContract() {
+        Assert.assertFalse(checker.checkConflict(CHAIN_ID, null, result(token, readWrite(token, "balance-a")), tokenSet));
+        // 另一个合约内部调用同一个代币合约，修改不同的余额
+        ProgramStorageAccess access = readWrite(token, "balance-b");
+        access.read(dex, new DataWord("pool"));
+        Assert.assertFalse(checker.checkConflict(CHAIN_ID, null, result(dex, access, token), dexSet));
+
+        // 读取已被修改的存储键
+        ProgramStorageAccess readOnly = new ProgramStorageAccess();
+        readOnly.read(token, new DataWord("balance-a"));
+        Assert.assertTrue(checker.checkConflict(CHAIN_ID, null, result(dex, readOnly, token), dexSet));
+        // 修改已被读取的存储键
+        ProgramStorageAccess write = new ProgramStorageAccess();
+        write.write(dex, new DataWord("pool"));
+        Assert.assertTrue(checker.checkConflict(CHAIN_ID, null, result(token, write, dex), tokenSet));
+        // 读取同一个存储键不冲突
+        ProgramStorageAccess read = new ProgramStorageAccess();
+        read.read(token, new DataWord("name"));
+        read.read(dex, new DataWord("pool"));
+        Assert.assertFalse(checker.checkConflict(CHAIN_ID, null, result(token, read, dex), tokenSet));
+    }
+
+    @Test
+    public void wholeContractConflictsWithKeys() {
+        Assert.assertFalse(checker.checkConflict(CHAIN_ID, null, result(token, readWrite(token, "balance-a")), tokenSet));
+        // 向合约转入NULS，锁定整个合约
+        ContractResult payable = result(dex, readWrite(token, "balance-b"), token);
+        payable.setContractAddress(token);
+        payable.setValue(1);
+        Assert.assertTrue(checker.checkConflict(CHAIN_ID, null, payable, dexSet));
+        // 没有存储访问记录，按合约地址检测
+        Assert.assertTrue(checker.checkConflict(CHAIN_ID, null, result(dex, null, token), dexSet));
+    }
+
+    @Test
+    public void addressLevelBeforeUpgrade() {
+        ProtocolGroupManager.updateProtocol(CHAIN_ID, ContractContext.UPDATE_VERSION_V250);
+        Assert.assertFalse(checker.checkConflict(CHAIN_ID, null, result(token, readWrite(token, "balance-a")), tokenSet));
+        Assert.assertTrue(checker.checkConflict(CHAIN_ID, null, result(dex, readWrite(token, "balance-b"), token), dexSet));
+        Assert.assertEquals(Collections.singleton(AddressTool.getStringAddressByBytes(token)), tokenSet);
+    }
+}
@@ -0,0 +1,104 @@
+package io.nuls.contract.vm;
+
+import io.nuls.contract.model.bo.Chain;
+import io.nuls.contract.model.bo.config.ConfigBean;
+import io.nuls.contract.util.VMContextMock;
+import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
+import io.nuls.contract.vm.program.*;
+import io.nuls.contract.vm.program.impl.ProgramExecutorImpl;
+import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NRC20 transfer/approve调用的解释器基准测试，调用不提交，每次都从同一个状态根执行
+ * Interpreter benchmark over NRC20 transfer/approve calls, calls are not committed so each one runs on the same state root
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpreterBenchmark {
+
+    private static final String ADDRESS = "tNULSeBaN7vAqBANTtVxsiFsam4NcRUbqrCpzK";
+    private static final String SENDER = "tNULSeBaMvEtDfvZuukDf2mVyfGo3DdiN8KLRG";
+    private static final String BUYER = "tNULSeBaMnrs6JKrCy6TQdzYJZkMZJDng7QAsD";
+
+    private ProgramExecutor programExecutor;
+
+    private byte[] stateRoot;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        RocksDBService.init("./data");
+        Chain chain = new Chain();
+        ConfigBean configBean = new ConfigBean();
+        configBean.setChainId(2);
+        configBean.setAssetId(1);
+        configBean.setMaxViewGas(100000000L);
+        chain.setConfig(configBean);
+        programExecutor = new ProgramExecutorImpl(new VMContextMock(), chain);
+        chain.setProgramExecutor(programExecutor);
+
+        byte[] contractCode;
+        try (InputStream in = InterpreterBenchmark.class.getResourceAsStream("/nrc20")) {
+            contractCode = IOUtils.toByteArray(in);
+        }
+        ProgramCreate programCreate = new ProgramCreate();
+        programCreate.setContractAddress(NativeAddress.toBytes(ADDRESS));
+        programCreate.setSender(NativeAddress.toBytes(SENDER));
+        programCreate.setPrice(1);
+        programCreate.setGasLimit(10000000);
+        programCreate.setNumber(1);
+        programCreate.setContractCode(contractCode);
+        programCreate.args("name", "symbol", "100000000", "2");
+
+        ProgramExecutor begin = programExecutor.begin(HexUtil.decode("56e81f171bcc55a6ff8345e692c0f86e5b48e01b996cadc001622fb5e363b421"));
+        ProgramExecutor track = begin.startTracking();
+        ProgramResult programResult = track.create(programCreate);
+        if (!programResult.isSuccess()) {
+            throw new IllegalStateException(programResult.getErrorMessage());
+        }
+        track.commit();
+        begin.commit();
+        stateRoot = begin.getRoot();
+    }
+
+    private ProgramResult call(String methodName, String... args) {
+        ProgramCall programCall = new ProgramCall();
+        programCall.setContractAddress(NativeAddress.toBytes(ADDRESS));
+        programCall.setSender(NativeAddress.toBytes(SENDER));
+        programCall.setPrice(1);
+        programCall.setGasLimit(1000000);
+        programCall.setNumber(2);
+        programCall.setValue(BigInteger.ZERO);
+        programCall.setMethodName(methodName);
+        programCall.setMethodDesc("");
+        programCall.args(args);
+        return programExecutor.begin(stateRoot).startTracking().call(programCall);
+    }
+
+    @Benchmark
+    public ProgramResult transfer() {
+        return call("transfer", BUYER, "1000");
+    }
+
+    @Benchmark
+    public ProgramResult approve() {
+        return call("approve", BUYER, "1000");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InterpreterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm;
+
+import com.google.common.collect.HashBiMap;
+import io.nuls.contract.vm.code.FieldCode;
+import io.nuls.contract.vm.code.FieldLayout;
+import io.nuls.contract.vm.util.JsonUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.FieldNode;
+
+import java.util.*;
+
+public class ObjectFieldsTest {
+
+    private static FieldCode field(String name, String desc) {
+        return new FieldCode(new FieldNode(Opcodes.ACC_PRIVATE, name, desc, null, null));
+    }
+
+    private static FieldLayout layout() {
+        return new FieldLayout(Arrays.asList(
+                field("count", "I"),
+                field("total", "J"),
+                field("name", "Ljava/lang/String;"),
+                field("count", "I"),
+                field("flag", "Z"),
+                field("data", "[I")));
+    }
+
+    private static String encode(Map<String, Object> fields) {
+        return JsonUtils.encode(fields, HashBiMap.create());
+    }
+
+    private static Map<String, Object> linked(FieldLayout layout) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < layout.size(); i++) {
+            map.put(layout.getName(i), layout.getDefault(i));
+        }
+        return map;
+    }
+
+    @Test
+    public void defaultsMatchLinkedHashMap() {
+        FieldLayout layout = layout();
+        Assert.assertEquals(5, layout.size());
+        ObjectFields fields = new ObjectFields(layout);
+        Map<String, Object> expected = linked(layout);
+        Assert.assertEquals(expected, fields);
+        Assert.assertEquals(encode(expected), encode(fields));
+        Assert.assertEquals(Integer.class, fields.get("count").getClass());
+        Assert.assertEquals(Long.class, fields.get("total").getClass());
+        Assert.assertEquals(Boolean.class, fields.get("flag").getClass());
+    }
+
+    @Test
+    public void putAndFallbackMatchLinkedHashMap() {
+        FieldLayout layout = layout();
+        ObjectFields fields = new ObjectFields(layout);
+        Map<String, Object> expected = linked(layout);
+        Object[][] puts = {{"count", 7}, {"total", 1L << 40}, {"flag", true}, {"name", "abc"}, {"data", new int[]{1, 2}}};
+        for (Object[] put : puts) {
+            Assert.assertEquals(expected.put((String) put[0], put[1]), fields.put((String) put[0], put[1]));
+            Assert.assertEquals(encode(expected), encode(fields));
+        }
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            if ("count".equals(entry.getKey())) {
+                entry.setValue(9);
+            }
+        }
+        expected.put("count", 9);
+        Assert.assertEquals(encode(expected), encode(fields));
+
+        Assert.assertEquals(expected.remove("total"), fields.remove("total"));
+        expected.put("total", 3L);
+        fields.put("total", 3L);
+        expected.put("unknown", "x");
+        fields.put("unknown", "x");
+        Assert.assertEquals(encode(expected), encode(fields));
+        Assert.assertEquals(expected, fields);
+    }
+
+    @Test
+    public void slotAccessMatchesNameAccess() {
+        FieldLayout layout = layout();
+        ObjectFields fields = new ObjectFields(layout);
+        int total = layout.indexOf("total");
+        fields.put(total, "total", 1L << 40);
+        Assert.assertEquals(1L << 40, fields.get("total"));
+        Assert.assertEquals(1L << 40, fields.get(total, "total"));
+
+        // a slot that does not hold the field falls back to the name
+        fields.put(total, "flag", true);
+        Assert.assertEquals(true, fields.get("flag"));
+        Assert.assertEquals(true, fields.get(-1, "flag"));
+        Assert.assertEquals(1L << 40, fields.get(total, "total"));
+
+        // slots keep working after the fields switched to a map
+        fields.remove("name");
+        fields.put(total, "total", 3L);
+        Assert.assertEquals(3L, fields.get(total, "total"));
+        Assert.assertFalse(fields.containsKey("name"));
+    }
+
+    @Test
+    public void valueOfKeepsOrder() {
+        FieldLayout layout = layout();
+        Map<String, Object> ordered = linked(layout);
+        ordered.put("total", 5L);
+        Map<String, Object> converted = ObjectFields.valueOf(layout, ordered);
+        Assert.assertTrue(converted instanceof ObjectFields);
+        Assert.assertEquals(encode(ordered), encode(converted));
+
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("total", 5L);
+        reordered.put("count", 1);
+        Assert.assertSame(reordered, ObjectFields.valueOf(layout, reordered));
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        ObjectFields fields = new ObjectFields(layout());
+        int[] data = {1, 2, 3};
+        fields.put("count", 4);
+        fields.put("data", data);
+        Map<String, Object> copy = fields.copy();
+        Assert.assertEquals(encode(fields), encode(copy));
+        Assert.assertNotSame(data, copy.get("data"));
+        copy.put("count", 5);
+        ((int[]) copy.get("data"))[0] = 9;
+        Assert.assertEquals(4, fields.get("count"));
+        Assert.assertEquals(1, data[0]);
+    }
+}
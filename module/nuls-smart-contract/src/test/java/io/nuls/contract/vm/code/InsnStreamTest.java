@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.code;
+
+import io.nuls.contract.vm.OpCode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.*;
+
+public class InsnStreamTest {
+
+    private static void assertSameAsNodeList(MethodNode methodNode) {
+        InsnStream insnStream = new InsnStream(methodNode.instructions);
+        AbstractInsnNode node = methodNode.instructions.getFirst();
+        while (node != null && node.getOpcode() < 0) {
+            node = node.getNext();
+        }
+        int index = insnStream.first();
+        while (node != null) {
+            Assert.assertSame(node, insnStream.node(index));
+            Assert.assertEquals(OpCode.valueOf(node.getOpcode()), insnStream.opCode(index));
+            if (node instanceof JumpInsnNode) {
+                Assert.assertSame(((JumpInsnNode) node).label, insnStream.node(insnStream.jump(index)));
+            }
+            if (node instanceof MethodInsnNode) {
+                MethodInsnNode methodInsnNode = (MethodInsnNode) node;
+                InsnStream.MethodRef methodRef = insnStream.methodRef(index);
+                Assert.assertEquals(methodInsnNode.owner + "." + methodInsnNode.name + methodInsnNode.desc, methodRef.fullName);
+                Assert.assertEquals(VariableType.parseArgs(methodInsnNode.desc), methodRef.argsVariableType);
+            }
+            do {
+                node = node.getNext();
+            } while (node != null && node.getOpcode() < 0);
+            index = insnStream.next(index);
+        }
+        Assert.assertNull(insnStream.node(index));
+        Assert.assertNull(insnStream.opCode(index));
+    }
+
+    @Test
+    public void matchesNodeList() throws Exception {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(InsnStream.class.getName()).accept(classNode, 0);
+        for (MethodNode methodNode : classNode.methods) {
+            assertSameAsNodeList(methodNode);
+        }
+    }
+
+    @Test
+    public void labelsAreIndexed() throws Exception {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(InsnStream.class.getName()).accept(classNode, 0);
+        for (MethodNode methodNode : classNode.methods) {
+            InsnStream insnStream = new InsnStream(methodNode.instructions);
+            for (AbstractInsnNode node : methodNode.instructions.toArray()) {
+                if (node instanceof LabelNode) {
+                    Assert.assertSame(node, insnStream.node(insnStream.indexOf((LabelNode) node)));
+                }
+            }
+        }
+    }
+}
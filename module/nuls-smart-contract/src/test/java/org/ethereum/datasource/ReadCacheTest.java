@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) [2016] [ <ether.camp> ]
+ * This file is part of the ethereumJ library.
+ *
+ * The ethereumJ library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * The ethereumJ library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the ethereumJ library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.ethereum.datasource;
+
+import org.ethereum.datasource.inmem.HashMapDB;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReadCacheTest {
+
+    private static byte[] key(int i) {
+        return new byte[]{(byte) (i >> 8), (byte) i};
+    }
+
+    @Test
+    public void maxMemory() {
+        HashMapDB<byte[]> db = new HashMapDB<>();
+        for (int i = 0; i < 1000; i++) {
+            db.put(key(i), new byte[100]);
+        }
+        ReadCache.BytesKey<byte[]> cache = new ReadCache.BytesKey<>(db);
+        cache.withSizeEstimators(MemSizeEstimator.ByteArrayEstimator, MemSizeEstimator.ByteArrayEstimator);
+        cache.withMaxMemory(20 * 1024);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertNotNull(cache.get(key(i)));
+        }
+        Assert.assertTrue(cache.estimateCacheSize() <= 20 * 1024);
+        Assert.assertTrue(cache.getCacheEntries() > 0 && cache.getCacheEntries() < 1000);
+        Assert.assertEquals(1000, cache.getMissCount());
+
+        Assert.assertNotNull(cache.get(key(999)));
+        Assert.assertNull(cache.get(key(5000)));
+        Assert.assertNull(cache.get(key(5000)));
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(1001, cache.getMissCount());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) [2016] [ <ether.camp> ]
+ * This file is part of the ethereumJ library.
+ *
+ * The ethereumJ library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * The ethereumJ library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with the ethereumJ library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.ethereum.db;
+
+import org.ethereum.datasource.JournalSource;
+import org.ethereum.datasource.inmem.HashMapDB;
+import org.ethereum.trie.TrieImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PruneManagerTest {
+
+    private final Map<Long, byte[]> headerRoots = new HashMap<>();
+
+    private HashMapDB<byte[]> storage;
+
+    private JournalSource<byte[]> journalSource;
+
+    private PruneManager pruneManager;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes();
+    }
+
+    @Before
+    public void setUp() {
+        storage = new HashMapDB<>();
+        journalSource = new JournalSource<>(storage);
+        pruneManager = new PruneManager(journalSource, storage, 2);
+        pruneManager.setStateRootProvider(headerRoots::get);
+        headerRoots.put(0L, bytes("r0"));
+    }
+
+    private void commit(String prevRoot, String root, long number, boolean confirmed) {
+        if (confirmed) {
+            headerRoots.put(number, bytes(root));
+        }
+        pruneManager.stateCommitted(bytes(prevRoot), bytes(root), number);
+    }
+
+    @Test
+    public void mainDeletesArePersisted() {
+        storage.put(bytes("a"), bytes("a"));
+        storage.put(bytes("b"), bytes("b"));
+
+        journalSource.put(bytes("c"), bytes("c"));
+        commit("r0", "r1", 1, true);
+
+        // fork block, its deletion must never be persisted
+        journalSource.delete(bytes("b"));
+        journalSource.put(bytes("x"), bytes("x"));
+        commit("r1", "r2x", 2, false);
+
+        // the same height executed twice on the main chain
+        journalSource.delete(bytes("a"));
+        journalSource.put(bytes("d"), bytes("d"));
+        commit("r1", "r2a", 2, false);
+        journalSource.delete(bytes("c"));
+        commit("r2a", "r2", 2, true);
+
+        journalSource.put(bytes("e"), bytes("e"));
+        commit("r2", "r3", 3, true);
+        Assert.assertNotNull(storage.get(bytes("c")));
+
+        // "a" is inserted again by a pending commit
+        journalSource.put(bytes("a"), bytes("a"));
+        commit("r3", "r4", 4, true);
+        Assert.assertNull(storage.get(bytes("c")));
+        Assert.assertNotNull(storage.get(bytes("a")));
+        Assert.assertNotNull(storage.get(bytes("d")));
+
+        commit("r4", "r5", 5, true);
+        commit("r5", "r6", 6, true);
+        Assert.assertNotNull(storage.get(bytes("b")));
+        Assert.assertNotNull(storage.get(bytes("x")));
+        Assert.assertNotNull(storage.get(bytes("a")));
+        Assert.assertNotNull(storage.get(bytes("e")));
+    }
+
+    /**
+     * 两棵树共享同一个节点，一棵树删除该节点后另一棵树仍然可以读取
+     * Two tries share a node, pruning the deletion of one trie must keep it for the other
+     */
+    @Test
+    public void sharedNodeIsKept() {
+        byte[] key = bytes("shared-key-shared-key-shared-key");
+        byte[] value = bytes("shared-value-which-is-longer-than-a-hash-so-the-node-is-stored-by-hash");
+
+        TrieImpl trieA = new TrieImpl(journalSource);
+        trieA.put(key, value);
+        trieA.put(bytes("a"), bytes("a"));
+        trieA.flush();
+        TrieImpl trieB = new TrieImpl(journalSource);
+        trieB.put(key, value);
+        trieB.put(bytes("b"), bytes("b"));
+        trieB.flush();
+        byte[] rootB = trieB.getRootHash();
+        commit("r0", "r1", 1, true);
+
+        // trie A replaces the shared value, its old nodes including the shared one are journaled as deleted
+        trieA.put(key, bytes("another-value-which-is-longer-than-a-hash-so-the-node-is-stored-by-hash"));
+        trieA.flush();
+        byte[] rootA = trieA.getRootHash();
+        commit("r1", "r2", 2, true);
+
+        for (long number = 3; number <= 6; number++) {
+            commit("r" + (number - 1), "r" + number, number, true);
+        }
+
+        Assert.assertArrayEquals(value, new TrieImpl(storage, rootB).get(key));
+        Assert.assertArrayEquals(bytes("b"), new TrieImpl(storage, rootB).get(bytes("b")));
+        Assert.assertArrayEquals(bytes("a"), new TrieImpl(storage, rootA).get(bytes("a")));
+    }
+
+    /**
+     * 两棵树都删除共享节点后，节点才被删除
+     * The shared node is deleted once both tries dropped it
+     */
+    @Test
+    public void sharedNodeIsDeletedWithLastReference() {
+        byte[] value = bytes("value-which-is-longer-than-a-hash-so-the-node-is-stored-by-hash");
+        journalSource.put(bytes("n"), value);
+        journalSource.put(bytes("n"), value);
+        commit("r0", "r1", 1, true);
+        journalSource.delete(bytes("n"));
+        commit("r1", "r2", 2, true);
+        commit("r2", "r3", 3, true);
+        commit("r3", "r4", 4, true);
+        Assert.assertNotNull(storage.get(bytes("n")));
+
+        journalSource.delete(bytes("n"));
+        commit("r4", "r5", 5, true);
+        commit("r5", "r6", 6, true);
+        commit("r6", "r7", 7, true);
+        Assert.assertNull(storage.get(bytes("n")));
+    }
+
+    @Test
+    public void disabled() {
+        storage.put(bytes("a"), bytes("a"));
+        PruneManager dummy = new PruneManager(null, null, -1);
+        dummy.stateCommitted(bytes("r0"), bytes("r1"), 1);
+        Assert.assertFalse(dummy.isEnabled());
+        Assert.assertNotNull(storage.get(bytes("a")));
+    }
+}
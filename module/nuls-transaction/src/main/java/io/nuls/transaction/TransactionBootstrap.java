@@ -199,6 +199,7 @@ public class TransactionBootstrap extends RpcModule {
     public void initDB() {
         try {
             //数据文件存储地址
+            RocksDBService.setBlockCacheSize(txConfig.getDbBlockCacheSize());
             RocksDBService.init(txConfig.getTxDataRoot());
             //模块配置表
             DBUtil.createTable(TxDBConstant.DB_MODULE_CONGIF);
@@ -1,14 +1,24 @@
 package io.nuls.transaction.cache;
 
+import io.nuls.base.basic.AddressTool;
+import io.nuls.base.basic.TransactionFeeCalculator;
+import io.nuls.base.data.CoinData;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.constant.TxConfig;
+import io.nuls.transaction.manager.TxManager;
 import io.nuls.transaction.model.bo.Chain;
 import io.nuls.transaction.storage.UnconfirmedTxStorageService;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 交易已完成交易管理模块的校验(打包的时候从这里取)
@@ -20,9 +30,31 @@ import java.util.Map;
 @Component
 public class PackablePool {
 
+    private static final int LOCK_STRIPES = 64;
+
     @Autowired
     private UnconfirmedTxStorageService unconfirmedTxStorageService;
 
+    @Autowired
+    private TxConfig txConfig;
+
+    /**
+     * 按交易hash分段的锁, 保证同一笔交易在队列与map中的操作互斥
+     * Locks striped by transaction hash, operations of the same transaction on the queue and the map are mutually exclusive
+     */
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    public PackablePool() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private Lock lockOf(ByteArrayWrapper hash) {
+        int h = hash.hashCode();
+        return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
     /**
      * 将交易加入到待打包队列最前端，打包时最先取出
      * Add the transaction to the front of the queue to be packed, and take it out first when it is packed
@@ -33,11 +65,17 @@ public class PackablePool {
      */
     public boolean offerFirst(Chain chain, Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offerFirst(hash)) {
+        CoinData coinData = coinData(chain, tx);
+        long feeRate = feeRate(chain, tx, coinData);
+        Lock lock = lockOf(hash);
+        lock.lock();
+        try {
+            if (chain.getPackableHashQueue().offerFirst(hash, coinData, feeRate)) {
                 chain.getPackableTxMap().put(hash, tx);
                 return true;
             }
+        } finally {
+            lock.unlock();
         }
         chain.getLogger().error("PackableHashQueue offerFirst false");
         return false;
@@ -51,18 +89,27 @@ public class PackablePool {
      */
     public boolean offerFirstOnlyHash(Chain chain, Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offerFirst(hash)) {
+        CoinData coinData = coinData(chain, tx);
+        long feeRate = feeRate(chain, tx, coinData);
+        Lock lock = lockOf(hash);
+        lock.lock();
+        try {
+            if (chain.getPackableHashQueue().offerFirst(hash, coinData, feeRate)) {
                 return true;
             }
+        } finally {
+            lock.unlock();
         }
         chain.getLogger().error("PackableHashQueue offerFirst false");
         return false;
     }
 
     /**
-     * 将交易加入到待打包队列队尾
-     * Add the transaction to the end of the queue to be packed
+     * 将交易按手续费率加入到待打包队列, 队列已满时淘汰手续费率最低的交易
+     * 被淘汰的交易和未能加入的交易都已提交过账本未确认状态, 放入淘汰队列由ClearEvictedTxProcessTask批量按无效交易清理(回滚账本未确认nonce)
+     * Add the transaction to the queue to be packed by fee rate, the lowest fee rate transaction is evicted when the queue is full.
+     * Evicted and rejected transactions were already committed to the ledger unconfirmed state. They go to the evicted queue and
+     * ClearEvictedTxProcessTask clears them as invalid transactions in batches (the unconfirmed nonce in the ledger is rolled back)
      *
      * @param chain
      * @param tx
@@ -70,14 +117,40 @@ public class PackablePool {
      */
     public boolean add(Chain chain, Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offer(hash)) {
+        CoinData coinData = coinData(chain, tx);
+        long feeRate = feeRate(chain, tx, coinData);
+        List<ByteArrayWrapper> evicted = new ArrayList<>();
+        boolean added;
+        Lock lock = lockOf(hash);
+        lock.lock();
+        try {
+            added = chain.getPackableHashQueue().offer(hash, coinData, feeRate, evicted);
+            if (added) {
                 chain.getPackableTxMap().put(hash, tx);
-                return true;
             }
+        } finally {
+            lock.unlock();
         }
-        chain.getLogger().error("PackableHashQueue add false");
-        return false;
+        for (ByteArrayWrapper evictedHash : evicted) {
+            //在被淘汰交易自己的分段锁内从map中移除
+            Transaction evictedTx;
+            Lock evictedLock = lockOf(evictedHash);
+            evictedLock.lock();
+            try {
+                evictedTx = chain.getPackableTxMap().remove(evictedHash);
+            } finally {
+                evictedLock.unlock();
+            }
+            if (null != evictedTx) {
+                chain.getLogger().debug("Packable pool is full, evict hash:{}", evictedTx.getHash().toHex());
+                chain.getEvictedTxQueue().offer(evictedTx);
+            }
+        }
+        if (!added) {
+            chain.getLogger().debug("Packable pool is full and the fee rate is too low, hash:{}", tx.getHash().toHex());
+            chain.getEvictedTxQueue().offer(tx);
+        }
+        return added;
     }
 
     /**
@@ -100,13 +173,17 @@ public class PackablePool {
             if (null == hash) {
                 return null;
             }
-            synchronized (hash) {
+            Lock lock = lockOf(hash);
+            lock.lock();
+            try {
                 Transaction tx = chain.getPackableTxMap().get(hash);
                 if (null != tx) {
                     return tx;
                 } else {
                     unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
                 }
+            } finally {
+                lock.unlock();
             }
         }
 
@@ -128,13 +205,17 @@ public class PackablePool {
             if (null == hash) {
                 return null;
             }
-            synchronized (hash) {
+            Lock lock = lockOf(hash);
+            lock.lock();
+            try {
                 Transaction tx = chain.getPackableTxMap().get(hash);
                 if (null != tx) {
                     return tx;
                 } else {
                     unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
                 }
+            } finally {
+                lock.unlock();
             }
         }
     }
@@ -143,20 +224,36 @@ public class PackablePool {
         Map<ByteArrayWrapper, Transaction> map = chain.getPackableTxMap();
         for (byte[] hash : txHashs) {
             ByteArrayWrapper wrapper = new ByteArrayWrapper(hash);
-            map.remove(wrapper);
+            Lock lock = lockOf(wrapper);
+            lock.lock();
+            try {
+                map.remove(wrapper);
+                chain.getPackableHashQueue().remove(wrapper);
+            } finally {
+                lock.unlock();
+            }
         }
     }
 
     public void removeInvalidTxFromMap(Chain chain, Transaction tx) {
         Map<ByteArrayWrapper, Transaction> map = chain.getPackableTxMap();
         ByteArrayWrapper wrapper = new ByteArrayWrapper(tx.getHash().getBytes());
-        map.remove(wrapper);
+        Lock lock = lockOf(wrapper);
+        lock.lock();
+        try {
+            map.remove(wrapper);
+            chain.getPackableHashQueue().remove(wrapper);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * 判断交易是否在待打包队列的hash queue中，交易如果存在于待打包map中, 不一定存在于hash队列.
+     * 不加锁, 时间复杂度O(1)
      * Determine if the transaction is in the hash queue to be packaged;
      * if the transaction exists in the map, it does not necessarily exist in the hash queue to be packaged.
+     * Lock free, O(1)
      *
      *
      * @param chain
@@ -180,4 +277,41 @@ public class PackablePool {
         chain.getPackableHashQueue().clear();
     }
 
+    private CoinData coinData(Chain chain, Transaction tx) {
+        if (tx.getCoinData() == null) {
+            return null;
+        }
+        try {
+            return tx.getCoinDataInstance();
+        } catch (NulsException e) {
+            chain.getLogger().warn("Packable pool parse coinData error, hash:{}", tx.getHash().toHex());
+            return null;
+        }
+    }
+
+    /**
+     * 计算交易每KB的手续费, 与验证手续费时使用的资产一致
+     * Fee per KB of the transaction, using the same asset as the fee validation
+     */
+    private long feeRate(Chain chain, Transaction tx, CoinData coinData) {
+        if (coinData == null || coinData.getFrom() == null || coinData.getFrom().isEmpty() || tx.size() == 0) {
+            return 0L;
+        }
+        int feeAssetChainId;
+        int feeAssetId;
+        if (TxManager.isCrossTx(tx.getType()) && AddressTool.getChainIdByAddress(coinData.getFrom().get(0).getAddress()) != chain.getChainId()) {
+            feeAssetChainId = txConfig.getMainChainId();
+            feeAssetId = txConfig.getMainAssetId();
+        } else {
+            feeAssetChainId = chain.getConfig().getChainId();
+            feeAssetId = chain.getConfig().getAssetId();
+        }
+        BigInteger fee = coinData.getFeeByAsset(feeAssetChainId, feeAssetId);
+        if (fee.signum() <= 0) {
+            return 0L;
+        }
+        BigInteger rate = fee.multiply(BigInteger.valueOf(TransactionFeeCalculator.KB)).divide(BigInteger.valueOf(tx.size()));
+        return rate.bitLength() < Long.SIZE ? rate.longValue() : Long.MAX_VALUE;
+    }
+
 }
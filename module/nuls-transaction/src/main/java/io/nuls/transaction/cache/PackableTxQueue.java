@@ -0,0 +1,410 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.core.model.ByteArrayWrapper;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 待打包交易hash队列, 按手续费率排序
+ * Queue of packable transaction hashes, ordered by fee rate
+ * <p>
+ * 1.放回队首的交易(打包中断、区块回滚)最先取出, 后放回的先取出, 与双端队列的offerFirst一致
+ * 2.其他交易按每KB手续费从高到低取出, 手续费率相同时先进先出
+ * 3.同一账户的交易保持nonce顺序: 交易的nonce来自队列中的另一笔交易时, 在该交易取出之前不会被取出
+ * 4.队列达到最大容量时, 新交易的手续费率高于队列中最低的交易(包括等待中的交易)才会被接受, 最低的交易及使用其nonce的交易被淘汰并返回给调用者
+ * <p>
+ * 1.Transactions put back to the front (interrupted packing, block rollback) are taken first, last in first out like offerFirst of a deque
+ * 2.Other transactions are taken by fee per KB from high to low, first in first out for the same fee rate
+ * 3.Nonce order of an account is kept: a transaction whose nonce comes from another queued transaction is not taken before that transaction
+ * 4.When the queue is full a new transaction is only accepted if its fee rate is higher than the lowest one, waiting ones included.
+ * The lowest transaction and the transactions spending its nonce are evicted and returned to the caller
+ */
+public class PackableTxQueue {
+
+    /**
+     * 交易hash中作为下一笔交易nonce的字节数
+     * Number of trailing hash bytes used as the nonce of the next transaction
+     */
+    private static final int NONCE_LENGTH = 8;
+
+    private static final Comparator<Entry> ORDER = (o1, o2) -> {
+        if (o1.front != o2.front) {
+            return o1.front ? -1 : 1;
+        }
+        if (o1.front) {
+            return Long.compare(o2.seq, o1.seq);
+        }
+        int rs = Long.compare(o2.feeRate, o1.feeRate);
+        if (rs != 0) {
+            return rs;
+        }
+        return Long.compare(o1.seq, o2.seq);
+    };
+
+    private final int maxSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 队列中的交易, 读操作不加锁
+     * Queued transactions, read without locking
+     */
+    private final Map<ByteArrayWrapper, Entry> index = new ConcurrentHashMap<>();
+
+    /**
+     * 可以取出的交易
+     * Transactions that can be taken
+     */
+    private final TreeSet<Entry> readySet = new TreeSet<>(ORDER);
+
+    /**
+     * 等待nonce来源交易先被取出的交易
+     * Transactions waiting for the transaction their nonce comes from
+     */
+    private final TreeSet<Entry> blockedSet = new TreeSet<>(ORDER);
+
+    /**
+     * key:账户+资产+交易产生的nonce, value:产生该nonce的交易
+     * key: account + asset + nonce produced by the transaction, value: the producing transaction
+     */
+    private final Map<ByteArrayWrapper, Entry> producerIndex = new HashMap<>();
+
+    /**
+     * key:账户+资产+交易使用的nonce, value:使用该nonce的交易
+     * key: account + asset + nonce spent by the transaction, value: the spending transaction
+     */
+    private final Map<ByteArrayWrapper, Entry> spenderIndex = new HashMap<>();
+
+    private long sequence;
+
+    /**
+     * @param maxSize 最大交易数, 放回队首的交易不受限制 / Max transaction count, transactions put back to the front are not limited
+     */
+    public PackableTxQueue(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 将交易放回队首, 已在队列中的交易移到队首
+     * Put the transaction back to the front, a queued transaction is moved to the front
+     *
+     * @param hash     交易hash
+     * @param coinData 交易的coinData, 可以为null / CoinData of the transaction, may be null
+     * @param feeRate  每KB手续费 / Fee per KB
+     * @return boolean
+     */
+    public boolean offerFirst(ByteArrayWrapper hash, CoinData coinData, long feeRate) {
+        Entry entry = new Entry(hash, coinData, feeRate, true);
+        lock.lock();
+        try {
+            Entry old = index.get(hash);
+            if (old != null) {
+                unlink(old);
+            }
+            entry.seq = ++sequence;
+            link(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按手续费率加入交易, 队列已满且手续费率不高于队列中最低的交易时返回false
+     * 被淘汰的交易已不在队列中, 由调用者负责清理其未确认状态
+     * Add the transaction by fee rate, returns false if the queue is full and the fee rate is not higher than the lowest one.
+     * Evicted transactions are no longer queued, the caller is responsible for cleaning up their unconfirmed state
+     *
+     * @param hash     交易hash
+     * @param coinData 交易的coinData, 可以为null / CoinData of the transaction, may be null
+     * @param feeRate  每KB手续费 / Fee per KB
+     * @param evicted  接收被淘汰交易hash的列表 / Receives the hashes of evicted transactions
+     * @return boolean
+     */
+    public boolean offer(ByteArrayWrapper hash, CoinData coinData, long feeRate, List<ByteArrayWrapper> evicted) {
+        if (index.containsKey(hash)) {
+            return true;
+        }
+        Entry entry = new Entry(hash, coinData, feeRate, false);
+        lock.lock();
+        try {
+            if (index.containsKey(hash)) {
+                return true;
+            }
+            if (index.size() >= maxSize) {
+                Entry lowest = lowest();
+                if (lowest == null || lowest.feeRate >= feeRate) {
+                    return false;
+                }
+                evict(lowest, evicted);
+            }
+            entry.seq = ++sequence;
+            link(entry);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 取出优先级最高的交易
+     * Take the transaction with the highest priority
+     *
+     * @return hash, 队列为空时返回null / null if the queue is empty
+     */
+    public ByteArrayWrapper poll() {
+        lock.lock();
+        try {
+            Entry entry = readySet.pollFirst();
+            if (entry == null) {
+                return null;
+            }
+            unlink(entry);
+            return entry.hash;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取出优先级最低的交易, 依赖其他交易的交易先于其依赖的交易取出
+     * Take the transaction with the lowest priority, a transaction is always taken before the transactions it depends on
+     *
+     * @return hash, 队列为空时返回null / null if the queue is empty
+     */
+    public ByteArrayWrapper pollLast() {
+        lock.lock();
+        try {
+            Entry entry = null;
+            Iterator<Entry> it = blockedSet.descendingIterator();
+            while (it.hasNext()) {
+                Entry blocked = it.next();
+                if (blocked.children.isEmpty()) {
+                    entry = blocked;
+                    break;
+                }
+            }
+            if (entry == null) {
+                entry = readySet.isEmpty() ? null : readySet.last();
+            }
+            if (entry == null) {
+                return null;
+            }
+            unlink(entry);
+            return entry.hash;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 从队列中移除交易
+     * Remove the transaction from the queue
+     *
+     * @param hash 交易hash
+     * @return 交易是否在队列中 / whether the transaction was queued
+     */
+    public boolean remove(ByteArrayWrapper hash) {
+        lock.lock();
+        try {
+            Entry entry = index.get(hash);
+            if (entry == null) {
+                return false;
+            }
+            unlink(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 判断交易是否在队列中, 不加锁
+     * Whether the transaction is queued, lock free
+     */
+    public boolean contains(ByteArrayWrapper hash) {
+        return index.containsKey(hash);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            index.clear();
+            readySet.clear();
+            blockedSet.clear();
+            producerIndex.clear();
+            spenderIndex.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private void link(Entry entry) {
+        index.put(entry.hash, entry);
+        for (ByteArrayWrapper key : entry.produceKeys) {
+            producerIndex.put(key, entry);
+            /*
+            已在队列中使用该nonce的交易需要等待本交易先被取出
+            A queued transaction spending this nonce has to wait until this transaction is taken
+             */
+            Entry spender = spenderIndex.get(key);
+            if (spender != null && spender != entry && !spender.front) {
+                addDependency(entry, spender);
+            }
+        }
+        for (ByteArrayWrapper key : entry.spendKeys) {
+            spenderIndex.put(key, entry);
+            if (entry.front) {
+                continue;
+            }
+            Entry producer = producerIndex.get(key);
+            if (producer != null && producer != entry) {
+                addDependency(producer, entry);
+            }
+        }
+        if (entry.parents.isEmpty()) {
+            readySet.add(entry);
+        } else {
+            blockedSet.add(entry);
+        }
+    }
+
+    private void addDependency(Entry parent, Entry child) {
+        if (parent.children.contains(child)) {
+            return;
+        }
+        if (child.parents.isEmpty() && readySet.remove(child)) {
+            blockedSet.add(child);
+        }
+        parent.children.add(child);
+        child.parents.add(parent);
+    }
+
+    private void unlink(Entry entry) {
+        index.remove(entry.hash);
+        if (!readySet.remove(entry)) {
+            blockedSet.remove(entry);
+        }
+        for (ByteArrayWrapper key : entry.produceKeys) {
+            producerIndex.remove(key, entry);
+        }
+        for (ByteArrayWrapper key : entry.spendKeys) {
+            spenderIndex.remove(key, entry);
+        }
+        for (Entry parent : entry.parents) {
+            parent.children.remove(entry);
+        }
+        entry.parents.clear();
+        for (Entry child : entry.children) {
+            child.parents.remove(entry);
+            if (child.parents.isEmpty() && blockedSet.remove(child)) {
+                readySet.add(child);
+            }
+        }
+        entry.children.clear();
+    }
+
+    /**
+     * 手续费率最低的可淘汰交易, 包括等待nonce来源交易的交易, 放回队首的交易不会被淘汰
+     * The evictable transaction with the lowest fee rate, waiting transactions included, transactions put back to the front are never chosen
+     */
+    private Entry lowest() {
+        Entry ready = readySet.isEmpty() ? null : readySet.last();
+        if (ready != null && ready.front) {
+            ready = null;
+        }
+        Entry blocked = blockedSet.isEmpty() ? null : blockedSet.last();
+        if (ready == null) {
+            return blocked;
+        }
+        if (blocked == null) {
+            return ready;
+        }
+        return ORDER.compare(ready, blocked) > 0 ? ready : blocked;
+    }
+
+    /**
+     * 淘汰交易以及使用其nonce的交易(没有它无法被打包), 包括放回队首的交易
+     * Evict the transaction and the transactions spending its nonce (they cannot be packed without it), front ones included
+     */
+    private void evict(Entry entry, List<ByteArrayWrapper> evicted) {
+        List<Entry> spenders = new ArrayList<>(entry.children);
+        for (ByteArrayWrapper key : entry.produceKeys) {
+            Entry spender = spenderIndex.get(key);
+            if (spender != null && spender != entry && !spenders.contains(spender)) {
+                spenders.add(spender);
+            }
+        }
+        unlink(entry);
+        evicted.add(entry.hash);
+        for (Entry spender : spenders) {
+            if (index.get(spender.hash) == spender) {
+                evict(spender, evicted);
+            }
+        }
+    }
+
+    /**
+     * 账户+资产+nonce组成的key
+     * Key composed of account, asset and nonce
+     */
+    private static ByteArrayWrapper nonceKey(CoinFrom from, byte[] nonce, int nonceOffset) {
+        byte[] address = from.getAddress();
+        byte[] key = new byte[address.length + 4 + NONCE_LENGTH];
+        System.arraycopy(address, 0, key, 0, address.length);
+        int offset = address.length;
+        key[offset++] = (byte) (from.getAssetsChainId() >> 8);
+        key[offset++] = (byte) from.getAssetsChainId();
+        key[offset++] = (byte) (from.getAssetsId() >> 8);
+        key[offset++] = (byte) from.getAssetsId();
+        System.arraycopy(nonce, nonceOffset, key, offset, NONCE_LENGTH);
+        return new ByteArrayWrapper(key);
+    }
+
+    private static class Entry {
+        private final ByteArrayWrapper hash;
+        private final long feeRate;
+        private final boolean front;
+        /**
+         * 加入队列时在锁内分配
+         * Assigned under the lock when queued
+         */
+        private long seq;
+        private final ByteArrayWrapper[] produceKeys;
+        private final ByteArrayWrapper[] spendKeys;
+        private final List<Entry> parents = new ArrayList<>(1);
+        private final List<Entry> children = new ArrayList<>(1);
+
+        Entry(ByteArrayWrapper hash, CoinData coinData, long feeRate, boolean front) {
+            this.hash = hash;
+            this.feeRate = feeRate;
+            this.front = front;
+            List<CoinFrom> froms = coinData == null || coinData.getFrom() == null ? Collections.emptyList() : coinData.getFrom();
+            List<ByteArrayWrapper> produce = new ArrayList<>(froms.size());
+            List<ByteArrayWrapper> spend = new ArrayList<>(froms.size());
+            byte[] hashBytes = hash.getBytes();
+            for (CoinFrom from : froms) {
+                if (from.getAddress() == null || from.getNonce() == null || from.getNonce().length != NONCE_LENGTH
+                        || hashBytes.length < NONCE_LENGTH) {
+                    continue;
+                }
+                produce.add(nonceKey(from, hashBytes, hashBytes.length - NONCE_LENGTH));
+                spend.add(nonceKey(from, from.getNonce(), 0));
+            }
+            this.produceKeys = produce.toArray(new ByteArrayWrapper[0]);
+            this.spendKeys = spend.toArray(new ByteArrayWrapper[0]);
+        }
+    }
+}
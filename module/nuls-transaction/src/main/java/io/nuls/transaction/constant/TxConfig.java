@@ -4,6 +4,7 @@ import io.nuls.core.basic.ModuleConfig;
 import io.nuls.core.basic.VersionChangeInvoker;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.core.annotation.Configuration;
+import io.nuls.core.rockdb.manager.RocksDBManager;
 import io.nuls.core.rpc.model.ModuleE;
 import io.nuls.transaction.model.bo.config.ConfigBean;
 
@@ -33,6 +34,18 @@ public class TxConfig extends ConfigBean implements ModuleConfig {
     /** 未确认交易过期时间秒 */
     private long unconfirmedTxExpire;
     private String blackHolePublicKey;
+    /** 待打包队列最大交易数, 超过后淘汰手续费率最低的交易*/
+    private int packablePoolMaxSize = TxConstant.PACKABLE_POOL_MAX_SIZE;
+    /** 数据库共享块缓存字节数*/
+    private long dbBlockCacheSize = RocksDBManager.DEFAULT_BLOCK_CACHE_SIZE;
+
+    public long getDbBlockCacheSize() {
+        return dbBlockCacheSize;
+    }
+
+    public void setDbBlockCacheSize(long dbBlockCacheSize) {
+        this.dbBlockCacheSize = dbBlockCacheSize;
+    }
 
     public String getBlackHolePublicKey() {
         return blackHolePublicKey;
@@ -108,6 +121,14 @@ public class TxConfig extends ConfigBean implements ModuleConfig {
         this.unconfirmedTxExpire = unconfirmedTxExpire;
     }
 
+    public int getPackablePoolMaxSize() {
+        return packablePoolMaxSize;
+    }
+
+    public void setPackablePoolMaxSize(int packablePoolMaxSize) {
+        this.packablePoolMaxSize = packablePoolMaxSize;
+    }
+
     @Override
     public VersionChangeInvoker getVersionChangeInvoker() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         Class<?> aClass = Class.forName("io.nuls.transaction.rpc.upgrade.TxVersionChangeInvoker");
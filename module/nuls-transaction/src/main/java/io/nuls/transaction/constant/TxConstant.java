@@ -35,6 +35,13 @@ public interface TxConstant {
     /** 未确认交易清理机制task, 运行周期间隔(秒) */
     int TX_CLEAN_TASK_PERIOD = 3 * 60;
 
+    /** 淘汰交易清理task, 初始延迟值(秒) */
+    int TX_EVICTED_CLEAN_TASK_INITIALDELAY = 1;
+    /** 淘汰交易清理task, 运行周期间隔(秒) */
+    int TX_EVICTED_CLEAN_TASK_PERIOD = 1;
+    /** 淘汰交易清理task, 一批次处理的交易数 */
+    int TX_EVICTED_CLEAN_NUMBER_ONCE = 2000;
+
     /** 打包时孤儿交易返回待打包队列重新处理的最大次数，超过该次数则不再处理该孤儿交易(丢弃) */
     int PACKAGE_ORPHAN_MAXCOUNT = 5;
     int PACKAGE_ORPHAN_MAP_MAXCOUNT = 10000;
@@ -61,6 +68,9 @@ public interface TxConstant {
     int PACKABLE_TX_MAP_HEAVY_DATA_SIZE = 200000 * 300;
     int PACKABLE_TX_MAP_MAX_DATA_SIZE = 250000 * 300;
 
+    /** 待打包队列默认最大交易数, 超过后淘汰手续费率最低的交易*/
+    int PACKABLE_POOL_MAX_SIZE = 250000;
+
     int ORPHAN_LIST_MAX_DATA_SIZE = 50000 * 300;
 
     int PACKAGE_TX_MAX_COUNT = 10000;
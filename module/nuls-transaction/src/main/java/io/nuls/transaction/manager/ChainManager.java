@@ -29,7 +29,9 @@ import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.constant.DBTableProfile;
 import io.nuls.core.rockdb.service.RocksDBService;
+import io.nuls.transaction.cache.PackableTxQueue;
 import io.nuls.transaction.constant.TxConfig;
 import io.nuls.transaction.constant.TxDBConstant;
 import io.nuls.transaction.model.bo.Chain;
@@ -164,14 +166,14 @@ public class ChainManager {
             创建已确认交易表
             Create confirmed transaction table
             */
-            RocksDBService.createTable(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId);
+            RocksDBService.createTable(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, DBTableProfile.POINT_LOOKUP);
 
 
             /*
             已验证未打包交易 未确认
             Verified transaction
             */
-            RocksDBService.createTable(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId);
+            RocksDBService.createTable(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId, DBTableProfile.WRITE_HEAVY);
         } catch (Exception e) {
             if (!DBErrorCode.DB_TABLE_EXIST.equals(e.getMessage())) {
                 logger.error(e);
@@ -188,6 +190,7 @@ public class ChainManager {
     private void initCache(Chain chain) {
         BlockingDeque<TransactionNetPO> unverifiedQueue = new LinkedBlockingDeque<>((int)txConfig.getTxUnverifiedQueueSize());
         chain.setUnverifiedQueue(unverifiedQueue);
+        chain.setPackableHashQueue(new PackableTxQueue(txConfig.getPackablePoolMaxSize()));
     }
 
     private void initLogger(Chain chain) {
@@ -29,6 +29,7 @@ import io.nuls.core.thread.ThreadUtils;
 import io.nuls.core.thread.commom.NulsThreadFactory;
 import io.nuls.transaction.constant.TxConstant;
 import io.nuls.transaction.model.bo.Chain;
+import io.nuls.transaction.task.ClearEvictedTxProcessTask;
 import io.nuls.transaction.task.ClearUnconfirmedTxProcessTask;
 import io.nuls.transaction.task.NetTxProcessTask;
 import io.nuls.transaction.task.OrphanTxProcessTask;
@@ -56,6 +57,9 @@ public class SchedulerManager {
         //固定延迟时间
         unconfirmedTxExecutor.scheduleWithFixedDelay(new ClearUnconfirmedTxProcessTask(chain),
                 TxConstant.TX_CLEAN_TASK_INITIALDELAY, TxConstant.TX_CLEAN_TASK_PERIOD, TimeUnit.SECONDS);
+        //待打包队列淘汰交易清理Task
+        unconfirmedTxExecutor.scheduleWithFixedDelay(new ClearEvictedTxProcessTask(chain),
+                TxConstant.TX_EVICTED_CLEAN_TASK_INITIALDELAY, TxConstant.TX_EVICTED_CLEAN_TASK_PERIOD, TimeUnit.SECONDS);
         return true;
     }
 }
@@ -35,6 +35,11 @@ public class ForwardTxMessageHandler implements MessageProcessor {
 
     @Override
     public void process(int chainId, String nodeId, String msgStr) {
+        process(chainId, nodeId, RPCUtil.decode(msgStr));
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, byte[] msgBytes) {
         Chain chain = null;
         try {
             chain = chainManager.getChain(chainId);
@@ -43,7 +48,7 @@ public class ForwardTxMessageHandler implements MessageProcessor {
                 return;
             }
             //解析广播交易hash消息
-            ForwardTxMessage message = RPCUtil.getInstanceRpcStr(msgStr, ForwardTxMessage.class);
+            ForwardTxMessage message = RPCUtil.getInstance(msgBytes, ForwardTxMessage.class);
             if (message == null) {
                 return;
             }
@@ -35,10 +35,15 @@ public class GetTxMessageHandler implements MessageProcessor {
 
     @Override
     public void process(int chainId, String nodeId, String msgStr) {
+        process(chainId, nodeId, RPCUtil.decode(msgStr));
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, byte[] msgBytes) {
         Chain chain = null;
         try {
             //解析获取完整交易消息
-            GetTxMessage message = RPCUtil.getInstanceRpcStr(msgStr, GetTxMessage.class);
+            GetTxMessage message = RPCUtil.getInstance(msgBytes, GetTxMessage.class);
             if (message == null) {
                 return;
             }
@@ -5,14 +5,16 @@ import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.cache.PackableTxQueue;
 import io.nuls.transaction.constant.TxConstant;
 import io.nuls.transaction.model.bo.config.ConfigBean;
 import io.nuls.transaction.model.po.TransactionNetPO;
 
 import java.util.*;
 import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -55,15 +57,22 @@ public class Chain {
     private Map<Integer, TxRegister> txRegisterMap;
 
     /**
-     * 可打包交易hash集合, 交易已完成交易管理模块的校验(打包的时候从这里取)
+     * 可打包交易hash集合, 交易已完成交易管理模块的校验(打包的时候从这里取), 按手续费率排序
+     * 容量来自配置, 由ChainManager.initCache创建
      */
-    private BlockingDeque<ByteArrayWrapper> packableHashQueue;
+    private PackableTxQueue packableHashQueue;
 
     /**
      * 可打包交易hash对应的交易map
      */
     private Map<ByteArrayWrapper, Transaction> packableTxMap;
 
+    /**
+     * 待打包队列已满时被淘汰或未能加入的交易, 由清理任务批量回滚账本未确认状态
+     * Transactions evicted from, or rejected by, a full packable queue. The clean task rolls back their unconfirmed ledger state in batches
+     */
+    private BlockingQueue<Transaction> evictedTxQueue;
+
 
     /**
      * 未进行验证的交易队列
@@ -122,8 +131,8 @@ public class Chain {
         this.packableState = new AtomicBoolean(true);
         this.processTxStatus = new AtomicBoolean(false);
         this.txRegisterMap = new ConcurrentHashMap<>(TxConstant.INIT_CAPACITY_32);
-        this.packableHashQueue = new LinkedBlockingDeque<>();
         this.packableTxMap = new ConcurrentHashMap<>();
+        this.evictedTxQueue = new LinkedBlockingQueue<>();
         this.contractTxFail = false;
         this.txPackageOrphanMap = new HashMap<>();
         this.orphanList = new LinkedList<>();
@@ -169,11 +178,11 @@ public class Chain {
         this.txRegisterMap = txRegisterMap;
     }
 
-    public BlockingDeque<ByteArrayWrapper> getPackableHashQueue() {
+    public PackableTxQueue getPackableHashQueue() {
         return packableHashQueue;
     }
 
-    public void setPackableHashQueue(BlockingDeque<ByteArrayWrapper> packableHashQueue) {
+    public void setPackableHashQueue(PackableTxQueue packableHashQueue) {
         this.packableHashQueue = packableHashQueue;
     }
 
@@ -185,6 +194,14 @@ public class Chain {
         this.packableTxMap = packableTxMap;
     }
 
+    public BlockingQueue<Transaction> getEvictedTxQueue() {
+        return evictedTxQueue;
+    }
+
+    public void setEvictedTxQueue(BlockingQueue<Transaction> evictedTxQueue) {
+        this.evictedTxQueue = evictedTxQueue;
+    }
+
     public long getBestBlockHeight() {
         return bestBlockHeight;
     }
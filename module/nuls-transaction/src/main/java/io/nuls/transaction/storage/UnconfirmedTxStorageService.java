@@ -105,6 +105,18 @@ public interface UnconfirmedTxStorageService {
      */
     List<TransactionUnconfirmedPO> getTransactionUnconfirmedPOList(int chainId, List<byte[]> hashList);
 
+    /**
+     * 分页查询未确认交易数据，包含保存时间，不会把整张表加载到内存
+     * Query one page of unconfirmed transactions without loading the whole table
+     *
+     * @param chainId
+     * @param startKey 本页起始key，为null时从第一条开始
+     * @param size     本页最大条数
+     * @param txPOList 本页查询结果
+     * @return 下一页起始key，没有更多数据时返回null
+     */
+    byte[] getTransactionUnconfirmedPOPage(int chainId, byte[] startKey, int size, List<TransactionUnconfirmedPO> txPOList);
+
     /**
      * 根据hash 获取存在的key
      * @param chainId
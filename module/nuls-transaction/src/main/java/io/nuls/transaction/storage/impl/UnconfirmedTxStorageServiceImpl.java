@@ -8,6 +8,8 @@ import io.nuls.core.crypto.HexUtil;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.model.StringUtils;
+import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.EntryPage;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.transaction.constant.TxDBConstant;
@@ -200,6 +202,25 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
         return txPOList;
     }
 
+    @Override
+    public byte[] getTransactionUnconfirmedPOPage(int chainId, byte[] startKey, int size, List<TransactionUnconfirmedPO> txPOList) {
+        EntryPage page = RocksDBService.page(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId, startKey, size);
+        if (page == null) {
+            return null;
+        }
+        for (Entry<byte[], byte[]> entry : page.getEntries()) {
+            TransactionUnconfirmedPO txPO = new TransactionUnconfirmedPO();
+            try {
+                txPO.parse(entry.getValue(), 0);
+            } catch (NulsException e) {
+                LOG.error(e);
+                continue;
+            }
+            txPOList.add(txPO);
+        }
+        return page.getNextKey();
+    }
+
     @Override
     public List<byte[]> getExistKeys(int chainId, List<byte[]> hashList) {
         if (hashList == null || hashList.size() == 0) {
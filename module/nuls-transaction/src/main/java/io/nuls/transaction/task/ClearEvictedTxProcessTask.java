@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.transaction.task;
+
+import io.nuls.base.data.Transaction;
+import io.nuls.core.core.ioc.SpringLiteContext;
+import io.nuls.transaction.cache.PackablePool;
+import io.nuls.transaction.constant.TxConstant;
+import io.nuls.transaction.model.bo.Chain;
+import io.nuls.transaction.service.TxService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 待打包队列淘汰交易清理机制, 在加入待打包队列的线程之外批量回滚被淘汰交易的账本未确认状态
+ */
+public class ClearEvictedTxProcessTask implements Runnable {
+
+    private PackablePool packablePool = SpringLiteContext.getBean(PackablePool.class);
+    private TxService txService = SpringLiteContext.getBean(TxService.class);
+    private Chain chain;
+
+    public ClearEvictedTxProcessTask(Chain chain) {
+        this.chain = chain;
+    }
+
+    @Override
+    public void run() {
+        try {
+            doTask(chain);
+        } catch (Exception e) {
+            chain.getLogger().error(e);
+        }
+    }
+
+    private void doTask(Chain chain) {
+        int count = processEvictedTxs();
+        if (count > 0) {
+            chain.getLogger().debug("[ClearEvictedTxProcessTask] Clean evicted count: {}", count);
+        }
+    }
+
+    private void processTx(Chain chain, Transaction tx) {
+        try {
+            txService.clearInvalidTx(chain, tx);
+        } catch (Exception e) {
+            chain.getLogger().error(e);
+        }
+    }
+
+    /**
+     * 分批取出淘汰队列中的交易进行清理
+     *
+     * @return 清理的交易数
+     */
+    private int processEvictedTxs() {
+        int count = 0;
+        List<Transaction> list = new ArrayList<>();
+        while (chain.getEvictedTxQueue().drainTo(list, TxConstant.TX_EVICTED_CLEAN_NUMBER_ONCE) > 0) {
+            for (Transaction tx : list) {
+                //淘汰后又重新进入待打包队列的交易不清理
+                if (!packablePool.exist(chain, tx)) {
+                    processTx(chain, tx);
+                    count++;
+                }
+            }
+            list.clear();
+        }
+        return count;
+    }
+
+}
@@ -26,6 +26,7 @@ package io.nuls.transaction.task;
 
 import io.nuls.base.data.Transaction;
 import io.nuls.core.core.ioc.SpringLiteContext;
+import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.transaction.cache.PackablePool;
 import io.nuls.transaction.constant.TxConfig;
@@ -63,12 +64,8 @@ public class ClearUnconfirmedTxProcessTask implements Runnable {
     }
 
     private void doTask(Chain chain) {
-        List<byte[]> txKeyList = unconfirmedTxStorageService.getAllTxkeyList(chain.getChainId());
-        if (txKeyList == null || txKeyList.size() == 0) {
-            return;
-        }
-        int count = processUnconfirmedTxs(txKeyList);
-        chain.getLogger().info("[UnconfirmedTxProcessTask] Clean expire count: {}", count);
+        int count = processUnconfirmedTxs();
+        chain.getLogger().info("[UnconfirmedTxProcessTask] Clean expire count: {}, db block cache hit rate: {}", count, RocksDBService.getBlockCacheHitRate());
     }
 
     private boolean processTx(Chain chain, Transaction tx) {
@@ -81,30 +78,24 @@ public class ClearUnconfirmedTxProcessTask implements Runnable {
     }
 
     /**
-     * 过滤指定时间内过期的交易
+     * 分页遍历未确认交易表，清理过期的交易
      *
-     * @param txKeyList
-     * @return expireTxList
+     * @return 清理的交易数
      */
-    private int processUnconfirmedTxs(List<byte[]> txKeyList) {
+    private int processUnconfirmedTxs() {
         int unconfirmedTxsCount = 0;
-        List<byte[]> queryList = new ArrayList<>();
-        for (int i = 0; i < txKeyList.size(); i++) {
-            queryList.add(txKeyList.get(i));
-            if (queryList.size() == 10000) {
-                unconfirmedTxsCount += processExpireTxs(queryList);
-                queryList.clear();
+        byte[] startKey = null;
+        do {
+            List<TransactionUnconfirmedPO> list = new ArrayList<>();
+            startKey = unconfirmedTxStorageService.getTransactionUnconfirmedPOPage(chain.getChainId(), startKey, 10000, list);
+            if (!list.isEmpty()) {
+                unconfirmedTxsCount += processExpireTxs(list);
             }
-        }
-        if(!queryList.isEmpty()){
-            unconfirmedTxsCount += processExpireTxs(queryList);
-        }
+        } while (startKey != null);
         return unconfirmedTxsCount;
     }
 
-    public int processExpireTxs(List<byte[]> queryList){
-        //获取未确认的交易
-        List<TransactionUnconfirmedPO> list = unconfirmedTxStorageService.getTransactionUnconfirmedPOList(chain.getChainId(), queryList);
+    public int processExpireTxs(List<TransactionUnconfirmedPO> list){
         //计算出超时的未确认交易
         List<Transaction> expireTxList = getExpireTxList(list);
         int count = 0;
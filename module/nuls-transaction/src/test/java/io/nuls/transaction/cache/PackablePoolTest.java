@@ -0,0 +1,34 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.Transaction;
+import io.nuls.core.log.logback.LoggerBuilder;
+import io.nuls.transaction.model.bo.Chain;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PackablePoolTest {
+
+    private Transaction tx(long time) {
+        Transaction tx = new Transaction(2);
+        tx.setTime(time);
+        return tx;
+    }
+
+    @Test
+    public void evictedTxIsQueuedForCleaning() {
+        Chain chain = new Chain();
+        chain.setLogger(LoggerBuilder.getLogger("packable-pool-test"));
+        chain.setPackableHashQueue(new PackableTxQueue(1));
+        PackablePool pool = new PackablePool();
+
+        Assert.assertTrue(pool.add(chain, tx(1L)));
+        Assert.assertTrue(chain.getEvictedTxQueue().isEmpty());
+        //队列已满, 淘汰或拒绝的交易只放入淘汰队列, 不在加入线程中回滚账本
+        pool.add(chain, tx(2L));
+        Assert.assertEquals(1, pool.packableHashQueueSize(chain));
+        Assert.assertEquals(1, chain.getEvictedTxQueue().size());
+        Transaction evicted = chain.getEvictedTxQueue().peek();
+        Assert.assertFalse(pool.exist(chain, evicted));
+        Assert.assertEquals(1, pool.packableTxMapSize(chain));
+    }
+}
@@ -0,0 +1,78 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.core.model.ByteArrayWrapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 待打包队列并发offer/poll/exist基准测试
+ * Concurrent offer/poll/exist benchmark of the packable queue
+ * <p>
+ * dequeExist为原先LinkedBlockingDeque.contains的对照
+ * dequeExist is the baseline of the former LinkedBlockingDeque.contains
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PackableTxQueueBenchmark {
+
+    @Param({"100000", "300000"})
+    private int pending;
+
+    private PackableTxQueue queue;
+
+    private LinkedBlockingDeque<ByteArrayWrapper> deque;
+
+    private ByteArrayWrapper[] hashes;
+
+    private static ByteArrayWrapper randomHash() {
+        byte[] bytes = new byte[32];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return new ByteArrayWrapper(bytes);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        queue = new PackableTxQueue(pending * 2);
+        deque = new LinkedBlockingDeque<>();
+        hashes = new ByteArrayWrapper[pending];
+        for (int i = 0; i < pending; i++) {
+            hashes[i] = randomHash();
+            queue.offer(hashes[i], null, ThreadLocalRandom.current().nextInt(1000), new ArrayList<>());
+            deque.offer(hashes[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean exist() {
+        return queue.contains(hashes[ThreadLocalRandom.current().nextInt(pending)]);
+    }
+
+    @Benchmark
+    public ByteArrayWrapper offerPoll() {
+        queue.offer(randomHash(), null, ThreadLocalRandom.current().nextInt(1000), new ArrayList<>());
+        return queue.poll();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1, time = 1)
+    @Measurement(iterations = 2, time = 1)
+    public boolean dequeExist() {
+        return deque.contains(hashes[ThreadLocalRandom.current().nextInt(pending)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PackableTxQueueBenchmark.class.getSimpleName()).build()).run();
+    }
+}
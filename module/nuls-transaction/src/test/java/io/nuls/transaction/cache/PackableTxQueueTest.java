@@ -0,0 +1,168 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.core.model.ByteArrayWrapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.*;
+
+public class PackableTxQueueTest {
+
+    private final Random random = new Random(1);
+
+    private final byte[] address = new byte[23];
+
+    private final List<ByteArrayWrapper> evicted = new ArrayList<>();
+
+    private ByteArrayWrapper hash() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return new ByteArrayWrapper(bytes);
+    }
+
+    private CoinData spend(byte[] address, byte[] nonce) {
+        CoinData coinData = new CoinData();
+        coinData.addFrom(new CoinFrom(address, 1, 1, BigInteger.ONE, nonce, (byte) 0));
+        return coinData;
+    }
+
+    private static byte[] nonceOf(ByteArrayWrapper hash) {
+        return Arrays.copyOfRange(hash.getBytes(), 24, 32);
+    }
+
+    @Test
+    public void pollByFeeRate() {
+        PackableTxQueue queue = new PackableTxQueue(100);
+        ByteArrayWrapper low = hash();
+        ByteArrayWrapper high = hash();
+        ByteArrayWrapper lowSecond = hash();
+        ByteArrayWrapper front = hash();
+        queue.offer(low, null, 100, evicted);
+        queue.offer(high, null, 500, evicted);
+        queue.offer(lowSecond, null, 100, evicted);
+        queue.offerFirst(front, null, 1);
+        Assert.assertEquals(4, queue.size());
+        Assert.assertTrue(queue.contains(low));
+        Assert.assertEquals(front, queue.poll());
+        Assert.assertEquals(high, queue.poll());
+        Assert.assertEquals(low, queue.poll());
+        Assert.assertEquals(lowSecond, queue.poll());
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void nonceOrderIsKept() {
+        PackableTxQueue queue = new PackableTxQueue(100);
+        ByteArrayWrapper parent = hash();
+        ByteArrayWrapper child = hash();
+        ByteArrayWrapper other = hash();
+        queue.offer(parent, spend(address, new byte[8]), 100, evicted);
+        queue.offer(child, spend(address, nonceOf(parent)), 1000, evicted);
+        queue.offer(other, null, 200, evicted);
+        Assert.assertEquals(other, queue.poll());
+        Assert.assertEquals(parent, queue.poll());
+        Assert.assertEquals(child, queue.poll());
+
+        queue.offer(parent, spend(address, new byte[8]), 100, evicted);
+        queue.offer(child, spend(address, nonceOf(parent)), 1000, evicted);
+        Assert.assertEquals(child, queue.pollLast());
+        Assert.assertEquals(parent, queue.pollLast());
+        Assert.assertNull(queue.pollLast());
+    }
+
+    @Test
+    public void lowestFeeRateIsEvicted() {
+        PackableTxQueue queue = new PackableTxQueue(3);
+        ByteArrayWrapper parent = hash();
+        ByteArrayWrapper child = hash();
+        ByteArrayWrapper middle = hash();
+        queue.offer(parent, spend(address, new byte[8]), 10, evicted);
+        queue.offer(child, spend(address, nonceOf(parent)), 1000, evicted);
+        queue.offer(middle, null, 50, evicted);
+        Assert.assertFalse(queue.offer(hash(), null, 10, evicted));
+
+        ByteArrayWrapper high = hash();
+        Assert.assertTrue(queue.offer(high, null, 80, evicted));
+        Assert.assertEquals(Arrays.asList(parent, child), evicted);
+        Assert.assertEquals(2, queue.size());
+        Assert.assertFalse(queue.contains(child));
+        Assert.assertEquals(high, queue.poll());
+        Assert.assertEquals(middle, queue.poll());
+    }
+
+    @Test
+    public void blockedAndFrontSpendersAreEvicted() {
+        PackableTxQueue queue = new PackableTxQueue(3);
+        ByteArrayWrapper parent = hash();
+        ByteArrayWrapper child = hash();
+        ByteArrayWrapper other = hash();
+        queue.offer(parent, spend(address, new byte[8]), 100, evicted);
+        queue.offer(child, spend(address, nonceOf(parent)), 5, evicted);
+        queue.offer(other, null, 50, evicted);
+        //等待中的低手续费交易也会被淘汰
+        ByteArrayWrapper high = hash();
+        Assert.assertTrue(queue.offer(high, null, 60, evicted));
+        Assert.assertEquals(Arrays.asList(child), evicted);
+        Assert.assertTrue(queue.contains(other));
+
+        //放回队首的交易使用了被淘汰交易的nonce, 一起淘汰
+        evicted.clear();
+        ByteArrayWrapper lowParent = hash();
+        byte[] otherAddress = new byte[23];
+        otherAddress[0] = 1;
+        queue.remove(parent);
+        queue.offer(lowParent, spend(otherAddress, new byte[8]), 1, evicted);
+        ByteArrayWrapper frontChild = hash();
+        queue.offerFirst(frontChild, spend(otherAddress, nonceOf(lowParent)), 1000);
+        Assert.assertTrue(queue.offer(hash(), null, 70, evicted));
+        Assert.assertEquals(Arrays.asList(lowParent, frontChild), evicted);
+        Assert.assertFalse(queue.contains(frontChild));
+    }
+
+    @Test
+    public void concurrentOfferAndPoll() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue(1000000);
+        int threads = 4;
+        int perThread = 20000;
+        Set<ByteArrayWrapper> polled = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                Random threadRandom = new Random();
+                for (int i = 0; i < perThread; i++) {
+                    byte[] bytes = new byte[32];
+                    threadRandom.nextBytes(bytes);
+                    ByteArrayWrapper hash = new ByteArrayWrapper(bytes);
+                    Assert.assertTrue(queue.offer(hash, null, threadRandom.nextInt(100), new ArrayList<>()));
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ByteArrayWrapper hash = queue.poll();
+                    if (hash != null) {
+                        Assert.assertTrue(polled.add(hash));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        ByteArrayWrapper hash;
+        while ((hash = queue.poll()) != null) {
+            Assert.assertTrue(polled.add(hash));
+        }
+        Assert.assertEquals(threads * perThread, polled.size());
+        Assert.assertEquals(0, queue.size());
+    }
+}